@@ -0,0 +1,177 @@
+package com.edusprint.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Weight-bounded, least-recently-used in-memory cache shared by the node-local caches.
+ * Keys are spread over up to 16 independently locked segments so concurrent readers rarely
+ * contend; each segment holds an equal share of the weight bound and, once over it, drops its
+ * least recently read entries. A value heavier than a segment's share is not cached.
+ * Expiry is left to callers: values carry their own deadline and a stale value is removed
+ * (or replaced) when it is read.
+ */
+public final class BoundedLruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_WEIGHT = 64;
+
+    private final Segment<K, V>[] segments;
+    private final ToIntFunction<? super V> weigher;
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Cache of at most maxEntries entries
+     */
+    public BoundedLruCache(long maxEntries) {
+        this(maxEntries, 1, value -> 1);
+    }
+
+    /**
+     * Cache bounded by the total weight of its values
+     *
+     * @param maxEntryWeight heaviest value that must still fit, which limits how finely the bound is split
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedLruCache(long maxWeight, int maxEntryWeight, ToIntFunction<? super V> weigher) {
+        long perSegment = Math.max(MIN_SEGMENT_WEIGHT, maxEntryWeight);
+        int count = Integer.highestOneBit((int) Math.max(1, Math.min(MAX_SEGMENTS, maxWeight / perSegment)));
+        this.segments = new Segment[count];
+        long segmentWeight = Math.max(1, (maxWeight + count - 1) / count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(segmentWeight);
+        }
+        this.weigher = weigher;
+    }
+
+    /**
+     * Cached value, or null; a hit makes the entry the most recently used of its segment
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.entries.get(key);
+        }
+    }
+
+    /**
+     * Cache a value, evicting least recently used entries of its segment to stay under the bound
+     */
+    public void put(K key, V value) {
+        int valueWeight = Math.max(1, weigher.applyAsInt(value));
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V previous = segment.entries.remove(key);
+            if (previous != null) {
+                segment.weight -= weigh(previous);
+            }
+            if (valueWeight > segment.maxWeight) {
+                return;
+            }
+            segment.entries.put(key, value);
+            segment.weight += valueWeight;
+            Iterator<V> eldest = segment.entries.values().iterator();
+            while (segment.weight > segment.maxWeight && eldest.hasNext()) {
+                segment.weight -= weigh(eldest.next());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V removed = segment.entries.remove(key);
+            if (removed != null) {
+                segment.weight -= weigh(removed);
+            }
+        }
+    }
+
+    /**
+     * Remove the entry only if it still maps to the given value
+     */
+    public void remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.entries.remove(key, value)) {
+                segment.weight -= weigh(value);
+            }
+        }
+    }
+
+    public void removeIf(BiPredicate<? super K, ? super V> filter) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                Iterator<Map.Entry<K, V>> it = segment.entries.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<K, V> entry = it.next();
+                    if (filter.test(entry.getKey(), entry.getValue())) {
+                        segment.weight -= weigh(entry.getValue());
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public long weight() {
+        long weight = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Entries dropped to stay under the bound since the cache was created
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    private int weigh(V value) {
+        return Math.max(1, weigher.applyAsInt(value));
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxWeight;
+        private long weight;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.edusprint.controller;
+
+import com.edusprint.dto.RosterImportResult;
+import com.edusprint.repository.GradingJobQueueRepository;
+import com.edusprint.service.AuthService;
+import com.edusprint.service.RosterImportService;
+import com.edusprint.service.SubjectCatalog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admin Controller
+ * Endpoints: /api/admin/* (admin authority required, see SecurityConfig)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Administrative user management endpoints")
+public class AdminController {
+
+    private final AuthService authService;
+    private final RosterImportService rosterImportService;
+    private final GradingJobQueueRepository gradingJobQueue;
+    private final SubjectCatalog subjectCatalog;
+
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson", "text/plain"})
+    @Operation(summary = "Import student roster",
+            description = "Create student accounts in bulk from CSV (name,email,password[,institution]) or NDJSON")
+    public ResponseEntity<?> importRoster(@RequestParam(defaultValue = "csv") String format,
+                                          @RequestParam(required = false) String institution,
+                                          HttpServletRequest request) {
+        try {
+            RosterImportResult result = rosterImportService.importRoster(request.getInputStream(), format, institution);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error reading roster upload", e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Could not read roster: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/users/{id}/revoke-sessions")
+    @Operation(summary = "Revoke sessions", description = "Invalidate every token issued to the user")
+    public ResponseEntity<?> revokeSessions(@PathVariable UUID id) {
+        try {
+            authService.revokeSessions(id);
+            return ResponseEntity.ok(Map.of("message", "Sessions revoked successfully"));
+        } catch (RuntimeException e) {
+            log.error("Error revoking sessions for user: {}", id, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/users/{id}/active")
+    @Operation(summary = "Set user active flag", description = "Activate or deactivate a user; deactivation revokes sessions")
+    public ResponseEntity<?> setUserActive(@PathVariable UUID id, @RequestBody Map<String, Boolean> request) {
+        try {
+            Boolean active = request.get("active");
+            if (active == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Active flag is required"));
+            }
+
+            authService.setUserActive(id, active);
+            return ResponseEntity.ok(Map.of("message", active ? "User activated" : "User deactivated"));
+        } catch (RuntimeException e) {
+            log.error("Error updating active flag for user: {}", id, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/grading-queue/requeue-dead")
+    @Operation(summary = "Requeue dead grading jobs", description = "Give every dead-lettered grading job a fresh set of attempts")
+    public ResponseEntity<?> requeueDeadGradingJobs() {
+        int requeued = gradingJobQueue.requeueDead();
+        log.info("Requeued {} dead grading jobs", requeued);
+        return ResponseEntity.ok(Map.of("requeued", requeued));
+    }
+
+    @PostMapping("/subject-catalog/refresh")
+    @Operation(summary = "Refresh subject catalog", description = "Rebuild this node's subject catalog snapshot from the database")
+    public ResponseEntity<?> refreshSubjectCatalog() {
+        SubjectCatalog.Snapshot snapshot = subjectCatalog.refresh();
+        log.info("Subject catalog refreshed: version {}", snapshot.version());
+        return ResponseEntity.ok(Map.of("version", snapshot.version(), "subjects", snapshot.subjects().size(),
+                "etag", snapshot.etag()));
+    }
+}
@@ -1,20 +1,39 @@
 package com.edusprint.controller;
 
 import com.edusprint.dto.GradeDTO;
+import com.edusprint.dto.GradeImportResult;
 import com.edusprint.dto.GradeOverrideRequest;
+import com.edusprint.dto.ReviewQueueCountsDTO;
+import com.edusprint.dto.ReviewQueuePage;
+import com.edusprint.dto.SimilarityPairDTO;
+import com.edusprint.dto.StudentAnalyticsDTO;
+import com.edusprint.dto.TaskScoreStatsDTO;
 import com.edusprint.entity.GradeOverride;
+import com.edusprint.security.CurrentUserResolver;
+import com.edusprint.service.GradeAnalyticsService;
+import com.edusprint.service.GradeImportService;
+import com.edusprint.service.GradebookExportService;
 import com.edusprint.service.GradingService;
+import com.edusprint.service.ReviewQueueService;
+import com.edusprint.service.SimilarityService;
+import com.edusprint.service.TaskScoreStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -23,12 +42,21 @@ import java.util.Map;
 public class GradingController {
 
     private final GradingService gradingService;
+    private final SimilarityService similarityService;
+    private final GradebookExportService gradebookExportService;
+    private final GradeImportService gradeImportService;
+    private final GradeAnalyticsService gradeAnalyticsService;
+    private final TaskScoreStatsService taskScoreStatsService;
+    private final ReviewQueueService reviewQueueService;
+    private final CurrentUserResolver currentUserResolver;
 
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<GradeDTO>> getGradesByStudent(@PathVariable Long studentId) {
+    public ResponseEntity<List<GradeDTO>> getGradesByStudent(@PathVariable UUID studentId) {
         try {
-            List<GradeDTO> grades = gradingService.getGradesByStudent(studentId);
+            List<GradeDTO> grades = gradingService.getGradesByStudent(studentId, currentUserResolver.currentUserId());
             return ResponseEntity.ok(grades);
+        } catch (AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting grades for student: {}", studentId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -36,10 +64,12 @@ public class GradingController {
     }
 
     @GetMapping("/subject/{subjectId}")
-    public ResponseEntity<List<GradeDTO>> getGradesBySubject(@PathVariable Long subjectId) {
+    public ResponseEntity<List<GradeDTO>> getGradesBySubject(@PathVariable UUID subjectId) {
         try {
-            List<GradeDTO> grades = gradingService.getGradesBySubject(subjectId);
+            List<GradeDTO> grades = gradingService.getGradesBySubject(subjectId, currentUserResolver.currentUserId());
             return ResponseEntity.ok(grades);
+        } catch (AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting grades for subject: {}", subjectId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -47,10 +77,12 @@ public class GradingController {
     }
 
     @GetMapping("/task/{taskId}")
-    public ResponseEntity<List<GradeDTO>> getGradesByTask(@PathVariable Long taskId) {
+    public ResponseEntity<List<GradeDTO>> getGradesByTask(@PathVariable UUID taskId) {
         try {
-            List<GradeDTO> grades = gradingService.getGradesByTask(taskId);
+            List<GradeDTO> grades = gradingService.getGradesByTask(taskId, currentUserResolver.currentUserId());
             return ResponseEntity.ok(grades);
+        } catch (AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting grades for task: {}", taskId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -58,30 +90,71 @@ public class GradingController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<GradeDTO> getGradeById(@PathVariable Long id) {
+    public ResponseEntity<GradeDTO> getGradeById(@PathVariable UUID id) {
         try {
-            return gradingService.getGradeById(id)
+            return gradingService.getGradeById(id, currentUserResolver.currentUserId())
                     .map(grade -> ResponseEntity.ok(grade))
                     .orElse(ResponseEntity.notFound().build());
+        } catch (AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting grade: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * The current faculty member's grades awaiting review, most urgent first
+     */
+    @GetMapping("/review-queue")
+    public ResponseEntity<?> getReviewQueue(@RequestParam(required = false) UUID subjectId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            ReviewQueuePage page = reviewQueueService.getQueue(facultyId, subjectId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            log.error("Error getting review queue", e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Badge counts of the review queue (maintained counters, no COUNT over grades)
+     */
+    @GetMapping("/review-queue/counts")
+    public ResponseEntity<?> getReviewQueueCounts() {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            ReviewQueueCountsDTO counts = reviewQueueService.getCounts(facultyId);
+            return ResponseEntity.ok(counts);
+        } catch (RuntimeException e) {
+            log.error("Error getting review queue counts", e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/auto-grade")
-    public ResponseEntity<?> autoGradeSubmission(@RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> autoGradeSubmission(@RequestBody Map<String, UUID> request) {
         try {
-            Long taskId = request.get("taskId");
-            Long studentId = request.get("studentId");
+            UUID facultyId = currentUserResolver.currentUserId();
+            UUID taskId = request.get("taskId");
+            UUID studentId = request.get("studentId");
             
             if (taskId == null || studentId == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Task ID and Student ID are required"));
             }
 
-            GradeDTO grade = gradingService.autoGradeSubmission(taskId, studentId);
+            GradeDTO grade = gradingService.autoGradeSubmission(taskId, studentId, facultyId);
             return ResponseEntity.status(HttpStatus.CREATED).body(grade);
+        } catch (AccessDeniedException e) {
+            throw e;
         } catch (RuntimeException e) {
             log.error("Error auto-grading submission", e);
             return ResponseEntity.badRequest()
@@ -93,19 +166,19 @@ public class GradingController {
     }
 
     @PutMapping("/{id}/review")
-    public ResponseEntity<?> facultyReviewGrade(@PathVariable Long id, 
+    public ResponseEntity<?> facultyReviewGrade(@PathVariable UUID id, 
                                                @RequestBody Map<String, Object> request) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
-            Double facultyScore = Double.valueOf(request.get("facultyScore").toString());
+            Object rawScore = request.get("facultyScore");
             String facultyFeedback = (String) request.get("facultyFeedback");
 
-            if (facultyScore == null || facultyFeedback == null) {
+            if (rawScore == null || facultyFeedback == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Faculty score and feedback are required"));
             }
+            BigDecimal facultyScore = new BigDecimal(rawScore.toString());
 
             GradeDTO grade = gradingService.facultyReviewGrade(id, facultyScore, facultyFeedback, facultyId);
             return ResponseEntity.ok(grade);
@@ -120,11 +193,10 @@ public class GradingController {
     }
 
     @PostMapping("/{id}/override")
-    public ResponseEntity<?> overrideGrade(@PathVariable Long id, 
+    public ResponseEntity<?> overrideGrade(@PathVariable UUID id, 
                                           @Valid @RequestBody GradeOverrideRequest request) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
             gradingService.overrideGrade(id, request, facultyId);
             return ResponseEntity.ok(Map.of("message", "Grade overridden successfully"));
@@ -139,13 +211,195 @@ public class GradingController {
     }
 
     @GetMapping("/{id}/overrides")
-    public ResponseEntity<List<GradeOverride>> getGradeOverrides(@PathVariable Long id) {
+    public ResponseEntity<List<GradeOverride>> getGradeOverrides(@PathVariable UUID id) {
         try {
-            List<GradeOverride> overrides = gradingService.getGradeOverrides(id);
+            List<GradeOverride> overrides = gradingService.getGradeOverrides(id, currentUserResolver.currentUserId());
             return ResponseEntity.ok(overrides);
+        } catch (AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting grade overrides for grade: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Queue every ungraded submission of a task on the durable grading queue; progress is in /queue
+     */
+    @PostMapping({"/task/{taskId}/batch", "/task/{taskId}/enqueue"})
+    public ResponseEntity<?> enqueueTaskGrading(@PathVariable UUID taskId) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            int queued = gradingService.enqueueTaskGrading(taskId, facultyId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("queued", queued));
+        } catch (RuntimeException e) {
+            log.error("Error queueing grading jobs for task: {}", taskId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<Map<String, Long>> getQueueStats(@RequestParam(required = false) UUID taskId) {
+        return ResponseEntity.ok(gradingService.getQueueStats(taskId, currentUserResolver.currentUserId()));
+    }
+
+    @GetMapping("/task/{taskId}/similarity")
+    public ResponseEntity<?> getTaskSimilarityReport(@PathVariable UUID taskId,
+                                                     @RequestParam(required = false) Double minSimilarity,
+                                                     @RequestParam(required = false) Integer limit) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            List<SimilarityPairDTO> pairs = similarityService.getTaskReport(taskId, facultyId, minSimilarity, limit);
+            return ResponseEntity.ok(pairs);
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error getting similarity report for task: {}", taskId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Score distribution of a task (single-row read of task_score_stats)
+     */
+    @GetMapping("/task/{taskId}/stats")
+    public ResponseEntity<?> getTaskStats(@PathVariable UUID taskId,
+                                          @RequestParam(defaultValue = "10") int bins) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            TaskScoreStatsDTO stats = taskScoreStatsService.getStats(taskId, facultyId, bins);
+            return ResponseEntity.ok(stats);
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error getting score statistics for task: {}", taskId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/task/{taskId}/stats/rebuild")
+    public ResponseEntity<?> rebuildTaskStats(@PathVariable UUID taskId,
+                                              @RequestParam(defaultValue = "10") int bins) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            TaskScoreStatsDTO stats = taskScoreStatsService.rebuild(taskId, facultyId, bins);
+            return ResponseEntity.ok(stats);
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error rebuilding score statistics for task: {}", taskId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * A student's current standing in a subject (single-row read of student_analytics)
+     */
+    @GetMapping("/subject/{subjectId}/student/{studentId}/analytics")
+    public ResponseEntity<?> getStudentAnalytics(@PathVariable UUID subjectId, @PathVariable UUID studentId) {
+        try {
+            UUID requesterId = currentUserResolver.currentUserId();
+
+            StudentAnalyticsDTO analytics = gradeAnalyticsService.getAnalytics(studentId, subjectId, requesterId);
+            return ResponseEntity.ok(analytics);
+        } catch (RuntimeException e) {
+            log.error("Error getting analytics for student: {} in subject: {}", studentId, subjectId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Download the subject's gradebook (students x tasks) as CSV or XLSX, streamed as it is read
+     */
+    @GetMapping("/subject/{subjectId}/gradebook")
+    public ResponseEntity<?> exportGradebook(@PathVariable UUID subjectId,
+                                             @RequestParam(defaultValue = "csv") String format) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+            GradebookExportService.Format exportFormat = GradebookExportService.Format.parse(format);
+            String subjectCode = gradebookExportService.authorizeExport(subjectId, facultyId);
+
+            StreamingResponseBody body = out -> gradebookExportService.export(subjectId, exportFormat, subjectCode, out);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"" + subjectCode.replaceAll("[^A-Za-z0-9_-]", "_")
+                                    + "-gradebook." + exportFormat.extension() + "\"")
+                    .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                    .body(body);
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error exporting gradebook for subject: {}", subjectId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Import external scores for a subject from CSV (student_id or email, task_id, score[, feedback])
+     */
+    @PostMapping(value = "/subject/{subjectId}/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<?> importGrades(@PathVariable UUID subjectId,
+                                          @RequestParam(required = false) UUID taskId,
+                                          @RequestParam(required = false) String reason,
+                                          HttpServletRequest request) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            GradeImportResult result = gradeImportService.importGrades(subjectId, facultyId, taskId, reason,
+                    request.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            log.error("Error reading grade import for subject: {}", subjectId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Could not read grade file: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Error importing grades for subject: {}", subjectId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/subject/{subjectId}/similarity")
+    public ResponseEntity<?> getSubjectSimilarityReport(@PathVariable UUID subjectId,
+                                                        @RequestParam(required = false) Double minSimilarity,
+                                                        @RequestParam(required = false) Integer limit) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            List<SimilarityPairDTO> pairs = similarityService.getSubjectReport(subjectId, facultyId, minSimilarity, limit);
+            return ResponseEntity.ok(pairs);
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error getting similarity report for subject: {}", subjectId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/task/{taskId}/similarity/reindex")
+    public ResponseEntity<?> reindexTaskSimilarity(@PathVariable UUID taskId) {
+        try {
+            UUID facultyId = currentUserResolver.currentUserId();
+
+            int indexed = similarityService.reindexTask(taskId, facultyId);
+            return ResponseEntity.ok(Map.of("indexed", indexed));
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error re-indexing similarity for task: {}", taskId, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.edusprint.controller;
 
-import com.edusprint.entity.Penalty;
+import com.edusprint.dto.PenaltyDTO;
+import com.edusprint.dto.PenaltyRequest;
+import com.edusprint.security.CurrentUserResolver;
 import com.edusprint.service.PenaltyService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -17,23 +21,24 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class PenaltyController {
     private final PenaltyService penaltyService;
+    private final CurrentUserResolver currentUserResolver;
 
     @GetMapping
-    public ResponseEntity<List<Penalty>> getAllPenalties() {
+    public ResponseEntity<List<PenaltyDTO>> getAllPenalties() {
         return ResponseEntity.ok(penaltyService.getAllPenalties());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Penalty> getPenaltyById(@PathVariable Long id) {
+    public ResponseEntity<PenaltyDTO> getPenaltyById(@PathVariable UUID id) {
         return penaltyService.getPenaltyById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<?> createPenalty(@RequestBody Penalty penalty) {
+    public ResponseEntity<?> createPenalty(@Valid @RequestBody PenaltyRequest request) {
         try {
-            Penalty created = penaltyService.createPenalty(penalty);
+            PenaltyDTO created = penaltyService.createPenalty(request, currentUserResolver.currentUserId());
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (Exception e) {
             log.error("Error creating penalty", e);
@@ -42,9 +47,9 @@ public class PenaltyController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updatePenalty(@PathVariable Long id, @RequestBody Penalty penalty) {
+    public ResponseEntity<?> updatePenalty(@PathVariable UUID id, @Valid @RequestBody PenaltyRequest request) {
         try {
-            Penalty updated = penaltyService.updatePenalty(id, penalty);
+            PenaltyDTO updated = penaltyService.updatePenalty(id, request, currentUserResolver.currentUserId());
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
             log.error("Error updating penalty: {}", id, e);
@@ -53,9 +58,9 @@ public class PenaltyController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deletePenalty(@PathVariable Long id) {
+    public ResponseEntity<?> deletePenalty(@PathVariable UUID id) {
         try {
-            penaltyService.deletePenalty(id);
+            penaltyService.deletePenalty(id, currentUserResolver.currentUserId());
             return ResponseEntity.ok(Map.of("message", "Penalty deleted successfully"));
         } catch (Exception e) {
             log.error("Error deleting penalty: {}", id, e);
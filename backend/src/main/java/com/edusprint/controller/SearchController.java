@@ -0,0 +1,40 @@
+package com.edusprint.controller;
+
+import com.edusprint.dto.TypeaheadResultDTO;
+import com.edusprint.service.TypeaheadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Typeahead Search Controller
+ * Endpoints: /api/search/* (user search needs faculty or admin authority, see SecurityConfig)
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Prefix search for subjects and users")
+public class SearchController {
+
+    private final TypeaheadService typeaheadService;
+
+    @GetMapping("/subjects")
+    @Operation(summary = "Subject typeahead", description = "Subjects whose name or code words start with the query, best match first")
+    public ResponseEntity<List<TypeaheadResultDTO>> searchSubjects(@RequestParam("q") String query,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(defaultValue = "false") boolean includeInactive) {
+        return ResponseEntity.ok(typeaheadService.searchSubjects(query, limit, includeInactive));
+    }
+
+    @GetMapping("/users")
+    @Operation(summary = "User typeahead", description = "Active users whose name or email words start with the query, best match first")
+    public ResponseEntity<List<TypeaheadResultDTO>> searchUsers(@RequestParam("q") String query,
+                                                                @RequestParam(required = false) String role,
+                                                                @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(typeaheadService.searchUsers(query, role, limit));
+    }
+}
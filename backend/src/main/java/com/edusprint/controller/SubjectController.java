@@ -1,19 +1,26 @@
 package com.edusprint.controller;
 
+import com.edusprint.dto.BulkEnrollmentRequest;
+import com.edusprint.dto.BulkEnrollmentResult;
 import com.edusprint.dto.CreateSubjectRequest;
+import com.edusprint.dto.EnrollmentStatusDTO;
+import com.edusprint.dto.SubjectCapacityDTO;
 import com.edusprint.dto.SubjectDTO;
+import com.edusprint.security.CurrentUserResolver;
+import com.edusprint.service.SubjectCatalog;
 import com.edusprint.service.SubjectService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -21,21 +28,23 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SubjectController {
 
+    private static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+
     private final SubjectService subjectService;
+    private final SubjectCatalog subjectCatalog;
+    private final CurrentUserResolver currentUserResolver;
 
+    /**
+     * The whole catalog, as the snapshot's pre-serialized body; 304 when If-None-Match still matches
+     */
     @GetMapping
-    public ResponseEntity<List<SubjectDTO>> getAllSubjects() {
-        try {
-            List<SubjectDTO> subjects = subjectService.getAllSubjects();
-            return ResponseEntity.ok(subjects);
-        } catch (Exception e) {
-            log.error("Error getting all subjects", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<byte[]> getAllSubjects(WebRequest request) {
+        SubjectCatalog.Snapshot snapshot = subjectCatalog.snapshot();
+        return catalogResponse(request, snapshot.body(), snapshot.etag(), snapshot.version());
     }
 
     @GetMapping("/faculty/{facultyId}")
-    public ResponseEntity<List<SubjectDTO>> getSubjectsByFaculty(@PathVariable Long facultyId) {
+    public ResponseEntity<List<SubjectDTO>> getSubjectsByFaculty(@PathVariable UUID facultyId) {
         try {
             List<SubjectDTO> subjects = subjectService.getSubjectsByFaculty(facultyId);
             return ResponseEntity.ok(subjects);
@@ -46,7 +55,7 @@ public class SubjectController {
     }
 
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<SubjectDTO>> getSubjectsByStudent(@PathVariable Long studentId) {
+    public ResponseEntity<List<SubjectDTO>> getSubjectsByStudent(@PathVariable UUID studentId) {
         try {
             List<SubjectDTO> subjects = subjectService.getSubjectsByStudent(studentId);
             return ResponseEntity.ok(subjects);
@@ -57,22 +66,19 @@ public class SubjectController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SubjectDTO> getSubjectById(@PathVariable Long id) {
-        try {
-            return subjectService.getSubjectById(id)
-                    .map(subject -> ResponseEntity.ok(subject))
-                    .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            log.error("Error getting subject: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public ResponseEntity<byte[]> getSubjectById(@PathVariable UUID id, WebRequest request) {
+        SubjectCatalog.Snapshot snapshot = subjectCatalog.snapshot();
+        SubjectCatalog.Item item = snapshot.get(id);
+        if (item == null) {
+            return ResponseEntity.notFound().build();
         }
+        return catalogResponse(request, item.body(), item.etag(), snapshot.version());
     }
 
     @PostMapping
     public ResponseEntity<?> createSubject(@Valid @RequestBody CreateSubjectRequest request) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName()); // Assuming username is the user ID
+            UUID facultyId = currentUserResolver.currentUserId();
 
             SubjectDTO subject = subjectService.createSubject(request, facultyId);
             return ResponseEntity.status(HttpStatus.CREATED).body(subject);
@@ -87,11 +93,10 @@ public class SubjectController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateSubject(@PathVariable Long id, 
+    public ResponseEntity<?> updateSubject(@PathVariable UUID id, 
                                           @Valid @RequestBody CreateSubjectRequest request) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
             SubjectDTO subject = subjectService.updateSubject(id, request, facultyId);
             return ResponseEntity.ok(subject);
@@ -106,10 +111,9 @@ public class SubjectController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteSubject(@PathVariable Long id) {
+    public ResponseEntity<?> deleteSubject(@PathVariable UUID id) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
             subjectService.deleteSubject(id, facultyId);
             return ResponseEntity.ok(Map.of("message", "Subject deleted successfully"));
@@ -124,17 +128,17 @@ public class SubjectController {
     }
 
     @PostMapping("/{id}/enroll")
-    public ResponseEntity<?> enrollStudent(@PathVariable Long id, 
-                                          @RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> enrollStudent(@PathVariable UUID id, 
+                                          @RequestBody Map<String, UUID> request) {
         try {
-            Long studentId = request.get("studentId");
+            UUID studentId = request.get("studentId");
             if (studentId == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Student ID is required"));
             }
 
-            subjectService.enrollStudent(id, studentId);
-            return ResponseEntity.ok(Map.of("message", "Student enrolled successfully"));
+            EnrollmentStatusDTO status = subjectService.enrollStudent(id, studentId);
+            return ResponseEntity.ok(status);
         } catch (RuntimeException e) {
             log.error("Error enrolling student in subject: {}", id, e);
             return ResponseEntity.badRequest()
@@ -146,10 +150,10 @@ public class SubjectController {
     }
 
     @DeleteMapping("/{id}/enroll")
-    public ResponseEntity<?> unenrollStudent(@PathVariable Long id, 
-                                            @RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> unenrollStudent(@PathVariable UUID id, 
+                                            @RequestBody Map<String, UUID> request) {
         try {
-            Long studentId = request.get("studentId");
+            UUID studentId = request.get("studentId");
             if (studentId == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Student ID is required"));
@@ -166,4 +170,64 @@ public class SubjectController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Enroll a list of students (by ID or email) in one request, with a per-student outcome
+     */
+    @PostMapping("/{id}/enrollments/bulk")
+    public ResponseEntity<?> bulkEnroll(@PathVariable UUID id, @RequestBody BulkEnrollmentRequest request) {
+        try {
+            BulkEnrollmentResult result = subjectService.bulkEnroll(id, request, currentUserResolver.currentUserId());
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            log.error("Error bulk enrolling students in subject: {}", id, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Unenroll a list of students (by ID or email) in one request, with a per-student outcome
+     */
+    @PostMapping("/{id}/enrollments/bulk-remove")
+    public ResponseEntity<?> bulkUnenroll(@PathVariable UUID id, @RequestBody BulkEnrollmentRequest request) {
+        try {
+            BulkEnrollmentResult result = subjectService.bulkUnenroll(id, request, currentUserResolver.currentUserId());
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            log.error("Error bulk unenrolling students from subject: {}", id, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Set ({"maxStudents": n}) or clear ({"maxStudents": null}) the seat limit of a subject
+     */
+    @PutMapping("/{id}/capacity")
+    public ResponseEntity<?> updateCapacity(@PathVariable UUID id, @RequestBody Map<String, Integer> request) {
+        try {
+            SubjectCapacityDTO capacity = subjectService.updateCapacity(id, request.get("maxStudents"),
+                    currentUserResolver.currentUserId());
+            return ResponseEntity.ok(capacity);
+        } catch (RuntimeException e) {
+            log.error("Error updating capacity of subject: {}", id, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<byte[]> catalogResponse(WebRequest request, byte[] body, String etag, long version) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(CATALOG_VERSION_HEADER, String.valueOf(version))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(CATALOG_VERSION_HEADER, String.valueOf(version))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
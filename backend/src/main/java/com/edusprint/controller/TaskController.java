@@ -1,18 +1,22 @@
 package com.edusprint.controller;
 
 import com.edusprint.dto.TaskDTO;
+import com.edusprint.dto.TaskFilter;
+import com.edusprint.dto.TaskPage;
+import com.edusprint.security.CurrentUserResolver;
 import com.edusprint.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -21,23 +25,49 @@ import java.util.Map;
 public class TaskController {
 
     private final TaskService taskService;
+    private final CurrentUserResolver currentUserResolver;
 
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
+    public ResponseEntity<?> getTasks(
+            @RequestParam(required = false) UUID subjectId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String taskType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) UUID studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<TaskDTO> tasks = taskService.getAllTasks();
-            return ResponseEntity.ok(tasks);
+            TaskFilter filter = TaskFilter.builder()
+                    .subjectId(subjectId)
+                    .status(status)
+                    .taskType(taskType)
+                    .dueFrom(dueFrom)
+                    .dueTo(dueTo)
+                    .studentId(studentId)
+                    .build();
+            TaskPage page = taskService.getTaskPage(filter, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            log.error("Error getting all tasks", e);
+            log.error("Error listing tasks", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @GetMapping("/subject/{subjectId}")
-    public ResponseEntity<List<TaskDTO>> getTasksBySubject(@PathVariable Long subjectId) {
+    public ResponseEntity<?> getTasksBySubject(
+            @PathVariable UUID subjectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<TaskDTO> tasks = taskService.getTasksBySubject(subjectId);
-            return ResponseEntity.ok(tasks);
+            TaskPage page = taskService.getTasksBySubject(subjectId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error getting tasks for subject: {}", subjectId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -45,7 +75,7 @@ public class TaskController {
     }
 
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<TaskDTO>> getTasksByStudent(@PathVariable Long studentId) {
+    public ResponseEntity<List<TaskDTO>> getTasksByStudent(@PathVariable UUID studentId) {
         try {
             List<TaskDTO> tasks = taskService.getTasksByStudent(studentId);
             return ResponseEntity.ok(tasks);
@@ -56,7 +86,7 @@ public class TaskController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable UUID id) {
         try {
             return taskService.getTaskById(id)
                     .map(task -> ResponseEntity.ok(task))
@@ -70,8 +100,7 @@ public class TaskController {
     @PostMapping
     public ResponseEntity<?> createTask(@Valid @RequestBody TaskDTO taskDTO) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
             TaskDTO task = taskService.createTask(taskDTO, facultyId);
             return ResponseEntity.status(HttpStatus.CREATED).body(task);
@@ -86,11 +115,10 @@ public class TaskController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTask(@PathVariable Long id, 
+    public ResponseEntity<?> updateTask(@PathVariable UUID id, 
                                        @Valid @RequestBody TaskDTO taskDTO) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
             TaskDTO task = taskService.updateTask(id, taskDTO, facultyId);
             return ResponseEntity.ok(task);
@@ -105,10 +133,9 @@ public class TaskController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteTask(@PathVariable Long id) {
+    public ResponseEntity<?> deleteTask(@PathVariable UUID id) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long facultyId = Long.valueOf(auth.getName());
+            UUID facultyId = currentUserResolver.currentUserId();
 
             taskService.deleteTask(id, facultyId);
             return ResponseEntity.ok(Map.of("message", "Task deleted successfully"));
@@ -123,10 +150,10 @@ public class TaskController {
     }
 
     @PostMapping("/{id}/assign")
-    public ResponseEntity<?> assignTask(@PathVariable Long id, 
-                                       @RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> assignTask(@PathVariable UUID id, 
+                                       @RequestBody Map<String, UUID> request) {
         try {
-            Long studentId = request.get("studentId");
+            UUID studentId = request.get("studentId");
             if (studentId == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Student ID is required"));
@@ -144,12 +171,28 @@ public class TaskController {
         }
     }
 
+    @PostMapping("/{id}/assign-all")
+    public ResponseEntity<?> assignTaskToSubject(@PathVariable UUID id,
+                                                 @RequestBody(required = false) Map<String, List<UUID>> request) {
+        try {
+            List<UUID> studentIds = request == null ? null : request.get("studentIds");
+            int assigned = taskService.assignTaskToSubject(id, studentIds, currentUserResolver.currentUserId());
+            return ResponseEntity.ok(Map.of("message", "Task assigned successfully", "assigned", assigned));
+        } catch (RuntimeException e) {
+            log.error("Error assigning task to subject: {}", id, e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error assigning task to subject: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/{id}/submit")
-    public ResponseEntity<?> submitTask(@PathVariable Long id, 
+    public ResponseEntity<?> submitTask(@PathVariable UUID id, 
                                        @RequestBody Map<String, String> request) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Long studentId = Long.valueOf(auth.getName());
+            UUID studentId = currentUserResolver.currentUserId();
 
             String submissionText = request.get("submissionText");
             if (submissionText == null || submissionText.trim().isEmpty()) {
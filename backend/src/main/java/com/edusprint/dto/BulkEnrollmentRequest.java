@@ -0,0 +1,22 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Students to enroll in or unenroll from a subject, by ID and/or email
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRequest {
+
+    private List<UUID> studentIds;
+    private List<String> emails;
+}
@@ -0,0 +1,38 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk enrollment report: totals, the subject's new student count and one outcome per requested student
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResult {
+
+    private UUID subjectId;
+    private int requested;
+    private int changed; // enrolled or unenrolled by this request
+    private int unchanged; // already (not) enrolled
+    private int failed;
+    private Integer studentCount;
+    private List<Outcome> outcomes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private String student; // ID or email as given
+        private UUID studentId;
+        private String status; // "enrolled", "already-enrolled", "unenrolled", "not-enrolled", "not-found", "not-student", "duplicate"
+        private String message;
+    }
+}
@@ -0,0 +1,23 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a single enrollment request: a seat, or a place on the waitlist
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentStatusDTO {
+
+    private UUID subjectId;
+    private UUID studentId;
+    private String status; // "enrolled", "waitlisted"
+    private Integer waitlistPosition; // 1-based, only when waitlisted
+}
@@ -0,0 +1,39 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * External grade import report: totals plus one entry per row that was not applied
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeImportResult {
+
+    private int total;
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private long durationMs;
+    private List<RejectedRow> rejectedRows;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private int line;
+        private String student; // email or id as given in the file
+        private UUID taskId;
+        private String status; // "invalid", "not-enrolled", "unknown-task", "duplicate", "failed"
+        private String message;
+    }
+}
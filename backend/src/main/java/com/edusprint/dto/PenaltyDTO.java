@@ -0,0 +1,26 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Penalty applied to a student's task result
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PenaltyDTO {
+
+    private UUID id;
+    private UUID taskId;
+    private UUID studentId;
+    private Integer penaltyPercent;
+    private String reason;
+    private LocalDateTime appliedAt;
+}
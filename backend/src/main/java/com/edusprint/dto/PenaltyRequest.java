@@ -0,0 +1,34 @@
+package com.edusprint.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Create or update a penalty on a student's task result
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PenaltyRequest {
+
+    @NotNull(message = "Task ID is required")
+    private UUID taskId;
+
+    @NotNull(message = "Student ID is required")
+    private UUID studentId;
+
+    @NotNull(message = "Penalty percent is required")
+    @Min(value = 0, message = "Penalty percent must be between 0 and 100")
+    @Max(value = 100, message = "Penalty percent must be between 0 and 100")
+    private Integer penaltyPercent;
+
+    private String reason;
+}
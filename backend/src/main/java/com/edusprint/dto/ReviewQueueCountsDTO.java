@@ -0,0 +1,32 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Badge counts of a faculty member's review queue
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueCountsDTO {
+
+    private int open;
+    private int disputed;
+    private List<SubjectCount> subjects;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SubjectCount {
+        private UUID subjectId;
+        private int open;
+        private int disputed;
+    }
+}
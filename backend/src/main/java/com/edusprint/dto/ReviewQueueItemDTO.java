@@ -0,0 +1,34 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A grade waiting in a faculty member's review queue
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueItemDTO {
+
+    private UUID gradeId;
+    private UUID taskId;
+    private String taskTitle;
+    private UUID subjectId;
+    private UUID studentId;
+    private String studentName;
+    private String status;
+    private BigDecimal autoScore;
+    private BigDecimal finalScore;
+    private LocalDateTime submittedAt;
+    private LocalDateTime dueDate;
+    private int openDisputes;
+    private long priorityKey; // lower is more urgent
+}
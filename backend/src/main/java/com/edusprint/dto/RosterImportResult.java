@@ -0,0 +1,38 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk roster import report: totals plus one entry per input row
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterImportResult {
+
+    private int total;
+    private int created;
+    private int skipped;
+    private int failed;
+    private long durationMs;
+    private List<RowResult> rows;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int line;
+        private String email;
+        private String status; // "created", "exists", "duplicate", "invalid", "failed"
+        private String message;
+        private UUID userId;
+    }
+}
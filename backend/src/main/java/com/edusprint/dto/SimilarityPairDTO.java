@@ -0,0 +1,29 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pair of submissions flagged as near-duplicates, with the MinHash estimate of their Jaccard similarity
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarityPairDTO {
+
+    private UUID assignmentA;
+    private UUID taskA;
+    private UUID studentA;
+    private UUID assignmentB;
+    private UUID taskB;
+    private UUID studentB;
+    private BigDecimal similarity;
+    private LocalDateTime detectedAt;
+}
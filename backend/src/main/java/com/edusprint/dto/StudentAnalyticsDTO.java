@@ -0,0 +1,33 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A student's standing in one subject, read from student_analytics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAnalyticsDTO {
+
+    private UUID studentId;
+    private UUID subjectId;
+    private BigDecimal currentGrade; // weighted percentage over graded tasks
+    private BigDecimal averageScore; // unweighted mean percentage over graded tasks
+    private int totalTasks;
+    private int completedTasks;
+    private int gradedTasks;
+    private int onTimeSubmissions;
+    private int lateSubmissions;
+    private int missingSubmissions;
+    private boolean atRisk;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Seat limit of a subject after a capacity change
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectCapacityDTO {
+
+    private UUID subjectId;
+    private Integer maxStudents; // null = unlimited
+    private Integer studentCount;
+    private int promoted; // waitlisted students enrolled by this change
+}
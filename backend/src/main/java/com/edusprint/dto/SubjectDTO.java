@@ -22,6 +22,9 @@ public class SubjectDTO {
     private String code;
     private String description;
     private UUID faculty; // Faculty ID
+    private String facultyName;
     private Integer students; // Student count
+    private Integer maxStudents; // null = unlimited
+    private Boolean active;
     private LocalDateTime createdAt;
 }
@@ -24,6 +24,7 @@ public class TaskDTO {
     private UUID subjectId;
     private UUID studentId;
     private String status; // "not-started", "in-progress", "submitted", "graded"
+    private String taskType; // "assignment", "quiz", "exam", "project", "lab"
     private LocalDateTime dueDate;
     private Integer weight;
     private Integer maxScore;
@@ -0,0 +1,26 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Combinable filters for the paginated task listing; null fields are ignored
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilter {
+
+    private UUID subjectId;
+    private String status;
+    private String taskType;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueTo;
+    private UUID studentId;
+}
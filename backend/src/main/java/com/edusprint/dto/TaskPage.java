@@ -0,0 +1,21 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of tasks ordered by (dueDate, id); pass next back as cursor for the following page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPage {
+
+    private List<TaskDTO> items;
+    private String next; // null on the last page
+}
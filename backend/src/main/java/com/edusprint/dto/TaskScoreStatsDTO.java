@@ -0,0 +1,43 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Score distribution of a task, in penalty-adjusted percent of the max score
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskScoreStatsDTO {
+
+    private UUID taskId;
+    private Integer maxScore;
+    private long count;
+    private BigDecimal mean;
+    private BigDecimal standardDeviation;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal median;
+    private Map<String, BigDecimal> percentiles; // "p10", "p25", "p75", "p90"
+    private List<Bin> histogram;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Bin {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.edusprint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One typeahead suggestion, best match first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadResultDTO {
+
+    private UUID id;
+    private String title; // Subject or user name
+    private String subtitle; // Subject code or user email
+    private String kind; // "subject", or the user's role
+}
@@ -0,0 +1,51 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * AiGradingLog Entity - Model Call Audit Trail per Grade
+ * Written in batches by AiGradingLogWriter; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "ai_grading_logs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiGradingLog {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "grade_id", nullable = false)
+    private UUID gradeId;
+
+    @Column(name = "model_version", length = 50)
+    private String modelVersion;
+
+    @Column(name = "prompt_used", columnDefinition = "TEXT")
+    private String promptUsed;
+
+    @Column(name = "raw_response", columnDefinition = "TEXT")
+    private String rawResponse;
+
+    @Column(name = "confidence_score", precision = 5, scale = 2)
+    private BigDecimal confidenceScore;
+
+    @Column(name = "processing_time_ms")
+    private Integer processingTimeMs;
+
+    @Column(name = "tokens_used")
+    private Integer tokensUsed;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
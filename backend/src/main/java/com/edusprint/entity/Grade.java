@@ -39,7 +39,7 @@ public class Grade {
     @ToString.Exclude
     private User student;
 
-    @Column(name = "auto_score", precision = 5, scale = 2)
+    @Column(name = "ai_score", precision = 5, scale = 2)
     private BigDecimal autoScore;
 
     @Column(name = "final_score", precision = 5, scale = 2)
@@ -56,6 +56,14 @@ public class Grade {
     @Column(nullable = false, length = 20)
     private String status = "pending";
 
+    // Penalty-adjusted percentage last folded into student_analytics.
+    // Only GradeAnalyticsService writes these, so a stale entity save can never roll them back.
+    @Column(precision = 5, scale = 2, insertable = false, updatable = false)
+    private BigDecimal percentage;
+
+    @Column(name = "penalty_applied", precision = 5, scale = 2, insertable = false, updatable = false)
+    private BigDecimal penaltyApplied;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "graded_by")
     @ToString.Exclude
@@ -0,0 +1,56 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * GradeDispute Entity - Student Challenge to a Grade
+ */
+@Entity
+@Table(name = "grade_disputes", indexes = {
+    @Index(name = "idx_grade_disputes_grade", columnList = "grade_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeDispute {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "grade_id", nullable = false)
+    @ToString.Exclude
+    private Grade grade;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @ToString.Exclude
+    private User student;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String reason;
+
+    @Builder.Default
+    @Column(length = 20)
+    private String status = "pending";
+
+    @Column(columnDefinition = "TEXT")
+    private String resolution;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "resolved_by")
+    @ToString.Exclude
+    private User resolvedBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,64 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * GradingJob Entity - Durable Auto-Grading Queue Entry
+ * Claimed and updated through GradingJobQueueRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "grading_jobs", indexes = {
+    @Index(name = "idx_grading_jobs_status_available", columnList = "status, available_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingJob {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Builder.Default
+    @Column(nullable = false, length = 20)
+    private String status = "queued"; // "queued", "running", "completed", "dead"
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Builder.Default
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts = 5;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
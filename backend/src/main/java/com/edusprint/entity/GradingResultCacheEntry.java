@@ -0,0 +1,37 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * GradingResultCacheEntry Entity - Memoized Auto-Grading Result
+ * Written through GradingResultCacheRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "grading_result_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingResultCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal score;
+
+    @Column(columnDefinition = "TEXT")
+    private String feedback;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ReviewQueueCount Entity - Open Review Counter per Faculty and Subject
+ * Written through ReviewQueueRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "review_queue_counts", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"faculty_id", "subject_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueCount {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "faculty_id", nullable = false)
+    private UUID facultyId;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Column(name = "open_count", nullable = false)
+    private Integer openCount;
+
+    @Column(name = "disputed_count", nullable = false)
+    private Integer disputedCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,57 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ReviewQueueEntry Entity - Grade Awaiting Faculty Review
+ * Written through ReviewQueueRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "review_queue", indexes = {
+    @Index(name = "idx_review_queue_faculty_priority", columnList = "faculty_id, priority_key, grade_id"),
+    @Index(name = "idx_review_queue_subject_priority", columnList = "subject_id, priority_key, grade_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueEntry {
+
+    @Id
+    @Column(name = "grade_id")
+    private UUID gradeId;
+
+    @Column(name = "faculty_id", nullable = false)
+    private UUID facultyId;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "open_disputes", nullable = false)
+    private Integer openDisputes;
+
+    @Column(name = "priority_key", nullable = false)
+    private Long priorityKey;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,77 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * StudentAnalytics Entity - Per Student, Per Subject Grade Aggregate
+ * Written through StudentAnalyticsRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "student_analytics", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "subject_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAnalytics {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(name = "subject_id")
+    private UUID subjectId;
+
+    @Column(name = "total_tasks")
+    private Integer totalTasks;
+
+    @Column(name = "completed_tasks")
+    private Integer completedTasks;
+
+    @Column(name = "average_score", precision = 5, scale = 2)
+    private BigDecimal averageScore;
+
+    @Column(name = "current_grade", precision = 5, scale = 2)
+    private BigDecimal currentGrade;
+
+    @Column(name = "on_time_submissions")
+    private Integer onTimeSubmissions;
+
+    @Column(name = "late_submissions")
+    private Integer lateSubmissions;
+
+    @Column(name = "missing_submissions")
+    private Integer missingSubmissions;
+
+    @Column(name = "at_risk_flag")
+    private Boolean atRiskFlag;
+
+    @Column(name = "graded_tasks")
+    private Integer gradedTasks;
+
+    @Column(name = "graded_weight")
+    private Integer gradedWeight;
+
+    @Column(name = "weighted_percent_sum", precision = 14, scale = 4)
+    private BigDecimal weightedPercentSum;
+
+    @Column(name = "percent_sum", precision = 12, scale = 2)
+    private BigDecimal percentSum;
+
+    @Column(name = "last_calculated_at")
+    private LocalDateTime lastCalculatedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
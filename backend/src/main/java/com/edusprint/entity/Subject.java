@@ -39,10 +39,18 @@ public class Subject {
     @JoinColumn(name = "faculty_id", nullable = false)
     private User faculty;
 
+    // Maintained by atomic deltas in EnrollmentBulkRepository; never written back from a stale entity
     @Builder.Default
-    @Column(name = "student_count")
+    @Column(name = "student_count", updatable = false)
     private Integer studentCount = 0;
 
+    @Column(name = "max_students")
+    private Integer maxStudents; // null = unlimited
+
+    @Builder.Default
+    @Column(name = "is_active")
+    private Boolean active = true;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
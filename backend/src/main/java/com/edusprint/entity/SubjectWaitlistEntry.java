@@ -0,0 +1,36 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * SubjectWaitlistEntry Entity - A student queued for a seat in a full subject
+ * Written through SubjectWaitlistRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "subject_waitlist", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"subject_id", "student_id"})
+}, indexes = {
+    @Index(name = "idx_subject_waitlist_order", columnList = "subject_id, requested_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectWaitlistEntry {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+}
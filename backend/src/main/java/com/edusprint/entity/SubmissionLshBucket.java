@@ -0,0 +1,44 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * SubmissionLshBucket Entity - One LSH Band Bucket of a Submission Signature
+ * Written through SimilarityRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "submission_lsh_buckets", indexes = {
+    @Index(name = "idx_lsh_buckets_lookup", columnList = "subject_id, band, bucket")
+})
+@IdClass(SubmissionLshBucket.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionLshBucket {
+
+    @Id
+    @Column(name = "assignment_id")
+    private UUID assignmentId;
+
+    @Id
+    private Short band;
+
+    @Column(nullable = false)
+    private Long bucket;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID assignmentId;
+        private Short band;
+    }
+}
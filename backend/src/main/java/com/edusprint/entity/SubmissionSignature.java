@@ -0,0 +1,42 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * SubmissionSignature Entity - MinHash Signature of a Submission
+ * Written through SimilarityRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "submission_signatures")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSignature {
+
+    @Id
+    @Column(name = "assignment_id")
+    private UUID assignmentId;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(nullable = false, length = 1024)
+    private byte[] signature;
+
+    @Column(name = "shingle_count", nullable = false)
+    private Integer shingleCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
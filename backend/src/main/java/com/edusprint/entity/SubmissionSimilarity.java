@@ -0,0 +1,60 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * SubmissionSimilarity Entity - Flagged Near-Duplicate Submission Pair
+ * Written through SimilarityRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "submission_similarity")
+@IdClass(SubmissionSimilarity.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSimilarity {
+
+    @Id
+    @Column(name = "assignment_a")
+    private UUID assignmentA;
+
+    @Id
+    @Column(name = "assignment_b")
+    private UUID assignmentB;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Column(name = "task_a", nullable = false)
+    private UUID taskA;
+
+    @Column(name = "task_b", nullable = false)
+    private UUID taskB;
+
+    @Column(name = "student_a", nullable = false)
+    private UUID studentA;
+
+    @Column(name = "student_b", nullable = false)
+    private UUID studentB;
+
+    @Column(nullable = false, precision = 5, scale = 4)
+    private BigDecimal similarity;
+
+    @Column(name = "detected_at")
+    private LocalDateTime detectedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID assignmentA;
+        private UUID assignmentB;
+    }
+}
@@ -40,6 +40,10 @@ public class Task {
     @Column(nullable = false, length = 20)
     private String status = "not-started";
 
+    @Builder.Default
+    @Column(name = "task_type", length = 30)
+    private String taskType = "assignment";
+
     @Column(name = "due_date", nullable = false)
     private LocalDateTime dueDate;
 
@@ -54,6 +58,10 @@ public class Task {
     @Column(name = "penalty_percent")
     private Integer penaltyPercent = 0;
 
+    @Builder.Default
+    @Column(name = "ai_grading_enabled")
+    private Boolean aiGradingEnabled = true;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -5,6 +5,7 @@ import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -17,7 +18,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TaskDefinitionListener.class})
 public class TaskDefinition {
 
     @Id
@@ -35,6 +36,18 @@ public class TaskDefinition {
     @Column(name = "order_index", nullable = false)
     private Integer orderIndex;
 
+    @Builder.Default
+    @Column(precision = 5, scale = 2)
+    private BigDecimal points = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "is_mandatory")
+    private Boolean mandatory = true;
+
+    // Rubric keyword rules, see V8__Rubric_Keywords.sql for the format
+    @Column(columnDefinition = "TEXT")
+    private String keywords;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
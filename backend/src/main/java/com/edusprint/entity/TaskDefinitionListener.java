@@ -0,0 +1,28 @@
+package com.edusprint.entity;
+
+import com.edusprint.event.TaskDefinitionsChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes TaskDefinitionsChangedEvent for every checklist change made through JPA
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskDefinitionListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(TaskDefinition definition) {
+        if (definition.getTask() != null) {
+            eventPublisher.publishEvent(new TaskDefinitionsChangedEvent(definition.getTask().getId()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.edusprint.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * TaskScoreStats Entity - Encoded Score Distribution of a Task
+ * Written through TaskScoreStatsRepository; mapped here so the table exists under ddl-auto.
+ */
+@Entity
+@Table(name = "task_score_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskScoreStats {
+
+    @Id
+    @Column(name = "task_id")
+    private UUID taskId;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(length = 40000)
+    private byte[] distribution;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -7,6 +7,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 
@@ -35,12 +36,26 @@ public class User {
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
 
+    // Set when the user picks a new password; the token epoch follows this, not password_hash,
+    // so a rehash on login keeps existing tokens valid
+    @Column(name = "password_changed_at")
+    private LocalDateTime passwordChangedAt;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private UserRole role;
 
     private String institution;
 
+    @Builder.Default
+    @Column(name = "is_active")
+    private Boolean active = true;
+
+    // Only changed through UserRepository.incrementTokenEpoch so a stale entity never rolls it back
+    @Builder.Default
+    @Column(name = "token_epoch", nullable = false, updatable = false)
+    private Integer tokenEpoch = 0;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -70,6 +85,13 @@ public class User {
     @EqualsAndHashCode.Exclude
     private Set<SubjectEnrollment> enrollments;
 
+    /**
+     * Canonical form of an email: trimmed and lower-cased. New emails are stored in this form.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     public enum UserRole {
         student, faculty, admin
     }
@@ -0,0 +1,18 @@
+package com.edusprint.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when students gain or lose a seat in a subject (waitlist changes are not enrollments)
+ */
+public record EnrollmentChangedEvent(UUID subjectId, List<UUID> enrolled, List<UUID> unenrolled) {
+
+    public static EnrollmentChangedEvent enrolled(UUID subjectId, UUID studentId) {
+        return new EnrollmentChangedEvent(subjectId, List.of(studentId), List.of());
+    }
+
+    public static EnrollmentChangedEvent unenrolled(UUID subjectId, UUID studentId) {
+        return new EnrollmentChangedEvent(subjectId, List.of(), List.of(studentId));
+    }
+}
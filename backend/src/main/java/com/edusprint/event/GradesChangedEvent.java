@@ -0,0 +1,15 @@
+package com.edusprint.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when anything that feeds a student's task result changes: the grade itself,
+ * an override, or a penalty
+ */
+public record GradesChangedEvent(UUID taskId, List<UUID> studentIds) {
+
+    public static GradesChangedEvent of(UUID taskId, UUID studentId) {
+        return new GradesChangedEvent(taskId, List.of(studentId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.edusprint.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a subject is created, deleted, or its definition (name, faculty, capacity, ...)
+ * changes. Enrollment changes publish EnrollmentChangedEvent instead.
+ */
+public record SubjectCatalogChangedEvent(UUID subjectId) {
+}
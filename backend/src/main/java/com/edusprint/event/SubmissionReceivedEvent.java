@@ -0,0 +1,9 @@
+package com.edusprint.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a student submits (or resubmits) a task
+ */
+public record SubmissionReceivedEvent(UUID assignmentId, UUID taskId, UUID studentId) {
+}
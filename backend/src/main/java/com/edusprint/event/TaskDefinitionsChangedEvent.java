@@ -0,0 +1,9 @@
+package com.edusprint.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a checklist item of a task is created, updated or removed
+ */
+public record TaskDefinitionsChangedEvent(UUID taskId) {
+}
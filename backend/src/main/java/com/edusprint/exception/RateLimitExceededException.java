@@ -0,0 +1,19 @@
+package com.edusprint.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a caller exceeds a request rate limit.
+ * Mapped to 429 Too Many Requests with a Retry-After header.
+ * No stack trace is captured so rejections stay cheap under a burst.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
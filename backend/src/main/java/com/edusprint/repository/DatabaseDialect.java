@@ -0,0 +1,34 @@
+package com.edusprint.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Detects the backing database once so hand-written bulk SQL can pick
+ * the PostgreSQL form (ON CONFLICT, SKIP LOCKED, ...) or its H2 equivalent.
+ */
+@Slf4j
+@Component
+public class DatabaseDialect {
+
+    private final boolean postgres;
+
+    public DatabaseDialect(DataSource dataSource) {
+        boolean detected = false;
+        try (Connection connection = dataSource.getConnection()) {
+            detected = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        } catch (SQLException e) {
+            log.warn("Could not detect database product, assuming PostgreSQL", e);
+            detected = true;
+        }
+        this.postgres = detected;
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+}
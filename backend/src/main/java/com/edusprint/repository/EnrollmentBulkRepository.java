@@ -0,0 +1,170 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Set-based subject enrollment writes and the subjects.student_count counter.
+ * The counter only ever moves by the number of rows actually inserted or deleted, in the same
+ * transaction, so concurrent enrollments of the same student can never double count.
+ * Seats are reserved with a conditional increment against max_students: the check and the
+ * increment are one statement, so a registration rush can never oversubscribe a subject and
+ * enrollers only queue on the subject row for the rest of their (short) transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentBulkRepository {
+
+    private static final String INSERT_ENROLLMENT =
+            "INSERT INTO subject_enrollments (id, subject_id, student_id, enrolled_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String RESERVE_SEATS =
+            "UPDATE subjects SET student_count = COALESCE(student_count, 0) + ?, updated_at = ? " +
+            "WHERE id = ? AND (max_students IS NULL OR COALESCE(student_count, 0) + ? <= max_students)";
+
+    private static final String DELETE_ENROLLMENT =
+            "DELETE FROM subject_enrollments WHERE subject_id = ? AND student_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Users matching any of the ids or (case-insensitive) emails, in one query each
+     */
+    public List<StudentRef> findUsers(Collection<UUID> ids, Collection<String> emails) {
+        List<StudentRef> users = new ArrayList<>();
+        RowCallbackHandler collect = rs -> users.add(new StudentRef(
+                rs.getObject("id", UUID.class),
+                rs.getString("email").toLowerCase(Locale.ROOT),
+                rs.getString("role")));
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, email, role FROM users WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids), collect);
+        }
+        if (!emails.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, email, role FROM users WHERE LOWER(email) IN (:emails)",
+                    new MapSqlParameterSource("emails", emails), collect);
+        }
+        return users;
+    }
+
+    /**
+     * Insert enrollments as JDBC batches of batchSize, skipping existing ones
+     *
+     * @return per student whether a row was inserted, or null when the driver did not report it
+     */
+    public Boolean[] insertEnrollments(UUID subjectId, List<UUID> studentIds, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, studentIds, batchSize, (ps, studentId) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, subjectId);
+            ps.setObject(3, studentId);
+            ps.setTimestamp(4, now);
+        });
+        return flatten(counts, studentIds.size());
+    }
+
+    /**
+     * Delete enrollments as JDBC batches of batchSize
+     *
+     * @return per student whether a row was deleted, or null when the driver did not report it
+     */
+    public Boolean[] deleteEnrollments(UUID subjectId, List<UUID> studentIds, int batchSize) {
+        int[][] counts = jdbcTemplate.batchUpdate(DELETE_ENROLLMENT, studentIds, batchSize, (ps, studentId) -> {
+            ps.setObject(1, subjectId);
+            ps.setObject(2, studentId);
+        });
+        return flatten(counts, studentIds.size());
+    }
+
+    /**
+     * @return true if a new enrollment row was inserted, false if the student was already enrolled
+     */
+    public boolean insertEnrollment(UUID subjectId, UUID studentId) {
+        return jdbcTemplate.update(INSERT_ENROLLMENT, UUID.randomUUID(), subjectId, studentId,
+                Timestamp.valueOf(LocalDateTime.now())) > 0;
+    }
+
+    public boolean deleteEnrollment(UUID subjectId, UUID studentId) {
+        return jdbcTemplate.update(DELETE_ENROLLMENT, subjectId, studentId) > 0;
+    }
+
+    /**
+     * Take seats if the subject still has that many free; all or nothing
+     *
+     * @return false if the subject is full (or does not exist)
+     */
+    public boolean reserveSeats(UUID subjectId, int seats) {
+        return jdbcTemplate.update(RESERVE_SEATS, seats, Timestamp.valueOf(LocalDateTime.now()), subjectId, seats) > 0;
+    }
+
+    /**
+     * Free seats left (negative when over capacity), or null when the subject has no limit
+     */
+    public Integer findFreeSeats(UUID subjectId) {
+        List<Integer> free = jdbcTemplate.queryForList(
+                "SELECT max_students - COALESCE(student_count, 0) FROM subjects WHERE id = ?", Integer.class, subjectId);
+        return free.isEmpty() ? null : free.get(0);
+    }
+
+    public void setMaxStudents(UUID subjectId, Integer maxStudents) {
+        jdbcTemplate.update("UPDATE subjects SET max_students = ?, updated_at = ? WHERE id = ?",
+                maxStudents, Timestamp.valueOf(LocalDateTime.now()), subjectId);
+    }
+
+    public void adjustStudentCount(UUID subjectId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        jdbcTemplate.update(
+                "UPDATE subjects SET student_count = COALESCE(student_count, 0) + ?, updated_at = ? WHERE id = ?",
+                delta, Timestamp.valueOf(LocalDateTime.now()), subjectId);
+    }
+
+    /**
+     * Reset the counter from subject_enrollments, for when the driver cannot report per-row counts
+     */
+    public void recountStudents(UUID subjectId) {
+        jdbcTemplate.update(
+                "UPDATE subjects SET student_count = (SELECT COUNT(*) FROM subject_enrollments e WHERE e.subject_id = subjects.id), " +
+                "updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), subjectId);
+    }
+
+    public Integer findStudentCount(UUID subjectId) {
+        List<Integer> counts = jdbcTemplate.queryForList("SELECT student_count FROM subjects WHERE id = ?",
+                Integer.class, subjectId);
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+
+    private static Boolean[] flatten(int[][] counts, int size) {
+        Boolean[] changed = new Boolean[size];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                changed[i++] = count == Statement.SUCCESS_NO_INFO ? null : count > 0;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param email lower-cased
+     */
+    public record StudentRef(UUID id, String email, String role) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Batched grade writes for bulk auto-grading and external grade import.
+ * Auto-grading only overwrites grades still pending, so a re-run never clobbers a faculty review;
+ * imported scores are faculty decisions and always win.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GradeBulkRepository {
+
+    private static final String UPSERT_AUTO_GRADE_PG =
+            "INSERT INTO grades (id, task_id, student_id, ai_score, final_score, feedback, strictness, status, created_at, updated_at) " +
+            "VALUES (gen_random_uuid(), ?, ?, ?, ?, ?, 'medium', 'pending', ?, ?) " +
+            "ON CONFLICT (task_id, student_id) DO UPDATE SET " +
+            "ai_score = EXCLUDED.ai_score, final_score = EXCLUDED.final_score, " +
+            "feedback = EXCLUDED.feedback, updated_at = EXCLUDED.updated_at " +
+            "WHERE grades.status = 'pending'";
+
+    private static final String UPDATE_AUTO_GRADE_H2 =
+            "UPDATE grades SET ai_score = ?, final_score = ?, feedback = ?, updated_at = ? " +
+            "WHERE task_id = ? AND student_id = ? AND status = 'pending'";
+
+    private static final String INSERT_AUTO_GRADE_H2 =
+            "INSERT INTO grades (id, task_id, student_id, ai_score, final_score, feedback, strictness, status, created_at, updated_at) " +
+            "SELECT RANDOM_UUID(), ?, ?, ?, ?, ?, 'medium', 'pending', ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM grades g WHERE g.task_id = ? AND g.student_id = ?)";
+
+    private static final String UPSERT_IMPORTED_PG =
+            "INSERT INTO grades (id, task_id, student_id, final_score, feedback, strictness, status, graded_by, created_at, updated_at) " +
+            "VALUES (gen_random_uuid(), ?, ?, ?, ?, 'medium', 'approved', ?, ?, ?) " +
+            "ON CONFLICT (task_id, student_id) DO UPDATE SET " +
+            "final_score = EXCLUDED.final_score, feedback = COALESCE(EXCLUDED.feedback, grades.feedback), " +
+            "status = 'approved', graded_by = EXCLUDED.graded_by, updated_at = EXCLUDED.updated_at";
+
+    private static final String UPDATE_IMPORTED_H2 =
+            "UPDATE grades SET final_score = ?, feedback = COALESCE(?, feedback), status = 'approved', graded_by = ?, updated_at = ? " +
+            "WHERE task_id = ? AND student_id = ?";
+
+    private static final String INSERT_IMPORTED_H2 =
+            "INSERT INTO grades (id, task_id, student_id, final_score, feedback, strictness, status, graded_by, created_at, updated_at) " +
+            "SELECT RANDOM_UUID(), ?, ?, ?, ?, 'medium', 'approved', ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM grades g WHERE g.task_id = ? AND g.student_id = ?)";
+
+    private static final String INSERT_OVERRIDE =
+            "INSERT INTO grade_overrides (id, grade_id, faculty_id, original_score, override_score, reason, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    /**
+     * Write auto-grade results for one task as a single JDBC batch
+     */
+    public void upsertAutoGrades(UUID taskId, List<AutoGradeRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (dialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_AUTO_GRADE_PG, rows, rows.size(), (ps, row) -> {
+                ps.setObject(1, taskId);
+                ps.setObject(2, row.studentId());
+                ps.setBigDecimal(3, row.score());
+                ps.setBigDecimal(4, row.score());
+                ps.setString(5, row.feedback());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_AUTO_GRADE_H2, rows, rows.size(), (ps, row) -> {
+            ps.setBigDecimal(1, row.score());
+            ps.setBigDecimal(2, row.score());
+            ps.setString(3, row.feedback());
+            ps.setTimestamp(4, now);
+            ps.setObject(5, taskId);
+            ps.setObject(6, row.studentId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_AUTO_GRADE_H2, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, taskId);
+            ps.setObject(2, row.studentId());
+            ps.setBigDecimal(3, row.score());
+            ps.setBigDecimal(4, row.score());
+            ps.setString(5, row.feedback());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            ps.setObject(8, taskId);
+            ps.setObject(9, row.studentId());
+        });
+    }
+
+    /**
+     * Lock the existing grades among the given tasks and students for the rest of the transaction
+     */
+    public List<ExistingGrade> lockExisting(Collection<UUID> taskIds, Collection<UUID> studentIds) {
+        if (taskIds.isEmpty() || studentIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("taskIds", taskIds)
+                .addValue("studentIds", studentIds);
+        return namedJdbcTemplate.query(
+                "SELECT id, task_id, student_id, final_score, feedback FROM grades " +
+                "WHERE task_id IN (:taskIds) AND student_id IN (:studentIds) FOR UPDATE",
+                params,
+                (rs, rowNum) -> new ExistingGrade(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("task_id", UUID.class),
+                        rs.getObject("student_id", UUID.class),
+                        rs.getBigDecimal("final_score"),
+                        rs.getString("feedback")));
+    }
+
+    /**
+     * Grade ids by student for one task
+     */
+    public Map<UUID, UUID> findGradeIds(UUID taskId, Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return Map.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("taskId", taskId)
+                .addValue("studentIds", studentIds);
+        Map<UUID, UUID> ids = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, student_id FROM grades WHERE task_id = :taskId AND student_id IN (:studentIds)",
+                params,
+                rs -> {
+                    ids.put(rs.getObject("student_id", UUID.class), rs.getObject("id", UUID.class));
+                });
+        return ids;
+    }
+
+    /**
+     * Write imported scores as approved grades by the importing faculty member, as a single JDBC batch
+     */
+    public void upsertImportedGrades(List<ImportedGradeRow> rows, UUID facultyId) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (dialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_IMPORTED_PG, rows, rows.size(), (ps, row) -> {
+                ps.setObject(1, row.taskId());
+                ps.setObject(2, row.studentId());
+                ps.setBigDecimal(3, row.score());
+                ps.setString(4, row.feedback());
+                ps.setObject(5, facultyId);
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_IMPORTED_H2, rows, rows.size(), (ps, row) -> {
+            ps.setBigDecimal(1, row.score());
+            ps.setString(2, row.feedback());
+            ps.setObject(3, facultyId);
+            ps.setTimestamp(4, now);
+            ps.setObject(5, row.taskId());
+            ps.setObject(6, row.studentId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_IMPORTED_H2, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.taskId());
+            ps.setObject(2, row.studentId());
+            ps.setBigDecimal(3, row.score());
+            ps.setString(4, row.feedback());
+            ps.setObject(5, facultyId);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            ps.setObject(8, row.taskId());
+            ps.setObject(9, row.studentId());
+        });
+    }
+
+    /**
+     * Audit rows for changed scores, as a single JDBC batch
+     */
+    public void insertOverrides(List<OverrideRow> rows, UUID facultyId, String reason) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_OVERRIDE, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, row.gradeId());
+            ps.setObject(3, facultyId);
+            ps.setBigDecimal(4, row.originalScore());
+            ps.setBigDecimal(5, row.overrideScore());
+            ps.setString(6, reason);
+            ps.setTimestamp(7, now);
+        });
+    }
+
+    public record AutoGradeRow(UUID studentId, BigDecimal score, String feedback) {
+    }
+
+    public record ImportedGradeRow(UUID taskId, UUID studentId, BigDecimal score, String feedback) {
+    }
+
+    public record ExistingGrade(UUID id, UUID taskId, UUID studentId, BigDecimal finalScore, String feedback) {
+    }
+
+    public record OverrideRow(UUID gradeId, BigDecimal originalScore, BigDecimal overrideScore) {
+    }
+}
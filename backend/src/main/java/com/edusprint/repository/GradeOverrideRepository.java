@@ -25,6 +25,11 @@ public interface GradeOverrideRepository extends JpaRepository<GradeOverride, UU
      */
     List<GradeOverride> findByGradeId(UUID gradeId);
 
+    /**
+     * Find all overrides by grade ID, newest first
+     */
+    List<GradeOverride> findByGradeIdOrderByCreatedAtDesc(UUID gradeId);
+
     /**
      * Find all overrides by a faculty member
      */
@@ -5,8 +5,10 @@ import com.edusprint.entity.Task;
 import com.edusprint.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -62,12 +64,6 @@ public interface GradeRepository extends JpaRepository<Grade, UUID> {
      */
     List<Grade> findByStatusOrderByCreatedAtAsc(String status);
 
-    /**
-     * Find grades that need faculty review
-     */
-    @Query("SELECT g FROM Grade g WHERE g.status = 'PENDING' OR g.status = 'REVIEWED'")
-    List<Grade> findGradesNeedingReview();
-
     /**
      * Find grades by faculty who graded them
      */
@@ -83,4 +79,20 @@ public interface GradeRepository extends JpaRepository<Grade, UUID> {
      */
     @Query("SELECT g FROM Grade g JOIN g.task t WHERE t.subject.id = :subjectId")
     List<Grade> findBySubjectId(UUID subjectId);
+
+    /**
+     * Grades written since the given time, with their subject, for cross-node view invalidation
+     */
+    @Query("SELECT g.task.id AS taskId, g.student.id AS studentId, g.task.subject.id AS subjectId " +
+           "FROM Grade g WHERE g.updatedAt > :since")
+    List<GradeChangeView> findChangesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Projection used by the grade view cache
+     */
+    interface GradeChangeView {
+        UUID getTaskId();
+        UUID getStudentId();
+        UUID getSubjectId();
+    }
 }
@@ -0,0 +1,273 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Durable grading job queue on the grading_jobs table.
+ * On PostgreSQL workers claim with FOR UPDATE SKIP LOCKED so nodes never block on each other's rows;
+ * on H2 (single node dev) a conditional status update provides the same at-most-once claim.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GradingJobQueueRepository {
+
+    private static final String ENQUEUE_PG =
+            "INSERT INTO grading_jobs (id, task_id, student_id, status, attempts, max_attempts, available_at, created_at, updated_at) " +
+            "VALUES (gen_random_uuid(), ?, ?, 'queued', 0, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String ENQUEUE_H2 =
+            "INSERT INTO grading_jobs (id, task_id, student_id, status, attempts, max_attempts, available_at, created_at, updated_at) " +
+            "SELECT RANDOM_UUID(), ?, ?, 'queued', 0, ?, ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM grading_jobs j WHERE j.task_id = ? AND j.student_id = ? AND j.status = 'queued')";
+
+    // Whole-task grading skips submissions a faculty member has already reviewed
+    private static final String NOT_REVIEWED =
+            "NOT EXISTS (SELECT 1 FROM grades g WHERE g.task_id = a.task_id AND g.student_id = a.student_id " +
+            "AND g.status <> 'pending')";
+
+    private static final String ENQUEUE_TASK_PG =
+            "INSERT INTO grading_jobs (id, task_id, student_id, status, attempts, max_attempts, available_at, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), a.task_id, a.student_id, 'queued', 0, ?, ?, ?, ? " +
+            "FROM task_assignments a WHERE a.task_id = ? AND a.submitted_at IS NOT NULL " +
+            "AND " + NOT_REVIEWED + " ON CONFLICT DO NOTHING";
+
+    private static final String ENQUEUE_TASK_H2 =
+            "INSERT INTO grading_jobs (id, task_id, student_id, status, attempts, max_attempts, available_at, created_at, updated_at) " +
+            "SELECT RANDOM_UUID(), a.task_id, a.student_id, 'queued', 0, ?, ?, ?, ? " +
+            "FROM task_assignments a WHERE a.task_id = ? AND a.submitted_at IS NOT NULL " +
+            "AND " + NOT_REVIEWED + " AND NOT EXISTS (SELECT 1 FROM grading_jobs j WHERE j.task_id = a.task_id AND j.student_id = a.student_id AND j.status = 'queued')";
+
+    private static final String CLAIM_PG =
+            "UPDATE grading_jobs SET status = 'running', locked_by = ?, lease_expires_at = ?, " +
+            "attempts = attempts + 1, updated_at = ? " +
+            "WHERE id IN (SELECT id FROM grading_jobs WHERE status = 'queued' AND available_at <= ? " +
+            "ORDER BY available_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, task_id, student_id, attempts, max_attempts";
+
+    private static final String CLAIM_CANDIDATES_H2 =
+            "SELECT id FROM grading_jobs WHERE status = 'queued' AND available_at <= ? ORDER BY available_at LIMIT ?";
+
+    private static final String CLAIM_ONE_H2 =
+            "UPDATE grading_jobs SET status = 'running', locked_by = ?, lease_expires_at = ?, " +
+            "attempts = attempts + 1, updated_at = ? WHERE id = ? AND status = 'queued'";
+
+    private static final String CLAIMED_H2 =
+            "SELECT id, task_id, student_id, attempts, max_attempts FROM grading_jobs WHERE id = ? AND locked_by = ?";
+
+    private static final String EXTEND_LEASE =
+            "UPDATE grading_jobs SET lease_expires_at = ?, updated_at = ? " +
+            "WHERE id = ? AND locked_by = ? AND status = 'running'";
+
+    private static final String COMPLETE =
+            "UPDATE grading_jobs SET status = 'completed', locked_by = NULL, lease_expires_at = NULL, " +
+            "last_error = NULL, completed_at = ?, updated_at = ? WHERE id = ? AND locked_by = ?";
+
+    // A resubmission may have queued a fresh job for the same submission while this one ran
+    private static final String QUEUED_SIBLING =
+            "SELECT 1 FROM grading_jobs q WHERE q.task_id = grading_jobs.task_id " +
+            "AND q.student_id = grading_jobs.student_id AND q.status = 'queued'";
+
+    private static final String RETRY =
+            "UPDATE grading_jobs SET status = 'queued', locked_by = NULL, lease_expires_at = NULL, " +
+            "available_at = ?, last_error = ?, updated_at = ? WHERE id = ? AND locked_by = ? " +
+            "AND NOT EXISTS (" + QUEUED_SIBLING + ")";
+
+    private static final String SUPERSEDE =
+            "UPDATE grading_jobs SET status = 'completed', locked_by = NULL, lease_expires_at = NULL, " +
+            "last_error = ?, completed_at = ?, updated_at = ? WHERE id = ? AND locked_by = ?";
+
+    private static final String DEAD =
+            "UPDATE grading_jobs SET status = 'dead', locked_by = NULL, lease_expires_at = NULL, " +
+            "last_error = ?, updated_at = ? WHERE id = ? AND locked_by = ?";
+
+    // Requeueing would clash with uq_grading_jobs_queued when the submission already has a queued job,
+    // or a newer expired one that this same statement requeues; such jobs are closed as superseded
+    private static final String SUPERSEDED_ON_REAP =
+            "EXISTS (SELECT 1 FROM grading_jobs q WHERE q.task_id = grading_jobs.task_id " +
+            "AND q.student_id = grading_jobs.student_id AND (q.status = 'queued' " +
+            "OR (q.status = 'running' AND q.lease_expires_at < ? AND q.attempts < q.max_attempts " +
+            "AND (q.created_at > grading_jobs.created_at " +
+            "OR (q.created_at = grading_jobs.created_at AND q.id > grading_jobs.id)))))";
+
+    private static final String REAP_EXPIRED =
+            "UPDATE grading_jobs SET status = CASE WHEN attempts >= max_attempts THEN 'dead' " +
+            "WHEN " + SUPERSEDED_ON_REAP + " THEN 'completed' ELSE 'queued' END, " +
+            "completed_at = CASE WHEN attempts < max_attempts AND " + SUPERSEDED_ON_REAP +
+            " THEN ? ELSE NULL END, " +
+            "locked_by = NULL, lease_expires_at = NULL, available_at = ?, " +
+            "last_error = 'Lease expired', updated_at = ? " +
+            "WHERE status = 'running' AND lease_expires_at < ?";
+
+    private static final String REQUEUE_DEAD =
+            "UPDATE grading_jobs SET status = 'queued', attempts = 0, available_at = ?, updated_at = ? " +
+            "WHERE status = 'dead' AND NOT EXISTS (SELECT 1 FROM grading_jobs q " +
+            "WHERE q.task_id = grading_jobs.task_id AND q.student_id = grading_jobs.student_id AND q.status = 'queued')";
+
+    private static final String PURGE_COMPLETED =
+            "DELETE FROM grading_jobs WHERE status = 'completed' AND completed_at < ?";
+
+    private static final RowMapper<ClaimedJob> CLAIMED_JOB = (rs, rowNum) -> new ClaimedJob(
+            rs.getObject("id", UUID.class),
+            rs.getObject("task_id", UUID.class),
+            rs.getObject("student_id", UUID.class),
+            rs.getInt("attempts"),
+            rs.getInt("max_attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    /**
+     * Queue one submission for grading; a no-op if it is already waiting
+     *
+     * @return true if a job was queued
+     */
+    public boolean enqueue(UUID taskId, UUID studentId, int maxAttempts) {
+        Timestamp now = now();
+        if (dialect.isPostgres()) {
+            return jdbcTemplate.update(ENQUEUE_PG, taskId, studentId, maxAttempts, now, now, now) > 0;
+        }
+        return jdbcTemplate.update(ENQUEUE_H2, taskId, studentId, maxAttempts, now, now, now, taskId, studentId) > 0;
+    }
+
+    /**
+     * Queue every submitted assignment of a task in one INSERT ... SELECT
+     *
+     * @return number of jobs queued
+     */
+    public int enqueueTask(UUID taskId, int maxAttempts) {
+        Timestamp now = now();
+        return jdbcTemplate.update(dialect.isPostgres() ? ENQUEUE_TASK_PG : ENQUEUE_TASK_H2,
+                maxAttempts, now, now, now, taskId);
+    }
+
+    /**
+     * Claim up to limit due jobs for this worker, taking a lease on each
+     */
+    @Transactional
+    public List<ClaimedJob> claim(String workerId, int limit, long leaseMillis) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        Timestamp lease = Timestamp.valueOf(now.plusNanos(leaseMillis * 1_000_000L));
+        if (dialect.isPostgres()) {
+            return jdbcTemplate.query(CLAIM_PG, CLAIMED_JOB, workerId, lease, nowTs, nowTs, limit);
+        }
+        List<UUID> candidates = jdbcTemplate.queryForList(CLAIM_CANDIDATES_H2, UUID.class, nowTs, limit);
+        List<ClaimedJob> claimed = new ArrayList<>(candidates.size());
+        for (UUID id : candidates) {
+            if (jdbcTemplate.update(CLAIM_ONE_H2, workerId, lease, nowTs, id) > 0) {
+                claimed.addAll(jdbcTemplate.query(CLAIMED_H2, CLAIMED_JOB, id, workerId));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Heartbeat: push the lease forward on every job this worker still holds
+     */
+    public void extendLeases(String workerId, Collection<UUID> jobIds, long leaseMillis) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp lease = Timestamp.valueOf(now.plusNanos(leaseMillis * 1_000_000L));
+        Timestamp nowTs = Timestamp.valueOf(now);
+        List<UUID> ids = new ArrayList<>(jobIds);
+        jdbcTemplate.batchUpdate(EXTEND_LEASE, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, lease);
+            ps.setTimestamp(2, nowTs);
+            ps.setObject(3, id);
+            ps.setString(4, workerId);
+        });
+    }
+
+    public void complete(UUID jobId, String workerId) {
+        Timestamp now = now();
+        jdbcTemplate.update(COMPLETE, now, now, jobId, workerId);
+    }
+
+    /**
+     * Put a failed job back in the queue; if the submission has been queued again meanwhile,
+     * close this job instead, since the queued one grades the newer submission
+     */
+    public void retryAt(UUID jobId, String workerId, LocalDateTime availableAt, String error) {
+        Timestamp now = now();
+        int requeued;
+        try {
+            requeued = jdbcTemplate.update(RETRY, Timestamp.valueOf(availableAt), error, now, jobId, workerId);
+        } catch (DuplicateKeyException e) {
+            // A resubmission was queued between the guard and the update
+            requeued = 0;
+        }
+        if (requeued == 0) {
+            jdbcTemplate.update(SUPERSEDE, "Superseded by a queued resubmission: " + error, now, now, jobId, workerId);
+        }
+    }
+
+    public void deadLetter(UUID jobId, String workerId, String error) {
+        jdbcTemplate.update(DEAD, error, now(), jobId, workerId);
+    }
+
+    /**
+     * Return jobs whose worker stopped heartbeating to the queue (or dead-letter them when out of attempts)
+     *
+     * @return number of jobs reclaimed
+     */
+    public int reapExpiredLeases() {
+        Timestamp now = now();
+        return jdbcTemplate.update(REAP_EXPIRED, now, now, now, now, now, now);
+    }
+
+    /**
+     * Give every dead-lettered job a fresh set of attempts
+     *
+     * @return number of jobs requeued
+     */
+    public int requeueDead() {
+        Timestamp now = now();
+        return jdbcTemplate.update(REQUEUE_DEAD, now, now);
+    }
+
+    public int purgeCompletedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(PURGE_COMPLETED, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Job counts per status, optionally for one task
+     */
+    public Map<String, Long> countByStatus(UUID taskId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String status : List.of("queued", "running", "completed", "dead")) {
+            counts.put(status, 0L);
+        }
+        RowCallbackHandler handler = rs -> counts.put(rs.getString(1), rs.getLong(2));
+        if (taskId == null) {
+            jdbcTemplate.query("SELECT status, COUNT(*) FROM grading_jobs GROUP BY status", handler);
+        } else {
+            jdbcTemplate.query("SELECT status, COUNT(*) FROM grading_jobs WHERE task_id = ? GROUP BY status",
+                    handler, taskId);
+        }
+        return counts;
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    public record ClaimedJob(UUID id, UUID taskId, UUID studentId, int attempts, int maxAttempts) {
+    }
+}
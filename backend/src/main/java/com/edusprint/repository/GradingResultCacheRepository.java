@@ -0,0 +1,46 @@
+package com.edusprint.repository;
+
+import com.edusprint.service.AutoGrader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent tier of GradingResultCache
+ */
+@Repository
+@RequiredArgsConstructor
+public class GradingResultCacheRepository {
+
+    private static final String INSERT_RESULT =
+            "INSERT INTO grading_result_cache (cache_key, task_id, score, feedback, created_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AutoGrader.Result find(String cacheKey) {
+        List<AutoGrader.Result> rows = jdbcTemplate.query(
+                "SELECT score, feedback FROM grading_result_cache WHERE cache_key = ?",
+                (rs, rowNum) -> new AutoGrader.Result(rs.getBigDecimal("score"), rs.getString("feedback")),
+                cacheKey);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public void save(String cacheKey, UUID taskId, AutoGrader.Result result) {
+        jdbcTemplate.update(INSERT_RESULT, cacheKey, taskId, result.score(), result.feedback(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public int deleteByTask(UUID taskId) {
+        return jdbcTemplate.update("DELETE FROM grading_result_cache WHERE task_id = ?", taskId);
+    }
+
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM grading_result_cache WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
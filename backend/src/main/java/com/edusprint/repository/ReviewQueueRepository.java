@@ -0,0 +1,253 @@
+package com.edusprint.repository;
+
+import com.edusprint.dto.ReviewQueueItemDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * review_queue rows and their review_queue_counts badge counters.
+ * Writers lock the (faculty, subject) counter row before touching queue rows, so incremental
+ * updates and reconciliation of a subject are serialized and never deadlock on each other.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewQueueRepository {
+
+    private static final String SOURCE_COLUMNS =
+            "SELECT g.id, g.status, g.task_id, g.student_id, g.created_at, t.subject_id, s.faculty_id, " +
+            "t.due_date, a.submitted_at, " +
+            "(SELECT COUNT(*) FROM grade_disputes d WHERE d.grade_id = g.id " +
+            " AND d.status IN ('pending', 'under-review')) AS open_disputes " +
+            "FROM grades g JOIN tasks t ON t.id = g.task_id JOIN subjects s ON s.id = t.subject_id " +
+            "LEFT JOIN task_assignments a ON a.task_id = g.task_id AND a.student_id = g.student_id ";
+
+    private static final String ENSURE_COUNTS =
+            "INSERT INTO review_queue_counts (id, faculty_id, subject_id, open_count, disputed_count, updated_at) " +
+            "VALUES (?, ?, ?, 0, 0, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO review_queue (grade_id, faculty_id, subject_id, task_id, student_id, status, " +
+            "submitted_at, due_date, open_disputes, priority_key, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String UPDATE_ENTRY =
+            "UPDATE review_queue SET faculty_id = ?, subject_id = ?, status = ?, submitted_at = ?, due_date = ?, " +
+            "open_disputes = ?, priority_key = ?, updated_at = ? WHERE grade_id = ?";
+
+    private static final String ENTRY_COLUMNS =
+            "SELECT grade_id, faculty_id, subject_id, status, submitted_at, due_date, open_disputes, priority_key " +
+            "FROM review_queue ";
+
+    private static final String PAGE =
+            "SELECT q.grade_id, q.task_id, t.title, q.subject_id, q.student_id, u.name, q.status, " +
+            "g.ai_score, g.final_score, q.submitted_at, q.due_date, q.open_disputes, q.priority_key " +
+            "FROM review_queue q JOIN grades g ON g.id = q.grade_id JOIN tasks t ON t.id = q.task_id " +
+            "JOIN users u ON u.id = q.student_id WHERE q.faculty_id = ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A grade as it stands in the source tables, or null if it no longer exists
+     */
+    public Source findSource(UUID taskId, UUID studentId) {
+        List<Source> rows = jdbcTemplate.query(SOURCE_COLUMNS + "WHERE g.task_id = ? AND g.student_id = ?",
+                SOURCE_MAPPER, taskId, studentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public List<Source> findSubjectSources(UUID subjectId, List<String> statuses) {
+        List<Object> args = new ArrayList<>();
+        args.add(subjectId);
+        args.addAll(statuses);
+        return jdbcTemplate.query(SOURCE_COLUMNS + "WHERE t.subject_id = ? AND g.status IN (" + placeholders(statuses.size()) + ")",
+                SOURCE_MAPPER, args.toArray());
+    }
+
+    /**
+     * Create the counter row if needed and lock it for the rest of the transaction
+     */
+    public void lockCounts(UUID facultyId, UUID subjectId) {
+        jdbcTemplate.update(ENSURE_COUNTS, UUID.randomUUID(), facultyId, subjectId, Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.queryForList("SELECT id FROM review_queue_counts WHERE faculty_id = ? AND subject_id = ? FOR UPDATE",
+                UUID.class, facultyId, subjectId);
+    }
+
+    /**
+     * Lock every counter row of a subject
+     */
+    public void lockSubjectCounts(UUID subjectId) {
+        jdbcTemplate.queryForList("SELECT id FROM review_queue_counts WHERE subject_id = ? FOR UPDATE",
+                UUID.class, subjectId);
+    }
+
+    public void adjustCounts(UUID facultyId, UUID subjectId, int open, int disputed) {
+        jdbcTemplate.update(
+                "UPDATE review_queue_counts SET open_count = open_count + ?, disputed_count = disputed_count + ?, " +
+                "updated_at = ? WHERE faculty_id = ? AND subject_id = ?",
+                open, disputed, Timestamp.valueOf(LocalDateTime.now()), facultyId, subjectId);
+    }
+
+    public void setCounts(UUID facultyId, UUID subjectId, int open, int disputed) {
+        jdbcTemplate.update(ENSURE_COUNTS, UUID.randomUUID(), facultyId, subjectId, Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(
+                "UPDATE review_queue_counts SET open_count = ?, disputed_count = ?, updated_at = ? " +
+                "WHERE faculty_id = ? AND subject_id = ?",
+                open, disputed, Timestamp.valueOf(LocalDateTime.now()), facultyId, subjectId);
+    }
+
+    /**
+     * Zero the counters of faculty no longer owning any queued grade of the subject
+     */
+    public void clearCountsExcept(UUID subjectId, List<UUID> facultyIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(subjectId);
+        String except = "";
+        if (!facultyIds.isEmpty()) {
+            except = " AND faculty_id NOT IN (" + placeholders(facultyIds.size()) + ")";
+            args.addAll(facultyIds);
+        }
+        jdbcTemplate.update("UPDATE review_queue_counts SET open_count = 0, disputed_count = 0, updated_at = ? " +
+                "WHERE subject_id = ?" + except, args.toArray());
+    }
+
+    public Entry lockEntry(UUID gradeId) {
+        List<Entry> rows = jdbcTemplate.query(ENTRY_COLUMNS + "WHERE grade_id = ? FOR UPDATE", ENTRY_MAPPER, gradeId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public List<Entry> findSubjectEntries(UUID subjectId) {
+        return jdbcTemplate.query(ENTRY_COLUMNS + "WHERE subject_id = ?", ENTRY_MAPPER, subjectId);
+    }
+
+    /**
+     * @return false if another writer queued the grade first
+     */
+    public boolean insert(Source source, long priorityKey) {
+        return jdbcTemplate.update(INSERT_ENTRY, source.gradeId(), source.facultyId(), source.subjectId(),
+                source.taskId(), source.studentId(), source.status(), Timestamp.valueOf(source.submittedAt()),
+                source.dueDate() == null ? null : Timestamp.valueOf(source.dueDate()), source.openDisputes(),
+                priorityKey, Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    public void update(Source source, long priorityKey) {
+        jdbcTemplate.update(UPDATE_ENTRY, source.facultyId(), source.subjectId(), source.status(),
+                Timestamp.valueOf(source.submittedAt()),
+                source.dueDate() == null ? null : Timestamp.valueOf(source.dueDate()), source.openDisputes(),
+                priorityKey, Timestamp.valueOf(LocalDateTime.now()), source.gradeId());
+    }
+
+    public boolean delete(UUID gradeId) {
+        return jdbcTemplate.update("DELETE FROM review_queue WHERE grade_id = ?", gradeId) == 1;
+    }
+
+    /**
+     * Next page of a faculty member's queue after the (priorityKey, gradeId) cursor, most urgent first
+     */
+    public List<ReviewQueueItemDTO> findPage(UUID facultyId, UUID subjectId, Long afterKey, UUID afterGradeId, int limit) {
+        StringBuilder sql = new StringBuilder(PAGE);
+        List<Object> args = new ArrayList<>();
+        args.add(facultyId);
+        if (subjectId != null) {
+            sql.append("AND q.subject_id = ? ");
+            args.add(subjectId);
+        }
+        if (afterKey != null) {
+            sql.append("AND (q.priority_key > ? OR (q.priority_key = ? AND q.grade_id > ?)) ");
+            args.add(afterKey);
+            args.add(afterKey);
+            args.add(afterGradeId);
+        }
+        sql.append("ORDER BY q.priority_key, q.grade_id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> ReviewQueueItemDTO.builder()
+                .gradeId(rs.getObject("grade_id", UUID.class))
+                .taskId(rs.getObject("task_id", UUID.class))
+                .taskTitle(rs.getString("title"))
+                .subjectId(rs.getObject("subject_id", UUID.class))
+                .studentId(rs.getObject("student_id", UUID.class))
+                .studentName(rs.getString("name"))
+                .status(rs.getString("status"))
+                .autoScore(rs.getBigDecimal("ai_score"))
+                .finalScore(rs.getBigDecimal("final_score"))
+                .submittedAt(toLocalDateTime(rs.getTimestamp("submitted_at")))
+                .dueDate(toLocalDateTime(rs.getTimestamp("due_date")))
+                .openDisputes(rs.getInt("open_disputes"))
+                .priorityKey(rs.getLong("priority_key"))
+                .build(), args.toArray());
+    }
+
+    public List<Counts> findCounts(UUID facultyId) {
+        return jdbcTemplate.query(
+                "SELECT subject_id, open_count, disputed_count FROM review_queue_counts " +
+                "WHERE faculty_id = ? AND open_count > 0 ORDER BY subject_id",
+                (rs, rowNum) -> new Counts(
+                        rs.getObject("subject_id", UUID.class),
+                        rs.getInt("open_count"),
+                        rs.getInt("disputed_count")),
+                facultyId);
+    }
+
+    /**
+     * Next page of subject ids in id order, for reconciliation
+     */
+    public List<UUID> findSubjectIdsAfter(UUID afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM subjects WHERE id > ? ORDER BY id LIMIT ?",
+                UUID.class, afterId, limit);
+    }
+
+    private static final RowMapper<Source> SOURCE_MAPPER = (rs, rowNum) -> {
+        LocalDateTime submittedAt = toLocalDateTime(rs.getTimestamp("submitted_at"));
+        return new Source(
+                rs.getObject("id", UUID.class),
+                rs.getString("status"),
+                rs.getObject("task_id", UUID.class),
+                rs.getObject("student_id", UUID.class),
+                rs.getObject("subject_id", UUID.class),
+                rs.getObject("faculty_id", UUID.class),
+                submittedAt != null ? submittedAt : toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("due_date")),
+                rs.getInt("open_disputes"));
+    };
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+            rs.getObject("grade_id", UUID.class),
+            rs.getObject("faculty_id", UUID.class),
+            rs.getObject("subject_id", UUID.class),
+            rs.getString("status"),
+            toLocalDateTime(rs.getTimestamp("submitted_at")),
+            toLocalDateTime(rs.getTimestamp("due_date")),
+            rs.getInt("open_disputes"),
+            rs.getLong("priority_key"));
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * @param submittedAt the submission time, or the grade's creation time when there is no assignment
+     */
+    public record Source(UUID gradeId, String status, UUID taskId, UUID studentId, UUID subjectId, UUID facultyId,
+                         LocalDateTime submittedAt, LocalDateTime dueDate, int openDisputes) {
+    }
+
+    public record Entry(UUID gradeId, UUID facultyId, UUID subjectId, String status, LocalDateTime submittedAt,
+                        LocalDateTime dueDate, int openDisputes, long priorityKey) {
+    }
+
+    public record Counts(UUID subjectId, int open, int disputed) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.edusprint.repository;
+
+import com.edusprint.dto.SimilarityPairDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Storage for MinHash signatures, their LSH buckets and flagged near-duplicate pairs
+ */
+@Repository
+@RequiredArgsConstructor
+public class SimilarityRepository {
+
+    private static final String SUBMISSION =
+            "SELECT a.id, a.task_id, a.student_id, a.submission_content, t.subject_id " +
+            "FROM task_assignments a JOIN tasks t ON t.id = a.task_id " +
+            "WHERE a.id = ? AND a.submitted_at IS NOT NULL";
+
+    private static final String INSERT_SIGNATURE =
+            "INSERT INTO submission_signatures (assignment_id, task_id, subject_id, student_id, signature, shingle_count, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BUCKET =
+            "INSERT INTO submission_lsh_buckets (assignment_id, band, bucket, subject_id) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_PAIR =
+            "INSERT INTO submission_similarity (assignment_a, assignment_b, subject_id, task_a, task_b, student_a, student_b, similarity, detected_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String PAIR_COLUMNS =
+            "SELECT assignment_a, task_a, student_a, assignment_b, task_b, student_b, similarity, detected_at " +
+            "FROM submission_similarity ";
+
+    private static final RowMapper<SimilarityPairDTO> PAIR = (rs, rowNum) -> SimilarityPairDTO.builder()
+            .assignmentA(rs.getObject("assignment_a", UUID.class))
+            .taskA(rs.getObject("task_a", UUID.class))
+            .studentA(rs.getObject("student_a", UUID.class))
+            .assignmentB(rs.getObject("assignment_b", UUID.class))
+            .taskB(rs.getObject("task_b", UUID.class))
+            .studentB(rs.getObject("student_b", UUID.class))
+            .similarity(rs.getBigDecimal("similarity"))
+            .detectedAt(rs.getTimestamp("detected_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Submitted content of an assignment with its subject, or null if it is not submitted
+     */
+    public Submission findSubmission(UUID assignmentId) {
+        List<Submission> rows = jdbcTemplate.query(SUBMISSION, (rs, rowNum) -> new Submission(
+                rs.getObject("id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getObject("student_id", UUID.class),
+                rs.getObject("subject_id", UUID.class),
+                rs.getString("submission_content")), assignmentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public List<UUID> findSubmittedAssignmentIds(UUID taskId) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM task_assignments WHERE task_id = ? AND submitted_at IS NOT NULL ORDER BY id",
+                UUID.class, taskId);
+    }
+
+    /**
+     * Drop an assignment's signature, buckets and flagged pairs (before re-indexing a resubmission)
+     */
+    public void delete(UUID assignmentId) {
+        jdbcTemplate.update("DELETE FROM submission_similarity WHERE assignment_a = ? OR assignment_b = ?",
+                assignmentId, assignmentId);
+        jdbcTemplate.update("DELETE FROM submission_lsh_buckets WHERE assignment_id = ?", assignmentId);
+        jdbcTemplate.update("DELETE FROM submission_signatures WHERE assignment_id = ?", assignmentId);
+    }
+
+    public void save(Submission submission, byte[] signature, int shingleCount, long[] buckets) {
+        jdbcTemplate.update(INSERT_SIGNATURE, submission.assignmentId(), submission.taskId(), submission.subjectId(),
+                submission.studentId(), signature, shingleCount, Timestamp.valueOf(LocalDateTime.now()));
+        List<Integer> bands = new ArrayList<>(buckets.length);
+        for (int band = 0; band < buckets.length; band++) {
+            bands.add(band);
+        }
+        jdbcTemplate.batchUpdate(INSERT_BUCKET, bands, bands.size(), (ps, band) -> {
+            ps.setObject(1, submission.assignmentId());
+            ps.setShort(2, band.shortValue());
+            ps.setLong(3, buckets[band]);
+            ps.setObject(4, submission.subjectId());
+        });
+    }
+
+    /**
+     * Assignments of the same subject sharing at least one LSH bucket, most shared bands first
+     */
+    public List<Candidate> findCandidates(UUID subjectId, UUID assignmentId, long[] buckets, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT s.assignment_id, s.task_id, s.student_id, s.signature FROM submission_signatures s JOIN (" +
+                "SELECT b.assignment_id, COUNT(*) AS hits FROM submission_lsh_buckets b " +
+                "WHERE b.subject_id = ? AND b.assignment_id <> ? AND (");
+        List<Object> args = new ArrayList<>(buckets.length * 2 + 3);
+        args.add(subjectId);
+        args.add(assignmentId);
+        for (int band = 0; band < buckets.length; band++) {
+            sql.append(band == 0 ? "" : " OR ").append("(b.band = ? AND b.bucket = ?)");
+            args.add(band);
+            args.add(buckets[band]);
+        }
+        sql.append(") GROUP BY b.assignment_id ORDER BY hits DESC LIMIT ?) c ON c.assignment_id = s.assignment_id");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new Candidate(
+                rs.getObject("assignment_id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getObject("student_id", UUID.class),
+                rs.getBytes("signature")), args.toArray());
+    }
+
+    public void savePairs(List<Pair> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_PAIR, pairs, pairs.size(), (ps, pair) -> {
+            ps.setObject(1, pair.assignmentA());
+            ps.setObject(2, pair.assignmentB());
+            ps.setObject(3, pair.subjectId());
+            ps.setObject(4, pair.taskA());
+            ps.setObject(5, pair.taskB());
+            ps.setObject(6, pair.studentA());
+            ps.setObject(7, pair.studentB());
+            ps.setBigDecimal(8, pair.similarity());
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    public List<SimilarityPairDTO> findPairsByTask(UUID taskId, BigDecimal minSimilarity, int limit) {
+        return jdbcTemplate.query(PAIR_COLUMNS + "WHERE (task_a = ? OR task_b = ?) AND similarity >= ? " +
+                "ORDER BY similarity DESC LIMIT ?", PAIR, taskId, taskId, minSimilarity, limit);
+    }
+
+    public List<SimilarityPairDTO> findPairsBySubject(UUID subjectId, BigDecimal minSimilarity, int limit) {
+        return jdbcTemplate.query(PAIR_COLUMNS + "WHERE subject_id = ? AND similarity >= ? " +
+                "ORDER BY similarity DESC LIMIT ?", PAIR, subjectId, minSimilarity, limit);
+    }
+
+    public record Submission(UUID assignmentId, UUID taskId, UUID studentId, UUID subjectId, String content) {
+    }
+
+    public record Candidate(UUID assignmentId, UUID taskId, UUID studentId, byte[] signature) {
+    }
+
+    public record Pair(UUID assignmentA, UUID assignmentB, UUID subjectId, UUID taskA, UUID taskB,
+                       UUID studentA, UUID studentB, BigDecimal similarity) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.edusprint.repository;
+
+import com.edusprint.dto.StudentAnalyticsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * student_analytics rows and the grade ledger (grades.percentage) they are summed from.
+ * Writers lock the analytics row first, so incremental updates and reconciliation of the same
+ * (student, subject) are serialized.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentAnalyticsRepository {
+
+    private static final String ENSURE_ROW =
+            "INSERT INTO student_analytics (id, student_id, subject_id, total_tasks, completed_tasks, " +
+            "on_time_submissions, late_submissions, missing_submissions, at_risk_flag, " +
+            "graded_tasks, graded_weight, weighted_percent_sum, percent_sum, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 0, 0, 0, 0, 0, false, 0, 0, 0, 0, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String LOCK_SUMS =
+            "SELECT graded_tasks, graded_weight, weighted_percent_sum, percent_sum FROM student_analytics " +
+            "WHERE student_id = ? AND subject_id = ? FOR UPDATE";
+
+    private static final String UPDATE_SUMS =
+            "UPDATE student_analytics SET graded_tasks = ?, graded_weight = ?, weighted_percent_sum = ?, percent_sum = ?, " +
+            "current_grade = ?, average_score = ?, at_risk_flag = ?, updated_at = ? " +
+            "WHERE student_id = ? AND subject_id = ?";
+
+    private static final String TASK_GRADE =
+            "SELECT g.id, g.task_id, g.final_score, g.percentage, " +
+            "(SELECT COALESCE(SUM(p.penalty_percent), 0) FROM penalties p " +
+            " WHERE p.task_id = g.task_id AND p.student_id = g.student_id) AS penalty " +
+            "FROM grades g WHERE g.task_id = ? AND g.student_id = ?";
+
+    private static final String SUBJECT_GRADES =
+            "SELECT g.id, g.task_id, g.final_score, g.percentage, t.weight, t.max_score, " +
+            "(SELECT COALESCE(SUM(p.penalty_percent), 0) FROM penalties p " +
+            " WHERE p.task_id = g.task_id AND p.student_id = g.student_id) AS penalty " +
+            "FROM grades g JOIN tasks t ON t.id = g.task_id WHERE g.student_id = ? AND t.subject_id = ?";
+
+    private static final String SUBMISSION_COUNTS =
+            "SELECT COUNT(*) AS total, " +
+            "COALESCE(SUM(CASE WHEN a.submitted_at IS NOT NULL THEN 1 ELSE 0 END), 0) AS completed, " +
+            "COALESCE(SUM(CASE WHEN a.submitted_at IS NOT NULL AND (t.due_date IS NULL OR a.submitted_at <= t.due_date) THEN 1 ELSE 0 END), 0) AS on_time, " +
+            "COALESCE(SUM(CASE WHEN a.submitted_at > t.due_date THEN 1 ELSE 0 END), 0) AS late, " +
+            "COALESCE(SUM(CASE WHEN a.submitted_at IS NULL AND t.due_date < ? THEN 1 ELSE 0 END), 0) AS missing " +
+            "FROM task_assignments a JOIN tasks t ON t.id = a.task_id WHERE a.student_id = ? AND t.subject_id = ?";
+
+    private static final String UPDATE_SUBMISSIONS =
+            "UPDATE student_analytics SET total_tasks = ?, completed_tasks = ?, on_time_submissions = ?, " +
+            "late_submissions = ?, missing_submissions = ?, updated_at = ? WHERE student_id = ? AND subject_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskWeight findTaskWeight(UUID taskId) {
+        List<TaskWeight> rows = jdbcTemplate.query(
+                "SELECT subject_id, weight, max_score FROM tasks WHERE id = ?",
+                (rs, rowNum) -> new TaskWeight(
+                        rs.getObject("subject_id", UUID.class),
+                        rs.getObject("weight") == null ? 10 : rs.getInt("weight"),
+                        rs.getObject("max_score") == null ? null : rs.getInt("max_score")),
+                taskId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Create the row if needed and lock it for the rest of the transaction
+     */
+    public Sums lockSums(UUID studentId, UUID subjectId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(ENSURE_ROW, UUID.randomUUID(), studentId, subjectId, now, now);
+        return jdbcTemplate.queryForObject(LOCK_SUMS, (rs, rowNum) -> new Sums(
+                rs.getInt("graded_tasks"),
+                rs.getInt("graded_weight"),
+                zeroIfNull(rs.getBigDecimal("weighted_percent_sum")),
+                zeroIfNull(rs.getBigDecimal("percent_sum"))), studentId, subjectId);
+    }
+
+    public void updateSums(UUID studentId, UUID subjectId, Sums sums, BigDecimal currentGrade,
+                           BigDecimal averageScore, boolean atRisk) {
+        jdbcTemplate.update(UPDATE_SUMS, sums.gradedTasks(), sums.gradedWeight(), sums.weightedPercentSum(),
+                sums.percentSum(), currentGrade, averageScore, atRisk, Timestamp.valueOf(LocalDateTime.now()),
+                studentId, subjectId);
+    }
+
+    public LedgerRow findTaskGrade(UUID taskId, UUID studentId) {
+        List<LedgerRow> rows = jdbcTemplate.query(TASK_GRADE, (rs, rowNum) -> new LedgerRow(
+                rs.getObject("id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getBigDecimal("final_score"),
+                rs.getBigDecimal("percentage"),
+                rs.getInt("penalty"),
+                0, null), taskId, studentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public List<LedgerRow> findSubjectGrades(UUID studentId, UUID subjectId) {
+        return jdbcTemplate.query(SUBJECT_GRADES, (rs, rowNum) -> new LedgerRow(
+                rs.getObject("id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getBigDecimal("final_score"),
+                rs.getBigDecimal("percentage"),
+                rs.getInt("penalty"),
+                rs.getObject("weight") == null ? 10 : rs.getInt("weight"),
+                rs.getObject("max_score") == null ? null : rs.getInt("max_score")), studentId, subjectId);
+    }
+
+    public void updateLedger(UUID gradeId, BigDecimal percentage, int penalty) {
+        jdbcTemplate.update("UPDATE grades SET percentage = ?, penalty_applied = ? WHERE id = ?",
+                percentage, BigDecimal.valueOf(penalty), gradeId);
+    }
+
+    public SubmissionCounts countSubmissions(UUID studentId, UUID subjectId) {
+        return jdbcTemplate.queryForObject(SUBMISSION_COUNTS, (rs, rowNum) -> new SubmissionCounts(
+                rs.getInt("total"),
+                rs.getInt("completed"),
+                rs.getInt("on_time"),
+                rs.getInt("late"),
+                rs.getInt("missing")), Timestamp.valueOf(LocalDateTime.now()), studentId, subjectId);
+    }
+
+    public void updateSubmissions(UUID studentId, UUID subjectId, SubmissionCounts counts) {
+        jdbcTemplate.update(UPDATE_SUBMISSIONS, counts.total(), counts.completed(), counts.onTime(),
+                counts.late(), counts.missing(), Timestamp.valueOf(LocalDateTime.now()), studentId, subjectId);
+    }
+
+    public void markCalculated(UUID studentId, UUID subjectId) {
+        jdbcTemplate.update("UPDATE student_analytics SET last_calculated_at = ? WHERE student_id = ? AND subject_id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), studentId, subjectId);
+    }
+
+    public StudentAnalyticsDTO find(UUID studentId, UUID subjectId) {
+        List<StudentAnalyticsDTO> rows = jdbcTemplate.query(
+                "SELECT * FROM student_analytics WHERE student_id = ? AND subject_id = ?",
+                (rs, rowNum) -> StudentAnalyticsDTO.builder()
+                        .studentId(studentId)
+                        .subjectId(subjectId)
+                        .currentGrade(rs.getBigDecimal("current_grade"))
+                        .averageScore(rs.getBigDecimal("average_score"))
+                        .totalTasks(rs.getInt("total_tasks"))
+                        .completedTasks(rs.getInt("completed_tasks"))
+                        .gradedTasks(rs.getInt("graded_tasks"))
+                        .onTimeSubmissions(rs.getInt("on_time_submissions"))
+                        .lateSubmissions(rs.getInt("late_submissions"))
+                        .missingSubmissions(rs.getInt("missing_submissions"))
+                        .atRisk(rs.getBoolean("at_risk_flag"))
+                        .updatedAt(rs.getTimestamp("updated_at") == null ? null : rs.getTimestamp("updated_at").toLocalDateTime())
+                        .build(),
+                studentId, subjectId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Next page of enrollments in id order, for reconciliation
+     */
+    public List<Enrollment> findEnrollmentsAfter(UUID afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, student_id, subject_id FROM subject_enrollments WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new Enrollment(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("student_id", UUID.class),
+                        rs.getObject("subject_id", UUID.class)),
+                afterId, limit);
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    /**
+     * @param maxScore null when the task has none (treated as 100)
+     */
+    public record TaskWeight(UUID subjectId, int weight, Integer maxScore) {
+    }
+
+    public record Sums(int gradedTasks, int gradedWeight, BigDecimal weightedPercentSum, BigDecimal percentSum) {
+    }
+
+    /**
+     * A grade with the percentage last applied to the sums; weight and maxScore are only set for subject reads
+     */
+    public record LedgerRow(UUID gradeId, UUID taskId, BigDecimal finalScore, BigDecimal appliedPercentage, int penalty,
+                            int weight, Integer maxScore) {
+    }
+
+    public record SubmissionCounts(int total, int completed, int onTime, int late, int missing) {
+    }
+
+    public record Enrollment(UUID id, UUID studentId, UUID subjectId) {
+    }
+}
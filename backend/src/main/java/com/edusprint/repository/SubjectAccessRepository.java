@@ -0,0 +1,79 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Source of truth for SubjectAccessIndex: subject owners, enrollments and task subjects
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubjectAccessRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Stream (subject id, faculty id) of every subject
+     */
+    public void forEachSubject(BiConsumer<UUID, UUID> consumer) {
+        jdbcTemplate.query("SELECT id, faculty_id FROM subjects",
+                rs -> { consumer.accept(rs.getObject("id", UUID.class), rs.getObject("faculty_id", UUID.class)); });
+    }
+
+    /**
+     * Stream (subject id, student id) of every enrollment, grouped by subject
+     */
+    public void forEachEnrollment(BiConsumer<UUID, UUID> consumer) {
+        jdbcTemplate.query("SELECT subject_id, student_id FROM subject_enrollments ORDER BY subject_id",
+                rs -> { consumer.accept(rs.getObject("subject_id", UUID.class), rs.getObject("student_id", UUID.class)); });
+    }
+
+    /**
+     * Stream (subject id, faculty id) of subjects updated since the given time; every enrollment
+     * write moves the subject's student_count, so this also covers enrollment changes
+     */
+    public void forEachSubjectChangedSince(LocalDateTime since, BiConsumer<UUID, UUID> consumer) {
+        jdbcTemplate.query("SELECT id, faculty_id FROM subjects WHERE updated_at > ?",
+                rs -> { consumer.accept(rs.getObject("id", UUID.class), rs.getObject("faculty_id", UUID.class)); },
+                Timestamp.valueOf(since));
+    }
+
+    /**
+     * Stream (subject id, student id) of the enrollments of the given subjects, grouped by subject
+     */
+    public void forEachEnrollment(Collection<UUID> subjectIds, BiConsumer<UUID, UUID> consumer) {
+        namedJdbcTemplate.query(
+                "SELECT subject_id, student_id FROM subject_enrollments WHERE subject_id IN (:ids) ORDER BY subject_id",
+                new MapSqlParameterSource("ids", subjectIds),
+                rs -> { consumer.accept(rs.getObject("subject_id", UUID.class), rs.getObject("student_id", UUID.class)); });
+    }
+
+    public Optional<UUID> findFacultyId(UUID subjectId) {
+        List<UUID> faculty = jdbcTemplate.queryForList("SELECT faculty_id FROM subjects WHERE id = ?", UUID.class, subjectId);
+        return faculty.stream().findFirst();
+    }
+
+    public boolean isEnrolled(UUID subjectId, UUID studentId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM subject_enrollments WHERE subject_id = ? AND student_id = ?",
+                Integer.class, subjectId, studentId);
+        return count != null && count > 0;
+    }
+
+    public Optional<UUID> findTaskSubjectId(UUID taskId) {
+        List<UUID> subject = jdbcTemplate.queryForList("SELECT subject_id FROM tasks WHERE id = ?", UUID.class, taskId);
+        return subject.stream().findFirst();
+    }
+}
@@ -0,0 +1,46 @@
+package com.edusprint.repository;
+
+import com.edusprint.dto.SubjectDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the whole subject catalog, with faculty names, in one query
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubjectCatalogRepository {
+
+    private static final String FIND_ALL =
+            "SELECT s.id, s.name, s.code, s.description, s.faculty_id, u.name AS faculty_name, " +
+            "s.student_count, s.max_students, s.is_active, s.created_at " +
+            "FROM subjects s JOIN users u ON u.id = s.faculty_id ORDER BY s.code, s.id";
+
+    private static final RowMapper<SubjectDTO> SUBJECT = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return SubjectDTO.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .code(rs.getString("code"))
+                .description(rs.getString("description"))
+                .faculty(rs.getObject("faculty_id", UUID.class))
+                .facultyName(rs.getString("faculty_name"))
+                .students(rs.getInt("student_count"))
+                .maxStudents(rs.getObject("max_students", Integer.class))
+                .active(rs.getObject("is_active") == null || rs.getBoolean("is_active"))
+                .createdAt(createdAt == null ? null : createdAt.toLocalDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<SubjectDTO> findAll() {
+        return jdbcTemplate.query(FIND_ALL, SUBJECT);
+    }
+}
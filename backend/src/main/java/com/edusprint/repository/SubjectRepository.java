@@ -7,12 +7,13 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository for Subject entity operations
  */
 @Repository
-public interface SubjectRepository extends JpaRepository<Subject, Long> {
+public interface SubjectRepository extends JpaRepository<Subject, UUID> {
 
     /**
      * Find subject by code
@@ -32,20 +33,10 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     /**
      * Find all subjects by faculty ID
      */
-    List<Subject> findByFacultyId(Long facultyId);
-
-    /**
-     * Search subjects by name containing
-     */
-    List<Subject> findByNameContainingIgnoreCase(String name);
-
-    /**
-     * Search subjects by code containing
-     */
-    List<Subject> findByCodeContainingIgnoreCase(String code);
+    List<Subject> findByFacultyId(UUID facultyId);
 
     /**
      * Check if subject exists by ID and faculty ID
      */
-    boolean existsByIdAndFacultyId(Long id, Long facultyId);
+    boolean existsByIdAndFacultyId(UUID id, UUID facultyId);
 }
@@ -0,0 +1,92 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * FIFO subject waitlist, ordered by (requested_at, id).
+ * Entries are only ever taken off the head by a promoter holding a seat reservation, which locks
+ * the subject row, so concurrent promoters for a subject never hand out the same entry.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubjectWaitlistRepository {
+
+    private static final String JOIN =
+            "INSERT INTO subject_waitlist (id, subject_id, student_id, requested_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String POSITION =
+            "SELECT COUNT(*) FROM subject_waitlist w, subject_waitlist me " +
+            "WHERE me.subject_id = ? AND me.student_id = ? AND w.subject_id = me.subject_id " +
+            "AND (w.requested_at < me.requested_at OR (w.requested_at = me.requested_at AND w.id <= me.id))";
+
+    private static final String HEAD =
+            "SELECT id, student_id FROM subject_waitlist WHERE subject_id = ? ORDER BY requested_at, id LIMIT 1";
+
+    private static final String PROMOTABLE_SUBJECTS =
+            "SELECT DISTINCT w.subject_id FROM subject_waitlist w JOIN subjects s ON s.id = w.subject_id " +
+            "WHERE s.max_students IS NULL OR COALESCE(s.student_count, 0) < s.max_students";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Queue the student at the tail; a no-op if already waiting
+     */
+    public void join(UUID subjectId, UUID studentId) {
+        jdbcTemplate.update(JOIN, UUID.randomUUID(), subjectId, studentId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public boolean leave(UUID subjectId, UUID studentId) {
+        return jdbcTemplate.update("DELETE FROM subject_waitlist WHERE subject_id = ? AND student_id = ?",
+                subjectId, studentId) > 0;
+    }
+
+    public void leaveAll(UUID subjectId, Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update("DELETE FROM subject_waitlist WHERE subject_id = :subjectId AND student_id IN (:studentIds)",
+                new MapSqlParameterSource("subjectId", subjectId).addValue("studentIds", studentIds));
+    }
+
+    /**
+     * 1-based place in the queue, or null if the student is not waiting
+     */
+    public Integer findPosition(UUID subjectId, UUID studentId) {
+        Integer position = jdbcTemplate.queryForObject(POSITION, Integer.class, subjectId, studentId);
+        return position == null || position == 0 ? null : position;
+    }
+
+    public Optional<Entry> findHead(UUID subjectId) {
+        return jdbcTemplate.query(HEAD, (rs, rowNum) -> new Entry(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("student_id", UUID.class)), subjectId)
+                .stream().findFirst();
+    }
+
+    public boolean remove(UUID entryId) {
+        return jdbcTemplate.update("DELETE FROM subject_waitlist WHERE id = ?", entryId) > 0;
+    }
+
+    /**
+     * Subjects with someone waiting and at least one free seat
+     */
+    public List<UUID> findPromotableSubjects() {
+        return jdbcTemplate.queryForList(PROMOTABLE_SUBJECTS, UUID.class);
+    }
+
+    public record Entry(UUID id, UUID studentId) {
+    }
+}
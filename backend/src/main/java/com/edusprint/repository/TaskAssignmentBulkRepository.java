@@ -0,0 +1,107 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Set-based task assignment: one INSERT ... SELECT per call instead of one round trip per student
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskAssignmentBulkRepository {
+
+    private static final String ASSIGN_TO_SUBJECT_PG =
+            "INSERT INTO task_assignments (id, task_id, student_id, assigned_at) " +
+            "SELECT gen_random_uuid(), t.id, e.student_id, CURRENT_TIMESTAMP " +
+            "FROM tasks t JOIN subject_enrollments e ON e.subject_id = t.subject_id " +
+            "WHERE t.id = :taskId %s " +
+            "ON CONFLICT (task_id, student_id) DO NOTHING";
+
+    private static final String ASSIGN_TO_SUBJECT_H2 =
+            "INSERT INTO task_assignments (id, task_id, student_id, assigned_at) " +
+            "SELECT RANDOM_UUID(), t.id, e.student_id, CURRENT_TIMESTAMP " +
+            "FROM tasks t JOIN subject_enrollments e ON e.subject_id = t.subject_id " +
+            "WHERE t.id = :taskId %s " +
+            "AND NOT EXISTS (SELECT 1 FROM task_assignments a WHERE a.task_id = t.id AND a.student_id = e.student_id)";
+
+    private static final String ASSIGN_SUBJECT_TASKS_PG =
+            "INSERT INTO task_assignments (id, task_id, student_id, assigned_at) " +
+            "SELECT gen_random_uuid(), t.id, :studentId, CURRENT_TIMESTAMP " +
+            "FROM tasks t WHERE t.subject_id = :subjectId " +
+            "ON CONFLICT (task_id, student_id) DO NOTHING";
+
+    private static final String ASSIGN_SUBJECT_TASKS_H2 =
+            "INSERT INTO task_assignments (id, task_id, student_id, assigned_at) " +
+            "SELECT RANDOM_UUID(), t.id, :studentId, CURRENT_TIMESTAMP " +
+            "FROM tasks t WHERE t.subject_id = :subjectId " +
+            "AND NOT EXISTS (SELECT 1 FROM task_assignments a WHERE a.task_id = t.id AND a.student_id = :studentId)";
+
+    private static final String ASSIGN_SUBJECT_TASKS_TO_STUDENTS_PG =
+            "INSERT INTO task_assignments (id, task_id, student_id, assigned_at) " +
+            "SELECT gen_random_uuid(), t.id, e.student_id, CURRENT_TIMESTAMP " +
+            "FROM tasks t JOIN subject_enrollments e ON e.subject_id = t.subject_id " +
+            "WHERE t.subject_id = :subjectId AND e.student_id IN (:studentIds) " +
+            "ON CONFLICT (task_id, student_id) DO NOTHING";
+
+    private static final String ASSIGN_SUBJECT_TASKS_TO_STUDENTS_H2 =
+            "INSERT INTO task_assignments (id, task_id, student_id, assigned_at) " +
+            "SELECT RANDOM_UUID(), t.id, e.student_id, CURRENT_TIMESTAMP " +
+            "FROM tasks t JOIN subject_enrollments e ON e.subject_id = t.subject_id " +
+            "WHERE t.subject_id = :subjectId AND e.student_id IN (:studentIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM task_assignments a WHERE a.task_id = t.id AND a.student_id = e.student_id)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    /**
+     * Assign a task to every enrolled student of its subject (studentIds null), or to the enrolled
+     * subset of studentIds; an empty list assigns nobody
+     *
+     * @return number of assignments created
+     */
+    public int assignToEnrolledStudents(UUID taskId, Collection<UUID> studentIds) {
+        if (studentIds != null && studentIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("taskId", taskId);
+        String studentFilter = "";
+        if (studentIds != null) {
+            studentFilter = "AND e.student_id IN (:studentIds)";
+            params.addValue("studentIds", studentIds);
+        }
+        String sql = String.format(dialect.isPostgres() ? ASSIGN_TO_SUBJECT_PG : ASSIGN_TO_SUBJECT_H2, studentFilter);
+        return jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Assign every task of a subject to one student (used on enrollment)
+     *
+     * @return number of assignments created
+     */
+    public int assignSubjectTasksToStudent(UUID subjectId, UUID studentId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("subjectId", subjectId)
+                .addValue("studentId", studentId);
+        return jdbcTemplate.update(dialect.isPostgres() ? ASSIGN_SUBJECT_TASKS_PG : ASSIGN_SUBJECT_TASKS_H2, params);
+    }
+
+    /**
+     * Assign every task of a subject to each of the given enrolled students (used on bulk enrollment)
+     *
+     * @return number of assignments created
+     */
+    public int assignSubjectTasksToStudents(UUID subjectId, Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("subjectId", subjectId)
+                .addValue("studentIds", studentIds);
+        return jdbcTemplate.update(dialect.isPostgres() ? ASSIGN_SUBJECT_TASKS_TO_STUDENTS_PG : ASSIGN_SUBJECT_TASKS_TO_STUDENTS_H2, params);
+    }
+}
@@ -5,6 +5,7 @@ import com.edusprint.entity.Task;
 import com.edusprint.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -47,6 +48,12 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
      */
     List<TaskAssignment> findByStudentId(UUID studentId);
 
+    /**
+     * Find all assignments by student ID with their task fetched in the same query
+     */
+    @Query("SELECT ta FROM TaskAssignment ta JOIN FETCH ta.task WHERE ta.student.id = :studentId")
+    List<TaskAssignment> findWithTaskByStudentId(@Param("studentId") UUID studentId);
+
     /**
      * Find submitted assignments
      */
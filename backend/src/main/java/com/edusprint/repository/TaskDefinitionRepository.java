@@ -3,16 +3,20 @@ package com.edusprint.repository;
 import com.edusprint.entity.TaskDefinition;
 import com.edusprint.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository for TaskDefinition entity operations
  */
 @Repository
-public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition, Long> {
+public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition, UUID> {
 
     /**
      * Find all definitions for a task, ordered by index
@@ -22,12 +26,18 @@ public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition,
     /**
      * Find all definitions by task ID, ordered by index
      */
-    List<TaskDefinition> findByTaskIdOrderByOrderIndexAsc(Long taskId);
+    List<TaskDefinition> findByTaskIdOrderByOrderIndexAsc(UUID taskId);
+
+    /**
+     * Find definitions for many tasks in one query, ordered by task then index
+     */
+    @Query("SELECT d FROM TaskDefinition d WHERE d.task.id IN :taskIds ORDER BY d.task.id, d.orderIndex")
+    List<TaskDefinition> findByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds);
 
     /**
      * Find definition by task ID
      */
-    Optional<TaskDefinition> findByTaskId(Long taskId);
+    Optional<TaskDefinition> findByTaskId(UUID taskId);
 
     /**
      * Delete all definitions for a task
@@ -37,7 +47,7 @@ public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition,
     /**
      * Delete all definitions by task ID
      */
-    void deleteByTaskId(Long taskId);
+    void deleteByTaskId(UUID taskId);
 
     /**
      * Count definitions by task
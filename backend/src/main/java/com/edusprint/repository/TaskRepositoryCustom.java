@@ -0,0 +1,20 @@
+package com.edusprint.repository;
+
+import com.edusprint.dto.TaskFilter;
+import com.edusprint.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom Task queries that cannot be expressed as derived finders
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Keyset page of tasks matching the filter, ordered by (dueDate, id).
+     * Pass the dueDate and id of the last row of the previous page, or nulls for the first page.
+     */
+    List<Task> findPage(TaskFilter filter, LocalDateTime afterDueDate, UUID afterId, int limit);
+}
@@ -0,0 +1,76 @@
+package com.edusprint.repository;
+
+import com.edusprint.dto.TaskFilter;
+import com.edusprint.entity.Task;
+import com.edusprint.entity.TaskAssignment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria-based implementation of TaskRepositoryCustom.
+ * All filters compose into a single statement with a keyset predicate on (due_date, id).
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, LocalDateTime afterDueDate, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        Path<LocalDateTime> dueDate = task.get("dueDate");
+        Path<UUID> id = task.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getSubjectId() != null) {
+            predicates.add(cb.equal(task.get("subject").get("id"), filter.getSubjectId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+        if (filter.getTaskType() != null) {
+            predicates.add(cb.equal(task.get("taskType"), filter.getTaskType()));
+        }
+        if (filter.getDueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(dueDate, filter.getDueFrom()));
+        }
+        if (filter.getDueTo() != null) {
+            predicates.add(cb.lessThan(dueDate, filter.getDueTo()));
+        }
+        if (filter.getStudentId() != null) {
+            Subquery<UUID> assigned = query.subquery(UUID.class);
+            Root<TaskAssignment> assignment = assigned.from(TaskAssignment.class);
+            assigned.select(assignment.get("task").get("id"))
+                    .where(cb.equal(assignment.get("task").get("id"), id),
+                            cb.equal(assignment.get("student").get("id"), filter.getStudentId()));
+            predicates.add(cb.exists(assigned));
+        }
+        if (afterDueDate != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(dueDate, afterDueDate),
+                    cb.and(cb.equal(dueDate, afterDueDate), cb.greaterThan(id, afterId))
+            ));
+        }
+
+        query.select(task)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(dueDate), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encoded per-task score distributions (see ScoreDistribution)
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskScoreStatsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create the row if needed, lock it for the rest of the transaction and return its encoding
+     */
+    public byte[] lock(UUID taskId) {
+        jdbcTemplate.update(
+                "INSERT INTO task_score_stats (task_id, sample_count, updated_at) VALUES (?, 0, ?) ON CONFLICT DO NOTHING",
+                taskId, Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject(
+                "SELECT distribution FROM task_score_stats WHERE task_id = ? FOR UPDATE",
+                (rs, rowNum) -> rs.getBytes("distribution"), taskId);
+    }
+
+    public void save(UUID taskId, long sampleCount, byte[] distribution) {
+        jdbcTemplate.update(
+                "UPDATE task_score_stats SET sample_count = ?, distribution = ?, updated_at = ? WHERE task_id = ?",
+                sampleCount, distribution, Timestamp.valueOf(LocalDateTime.now()), taskId);
+    }
+
+    public Stored find(UUID taskId) {
+        List<Stored> rows = jdbcTemplate.query(
+                "SELECT distribution, updated_at FROM task_score_stats WHERE task_id = ?",
+                (rs, rowNum) -> new Stored(rs.getBytes("distribution"),
+                        rs.getTimestamp("updated_at") == null ? null : rs.getTimestamp("updated_at").toLocalDateTime()),
+                taskId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Percentages currently folded into student_analytics for a task, for a full rebuild
+     */
+    public List<BigDecimal> findAppliedPercentages(UUID taskId) {
+        return jdbcTemplate.queryForList(
+                "SELECT percentage FROM grades WHERE task_id = ? AND percentage IS NOT NULL",
+                BigDecimal.class, taskId);
+    }
+
+    public record Stored(byte[] distribution, LocalDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.edusprint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Source rows for the typeahead index: everything on startup, then what changed since a watermark
+ */
+@Repository
+@RequiredArgsConstructor
+public class TypeaheadRepository {
+
+    private static final String USERS = "SELECT id, name, email, role, is_active FROM users";
+    private static final String SUBJECTS = "SELECT id, name, code, is_active FROM subjects";
+
+    private static final RowMapper<UserRow> USER = (rs, rowNum) -> new UserRow(
+            rs.getObject("id", UUID.class),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("role"),
+            rs.getObject("is_active") == null || rs.getBoolean("is_active"));
+
+    private static final RowMapper<SubjectRow> SUBJECT = (rs, rowNum) -> new SubjectRow(
+            rs.getObject("id", UUID.class),
+            rs.getString("name"),
+            rs.getString("code"),
+            rs.getObject("is_active") == null || rs.getBoolean("is_active"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public List<UserRow> findAllUsers() {
+        return jdbcTemplate.query(USERS, USER);
+    }
+
+    public List<UserRow> findUsersChangedSince(LocalDateTime since) {
+        return jdbcTemplate.query(USERS + " WHERE updated_at > ?", USER, Timestamp.valueOf(since));
+    }
+
+    public List<SubjectRow> findAllSubjects() {
+        return jdbcTemplate.query(SUBJECTS, SUBJECT);
+    }
+
+    public List<SubjectRow> findSubjectsChangedSince(LocalDateTime since) {
+        return jdbcTemplate.query(SUBJECTS + " WHERE updated_at > ?", SUBJECT, Timestamp.valueOf(since));
+    }
+
+    public List<SubjectRow> findSubjects(Collection<UUID> ids) {
+        return namedJdbcTemplate.query(SUBJECTS + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids), SUBJECT);
+    }
+
+    public record UserRow(UUID id, String name, String email, String role, boolean active) {
+    }
+
+    public record SubjectRow(UUID id, String name, String code, boolean active) {
+    }
+}
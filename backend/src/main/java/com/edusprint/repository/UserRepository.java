@@ -2,8 +2,12 @@ package com.edusprint.repository;
 
 import com.edusprint.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,14 +19,16 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     /**
-     * Find user by email
+     * Find user by email, ignoring case (rows created before emails were normalized may be mixed case)
      */
-    Optional<User> findByEmail(String email);
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
 
     /**
-     * Check if email exists
+     * Check if email exists, ignoring case
      */
-    boolean existsByEmail(String email);
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    boolean existsByEmail(@Param("email") String email);
 
     /**
      * Find all users by role
@@ -38,4 +44,49 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * Find users by role and institution
      */
     List<User> findByRoleAndInstitution(User.UserRole role, String institution);
+
+    /**
+     * Users whose tokens are not all valid by default (bumped epoch or inactive)
+     */
+    @Query("SELECT u.id AS id, u.tokenEpoch AS tokenEpoch, u.active AS active, u.updatedAt AS updatedAt " +
+           "FROM User u WHERE u.tokenEpoch > 0 OR u.active = false")
+    List<TokenEpochView> findRevocationState();
+
+    /**
+     * Token epoch state for users changed since the given time
+     */
+    @Query("SELECT u.id AS id, u.tokenEpoch AS tokenEpoch, u.active AS active, u.updatedAt AS updatedAt " +
+           "FROM User u WHERE u.updatedAt > :since")
+    List<TokenEpochView> findTokenEpochChangesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Bump a user's token epoch, invalidating every token issued before now
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int incrementTokenEpoch(@Param("id") UUID id);
+
+    /**
+     * Store a rehash of the same password, only if the stored hash is still the one that was verified.
+     * Leaves password_changed_at alone, so the token epoch does not move.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int rehashPassword(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /**
+     * Read the persisted token epoch for a user
+     */
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    Integer findTokenEpochById(@Param("id") UUID id);
+
+    /**
+     * Projection used by the token epoch registry
+     */
+    interface TokenEpochView {
+        UUID getId();
+        Integer getTokenEpoch();
+        Boolean getActive();
+        LocalDateTime getUpdatedAt();
+    }
 }
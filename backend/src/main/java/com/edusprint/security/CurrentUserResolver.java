@@ -0,0 +1,34 @@
+package com.edusprint.security;
+
+import com.edusprint.entity.User;
+import com.edusprint.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Resolves the ID of the authenticated user.
+ * JWT-authenticated requests carry the ID in their principal; only other principals are looked up by email.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+
+    public UUID currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            throw new RuntimeException("Not authenticated");
+        }
+        if (auth.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.userId();
+        }
+        return userRepository.findByEmail(auth.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
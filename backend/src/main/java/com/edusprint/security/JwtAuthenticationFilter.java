@@ -1,14 +1,19 @@
 package com.edusprint.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,14 +22,24 @@ import java.io.IOException;
 
 /**
  * JWT Authentication Filter
- * Validates JWT token on each request
+ * Validates JWT token on each request.
+ * Verified principals are cached per token so repeat requests skip parsing and the user lookup;
+ * both modes authenticate with a JwtPrincipal, so the user id is always at hand.
+ * With jwt.stateless-principal enabled the principal is built from claims instead.
+ * In both modes tokens of deactivated users and tokens older than the user's epoch are rejected.
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final VerifiedPrincipalCache principalCache;
+    private final TokenEpochRegistry tokenEpochRegistry;
+
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -35,7 +50,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         // Check if Authorization header exists and starts with "Bearer "
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -45,23 +59,85 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Extract JWT token
         jwt = authHeader.substring(7);
-        userEmail = jwtUtil.extractUsername(jwt);
+
+        if (statelessPrincipal) {
+            authenticateFromClaims(jwt, request);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         // Validate token and set authentication
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            String cacheKey = principalCache.keyFor(jwt);
+            JwtPrincipal principal = principalCache.get(cacheKey);
+
+            if (principal == null) {
+                try {
+                    // Single parse: signature and expiry are verified here
+                    Claims claims = jwtUtil.parseVerifiedClaims(jwt);
+                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+                    if (!userDetails.isEnabled()) {
+                        log.debug("Rejected JWT for deactivated user: {}", claims.getSubject());
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    principal = JwtPrincipal.fromClaims(claims).withRole(roleOf(userDetails));
+                    principalCache.put(cacheKey, principal, claims.getExpiration());
+                } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+                    log.debug("Rejected JWT: {}", e.getMessage());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+            }
+
+            // Cached principals outlive a deactivation or revocation made on another node
+            if (!tokenEpochRegistry.isCurrent(principal.userId(), principal.tokenEpoch())) {
+                log.debug("Rejected revoked JWT for user: {}", principal.userId());
+                filterChain.doFilter(request, response);
+                return;
             }
+
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    principal.authorities()
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static String roleOf(UserDetails userDetails) {
+        return userDetails.getAuthorities().iterator().next().getAuthority();
+    }
+
+    /**
+     * Stateless mode: build the Authentication from signed claims without touching the database.
+     * Revoked tokens are rejected by comparing their epoch claim with the in-memory registry.
+     */
+    private void authenticateFromClaims(String jwt, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        JwtPrincipal principal;
+        try {
+            principal = JwtPrincipal.fromClaims(jwtUtil.parseVerifiedClaims(jwt));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return;
+        }
+        if (!tokenEpochRegistry.isCurrent(principal.userId(), principal.tokenEpoch())) {
+            log.debug("Rejected revoked JWT for user: {}", principal.userId());
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.authorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
@@ -0,0 +1,53 @@
+package com.edusprint.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principal built from signed JWT claims. In stateless mode the role comes from the token;
+ * otherwise it is taken from the user's database row when the token is first seen.
+ * getName() returns the email, matching the DB-backed UserDetails principal.
+ */
+public record JwtPrincipal(UUID userId, String email, String role, int tokenEpoch) implements Principal {
+
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES = new ConcurrentHashMap<>();
+
+    /**
+     * Build principal from verified claims
+     */
+    public static JwtPrincipal fromClaims(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null) {
+            throw new IllegalArgumentException("Token is missing userId or role claim");
+        }
+        Integer epoch = claims.get("epoch", Integer.class);
+        return new JwtPrincipal(UUID.fromString(userId), claims.getSubject(), role, epoch == null ? 0 : epoch);
+    }
+
+    /**
+     * Same user and epoch, with the role currently stored for the user rather than the one signed into the token
+     */
+    public JwtPrincipal withRole(String currentRole) {
+        return new JwtPrincipal(userId, email, currentRole, tokenEpoch);
+    }
+
+    /**
+     * Authorities for the role; one shared immutable list per role
+     */
+    public List<GrantedAuthority> authorities() {
+        return AUTHORITIES.computeIfAbsent(role, r -> List.of(new SimpleGrantedAuthority(r)));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -27,6 +27,8 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    private volatile SecretKey signKey;
+
     /**
      * Extract username (email) from token
      */
@@ -49,6 +51,15 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Parse and verify token once, returning its claims.
+     * Signature and expiry are checked by the parser; callers read subject,
+     * expiration and custom claims from the result instead of re-parsing.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     /**
      * Extract all claims from token
      */
@@ -78,10 +89,11 @@ public class JwtUtil {
     /**
      * Generate token for user
      */
-    public String generateToken(String username, UUID userId, String role) {
+    public String generateToken(String username, UUID userId, String role, int tokenEpoch) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId.toString());
         claims.put("role", role);
+        claims.put("epoch", tokenEpoch);
         return createToken(claims, username);
     }
 
@@ -99,10 +111,15 @@ public class JwtUtil {
     }
 
     /**
-     * Get signing key from secret
+     * Get signing key from secret (decoded once and reused)
      */
     private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secret);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signKey = key;
+        }
+        return key;
     }
 }
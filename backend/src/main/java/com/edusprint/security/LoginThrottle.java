@@ -0,0 +1,64 @@
+package com.edusprint.security;
+
+import com.edusprint.exception.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account and per-IP throttling for login and signup.
+ * Checked before any password hashing or repository access.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final TokenBucketLimiter accountLimiter;
+    private final TokenBucketLimiter ipLimiter;
+
+    public LoginThrottle(
+            @Value("${login-throttle.account.capacity:5}") int accountCapacity,
+            @Value("${login-throttle.account.refill-per-minute:5}") double accountRefill,
+            @Value("${login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${login-throttle.ip.refill-per-minute:30}") double ipRefill,
+            @Value("${login-throttle.sets:4096}") int sets
+    ) {
+        this.accountLimiter = new TokenBucketLimiter(accountCapacity, accountRefill, sets);
+        this.ipLimiter = new TokenBucketLimiter(ipCapacity, ipRefill, sets);
+    }
+
+    /**
+     * Check login attempt against both the client IP and the account
+     */
+    public void checkLogin(String email, String clientIp) {
+        long now = System.nanoTime();
+        reject(ipLimiter.tryAcquire(clientIp, now));
+        reject(accountLimiter.tryAcquire(email, now));
+    }
+
+    /**
+     * Check signup attempt against the client IP
+     */
+    public void checkSignup(String clientIp) {
+        reject(ipLimiter.tryAcquire(clientIp, System.nanoTime()));
+    }
+
+    @Scheduled(fixedDelayString = "${login-throttle.sweep-interval:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = accountLimiter.evictIdle(now) + ipLimiter.evictIdle(now);
+        if (evicted > 0) {
+            log.debug("Evicted {} idle login throttle buckets", evicted);
+        }
+    }
+
+    private static void reject(long waitNanos) {
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException("Too many attempts, please retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+}
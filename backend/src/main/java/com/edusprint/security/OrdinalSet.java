@@ -0,0 +1,213 @@
+package com.edusprint.security;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of non-negative ints, laid out like a Roaring bitmap.
+ * Values are split by their high 16 bits into chunks; a chunk holding up to 4096 values is a
+ * sorted char[] (2 bytes per value), a fuller one is a 1024-word bitmap (8 KiB, one bit per value).
+ * contains() is a binary search over chunk keys plus a binary search or a single bit test.
+ * Writers derive a new set (copying only the touched chunk), so readers never need a lock.
+ */
+final class OrdinalSet {
+
+    static final OrdinalSet EMPTY = new OrdinalSet(new char[0], new Object[0], 0);
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private final char[] keys;
+    private final Object[] chunks; // char[] (sorted) or long[BITMAP_WORDS]
+    private final int size;
+
+    private OrdinalSet(char[] keys, Object[] chunks, int size) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Bulk build; duplicates are ignored
+     */
+    static OrdinalSet of(int[] values) {
+        int[] sorted = Arrays.stream(values).sorted().distinct().toArray();
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("Ordinals are non-negative: " + sorted[0]);
+        }
+        char[] keys = new char[sorted.length];
+        Object[] chunks = new Object[sorted.length];
+        int chunkCount = 0;
+        int start = 0;
+        while (start < sorted.length) {
+            char high = high(sorted[start]);
+            int end = start;
+            while (end < sorted.length && high(sorted[end]) == high) {
+                end++;
+            }
+            char[] lows = new char[end - start];
+            for (int i = start; i < end; i++) {
+                lows[i - start] = low(sorted[i]);
+            }
+            keys[chunkCount] = high;
+            if (lows.length <= ARRAY_MAX) {
+                chunks[chunkCount] = lows;
+            } else {
+                long[] bitmap = new long[BITMAP_WORDS];
+                for (char v : lows) {
+                    bitmap[v >>> 6] |= 1L << v;
+                }
+                chunks[chunkCount] = bitmap;
+            }
+            chunkCount++;
+            start = end;
+        }
+        return new OrdinalSet(Arrays.copyOf(keys, chunkCount), Arrays.copyOf(chunks, chunkCount), sorted.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, high(value));
+        if (index < 0) {
+            return false;
+        }
+        Object chunk = chunks[index];
+        char low = low(value);
+        if (chunk instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunk, low) >= 0;
+    }
+
+    OrdinalSet with(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Ordinals are non-negative: " + value);
+        }
+        char high = high(value);
+        char low = low(value);
+        int index = Arrays.binarySearch(keys, high);
+        if (index < 0) {
+            int at = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Object[] newChunks = new Object[chunks.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(chunks, 0, newChunks, 0, at);
+            newKeys[at] = high;
+            newChunks[at] = new char[] {low};
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(chunks, at, newChunks, at + 1, chunks.length - at);
+            return new OrdinalSet(newKeys, newChunks, size + 1);
+        }
+
+        Object chunk = chunks[index];
+        Object updated;
+        if (chunk instanceof long[] bitmap) {
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                return this;
+            }
+            long[] copy = bitmap.clone();
+            copy[low >>> 6] |= 1L << low;
+            updated = copy;
+        } else {
+            char[] values = (char[]) chunk;
+            int at = Arrays.binarySearch(values, low);
+            if (at >= 0) {
+                return this;
+            }
+            at = -at - 1;
+            if (values.length < ARRAY_MAX) {
+                char[] copy = new char[values.length + 1];
+                System.arraycopy(values, 0, copy, 0, at);
+                copy[at] = low;
+                System.arraycopy(values, at, copy, at + 1, values.length - at);
+                updated = copy;
+            } else {
+                long[] bitmap = new long[BITMAP_WORDS];
+                for (char v : values) {
+                    bitmap[v >>> 6] |= 1L << v;
+                }
+                bitmap[low >>> 6] |= 1L << low;
+                updated = bitmap;
+            }
+        }
+        return replace(index, updated, size + 1);
+    }
+
+    OrdinalSet without(int value) {
+        int index = Arrays.binarySearch(keys, high(value));
+        if (index < 0) {
+            return this;
+        }
+        Object chunk = chunks[index];
+        char low = low(value);
+        Object updated;
+        int remaining;
+        if (chunk instanceof long[] bitmap) {
+            if ((bitmap[low >>> 6] & (1L << low)) == 0) {
+                return this;
+            }
+            long[] copy = bitmap.clone();
+            copy[low >>> 6] &= ~(1L << low);
+            remaining = cardinality(copy);
+            updated = remaining > ARRAY_MAX ? copy : toArray(copy, remaining);
+        } else {
+            char[] values = (char[]) chunk;
+            int at = Arrays.binarySearch(values, low);
+            if (at < 0) {
+                return this;
+            }
+            char[] copy = new char[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            System.arraycopy(values, at + 1, copy, at, values.length - at - 1);
+            remaining = copy.length;
+            updated = copy;
+        }
+        if (remaining > 0) {
+            return replace(index, updated, size - 1);
+        }
+        char[] newKeys = new char[keys.length - 1];
+        Object[] newChunks = new Object[chunks.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(chunks, 0, newChunks, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(chunks, index + 1, newChunks, index, chunks.length - index - 1);
+        return new OrdinalSet(newKeys, newChunks, size - 1);
+    }
+
+    private OrdinalSet replace(int index, Object chunk, int newSize) {
+        Object[] newChunks = chunks.clone();
+        newChunks[index] = chunk;
+        return new OrdinalSet(keys, newChunks, newSize);
+    }
+
+    private static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static char[] toArray(long[] bitmap, int count) {
+        char[] values = new char[count];
+        int n = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                values[n++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+}
@@ -0,0 +1,338 @@
+package com.edusprint.security;
+
+import com.edusprint.cache.BoundedLruCache;
+import com.edusprint.event.EnrollmentChangedEvent;
+import com.edusprint.event.SubjectCatalogChangedEvent;
+import com.edusprint.repository.SubjectAccessRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-memory authorization index: for each subject its owning faculty and the set of enrolled
+ * students, held as an OrdinalSet of per-student ordinals. "May user X see subject Y" is two map
+ * lookups and a bitmap probe, with no database round trip.
+ * The index is loaded on startup and kept current from EnrollmentChangedEvent and
+ * SubjectCatalogChangedEvent after commit. Writes made on other nodes are picked up by an
+ * incremental refresh from subjects.updated_at, which every enrollment write moves: each changed
+ * subject's owner and roster are re-read, so a revocation elsewhere stops granting access here
+ * within refresh-interval. A full reload still runs now and then as a backstop.
+ * A grant from the index is trusted. A denial is confirmed against the database (unless
+ * verify-denials is off) and the answer learned, so a change the index has not seen yet costs one
+ * query instead of a wrong 403; denials are the rare path. Until the first load completes, every
+ * check goes to the database.
+ * Events that arrive during a reload are replayed onto the reloaded maps before they are swapped in.
+ */
+@Slf4j
+@Component
+public class SubjectAccessIndex {
+
+    private final SubjectAccessRepository accessRepository;
+    private final boolean enabled;
+    private final boolean verifyDenials;
+    private final long overlapSeconds;
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final BoundedLruCache<UUID, UUID> taskSubjects;
+    private final Counter verifications;
+    private final Object reloadLock = new Object();
+
+    private volatile Map<UUID, SubjectAccess> subjects = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile LocalDateTime watermark;
+    // Guarded by this; non-null while a reload is building new maps
+    private List<Object> pendingDuringReload;
+
+    public SubjectAccessIndex(
+            SubjectAccessRepository accessRepository,
+            MeterRegistry meterRegistry,
+            @Value("${access-index.enabled:true}") boolean enabled,
+            @Value("${access-index.verify-denials:true}") boolean verifyDenials,
+            @Value("${access-index.refresh-overlap:5}") long overlapSeconds,
+            @Value("${access-index.task-cache-size:100000}") long taskCacheSize
+    ) {
+        this.accessRepository = accessRepository;
+        this.enabled = enabled;
+        this.verifyDenials = verifyDenials;
+        this.overlapSeconds = overlapSeconds;
+        this.taskSubjects = new BoundedLruCache<>(taskCacheSize);
+        this.verifications = Counter.builder("access.index.verifications")
+                .description("Access checks answered from the database because the index denied or was not loaded")
+                .register(meterRegistry);
+        Gauge.builder("access.index.subjects", this, index -> index.subjects.size()).register(meterRegistry);
+        Gauge.builder("access.index.students", ordinals, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Whether the user owns (teaches) the subject
+     */
+    public boolean isFaculty(UUID subjectId, UUID userId) {
+        if (subjectId == null || userId == null) {
+            return false;
+        }
+        SubjectAccess access = loaded ? subjects.get(subjectId) : null;
+        if (access != null && userId.equals(access.facultyId())) {
+            return true;
+        }
+        if (loaded && !verifyDenials) {
+            return false;
+        }
+        verifications.increment();
+        Optional<UUID> facultyId = accessRepository.findFacultyId(subjectId);
+        facultyId.ifPresent(id -> learnFaculty(subjectId, id));
+        return facultyId.map(userId::equals).orElse(false);
+    }
+
+    /**
+     * Whether the student holds a seat in the subject
+     */
+    public boolean isEnrolled(UUID subjectId, UUID studentId) {
+        if (subjectId == null || studentId == null) {
+            return false;
+        }
+        SubjectAccess access = loaded ? subjects.get(subjectId) : null;
+        Integer ordinal = ordinals.get(studentId);
+        if (access != null && ordinal != null && access.students().contains(ordinal)) {
+            return true;
+        }
+        if (loaded && !verifyDenials) {
+            return false;
+        }
+        verifications.increment();
+        boolean enrolled = accessRepository.isEnrolled(subjectId, studentId);
+        if (enrolled && loaded) {
+            applyEnrollment(subjectId, List.of(studentId), List.of());
+        }
+        return enrolled;
+    }
+
+    /**
+     * Faculty of the subject or a student enrolled in it
+     */
+    public boolean canView(UUID subjectId, UUID userId) {
+        return isFaculty(subjectId, userId) || isEnrolled(subjectId, userId);
+    }
+
+    /**
+     * Subject a task belongs to; tasks never move between subjects, so the most recently used
+     * lookups are cached without expiry
+     */
+    public Optional<UUID> subjectOfTask(UUID taskId) {
+        UUID subjectId = taskSubjects.get(taskId);
+        if (subjectId != null) {
+            return Optional.of(subjectId);
+        }
+        Optional<UUID> found = accessRepository.findTaskSubjectId(taskId);
+        found.ifPresent(id -> taskSubjects.put(taskId, id));
+        return found;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (enabled) {
+            applyEnrollment(event.subjectId(), event.enrolled(), event.unenrolled());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubjectChanged(SubjectCatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Optional<UUID> facultyId = accessRepository.findFacultyId(event.subjectId());
+        if (facultyId.isPresent()) {
+            learnFaculty(event.subjectId(), facultyId.get());
+        } else {
+            removeSubject(event.subjectId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (reloadLock) {
+            LocalDateTime startedAt = LocalDateTime.now();
+            synchronized (this) {
+                pendingDuringReload = new ArrayList<>();
+            }
+            Map<UUID, SubjectAccess> built;
+            try {
+                built = build();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                boolean first = !loaded;
+                List<Object> pending = pendingDuringReload;
+                pendingDuringReload = null;
+                subjects = built;
+                for (Object change : pending) {
+                    replay(change);
+                }
+                loaded = true;
+                watermark = startedAt;
+                if (first) {
+                    log.info("Loaded access index: {} subjects, {} students", built.size(), ordinals.size());
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${access-index.reload-interval:300000}",
+               initialDelayString = "${access-index.reload-interval:300000}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Re-read owner and roster of subjects updated since the last refresh, including on other nodes
+     */
+    @Scheduled(fixedDelayString = "${access-index.refresh-interval:2000}")
+    public void refresh() {
+        if (!enabled || watermark == null) {
+            return;
+        }
+        synchronized (reloadLock) {
+            LocalDateTime startedAt = LocalDateTime.now();
+            Map<UUID, UUID> owners = new HashMap<>();
+            // Re-read a small overlap so subjects committed just before the last refresh are not missed
+            accessRepository.forEachSubjectChangedSince(watermark.minusSeconds(overlapSeconds), owners::put);
+            if (!owners.isEmpty()) {
+                Map<UUID, SubjectAccess> changed = new HashMap<>(owners.size() * 2);
+                collect(owners, consumer -> accessRepository.forEachEnrollment(owners.keySet(), consumer), changed);
+                replaceSubjects(changed);
+                log.debug("Refreshed access index for {} subjects", changed.size());
+            }
+            watermark = startedAt;
+        }
+    }
+
+    private Map<UUID, SubjectAccess> build() {
+        Map<UUID, UUID> owners = new HashMap<>();
+        accessRepository.forEachSubject(owners::put);
+
+        Map<UUID, SubjectAccess> built = new ConcurrentHashMap<>(owners.size() * 2);
+        collect(owners, accessRepository::forEachEnrollment, built);
+        return built;
+    }
+
+    /**
+     * Build the access of each owned subject from enrollments streamed grouped by subject
+     */
+    private void collect(Map<UUID, UUID> owners, Consumer<BiConsumer<UUID, UUID>> enrollments,
+                         Map<UUID, SubjectAccess> into) {
+        UUID[] current = new UUID[1];
+        List<Integer> students = new ArrayList<>();
+        enrollments.accept((subjectId, studentId) -> {
+            if (!subjectId.equals(current[0])) {
+                flush(current[0], students, owners, into);
+                current[0] = subjectId;
+            }
+            students.add(ordinalOf(studentId));
+        });
+        flush(current[0], students, owners, into);
+        owners.forEach((subjectId, facultyId) -> into.putIfAbsent(subjectId, new SubjectAccess(facultyId, OrdinalSet.EMPTY)));
+    }
+
+    private static void flush(UUID subjectId, List<Integer> students, Map<UUID, UUID> owners,
+                              Map<UUID, SubjectAccess> built) {
+        if (subjectId != null && owners.containsKey(subjectId)) {
+            int[] values = students.stream().mapToInt(Integer::intValue).toArray();
+            built.put(subjectId, new SubjectAccess(owners.get(subjectId), OrdinalSet.of(values)));
+        }
+        students.clear();
+    }
+
+    private synchronized void applyEnrollment(UUID subjectId, List<UUID> enrolled, List<UUID> unenrolled) {
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(new EnrollmentChangedEvent(subjectId, enrolled, unenrolled));
+        }
+        SubjectAccess access = subjects.get(subjectId);
+        if (access == null) {
+            // Unknown subject: the next faculty check or reload brings it in with its enrollments
+            return;
+        }
+        OrdinalSet students = access.students();
+        for (UUID studentId : enrolled) {
+            students = students.with(ordinalOf(studentId));
+        }
+        for (UUID studentId : unenrolled) {
+            Integer ordinal = ordinals.get(studentId);
+            if (ordinal != null) {
+                students = students.without(ordinal);
+            }
+        }
+        subjects.put(subjectId, new SubjectAccess(access.facultyId(), students));
+    }
+
+    private synchronized void learnFaculty(UUID subjectId, UUID facultyId) {
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(new OwnerChange(subjectId, facultyId));
+        }
+        SubjectAccess access = subjects.get(subjectId);
+        if (access == null) {
+            // A subject created since the last load; its enrollments are verified on first use
+            subjects.put(subjectId, new SubjectAccess(facultyId, OrdinalSet.EMPTY));
+        } else if (!facultyId.equals(access.facultyId())) {
+            subjects.put(subjectId, new SubjectAccess(facultyId, access.students()));
+        }
+    }
+
+    private synchronized void replaceSubjects(Map<UUID, SubjectAccess> changed) {
+        // Holding reloadLock, so no reload is collecting changes to replay
+        subjects.putAll(changed);
+    }
+
+    private synchronized void removeSubject(UUID subjectId) {
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(new OwnerChange(subjectId, null));
+        }
+        subjects.remove(subjectId);
+    }
+
+    private void replay(Object change) {
+        if (change instanceof EnrollmentChangedEvent event) {
+            applyEnrollment(event.subjectId(), event.enrolled(), event.unenrolled());
+        } else if (change instanceof OwnerChange owner) {
+            if (owner.facultyId() == null) {
+                subjects.remove(owner.subjectId());
+            } else {
+                learnFaculty(owner.subjectId(), owner.facultyId());
+            }
+        }
+    }
+
+    private int ordinalOf(UUID studentId) {
+        return ordinals.computeIfAbsent(studentId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    private record SubjectAccess(UUID facultyId, OrdinalSet students) {
+    }
+
+    private record OwnerChange(UUID subjectId, UUID facultyId) {
+    }
+}
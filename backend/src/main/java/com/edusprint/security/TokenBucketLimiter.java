@@ -0,0 +1,126 @@
+package com.edusprint.security;
+
+/**
+ * Fixed-size, lock-striped token bucket table.
+ * Buckets live in a set-associative table of parallel primitive arrays, so a check
+ * allocates nothing and memory is bounded by the table size. When a set is full, only a
+ * bucket idle long enough to have refilled (one evictIdle() would clear) is recycled; with
+ * none, the new key is refused, so a flood of fresh keys cannot reset a throttled key.
+ * Keys are compared case-insensitively.
+ */
+public final class TokenBucketLimiter {
+
+    private static final int WAYS = 4;
+    private static final int STRIPES = 64;
+
+    private final int setMask;
+    private final Object[] locks;
+    private final String[] keys;
+    private final double[] tokens;
+    private final long[] updatedAt;
+    private final double capacity;
+    private final double refillPerNano;
+    private final long idleNanos;
+
+    /**
+     * @param capacity        burst size (max tokens per key)
+     * @param refillPerMinute tokens added back per minute
+     * @param sets            number of sets (rounded up to a power of two); table holds sets * 4 keys
+     */
+    public TokenBucketLimiter(int capacity, double refillPerMinute, int sets) {
+        int setCount = Integer.highestOneBit(Math.max(1, sets - 1)) << 1;
+        this.setMask = setCount - 1;
+        this.locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.keys = new String[setCount * WAYS];
+        this.tokens = new double[setCount * WAYS];
+        this.updatedAt = new long[setCount * WAYS];
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / 60_000_000_000d;
+        // A bucket idle this long has refilled completely and carries no state worth keeping
+        this.idleNanos = (long) Math.ceil(capacity / refillPerNano);
+    }
+
+    /**
+     * Try to take one token for the key.
+     *
+     * @return 0 if allowed, otherwise nanoseconds until a token becomes available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        int set = hashIgnoreCase(key) & setMask;
+        int base = set * WAYS;
+        synchronized (locks[set & (STRIPES - 1)]) {
+            int slot = -1;
+            int free = -1;
+            int lru = -1;
+            for (int i = base; i < base + WAYS; i++) {
+                String existing = keys[i];
+                if (existing == null) {
+                    if (free < 0) {
+                        free = i;
+                    }
+                } else if (existing.equalsIgnoreCase(key)) {
+                    slot = i;
+                    break;
+                } else if (lru < 0 || updatedAt[i] < updatedAt[lru]) {
+                    lru = i;
+                }
+            }
+
+            double available;
+            if (slot < 0) {
+                if (free < 0) {
+                    long idleFor = nowNanos - updatedAt[lru];
+                    if (idleFor < idleNanos) {
+                        // Fail closed: every bucket in the set may still be holding a key back
+                        return idleNanos - idleFor;
+                    }
+                    free = lru;
+                }
+                slot = free;
+                keys[slot] = key;
+                available = capacity;
+            } else {
+                long elapsed = nowNanos - updatedAt[slot];
+                available = Math.min(capacity, tokens[slot] + elapsed * refillPerNano);
+            }
+            updatedAt[slot] = nowNanos;
+
+            if (available >= 1d) {
+                tokens[slot] = available - 1d;
+                return 0L;
+            }
+            tokens[slot] = available;
+            return (long) Math.ceil((1d - available) / refillPerNano);
+        }
+    }
+
+    /**
+     * Clear buckets that have been idle long enough to be full again
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (int set = 0; set <= setMask; set++) {
+            int base = set * WAYS;
+            synchronized (locks[set & (STRIPES - 1)]) {
+                for (int i = base; i < base + WAYS; i++) {
+                    if (keys[i] != null && nowNanos - updatedAt[i] >= idleNanos) {
+                        keys[i] = null;
+                        evicted++;
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private static int hashIgnoreCase(String key) {
+        int h = 0;
+        for (int i = 0, n = key.length(); i < n; i++) {
+            h = 31 * h + Character.toLowerCase(key.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+}
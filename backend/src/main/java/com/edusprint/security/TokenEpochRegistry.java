@@ -0,0 +1,112 @@
+package com.edusprint.security;
+
+import com.edusprint.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of per-user token epochs used to revoke JWTs in both principal modes.
+ * Only users whose epoch was bumped or who are inactive are held; everyone else
+ * is implicitly at epoch 0. The map is refreshed incrementally from users.updated_at.
+ */
+@Slf4j
+@Component
+public class TokenEpochRegistry {
+
+    /** Epoch recorded for deactivated users; no issued token can match it */
+    static final int INACTIVE = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long overlapSeconds;
+    private final Map<UUID, Integer> epochs = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime watermark;
+
+    public TokenEpochRegistry(
+            UserRepository userRepository,
+            @Value("${jwt.epoch-check:true}") boolean enabled,
+            @Value("${jwt.epoch-refresh-overlap:5}") long overlapSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.overlapSeconds = overlapSeconds;
+    }
+
+    /**
+     * Check whether a token issued at the given epoch is still valid for the user.
+     * A newer epoch than the one held here is accepted: the token is signed, so it can only
+     * come from a login that saw a bump this node has not refreshed yet.
+     */
+    public boolean isCurrent(UUID userId, int tokenEpoch) {
+        Integer current = epochs.get(userId);
+        return current == null || (current != INACTIVE && tokenEpoch >= current);
+    }
+
+    /**
+     * Record a local revocation immediately, ahead of the next refresh
+     */
+    public void recordEpoch(UUID userId, int epoch, boolean active) {
+        apply(userId, epoch, active);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        apply(userRepository.findRevocationState());
+        watermark = startedAt;
+        log.info("Loaded token epochs for {} users", epochs.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.epoch-refresh-interval:15000}")
+    public void refresh() {
+        LocalDateTime since = watermark;
+        if (!enabled || since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Re-read a small overlap so rows committed just before the last refresh are not missed
+        List<UserRepository.TokenEpochView> changes =
+                userRepository.findTokenEpochChangesSince(since.minusSeconds(overlapSeconds));
+        apply(changes);
+        watermark = startedAt;
+        if (!changes.isEmpty()) {
+            log.debug("Refreshed token epochs for {} users", changes.size());
+        }
+    }
+
+    public int size() {
+        return epochs.size();
+    }
+
+    private void apply(List<UserRepository.TokenEpochView> rows) {
+        for (UserRepository.TokenEpochView row : rows) {
+            boolean active = row.getActive() == null || row.getActive();
+            int epoch = row.getTokenEpoch() == null ? 0 : row.getTokenEpoch();
+            apply(row.getId(), epoch, active);
+        }
+    }
+
+    private void apply(UUID userId, int epoch, boolean active) {
+        if (!active) {
+            epochs.put(userId, INACTIVE);
+        } else if (epoch == 0) {
+            epochs.remove(userId);
+        } else {
+            epochs.put(userId, epoch);
+        }
+    }
+}
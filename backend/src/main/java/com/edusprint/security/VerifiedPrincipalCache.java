@@ -0,0 +1,119 @@
+package com.edusprint.security;
+
+import com.edusprint.cache.BoundedLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * Bounded LRU cache of principals whose JWT has already been verified.
+ * Keyed by a SHA-256 digest of the raw token so tokens are never held in memory.
+ * Entries carry the user id from the token, so resolving the current user needs no lookup.
+ * An entry lives until the token's exp claim or the configured max TTL,
+ * whichever comes first, so role changes and deactivations still take effect.
+ */
+@Component
+public class VerifiedPrincipalCache {
+
+    private final BoundedLruCache<String, Entry> entries;
+    private final long maxTtlMillis;
+    private final Counter hits;
+    private final Counter misses;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    public VerifiedPrincipalCache(
+            @Value("${jwt.principal-cache.max-entries:10000}") int maxEntries,
+            @Value("${jwt.principal-cache.max-ttl:300000}") long maxTtlMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.entries = new BoundedLruCache<>(maxEntries);
+        this.maxTtlMillis = maxTtlMillis;
+        this.hits = Counter.builder("auth.principal.cache")
+                .tag("result", "hit")
+                .description("JWT requests served from the verified principal cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.principal.cache")
+                .tag("result", "miss")
+                .description("JWT requests that required token parsing and user lookup")
+                .register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", entries, BoundedLruCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compute the cache key for a raw token
+     */
+    public String keyFor(String token) {
+        MessageDigest digest = SHA256.get();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Get cached principal, or null if absent or expired
+     */
+    public JwtPrincipal get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal;
+    }
+
+    /**
+     * Cache a verified principal until the token expires (capped by max TTL)
+     */
+    public void put(String key, JwtPrincipal principal, Date tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTtlMillis;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        entries.put(key, new Entry(principal, expiresAt));
+    }
+
+    /**
+     * Drop every cached principal for a user (e.g. after role change)
+     */
+    public void invalidateUser(String email) {
+        entries.removeIf((key, entry) -> entry.principal.email().equals(email));
+    }
+
+    /**
+     * Drop all cached principals
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(JwtPrincipal principal, long expiresAt) {
+    }
+}
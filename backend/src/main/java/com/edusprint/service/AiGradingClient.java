@@ -0,0 +1,40 @@
+package com.edusprint.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client for a grading model.
+ * Calls are non-blocking; responses come back in the same order as the requests of the batch.
+ * Implementations must be thread-safe.
+ */
+public interface AiGradingClient {
+
+    /**
+     * Grade a batch of prompts in one model call
+     */
+    CompletableFuture<List<Response>> gradeBatch(List<Request> requests);
+
+    /**
+     * Largest batch the backend accepts in one call (1 if it does not batch)
+     */
+    int maxBatchSize();
+
+    String modelVersion();
+
+    /**
+     * @param id     caller's correlation id, echoed in the response
+     * @param prompt full prompt including rubric and submission
+     */
+    record Request(String id, String prompt) {
+    }
+
+    /**
+     * @param percent    score as a percentage of the task's max score
+     * @param confidence model confidence, 0-1
+     * @param error      set instead of a score when the model could not grade this item
+     */
+    record Response(String id, double percent, String feedback, double confidence,
+                    int tokensUsed, String rawResponse, String error) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.AiGradingLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Buffers ai_grading_logs rows in memory and writes them in JDBC batches off the grading path.
+ * The buffer is bounded: when full, new rows are dropped and counted rather than slowing grading.
+ */
+@Slf4j
+@Component
+public class AiGradingLogWriter {
+
+    private static final String INSERT_LOG =
+            "INSERT INTO ai_grading_logs (id, grade_id, model_version, prompt_used, raw_response, confidence_score, " +
+            "processing_time_ms, tokens_used, error_message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AiGradingLog> buffer;
+    private final int batchSize;
+    private final Counter dropped;
+
+    public AiGradingLogWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${ai-grading.log.buffer-capacity:10000}") int capacity,
+            @Value("${ai-grading.log.batch-size:200}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.dropped = Counter.builder("grading.ai.log.dropped")
+                .description("AI grading log rows dropped because the write buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("grading.ai.log.buffered", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    public void enqueue(AiGradingLog entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai-grading.log.flush-interval:1000}")
+    public void flush() {
+        List<AiGradingLog> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} AI grading log rows", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<AiGradingLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_LOG, batch, batch.size(), (ps, entry) -> {
+            ps.setObject(1, entry.getId());
+            ps.setObject(2, entry.getGradeId());
+            ps.setString(3, entry.getModelVersion());
+            ps.setString(4, entry.getPromptUsed());
+            ps.setString(5, entry.getRawResponse());
+            ps.setBigDecimal(6, entry.getConfidenceScore());
+            if (entry.getProcessingTimeMs() == null) {
+                ps.setNull(7, Types.INTEGER);
+            } else {
+                ps.setInt(7, entry.getProcessingTimeMs());
+            }
+            if (entry.getTokensUsed() == null) {
+                ps.setNull(8, Types.INTEGER);
+            } else {
+                ps.setInt(8, entry.getTokensUsed());
+            }
+            ps.setString(9, entry.getErrorMessage());
+            ps.setTimestamp(10, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
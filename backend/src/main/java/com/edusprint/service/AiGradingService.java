@@ -0,0 +1,215 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Task;
+import com.edusprint.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grades submissions with a model through AiGradingClient.
+ * Requests wait in a bounded queue; a dispatcher thread groups them into batches of up to the
+ * client's max batch size (or whatever arrived within the linger time) and sends each batch once
+ * a bulkhead permit is free, so at most max-concurrent model calls are in flight per node.
+ * Callers get a future and never hold a database connection while it is pending.
+ */
+@Slf4j
+@Service
+public class AiGradingService {
+
+    private final AiGradingClient client;
+    private final boolean enabled;
+    private final long lingerNanos;
+    private final long timeoutMillis;
+    private final int maxSubmissionChars;
+    private final Semaphore bulkhead;
+    private final BlockingQueue<Pending> pending;
+    private final Thread dispatcher;
+    private final Timer callTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running = true;
+
+    public AiGradingService(
+            AiGradingClient client,
+            MeterRegistry meterRegistry,
+            @Value("${ai-grading.enabled:false}") boolean enabled,
+            @Value("${ai-grading.max-concurrent:4}") int maxConcurrent,
+            @Value("${ai-grading.queue-capacity:256}") int queueCapacity,
+            @Value("${ai-grading.linger:50}") long lingerMillis,
+            @Value("${ai-grading.timeout:60000}") long timeoutMillis,
+            @Value("${ai-grading.max-submission-chars:20000}") int maxSubmissionChars
+    ) {
+        this.client = client;
+        this.enabled = enabled;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubmissionChars = maxSubmissionChars;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.callTimer = Timer.builder("grading.ai.call")
+                .description("Latency of one model call (a whole batch)")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("grading.ai.batch.size")
+                .register(meterRegistry);
+        Gauge.builder("grading.ai.pending", pending, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("grading.ai.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+
+        this.dispatcher = new Thread(this::dispatchLoop, "ai-grading-dispatcher");
+        dispatcher.setDaemon(true);
+        if (enabled) {
+            dispatcher.start();
+            log.info("AI grading enabled: model {}, {} concurrent calls, batches of up to {}",
+                     client.modelVersion(), maxConcurrent, client.maxBatchSize());
+        }
+    }
+
+    public boolean isEnabledFor(Task task) {
+        return enabled && !Boolean.FALSE.equals(task.getAiGradingEnabled());
+    }
+
+    public String modelVersion() {
+        return client.modelVersion();
+    }
+
+    /**
+     * Queue a submission for model grading.
+     *
+     * @throws ServiceOverloadedException if the request queue is full
+     */
+    public CompletableFuture<Outcome> grade(Task task, List<String> checklist, String strictness, String content) {
+        if (!enabled) {
+            throw new IllegalStateException("AI grading is disabled");
+        }
+        String prompt = buildPrompt(task, checklist, strictness, content);
+        Pending request = new Pending(UUID.randomUUID().toString(), task, prompt, new CompletableFuture<>());
+        if (!pending.offer(request)) {
+            throw new ServiceOverloadedException("AI grading queue is full, please retry shortly", 5);
+        }
+        return request.future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Pending first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Pending> batch = new ArrayList<>(client.maxBatchSize());
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < client.maxBatchSize()) {
+                    Pending next = pending.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                bulkhead.acquire();
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<AiGradingClient.Request> requests = new ArrayList<>(batch.size());
+        for (Pending request : batch) {
+            requests.add(new AiGradingClient.Request(request.id, request.prompt));
+        }
+        batchSizes.record(batch.size());
+        long started = System.nanoTime();
+        CompletableFuture<List<AiGradingClient.Response>> call;
+        try {
+            call = client.gradeBatch(requests);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((responses, error) -> {
+            bulkhead.release();
+            long elapsed = System.nanoTime() - started;
+            callTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            int millis = (int) TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (error != null) {
+                log.warn("AI grading call for {} submissions failed: {}", batch.size(), error.toString());
+                batch.forEach(request -> request.future.completeExceptionally(error));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), responses.get(i), millis);
+            }
+        });
+    }
+
+    private void complete(Pending request, AiGradingClient.Response response, int millis) {
+        if (response.error() != null) {
+            request.future.completeExceptionally(new IllegalStateException("Model could not grade submission: " + response.error()));
+            return;
+        }
+        double percent = Math.max(0, Math.min(100, response.percent()));
+        String feedback = response.feedback() == null ? LengthAutoGrader.generateFeedback(percent) : response.feedback();
+        AutoGrader.Result result = new AutoGrader.Result(LengthAutoGrader.toPoints(request.task, percent), feedback);
+        request.future.complete(new Outcome(result, request.prompt, response.rawResponse(),
+                response.confidence(), response.tokensUsed(), millis));
+    }
+
+    private String buildPrompt(Task task, List<String> checklist, String strictness, String content) {
+        StringBuilder prompt = new StringBuilder(512 + Math.min(content == null ? 0 : content.length(), maxSubmissionChars));
+        prompt.append("Grade the student submission for the task below. Reply with a score from 0 to 100 and feedback.\n")
+                .append("Task: ").append(task.getTitle()).append('\n');
+        if (task.getDescription() != null) {
+            prompt.append("Description: ").append(task.getDescription()).append('\n');
+        }
+        prompt.append("Strictness: ").append(strictness == null ? "medium" : strictness).append('\n');
+        if (!checklist.isEmpty()) {
+            prompt.append("Checklist:\n");
+            for (String item : checklist) {
+                prompt.append("- ").append(item).append('\n');
+            }
+        }
+        prompt.append("Submission:\n");
+        if (content != null) {
+            prompt.append(content, 0, Math.min(content.length(), maxSubmissionChars));
+        }
+        return prompt.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        Pending request;
+        while ((request = pending.poll()) != null) {
+            request.future.completeExceptionally(new IllegalStateException("AI grading is shutting down"));
+        }
+    }
+
+    /**
+     * Model result plus what ai_grading_logs records about the call
+     */
+    public record Outcome(AutoGrader.Result result, String prompt, String rawResponse,
+                          double confidence, int tokensUsed, int processingTimeMs) {
+    }
+
+    private record Pending(String id, Task task, String prompt, CompletableFuture<Outcome> future) {
+    }
+}
@@ -4,15 +4,22 @@ import com.edusprint.dto.auth.AuthResponse;
 import com.edusprint.dto.auth.LoginRequest;
 import com.edusprint.dto.auth.SignupRequest;
 import com.edusprint.entity.User;
+import com.edusprint.exception.ServiceOverloadedException;
 import com.edusprint.repository.UserRepository;
 import com.edusprint.security.JwtUtil;
+import com.edusprint.security.LoginThrottle;
+import com.edusprint.security.TokenEpochRegistry;
+import com.edusprint.security.VerifiedPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
+
 /**
  * Authentication Service
  * Handles user login, signup, and token management
@@ -25,24 +32,30 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final VerifiedPrincipalCache principalCache;
+    private final LoginThrottle loginThrottle;
 
     /**
-     * User login
+     * User login.
+     * Not transactional: no connection is held while the password hash is checked.
+     * Throttled per account and per client IP before any hashing or lookup.
      */
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        String email = User.normalizeEmail(request.getEmail());
+        loginThrottle.checkLogin(email, clientIp);
         try {
             // Authenticate user
             authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+                    new UsernamePasswordAuthenticationToken(email, request.getPassword())
             );
 
             // Find user
-            User user = userRepository.findByEmail(request.getEmail())
+            User user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             // Generate token
-            String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
+            String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name(), user.getTokenEpoch());
 
             // Build response
             return AuthResponse.builder()
@@ -57,6 +70,16 @@ public class AuthService {
                     .message("Login successful")
                     .build();
 
+        } catch (ServiceOverloadedException e) {
+            throw e;
+        } catch (InternalAuthenticationServiceException e) {
+            if (e.getCause() instanceof ServiceOverloadedException overloaded) {
+                throw overloaded;
+            }
+            return AuthResponse.builder()
+                    .success(false)
+                    .message("Invalid email or password")
+                    .build();
         } catch (Exception e) {
             return AuthResponse.builder()
                     .success(false)
@@ -69,10 +92,12 @@ public class AuthService {
      * User signup
      */
     @Transactional
-    public AuthResponse signup(SignupRequest request) {
+    public AuthResponse signup(SignupRequest request, String clientIp) {
+        loginThrottle.checkSignup(clientIp);
         try {
             // Check if user already exists
-            if (userRepository.existsByEmail(request.getEmail())) {
+            String email = User.normalizeEmail(request.getEmail());
+            if (userRepository.existsByEmail(email)) {
                 return AuthResponse.builder()
                         .success(false)
                         .message("Email already registered")
@@ -93,7 +118,7 @@ public class AuthService {
             // Create new user
             User user = User.builder()
                     .name(request.getName())
-                    .email(request.getEmail())
+                    .email(email)
                     .passwordHash(passwordEncoder.encode(request.getPassword()))
                     .role(role)
                     .institution(request.getInstitution())
@@ -102,7 +127,7 @@ public class AuthService {
             user = userRepository.save(user);
 
             // Generate token
-            String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
+            String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name(), user.getTokenEpoch());
 
             // Build response
             return AuthResponse.builder()
@@ -117,6 +142,8 @@ public class AuthService {
                     .message("Signup successful")
                     .build();
 
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.builder()
                     .success(false)
@@ -152,4 +179,34 @@ public class AuthService {
                     .build();
         }
     }
+
+    /**
+     * Revoke every token issued to a user so far
+     */
+    @Transactional
+    public void revokeSessions(UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        bumpTokenEpoch(user);
+    }
+
+    /**
+     * Activate or deactivate a user; deactivation also revokes existing tokens
+     */
+    @Transactional
+    public void setUserActive(UUID userId, boolean active) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setActive(active);
+        userRepository.saveAndFlush(user);
+        bumpTokenEpoch(user);
+    }
+
+    private void bumpTokenEpoch(User user) {
+        userRepository.incrementTokenEpoch(user.getId());
+        // Read back rather than assume +1: the database trigger may also have bumped it
+        int epoch = userRepository.findTokenEpochById(user.getId());
+        tokenEpochRegistry.recordEpoch(user.getId(), epoch, !Boolean.FALSE.equals(user.getActive()));
+        principalCache.invalidateUser(user.getEmail());
+    }
 }
@@ -0,0 +1,23 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Task;
+
+import java.math.BigDecimal;
+
+/**
+ * Scores a submission for a task.
+ * Implementations must be thread-safe: batch grading calls them from many threads.
+ */
+public interface AutoGrader {
+
+    /**
+     * Grade submission content against the task
+     */
+    Result grade(Task task, String submissionContent);
+
+    /**
+     * Score in points on the task's maxScore scale, with feedback for the student
+     */
+    record Result(BigDecimal score, String feedback) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Task;
+import com.edusprint.event.GradesChangedEvent;
+import com.edusprint.repository.GradeBulkRepository;
+import com.edusprint.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scores the grading jobs a queue worker claimed for one task as a single chunk.
+ * Submissions are read with one query and scored with the same grader selection as single
+ * submissions ({@link GradingService#scoreAsync}): rubric scoring runs on a CPU-sized pool,
+ * model-graded submissions wait on their model batch without holding a thread, and at most
+ * max-in-flight submissions are outstanding at once. The chunk is written back with one JDBC batch.
+ * Whole-task grading enqueues one durable job per submission ({@link GradingService#enqueueTaskGrading})
+ * and {@link GradingQueueWorker} feeds the claimed jobs through here.
+ */
+@Slf4j
+@Service
+public class BatchGradingService {
+
+    // Reviewed grades are never replaced, so their submissions are not scored again
+    private static final String GRADABLE_SUBMISSIONS =
+            "SELECT a.student_id, a.submission_content, g.strictness FROM task_assignments a " +
+            "LEFT JOIN grades g ON g.task_id = a.task_id AND g.student_id = a.student_id " +
+            "WHERE a.task_id = :taskId AND a.student_id IN (:studentIds) AND a.submitted_at IS NOT NULL " +
+            "AND (g.id IS NULL OR g.status = 'pending')";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TaskRepository taskRepository;
+    private final GradeBulkRepository gradeBulkRepository;
+    private final GradingService gradingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService scoringPool;
+    private final int maxInFlight;
+    private final Timer chunkTimer;
+
+    public BatchGradingService(
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TaskRepository taskRepository,
+            GradeBulkRepository gradeBulkRepository,
+            GradingService gradingService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${batch-grading.threads:0}") int threads,
+            @Value("${batch-grading.max-in-flight:64}") int maxInFlight
+    ) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.taskRepository = taskRepository;
+        this.gradeBulkRepository = gradeBulkRepository;
+        this.gradingService = gradingService;
+        this.eventPublisher = eventPublisher;
+        this.maxInFlight = maxInFlight;
+
+        // Sized for rubric scoring, which is CPU-bound
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger scoringCounter = new AtomicInteger();
+        this.scoringPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "grading-score-" + scoringCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.chunkTimer = Timer.builder("grading.batch.chunk")
+                .description("Time to score and persist one chunk of submissions")
+                .register(meterRegistry);
+        log.info("Batch grading: {} scoring threads, {} submissions in flight", poolSize, maxInFlight);
+    }
+
+    /**
+     * Grade the submissions of the given students for one task and store them as pending grades.
+     * Students with nothing to grade (not submitted, or already reviewed) count as done.
+     *
+     * @return the failure of each student whose submission could not be graded
+     */
+    public Map<UUID, RuntimeException> grade(UUID taskId, Collection<UUID> studentIds) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        List<Submission> chunk = namedJdbcTemplate.query(GRADABLE_SUBMISSIONS,
+                new MapSqlParameterSource("taskId", taskId).addValue("studentIds", studentIds),
+                (rs, rowNum) -> new Submission(
+                        rs.getObject("student_id", UUID.class),
+                        rs.getString("submission_content"),
+                        rs.getString("strictness")));
+        if (chunk.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, RuntimeException> failures = new HashMap<>();
+        chunkTimer.record(() -> gradeChunk(task, gradingService.checklistFor(task), chunk, failures));
+        log.info("Batch graded {} of {} submissions of task: {} ({} failed)",
+                 chunk.size() - failures.size(), studentIds.size(), taskId, failures.size());
+        return failures;
+    }
+
+    private void gradeChunk(Task task, List<String> checklist, List<Submission> chunk,
+                            Map<UUID, RuntimeException> failures) {
+        // Model calls complete on their own; only rubric scoring takes a pool thread
+        Semaphore permits = new Semaphore(maxInFlight);
+        List<CompletableFuture<GradingService.ScoredSubmission>> futures = new ArrayList<>(chunk.size());
+        for (Submission submission : chunk) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Batch grading interrupted", e);
+            }
+            futures.add(gradingService.scoreAsync(task, checklist, submission.strictness(), submission.content(), scoringPool)
+                    .whenComplete((scored, error) -> permits.release()));
+        }
+
+        List<GradeBulkRepository.AutoGradeRow> rows = new ArrayList<>(chunk.size());
+        Map<UUID, GradingService.ScoredSubmission> modelGraded = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UUID studentId = chunk.get(i).studentId();
+            GradingService.ScoredSubmission scored;
+            try {
+                scored = futures.get(i).join();
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException runtime ? runtime : e;
+                log.warn("Auto-grading failed for task: {} student: {}", task.getId(), studentId, cause);
+                failures.put(studentId, cause);
+                continue;
+            }
+            rows.add(new GradeBulkRepository.AutoGradeRow(studentId, scored.result().score(), scored.result().feedback()));
+            if (scored.aiOutcome() != null || scored.aiError() != null) {
+                modelGraded.put(studentId, scored);
+            }
+        }
+        gradeBulkRepository.upsertAutoGrades(task.getId(), rows);
+        if (!modelGraded.isEmpty()) {
+            gradeBulkRepository.findGradeIds(task.getId(), modelGraded.keySet())
+                    .forEach((studentId, gradeId) -> gradingService.logAiGrading(gradeId, modelGraded.get(studentId)));
+        }
+        if (!rows.isEmpty()) {
+            eventPublisher.publishEvent(new GradesChangedEvent(task.getId(),
+                    rows.stream().map(GradeBulkRepository.AutoGradeRow::studentId).toList()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdownNow();
+    }
+
+    private record Submission(UUID studentId, String content, String strictness) {
+    }
+}
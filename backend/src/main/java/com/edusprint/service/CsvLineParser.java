@@ -0,0 +1,83 @@
+package com.edusprint.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits single CSV lines, honouring double-quoted fields and "" escapes.
+ * Quoted fields may not span lines; uploads are read line by line.
+ */
+final class CsvLineParser {
+
+    private static final char BOM = '\uFEFF';
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Column indexes of a header line by trimmed, lower-cased name.
+     * A leading byte order mark (Excel's "CSV UTF-8") is dropped first.
+     *
+     * @param emptyMessage error for a missing header line
+     */
+    static Map<String, Integer> header(String line, String emptyMessage) {
+        if (line == null) {
+            throw new IllegalArgumentException(emptyMessage);
+        }
+        List<String> names = split(stripBom(line));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    /**
+     * Trimmed value of a column, or null when the column is absent or blank
+     */
+    static String field(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == BOM ? line.substring(1) : line;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,62 @@
+package com.edusprint.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV. Text cells that a spreadsheet would read as a formula are prefixed with a quote.
+ */
+class CsvSheetWriter implements SheetWriter {
+
+    private final Writer writer;
+
+    CsvSheetWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object cell = cells[i];
+            if (cell instanceof BigDecimal decimal) {
+                writer.write(decimal.toPlainString());
+            } else if (cell instanceof Number) {
+                writer.write(cell.toString());
+            } else if (cell != null) {
+                writeText(cell.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeText(String text) throws IOException {
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
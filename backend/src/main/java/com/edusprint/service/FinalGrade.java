@@ -0,0 +1,42 @@
+package com.edusprint.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The one definition of a student's grade in a subject, shared by the analytics rows and the
+ * gradebook export: the weight-weighted mean of the penalty-adjusted task percentages over the
+ * tasks graded so far. Ungraded tasks do not count, so the grade is not dragged down by work
+ * that simply has not been marked yet.
+ */
+final class FinalGrade {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private FinalGrade() {
+    }
+
+    /**
+     * Penalty-adjusted percentage of the task's max score (100 when unset), or null when ungraded
+     */
+    static BigDecimal percentage(BigDecimal finalScore, Integer maxScore, int penaltyPercent) {
+        if (finalScore == null) {
+            return null;
+        }
+        BigDecimal max = maxScore == null || maxScore <= 0 ? HUNDRED : BigDecimal.valueOf(maxScore);
+        BigDecimal percent = finalScore.multiply(HUNDRED).divide(max, 6, RoundingMode.HALF_UP);
+        percent = percent.min(HUNDRED).max(BigDecimal.ZERO);
+        int kept = 100 - Math.max(0, Math.min(100, penaltyPercent));
+        return percent.multiply(BigDecimal.valueOf(kept)).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Final grade from the sum of weight x percentage and the total weight of the graded tasks,
+     * or null while nothing is graded
+     */
+    static BigDecimal of(BigDecimal weightedPercentSum, int gradedWeight) {
+        return gradedWeight > 0
+                ? weightedPercentSum.divide(BigDecimal.valueOf(gradedWeight), 2, RoundingMode.HALF_UP)
+                : null;
+    }
+}
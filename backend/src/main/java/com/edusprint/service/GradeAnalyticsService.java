@@ -0,0 +1,250 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.StudentAnalyticsDTO;
+import com.edusprint.event.GradesChangedEvent;
+import com.edusprint.event.SubmissionReceivedEvent;
+import com.edusprint.repository.StudentAnalyticsRepository;
+import com.edusprint.repository.StudentAnalyticsRepository.LedgerRow;
+import com.edusprint.repository.StudentAnalyticsRepository.Sums;
+import com.edusprint.repository.StudentAnalyticsRepository.SubmissionCounts;
+import com.edusprint.repository.StudentAnalyticsRepository.TaskWeight;
+import com.edusprint.security.SubjectAccessIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps student_analytics current without recomputing a course grade on every read.
+ * Each row carries running sums over the student's graded tasks in the subject (count, weight,
+ * weight x percentage, percentage); grades.percentage records what each grade last contributed.
+ * When a grade, override or penalty changes, only the difference between the grade's new
+ * penalty-adjusted percentage and its recorded one is added to the sums. A periodic
+ * reconciliation recomputes every row from source data and repairs any drift (e.g. a task
+ * weight edited after grading). Every change to a recorded percentage is mirrored into the
+ * task's score distribution in the same transaction.
+ */
+@Slf4j
+@Service
+public class GradeAnalyticsService {
+
+    // Databases order UUIDs as unsigned bytes, so the all-zero UUID sorts first
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final StudentAnalyticsRepository analyticsRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final TaskScoreStatsService taskScoreStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final BigDecimal atRiskBelow;
+    private final boolean reconcileEnabled;
+    private final int reconcileBatchSize;
+    private final Counter driftRepaired;
+
+    public GradeAnalyticsService(
+            StudentAnalyticsRepository analyticsRepository,
+            SubjectAccessIndex subjectAccessIndex,
+            TaskScoreStatsService taskScoreStatsService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${grade-analytics.at-risk-below:50}") BigDecimal atRiskBelow,
+            @Value("${grade-analytics.reconcile.enabled:true}") boolean reconcileEnabled,
+            @Value("${grade-analytics.reconcile.batch-size:500}") int reconcileBatchSize
+    ) {
+        this.analyticsRepository = analyticsRepository;
+        this.subjectAccessIndex = subjectAccessIndex;
+        this.taskScoreStatsService = taskScoreStatsService;
+        // Listeners run after the publisher's commit, so every write needs its own transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.atRiskBelow = atRiskBelow;
+        this.reconcileEnabled = reconcileEnabled;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.driftRepaired = Counter.builder("grade.analytics.drift")
+                .description("student_analytics rows corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        TaskWeight task = analyticsRepository.findTaskWeight(event.taskId());
+        if (task == null) {
+            return;
+        }
+        for (UUID studentId : event.studentIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyGrade(event.taskId(), studentId, task));
+            } catch (RuntimeException e) {
+                // Reconciliation will pick this row up
+                log.warn("Failed to update analytics for task: {} student: {}", event.taskId(), studentId, e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmission(SubmissionReceivedEvent event) {
+        TaskWeight task = analyticsRepository.findTaskWeight(event.taskId());
+        if (task == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                analyticsRepository.lockSums(event.studentId(), task.subjectId());
+                analyticsRepository.updateSubmissions(event.studentId(), task.subjectId(),
+                        analyticsRepository.countSubmissions(event.studentId(), task.subjectId()));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to update submission counts for student: {}", event.studentId(), e);
+        }
+    }
+
+    public StudentAnalyticsDTO getAnalytics(UUID studentId, UUID subjectId, UUID requesterId) {
+        if (!requesterId.equals(studentId) && !subjectAccessIndex.isFaculty(subjectId, requesterId)) {
+            throw new RuntimeException("Only the student or the subject's faculty can view these analytics");
+        }
+        StudentAnalyticsDTO analytics = analyticsRepository.find(studentId, subjectId);
+        if (analytics == null) {
+            throw new RuntimeException("No analytics for this student in this subject yet");
+        }
+        return analytics;
+    }
+
+    private void applyGrade(UUID taskId, UUID studentId, TaskWeight task) {
+        Sums sums = analyticsRepository.lockSums(studentId, task.subjectId());
+        LedgerRow grade = analyticsRepository.findTaskGrade(taskId, studentId);
+        if (grade == null) {
+            return;
+        }
+        BigDecimal applied = grade.appliedPercentage();
+        BigDecimal current = FinalGrade.percentage(grade.finalScore(), task.maxScore(), grade.penalty());
+        if (sameValue(applied, current)) {
+            return;
+        }
+
+        BigDecimal weight = BigDecimal.valueOf(task.weight());
+        int gradedTasks = sums.gradedTasks();
+        int gradedWeight = sums.gradedWeight();
+        BigDecimal weighted = sums.weightedPercentSum();
+        BigDecimal percentSum = sums.percentSum();
+        if (applied != null) {
+            gradedTasks--;
+            gradedWeight -= task.weight();
+            weighted = weighted.subtract(weight.multiply(applied));
+            percentSum = percentSum.subtract(applied);
+        }
+        if (current != null) {
+            gradedTasks++;
+            gradedWeight += task.weight();
+            weighted = weighted.add(weight.multiply(current));
+            percentSum = percentSum.add(current);
+        }
+
+        analyticsRepository.updateLedger(grade.gradeId(), current, grade.penalty());
+        taskScoreStatsService.apply(taskId, applied, current);
+        writeSums(studentId, task.subjectId(), new Sums(gradedTasks, gradedWeight, weighted, percentSum));
+    }
+
+    /**
+     * Recompute every enrolled student's row from grades, penalties and submissions, one row per
+     * transaction, and fix rows whose running sums have drifted
+     */
+    @Scheduled(fixedDelayString = "${grade-analytics.reconcile.interval:3600000}",
+               initialDelayString = "${grade-analytics.reconcile.initial-delay:300000}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int checked = 0;
+        int repaired = 0;
+        UUID after = MIN_UUID;
+        while (true) {
+            List<StudentAnalyticsRepository.Enrollment> page =
+                    analyticsRepository.findEnrollmentsAfter(after, reconcileBatchSize);
+            for (StudentAnalyticsRepository.Enrollment enrollment : page) {
+                try {
+                    Boolean drifted = transactionTemplate.execute(status ->
+                            reconcileRow(enrollment.studentId(), enrollment.subjectId()));
+                    if (Boolean.TRUE.equals(drifted)) {
+                        repaired++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to reconcile analytics for student: {} subject: {}",
+                             enrollment.studentId(), enrollment.subjectId(), e);
+                }
+                checked++;
+            }
+            if (page.size() < reconcileBatchSize) {
+                break;
+            }
+            after = page.get(page.size() - 1).id();
+        }
+        driftRepaired.increment(repaired);
+        log.info("Reconciled {} student analytics rows in {} ms ({} drifted)",
+                 checked, System.currentTimeMillis() - started, repaired);
+    }
+
+    private boolean reconcileRow(UUID studentId, UUID subjectId) {
+        Sums stored = analyticsRepository.lockSums(studentId, subjectId);
+
+        int gradedTasks = 0;
+        int gradedWeight = 0;
+        BigDecimal weighted = BigDecimal.ZERO;
+        BigDecimal percentSum = BigDecimal.ZERO;
+        boolean drifted = false;
+        for (LedgerRow grade : analyticsRepository.findSubjectGrades(studentId, subjectId)) {
+            BigDecimal percentage = FinalGrade.percentage(grade.finalScore(), grade.maxScore(), grade.penalty());
+            if (!sameValue(percentage, grade.appliedPercentage())) {
+                analyticsRepository.updateLedger(grade.gradeId(), percentage, grade.penalty());
+                taskScoreStatsService.apply(grade.taskId(), grade.appliedPercentage(), percentage);
+                drifted = true;
+            }
+            if (percentage != null) {
+                gradedTasks++;
+                gradedWeight += grade.weight();
+                weighted = weighted.add(BigDecimal.valueOf(grade.weight()).multiply(percentage));
+                percentSum = percentSum.add(percentage);
+            }
+        }
+        Sums expected = new Sums(gradedTasks, gradedWeight, weighted, percentSum);
+        if (drifted || !sameSums(stored, expected)) {
+            writeSums(studentId, subjectId, expected);
+            drifted = true;
+        }
+
+        SubmissionCounts counts = analyticsRepository.countSubmissions(studentId, subjectId);
+        analyticsRepository.updateSubmissions(studentId, subjectId, counts);
+        analyticsRepository.markCalculated(studentId, subjectId);
+        return drifted;
+    }
+
+    private void writeSums(UUID studentId, UUID subjectId, Sums sums) {
+        BigDecimal currentGrade = FinalGrade.of(sums.weightedPercentSum(), sums.gradedWeight());
+        BigDecimal averageScore = sums.gradedTasks() > 0
+                ? sums.percentSum().divide(BigDecimal.valueOf(sums.gradedTasks()), 2, RoundingMode.HALF_UP)
+                : null;
+        boolean atRisk = currentGrade != null && currentGrade.compareTo(atRiskBelow) < 0;
+        analyticsRepository.updateSums(studentId, subjectId, sums, currentGrade, averageScore, atRisk);
+    }
+
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static boolean sameSums(Sums a, Sums b) {
+        return a.gradedTasks() == b.gradedTasks()
+                && a.gradedWeight() == b.gradedWeight()
+                && a.weightedPercentSum().compareTo(b.weightedPercentSum()) == 0
+                && a.percentSum().compareTo(b.percentSum()) == 0;
+    }
+}
@@ -0,0 +1,352 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.GradeImportResult;
+import com.edusprint.entity.User;
+import com.edusprint.event.GradesChangedEvent;
+import com.edusprint.repository.GradeBulkRepository;
+import com.edusprint.repository.GradeBulkRepository.ExistingGrade;
+import com.edusprint.repository.GradeBulkRepository.ImportedGradeRow;
+import com.edusprint.repository.GradeBulkRepository.OverrideRow;
+import com.edusprint.security.SubjectAccessIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Imports externally produced scores (e.g. proctored exams) for one subject from CSV.
+ * The file is streamed in chunks. Per chunk, one query resolves every student against the
+ * subject's enrollments, existing grades are locked with one query, scores are upserted with
+ * one JDBC batch on (task_id, student_id) and every changed score gets a grade_overrides audit
+ * row in the same transaction. Bad rows are reported and skipped; a failing chunk is reported
+ * without rolling back the chunks before it.
+ */
+@Slf4j
+@Service
+public class GradeImportService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal MAX_STORED_SCORE = new BigDecimal("999.99");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final GradeBulkRepository gradeBulkRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public GradeImportService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            GradeBulkRepository gradeBulkRepository,
+            SubjectAccessIndex subjectAccessIndex,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${grade-import.chunk-size:1000}") int chunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.gradeBulkRepository = gradeBulkRepository;
+        this.subjectAccessIndex = subjectAccessIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import scores. CSV header: student_id or email, task_id (optional when defaultTaskId is
+     * given), score, and optionally feedback.
+     */
+    public GradeImportResult importGrades(UUID subjectId, UUID facultyId, UUID defaultTaskId, String reason,
+                                          InputStream input) throws IOException {
+        if (!subjectAccessIndex.isFaculty(subjectId, facultyId)) {
+            throw new RuntimeException("Faculty can only import grades for their subjects");
+        }
+        long started = System.currentTimeMillis();
+        Map<UUID, BigDecimal> maxScores = loadMaxScores(subjectId);
+        if (defaultTaskId != null && !maxScores.containsKey(defaultTaskId)) {
+            throw new IllegalArgumentException("Task does not belong to this subject");
+        }
+        String auditReason = reason == null || reason.isBlank() ? "External grade import" : reason.trim();
+
+        Counts counts = new Counts();
+        List<GradeImportResult.RejectedRow> rejected = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int total = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = readHeader(reader.readLine(), defaultTaskId != null);
+            int line = 1;
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                line++;
+                if (raw.isBlank()) {
+                    continue;
+                }
+                total++;
+                ImportRow row;
+                try {
+                    row = parse(raw, line, columns, defaultTaskId);
+                } catch (IllegalArgumentException e) {
+                    rejected.add(rejectedRow(line, null, null, "invalid", e.getMessage()));
+                    continue;
+                }
+                if (!maxScores.containsKey(row.taskId)) {
+                    rejected.add(rejectedRow(row, "unknown-task", "Task does not belong to this subject"));
+                    continue;
+                }
+                BigDecimal maxScore = maxScores.get(row.taskId);
+                BigDecimal limit = maxScore == null ? HUNDRED : maxScore;
+                if (row.score.signum() < 0 || row.score.compareTo(limit) > 0 || row.score.compareTo(MAX_STORED_SCORE) > 0) {
+                    rejected.add(rejectedRow(row, "invalid", "Score must be between 0 and " + limit.toPlainString()));
+                    continue;
+                }
+                if (!seen.add(row.taskId + "|" + row.student)) {
+                    rejected.add(rejectedRow(row, "duplicate", "Student and task repeated in file"));
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(subjectId, facultyId, auditReason, chunk, counts, rejected);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(subjectId, facultyId, auditReason, chunk, counts, rejected);
+        }
+
+        rejected.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+        long duration = System.currentTimeMillis() - started;
+        log.info("Grade import for subject: {} by faculty: {}: {} rows, {} created, {} updated, {} unchanged, {} rejected in {} ms",
+                 subjectId, facultyId, total, counts.created, counts.updated, counts.unchanged, rejected.size(), duration);
+
+        return GradeImportResult.builder()
+                .total(total)
+                .created(counts.created)
+                .updated(counts.updated)
+                .unchanged(counts.unchanged)
+                .rejected(rejected.size())
+                .durationMs(duration)
+                .rejectedRows(rejected)
+                .build();
+    }
+
+    private void processChunk(UUID subjectId, UUID facultyId, String reason, List<ImportRow> chunk,
+                              Counts counts, List<GradeImportResult.RejectedRow> rejected) {
+        // One set-based enrollment lookup for the whole chunk instead of a check per row
+        Map<String, UUID> enrolled = resolveEnrolled(subjectId, chunk);
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            row.studentId = enrolled.get(row.student);
+            if (row.studentId == null) {
+                rejected.add(rejectedRow(row, "not-enrolled", "Student is not enrolled in this subject"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            Counts chunkCounts = transactionTemplate.execute(status -> writeChunk(facultyId, reason, accepted));
+            counts.created += chunkCounts.created;
+            counts.updated += chunkCounts.updated;
+            counts.unchanged += chunkCounts.unchanged;
+        } catch (RuntimeException e) {
+            log.error("Grade import batch of {} rows failed", accepted.size(), e);
+            for (ImportRow row : accepted) {
+                rejected.add(rejectedRow(row, "failed", e.getMessage()));
+            }
+        }
+    }
+
+    private Counts writeChunk(UUID facultyId, String reason, List<ImportRow> rows) {
+        Set<UUID> taskIds = new HashSet<>();
+        Set<UUID> studentIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            taskIds.add(row.taskId);
+            studentIds.add(row.studentId);
+        }
+        Map<String, ExistingGrade> existing = new HashMap<>();
+        for (ExistingGrade grade : gradeBulkRepository.lockExisting(taskIds, studentIds)) {
+            existing.put(grade.taskId() + "|" + grade.studentId(), grade);
+        }
+
+        Counts counts = new Counts();
+        List<ImportedGradeRow> writes = new ArrayList<>(rows.size());
+        List<OverrideRow> overrides = new ArrayList<>();
+        Map<UUID, List<UUID>> changedByTask = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            ExistingGrade grade = existing.get(row.taskId + "|" + row.studentId);
+            if (grade == null) {
+                counts.created++;
+            } else if (grade.finalScore() != null && grade.finalScore().compareTo(row.score) == 0
+                    && (row.feedback == null || row.feedback.equals(grade.feedback()))) {
+                counts.unchanged++;
+                continue;
+            } else {
+                counts.updated++;
+                if (grade.finalScore() == null || grade.finalScore().compareTo(row.score) != 0) {
+                    overrides.add(new OverrideRow(grade.id(), grade.finalScore(), row.score));
+                }
+            }
+            writes.add(new ImportedGradeRow(row.taskId, row.studentId, row.score, row.feedback));
+            changedByTask.computeIfAbsent(row.taskId, id -> new ArrayList<>()).add(row.studentId);
+        }
+
+        gradeBulkRepository.upsertImportedGrades(writes, facultyId);
+        gradeBulkRepository.insertOverrides(overrides, facultyId, reason);
+        // Delivered after this chunk commits
+        changedByTask.forEach((taskId, students) -> eventPublisher.publishEvent(new GradesChangedEvent(taskId, students)));
+        return counts;
+    }
+
+    private Map<UUID, BigDecimal> loadMaxScores(UUID subjectId) {
+        Map<UUID, BigDecimal> maxScores = new HashMap<>();
+        jdbcTemplate.query("SELECT id, max_score FROM tasks WHERE subject_id = ?",
+                (RowCallbackHandler) rs -> maxScores.put(rs.getObject("id", UUID.class),
+                        rs.getObject("max_score") == null ? null : BigDecimal.valueOf(rs.getInt("max_score"))),
+                subjectId);
+        return maxScores;
+    }
+
+    /**
+     * Enrolled students of the chunk, keyed by the identifier used in the file
+     */
+    private Map<String, UUID> resolveEnrolled(UUID subjectId, List<ImportRow> chunk) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            if (row.byEmail) {
+                emails.add(row.student);
+            } else {
+                ids.add(UUID.fromString(row.student));
+            }
+        }
+        Map<String, UUID> enrolled = new HashMap<>();
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.query(
+                    "SELECT e.student_id FROM subject_enrollments e WHERE e.subject_id = :subjectId AND e.student_id IN (:ids)",
+                    new MapSqlParameterSource("subjectId", subjectId).addValue("ids", ids),
+                    (RowCallbackHandler) rs -> {
+                        UUID id = rs.getObject("student_id", UUID.class);
+                        enrolled.put(id.toString(), id);
+                    });
+        }
+        if (!emails.isEmpty()) {
+            namedJdbcTemplate.query(
+                    "SELECT u.id, LOWER(u.email) AS email FROM subject_enrollments e JOIN users u ON u.id = e.student_id " +
+                    "WHERE e.subject_id = :subjectId AND LOWER(u.email) IN (:emails)",
+                    new MapSqlParameterSource("subjectId", subjectId).addValue("emails", emails),
+                    (RowCallbackHandler) rs -> enrolled.put(rs.getString("email"), rs.getObject("id", UUID.class)));
+        }
+        return enrolled;
+    }
+
+    private static Map<String, Integer> readHeader(String header, boolean taskOptional) {
+        Map<String, Integer> columns = CsvLineParser.header(header, "Grade file is empty");
+        if (!columns.containsKey("student_id") && !columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must contain student_id or email");
+        }
+        if (!columns.containsKey("score")) {
+            throw new IllegalArgumentException("CSV header must contain score");
+        }
+        if (!taskOptional && !columns.containsKey("task_id")) {
+            throw new IllegalArgumentException("CSV header must contain task_id, or pass taskId");
+        }
+        return columns;
+    }
+
+    private static ImportRow parse(String raw, int line, Map<String, Integer> columns, UUID defaultTaskId) {
+        List<String> fields = CsvLineParser.split(raw);
+        ImportRow row = new ImportRow(line);
+        String studentId = CsvLineParser.field(fields, columns.get("student_id"));
+        String email = CsvLineParser.field(fields, columns.get("email"));
+        if (studentId != null) {
+            row.student = UUID.fromString(studentId).toString();
+        } else if (email != null) {
+            row.student = User.normalizeEmail(email);
+            row.byEmail = true;
+        } else {
+            throw new IllegalArgumentException("Student is required");
+        }
+        String taskId = CsvLineParser.field(fields, columns.get("task_id"));
+        row.taskId = taskId == null ? defaultTaskId : UUID.fromString(taskId);
+        if (row.taskId == null) {
+            throw new IllegalArgumentException("Task is required");
+        }
+        String score = CsvLineParser.field(fields, columns.get("score"));
+        if (score == null) {
+            throw new IllegalArgumentException("Score is required");
+        }
+        try {
+            row.score = new BigDecimal(score);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Score is not a number");
+        }
+        if (row.score.scale() > 2) {
+            throw new IllegalArgumentException("Score has more than two decimals");
+        }
+        row.feedback = CsvLineParser.field(fields, columns.get("feedback"));
+        return row;
+    }
+
+    private static GradeImportResult.RejectedRow rejectedRow(ImportRow row, String status, String message) {
+        return rejectedRow(row.line, row.student, row.taskId, status, message);
+    }
+
+    private static GradeImportResult.RejectedRow rejectedRow(int line, String student, UUID taskId, String status, String message) {
+        return GradeImportResult.RejectedRow.builder()
+                .line(line)
+                .student(student)
+                .taskId(taskId)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private static final class Counts {
+        private int created;
+        private int updated;
+        private int unchanged;
+    }
+
+    private static final class ImportRow {
+        private final int line;
+        private String student;
+        private boolean byEmail;
+        private UUID studentId;
+        private UUID taskId;
+        private BigDecimal score;
+        private String feedback;
+
+        private ImportRow(int line) {
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.edusprint.service;
+
+import com.edusprint.cache.BoundedLruCache;
+import com.edusprint.dto.GradeDTO;
+import com.edusprint.event.GradesChangedEvent;
+import com.edusprint.repository.GradeRepository;
+import com.edusprint.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the per-student, per-subject and per-task grade lists.
+ * Views are immutable lists shared by every reader (callers must not modify the DTOs), so a warm
+ * read is one map lookup and a clock check: no JDBC, no copy.
+ * The cache is an LRU bounded by the total number of grades held across all three views; views
+ * larger than max-view-weight are never cached.
+ * Every GradesChangedEvent (grade, review, override, batch and penalty writes) drops exactly the
+ * task's view, its subject's view and the affected students' views after the write commits. The
+ * event only reaches this node, so grades written on other nodes are picked up by an incremental
+ * refresh from grades.updated_at, which drops the same views at most refresh-interval later.
+ * A load that overlaps an invalidation is returned but not cached, so a stale list can never be
+ * stored. The TTL only bounds staleness from grade deletes, which leave no updated_at behind.
+ */
+@Slf4j
+@Component
+public class GradeViewCache {
+
+    private final TaskRepository taskRepository;
+    private final GradeRepository gradeRepository;
+    private final boolean enabled;
+    private final long overlapSeconds;
+    private final int maxViewWeight;
+    private final long ttlNanos;
+    private final Region byStudent;
+    private final Region bySubject;
+    private final Region byTask;
+    private final BoundedLruCache<ViewKey, View> views;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile LocalDateTime watermark;
+
+    public GradeViewCache(
+            TaskRepository taskRepository,
+            GradeRepository gradeRepository,
+            MeterRegistry meterRegistry,
+            @Value("${grade-view-cache.enabled:true}") boolean enabled,
+            @Value("${grade-view-cache.max-weight:200000}") long maxWeight,
+            @Value("${grade-view-cache.max-view-weight:20000}") int maxViewWeight,
+            @Value("${grade-view-cache.ttl:600000}") long ttlMillis,
+            @Value("${grade-view-cache.refresh-overlap:5}") long overlapSeconds
+    ) {
+        this.taskRepository = taskRepository;
+        this.gradeRepository = gradeRepository;
+        this.enabled = enabled;
+        this.overlapSeconds = overlapSeconds;
+        this.maxViewWeight = maxViewWeight;
+        this.views = new BoundedLruCache<>(maxWeight, maxViewWeight, GradeViewCache::weightOf);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.byStudent = new Region("student", meterRegistry);
+        this.bySubject = new Region("subject", meterRegistry);
+        this.byTask = new Region("task", meterRegistry);
+        FunctionCounter.builder("grade.view.cache.evictions", views, BoundedLruCache::evictionCount)
+                .description("Grade views evicted to stay under max-weight")
+                .register(meterRegistry);
+        Gauge.builder("grade.view.cache.entries", views, BoundedLruCache::size).register(meterRegistry);
+        FunctionCounter.builder("grade.view.cache.invalidations", invalidations, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("grade.view.cache.weight", views, BoundedLruCache::weight)
+                .description("Grades held across all cached views")
+                .register(meterRegistry);
+        Gauge.builder("grade.view.cache.hit.ratio", this, GradeViewCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    public List<GradeDTO> byStudent(UUID studentId, Supplier<List<GradeDTO>> loader) {
+        return read(byStudent, studentId, loader);
+    }
+
+    public List<GradeDTO> bySubject(UUID subjectId, Supplier<List<GradeDTO>> loader) {
+        return read(bySubject, subjectId, loader);
+    }
+
+    public List<GradeDTO> byTask(UUID taskId, Supplier<List<GradeDTO>> loader) {
+        return read(byTask, taskId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        UUID subjectId = taskRepository.findById(event.taskId())
+                .map(task -> task.getSubject().getId())
+                .orElse(null);
+        invalidate(event.taskId(), subjectId, event.studentIds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRefresh() {
+        watermark = LocalDateTime.now();
+    }
+
+    /**
+     * Drop the views of grades written since the last refresh, including those written on other nodes
+     */
+    @Scheduled(fixedDelayString = "${grade-view-cache.refresh-interval:2000}")
+    public void refresh() {
+        LocalDateTime since = watermark;
+        if (!enabled || since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Re-read a small overlap so grades committed just before the last refresh are not missed
+        List<GradeRepository.GradeChangeView> changes = gradeRepository.findChangesSince(since.minusSeconds(overlapSeconds));
+        for (GradeRepository.GradeChangeView change : changes) {
+            invalidate(change.getTaskId(), change.getSubjectId(), List.of(change.getStudentId()));
+        }
+        watermark = startedAt;
+        if (!changes.isEmpty()) {
+            log.debug("Dropped grade views for {} grades changed since {}", changes.size(), since);
+        }
+    }
+
+    /**
+     * Drop a task's view, its subject's view (every subject view when unknown) and the students' views
+     */
+    private void invalidate(UUID taskId, UUID subjectId, List<UUID> studentIds) {
+        invalidations.incrementAndGet();
+        byTask.remove(taskId);
+        for (UUID studentId : studentIds) {
+            byStudent.remove(studentId);
+        }
+        if (subjectId != null) {
+            bySubject.remove(subjectId);
+        } else {
+            bySubject.clear();
+        }
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        views.clear();
+    }
+
+    private List<GradeDTO> read(Region region, UUID id, Supplier<List<GradeDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        View view = region.get(id);
+        if (view != null && System.nanoTime() - view.loadedAt < ttlNanos) {
+            region.hits.increment();
+            return view.grades;
+        }
+        region.misses.increment();
+
+        long stamp = invalidations.get();
+        List<GradeDTO> grades = List.copyOf(loader.get());
+        if (grades.size() <= maxViewWeight && invalidations.get() == stamp) {
+            region.put(id, new View(grades, System.nanoTime()));
+            if (invalidations.get() != stamp) {
+                // An invalidation raced the put; it may have missed this entry
+                region.remove(id);
+            }
+        }
+        return grades;
+    }
+
+    private double hitRatio() {
+        double hits = byStudent.hits.count() + bySubject.hits.count() + byTask.hits.count();
+        double lookups = hits + byStudent.misses.count() + bySubject.misses.count() + byTask.misses.count();
+        return lookups == 0 ? 0 : hits / lookups;
+    }
+
+    private static int weightOf(View view) {
+        return Math.max(1, view.grades.size());
+    }
+
+    private final class Region {
+        private final String name;
+        private final Counter hits;
+        private final Counter misses;
+
+        Region(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.hits = Counter.builder("grade.view.cache.lookups").tag("view", name).tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("grade.view.cache.lookups").tag("view", name).tag("result", "miss")
+                    .register(meterRegistry);
+        }
+
+        View get(UUID id) {
+            return views.get(new ViewKey(name, id));
+        }
+
+        void put(UUID id, View view) {
+            views.put(new ViewKey(name, id), view);
+        }
+
+        void remove(UUID id) {
+            views.remove(new ViewKey(name, id));
+        }
+
+        void clear() {
+            views.removeIf((key, view) -> key.view().equals(name));
+        }
+    }
+
+    private record ViewKey(String view, UUID id) {
+    }
+
+    private record View(List<GradeDTO> grades, long loadedAt) {
+    }
+}
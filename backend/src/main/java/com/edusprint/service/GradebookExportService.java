@@ -0,0 +1,239 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Subject;
+import com.edusprint.repository.SubjectRepository;
+import com.edusprint.security.SubjectAccessIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streams a subject's gradebook: one row per enrolled student, a score and penalty column per
+ * task, and the final percentage as defined by {@link FinalGrade} (graded tasks only).
+ * Rows come from a single forward-only cursor ordered by student, read with a bounded fetch size
+ * inside a read-only transaction (PostgreSQL only uses a server-side cursor without autocommit),
+ * and each student's row is written as soon as the cursor moves past them. Memory is bounded by
+ * the number of tasks, not students.
+ */
+@Slf4j
+@Service
+public class GradebookExportService {
+
+    private static final String TASK_COLUMNS =
+            "SELECT id, title, weight, max_score FROM tasks WHERE subject_id = ? " +
+            "ORDER BY due_date NULLS LAST, created_at, id";
+
+    // Students without any grade yet come back as a single row with a null task_id
+    private static final String GRADEBOOK_ROWS =
+            "SELECT u.id AS student_id, u.name, u.email, g.task_id, g.final_score, " +
+            "(SELECT COALESCE(SUM(p.penalty_percent), 0) FROM penalties p " +
+            " WHERE p.task_id = g.task_id AND p.student_id = g.student_id) AS penalty " +
+            "FROM subject_enrollments e JOIN users u ON u.id = e.student_id " +
+            "LEFT JOIN grades g ON g.student_id = e.student_id " +
+            " AND g.task_id IN (SELECT id FROM tasks WHERE subject_id = ?) " +
+            "WHERE e.subject_id = ? ORDER BY u.name, u.id";
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final JdbcTemplate cursorTemplate;
+    private final SubjectRepository subjectRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    public GradebookExportService(
+            DataSource dataSource,
+            SubjectRepository subjectRepository,
+            SubjectAccessIndex subjectAccessIndex,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${gradebook-export.fetch-size:1000}") int fetchSize
+    ) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.subjectRepository = subjectRepository;
+        this.subjectAccessIndex = subjectAccessIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Check the faculty owns the subject before any output is committed
+     *
+     * @return the subject code, for the download file name
+     */
+    public String authorizeExport(UUID subjectId, UUID facultyId) {
+        if (!subjectAccessIndex.isFaculty(subjectId, facultyId)) {
+            throw new AccessDeniedException("Faculty can only export gradebooks for their subjects");
+        }
+        return subjectRepository.findById(subjectId)
+                .map(Subject::getCode)
+                .orElseThrow(() -> new RuntimeException("Subject not found"));
+    }
+
+    public void export(UUID subjectId, Format format, String sheetName, OutputStream out) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int[] students = new int[1];
+        readOnlyTransaction.executeWithoutResult(status -> {
+            List<TaskColumn> tasks = cursorTemplate.query(TASK_COLUMNS, (rs, rowNum) -> new TaskColumn(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("title"),
+                    rs.getObject("weight") == null ? 10 : rs.getInt("weight"),
+                    rs.getObject("max_score") == null ? HUNDRED : BigDecimal.valueOf(rs.getInt("max_score"))), subjectId);
+            try (SheetWriter sheet = format == Format.XLSX ? new XlsxSheetWriter(out, sheetName) : new CsvSheetWriter(out)) {
+                sheet.row(header(tasks));
+                Pivot pivot = new Pivot(tasks, sheet);
+                cursorTemplate.query(GRADEBOOK_ROWS, pivot, subjectId, subjectId);
+                pivot.flush();
+                students[0] = pivot.students;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        sample.stop(meterRegistry.timer("gradebook.export", "format", format.extension()));
+        log.info("Exported gradebook for subject: {} ({} students, {})", subjectId, students[0], format.extension());
+    }
+
+    private static Object[] header(List<TaskColumn> tasks) {
+        List<Object> header = new ArrayList<>(3 + tasks.size() * 2 + 1);
+        header.add("Student ID");
+        header.add("Name");
+        header.add("Email");
+        for (TaskColumn task : tasks) {
+            header.add(task.title + " (weight " + task.weight + ", max " + task.maxScore.toPlainString() + ")");
+            header.add(task.title + " penalty %");
+        }
+        header.add("Final %");
+        return header.toArray();
+    }
+
+    /**
+     * Folds the student-ordered cursor into one output row per student
+     */
+    private static final class Pivot implements RowCallbackHandler {
+        private final List<TaskColumn> tasks;
+        private final Map<UUID, Integer> columnOf = new HashMap<>();
+        private final SheetWriter sheet;
+        private final BigDecimal[] scores;
+        private final int[] penalties;
+
+        private UUID student;
+        private String name;
+        private String email;
+        private int students;
+
+        Pivot(List<TaskColumn> tasks, SheetWriter sheet) {
+            this.tasks = tasks;
+            this.sheet = sheet;
+            this.scores = new BigDecimal[tasks.size()];
+            this.penalties = new int[tasks.size()];
+            for (int i = 0; i < tasks.size(); i++) {
+                columnOf.put(tasks.get(i).id, i);
+            }
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID studentId = rs.getObject("student_id", UUID.class);
+            if (!studentId.equals(student)) {
+                flush();
+                student = studentId;
+                name = rs.getString("name");
+                email = rs.getString("email");
+            }
+            UUID taskId = rs.getObject("task_id", UUID.class);
+            Integer column = taskId == null ? null : columnOf.get(taskId);
+            if (column != null) {
+                scores[column] = rs.getBigDecimal("final_score");
+                penalties[column] = rs.getInt("penalty");
+            }
+        }
+
+        void flush() {
+            if (student == null) {
+                return;
+            }
+            Object[] cells = new Object[3 + tasks.size() * 2 + 1];
+            cells[0] = student.toString();
+            cells[1] = name;
+            cells[2] = email;
+            BigDecimal weighted = BigDecimal.ZERO;
+            int gradedWeight = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                TaskColumn task = tasks.get(i);
+                cells[3 + i * 2] = scores[i];
+                cells[4 + i * 2] = scores[i] == null ? null : penalties[i];
+                BigDecimal percentage = FinalGrade.percentage(scores[i], task.maxScore.intValue(), penalties[i]);
+                if (percentage != null) {
+                    gradedWeight += task.weight;
+                    weighted = weighted.add(BigDecimal.valueOf(task.weight).multiply(percentage));
+                }
+            }
+            cells[cells.length - 1] = FinalGrade.of(weighted, gradedWeight);
+            try {
+                sheet.row(cells);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            students++;
+            Arrays.fill(scores, null);
+            Arrays.fill(penalties, 0);
+            student = null;
+        }
+    }
+
+    private record TaskColumn(UUID id, String title, int weight, BigDecimal maxScore) {
+    }
+}
@@ -0,0 +1,239 @@
+package com.edusprint.service;
+
+import com.edusprint.repository.GradingJobQueueRepository;
+import com.edusprint.repository.GradingJobQueueRepository.ClaimedJob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Per-node consumer of the durable grading queue.
+ * Each idle thread claims up to batch-size jobs; the jobs of one task in a claim are scored as one
+ * chunk by {@link BatchGradingService}, so grading a whole task costs a query and a write batch per
+ * claim rather than per submission. Leases are heartbeated while jobs run,
+ * retries failures with exponential backoff and dead-letters jobs that run out of attempts.
+ * Jobs held by a node that dies are reclaimed by any node once their lease expires.
+ * Polling, heartbeats and the reaper run on the worker's own scheduler threads, so a long
+ * @Scheduled job elsewhere on the node can never delay a heartbeat past the lease.
+ */
+@Slf4j
+@Component
+public class GradingQueueWorker {
+
+    private final GradingJobQueueRepository queue;
+    private final BatchGradingService batchGradingService;
+    private final boolean enabled;
+    private final int threads;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long retentionMillis;
+    private final String workerId;
+    private final long pollIntervalMillis;
+    private final long heartbeatIntervalMillis;
+    private final long reapIntervalMillis;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final Map<UUID, ClaimedJob> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger activeClaims = new AtomicInteger();
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public GradingQueueWorker(
+            GradingJobQueueRepository queue,
+            BatchGradingService batchGradingService,
+            MeterRegistry meterRegistry,
+            @Value("${grading-queue.enabled:true}") boolean enabled,
+            @Value("${grading-queue.worker-threads:4}") int threads,
+            @Value("${grading-queue.batch-size:20}") int batchSize,
+            @Value("${grading-queue.lease:60000}") long leaseMillis,
+            @Value("${grading-queue.backoff-base:5000}") long backoffBaseMillis,
+            @Value("${grading-queue.backoff-max:600000}") long backoffMaxMillis,
+            @Value("${grading-queue.retention:604800000}") long retentionMillis,
+            @Value("${grading-queue.poll-interval:1000}") long pollIntervalMillis,
+            @Value("${grading-queue.heartbeat-interval:20000}") long heartbeatIntervalMillis,
+            @Value("${grading-queue.reap-interval:30000}") long reapIntervalMillis
+    ) {
+        this.queue = queue;
+        this.batchGradingService = batchGradingService;
+        this.enabled = enabled;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.retentionMillis = retentionMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        this.reapIntervalMillis = reapIntervalMillis;
+        this.workerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "grading-queue-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One thread per periodic task, so a slow poll or reap never holds up a heartbeat
+        AtomicInteger schedulerCounter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "grading-queue-scheduler-" + schedulerCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.completed = Counter.builder("grading.queue.jobs").tag("outcome", "completed").register(meterRegistry);
+        this.retried = Counter.builder("grading.queue.jobs").tag("outcome", "retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("grading.queue.jobs").tag("outcome", "dead").register(meterRegistry);
+        Gauge.builder("grading.queue.in-flight", inFlight, Map::size)
+                .description("Grading jobs currently leased by this node")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        schedule("heartbeat", this::heartbeat, heartbeatIntervalMillis);
+        schedule("poll", this::poll, pollIntervalMillis);
+        schedule("reap", this::reapExpiredLeases, reapIntervalMillis);
+        log.info("Grading queue worker {} started with {} threads", workerId, threads);
+    }
+
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        while (activeClaims.get() < threads) {
+            List<ClaimedJob> claimed = queue.claim(workerId, batchSize, leaseMillis);
+            if (claimed.isEmpty()) {
+                return;
+            }
+            claimed.forEach(job -> inFlight.put(job.id(), job));
+            activeClaims.incrementAndGet();
+            executor.execute(() -> process(claimed));
+            if (claimed.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    public void heartbeat() {
+        if (enabled) {
+            queue.extendLeases(workerId, inFlight.keySet(), leaseMillis);
+        }
+    }
+
+    public void reapExpiredLeases() {
+        if (!enabled) {
+            return;
+        }
+        int reclaimed = queue.reapExpiredLeases();
+        if (reclaimed > 0) {
+            log.warn("Reclaimed {} grading jobs with expired leases", reclaimed);
+        }
+        queue.purgeCompletedBefore(LocalDateTime.now().minusNanos(retentionMillis * 1_000_000L));
+    }
+
+    private void schedule(String name, Runnable action, long intervalMillis) {
+        // A periodic task that throws is never run again, so failures are logged and swallowed
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.warn("Grading queue {} failed", name, e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void process(List<ClaimedJob> claimed) {
+        try {
+            Map<UUID, List<ClaimedJob>> byTask = claimed.stream()
+                    .collect(Collectors.groupingBy(ClaimedJob::taskId, LinkedHashMap::new, Collectors.toList()));
+            byTask.forEach(this::process);
+        } finally {
+            activeClaims.decrementAndGet();
+        }
+    }
+
+    private void process(UUID taskId, List<ClaimedJob> jobs) {
+        try {
+            Map<UUID, RuntimeException> failures;
+            try {
+                failures = batchGradingService.grade(taskId, jobs.stream().map(ClaimedJob::studentId).toList());
+            } catch (RuntimeException e) {
+                jobs.forEach(job -> fail(job, e));
+                return;
+            }
+            for (ClaimedJob job : jobs) {
+                RuntimeException error = failures.get(job.studentId());
+                if (error == null) {
+                    queue.complete(job.id(), workerId);
+                    completed.increment();
+                } else {
+                    fail(job, error);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to record grading results for task: {}", taskId, e);
+        } finally {
+            jobs.forEach(job -> inFlight.remove(job.id()));
+        }
+    }
+
+    private void fail(ClaimedJob job, RuntimeException e) {
+        String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        if (job.attempts() >= job.maxAttempts()) {
+            queue.deadLetter(job.id(), workerId, error);
+            deadLettered.increment();
+            log.error("Grading job: {} for task: {} student: {} dead-lettered after {} attempts",
+                      job.id(), job.taskId(), job.studentId(), job.attempts(), e);
+            return;
+        }
+        long delay = backoffMillis(job.attempts());
+        queue.retryAt(job.id(), workerId, LocalDateTime.now().plusNanos(delay * 1_000_000L), error);
+        retried.increment();
+        log.warn("Grading job: {} attempt {} failed, retrying in {} ms: {}", job.id(), job.attempts(), delay, error);
+    }
+
+    /**
+     * Exponential backoff with +/-20% jitter so retries from many nodes do not line up
+     */
+    private long backoffMillis(int attempts) {
+        long delay = backoffBaseMillis << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, backoffMaxMillis);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return (long) (delay * jitter);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs keep their lease and are reclaimed by another node once it expires
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
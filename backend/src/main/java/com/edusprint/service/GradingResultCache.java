@@ -0,0 +1,191 @@
+package com.edusprint.service;
+
+import com.edusprint.cache.BoundedLruCache;
+import com.edusprint.entity.Task;
+import com.edusprint.event.TaskDefinitionsChangedEvent;
+import com.edusprint.repository.GradingResultCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Memoizes auto-grading results by content.
+ * The key hashes the task, its compiled rubric version, max score, last update, the grade's
+ * strictness and the grader (rubric or model version) together with the normalized submission,
+ * so an unchanged resubmission or a copied boilerplate answer reuses the earlier score instead
+ * of running the grader again. Any change to those inputs produces a different key; entries of a
+ * task are also dropped eagerly when its checklist changes.
+ * Entries live in a bounded in-memory LRU and, when persist is on, in grading_result_cache so
+ * they survive restarts and are shared between nodes.
+ */
+@Slf4j
+@Component
+public class GradingResultCache {
+
+    private final RubricAutoGrader rubricAutoGrader;
+    private final GradingResultCacheRepository repository;
+    private final boolean enabled;
+    private final boolean persist;
+    private final long retentionMillis;
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter misses;
+    private final BoundedLruCache<String, Entry> cache;
+
+    public GradingResultCache(
+            RubricAutoGrader rubricAutoGrader,
+            GradingResultCacheRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${grading-memo.enabled:true}") boolean enabled,
+            @Value("${grading-memo.persist:false}") boolean persist,
+            @Value("${grading-memo.max-entries:50000}") int maxEntries,
+            @Value("${grading-memo.retention:2592000000}") long retentionMillis
+    ) {
+        this.rubricAutoGrader = rubricAutoGrader;
+        this.repository = repository;
+        this.enabled = enabled;
+        this.persist = persist;
+        this.cache = new BoundedLruCache<>(maxEntries);
+        this.retentionMillis = retentionMillis;
+        this.memoryHits = Counter.builder("grading.memo.lookups").tag("result", "memory-hit").register(meterRegistry);
+        this.storeHits = Counter.builder("grading.memo.lookups").tag("result", "store-hit").register(meterRegistry);
+        this.misses = Counter.builder("grading.memo.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("grading.memo.entries", cache, BoundedLruCache::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cache key of a submission graded by the given grader
+     *
+     * @param grader "rubric", or "ai:" plus the model version
+     */
+    public String keyFor(Task task, String strictness, String grader, String content) {
+        MessageDigest digest = sha256();
+        String header = task.getId() + "\0"
+                + rubricAutoGrader.rubricFor(task.getId()).getVersion() + "\0"
+                + task.getMaxScore() + "\0"
+                + task.getUpdatedAt() + "\0"
+                + (strictness == null ? "medium" : strictness) + "\0"
+                + grader + "\0";
+        digest.update(header.getBytes(StandardCharsets.UTF_8));
+        digest.update(normalize(content).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Cached result for a key, or null
+     */
+    public AutoGrader.Result get(String key, UUID taskId) {
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            memoryHits.increment();
+            return entry.result;
+        }
+        if (persist) {
+            AutoGrader.Result stored = repository.find(key);
+            if (stored != null) {
+                storeHits.increment();
+                remember(key, taskId, stored);
+                return stored;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, UUID taskId, AutoGrader.Result result) {
+        remember(key, taskId, result);
+        if (persist) {
+            try {
+                repository.save(key, taskId, result);
+            } catch (RuntimeException e) {
+                log.warn("Failed to persist grading result for task: {}", taskId, e);
+            }
+        }
+    }
+
+    public void invalidateTask(UUID taskId) {
+        cache.removeIf((key, entry) -> taskId.equals(entry.taskId));
+        if (persist) {
+            repository.deleteByTask(taskId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onDefinitionsChanged(TaskDefinitionsChangedEvent event) {
+        invalidateTask(event.taskId());
+    }
+
+    @Scheduled(fixedDelayString = "${grading-memo.prune-interval:3600000}")
+    public void pruneStore() {
+        if (!persist) {
+            return;
+        }
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minus(Duration.ofMillis(retentionMillis)));
+        if (removed > 0) {
+            log.info("Pruned {} memoized grading results", removed);
+        }
+    }
+
+    private void remember(String key, UUID taskId, AutoGrader.Result result) {
+        cache.put(key, new Entry(taskId, result));
+    }
+
+    /**
+     * Unicode NFC, \n line endings, no trailing whitespace per line or around the text
+     */
+    static String normalize(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(content, Normalizer.Form.NFC);
+        StringBuilder normalized = new StringBuilder(text.length());
+        int lineStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : '\n';
+            if (c == '\n' || c == '\r') {
+                int end = i;
+                while (end > lineStart && Character.isWhitespace(text.charAt(end - 1))) {
+                    end--;
+                }
+                normalized.append(text, lineStart, end).append('\n');
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        return normalized.toString().strip();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(UUID taskId, AutoGrader.Result result) {
+    }
+}
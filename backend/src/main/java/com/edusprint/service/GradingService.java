@@ -2,21 +2,42 @@ package com.edusprint.service;
 
 import com.edusprint.dto.GradeDTO;
 import com.edusprint.dto.GradeOverrideRequest;
+import com.edusprint.entity.AiGradingLog;
 import com.edusprint.entity.Grade;
 import com.edusprint.entity.GradeOverride;
+import com.edusprint.entity.Task;
 import com.edusprint.entity.TaskAssignment;
+import com.edusprint.entity.TaskDefinition;
+import com.edusprint.entity.User;
+import com.edusprint.event.GradesChangedEvent;
 import com.edusprint.repository.GradeRepository;
 import com.edusprint.repository.GradeOverrideRepository;
+import com.edusprint.repository.GradingJobQueueRepository;
 import com.edusprint.repository.TaskAssignmentRepository;
-import com.edusprint.repository.SubjectRepository;
+import com.edusprint.repository.TaskDefinitionRepository;
+import com.edusprint.repository.TaskRepository;
+import com.edusprint.repository.UserRepository;
+import com.edusprint.security.SubjectAccessIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,179 +45,428 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class GradingService {
 
+    @Value("${grading-queue.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${ai-grading.fallback-to-rubric:true}")
+    private boolean aiFallbackToRubric;
+
     private final GradeRepository gradeRepository;
     private final GradeOverrideRepository gradeOverrideRepository;
     private final TaskAssignmentRepository taskAssignmentRepository;
-    private final SubjectRepository subjectRepository;
-
-    public List<GradeDTO> getGradesByStudent(Long studentId) {
-        return gradeRepository.findByStudentId(studentId).stream()
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final AutoGrader autoGrader;
+    private final GradingJobQueueRepository gradingJobQueue;
+    private final TaskDefinitionRepository taskDefinitionRepository;
+    private final AiGradingService aiGradingService;
+    private final AiGradingLogWriter aiGradingLogWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final GradingResultCache gradingResultCache;
+    private final GradeViewCache gradeViewCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * A student's grades: all of them for the student, only those in the requester's subjects for faculty
+     */
+    public List<GradeDTO> getGradesByStudent(UUID studentId, UUID requesterId) {
+        List<GradeDTO> grades = gradeViewCache.byStudent(studentId, () -> gradeRepository.findByStudentId(studentId).stream()
                 .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+        if (studentId.equals(requesterId)) {
+            return grades;
+        }
+        return grades.stream()
+                .filter(grade -> teachesTask(grade.getTaskId(), requesterId))
                 .collect(Collectors.toList());
     }
 
-    public List<GradeDTO> getGradesBySubject(Long subjectId) {
-        return gradeRepository.findBySubjectId(subjectId).stream()
+    /**
+     * A subject's grades: all of them for its faculty, their own for an enrolled student
+     */
+    public List<GradeDTO> getGradesBySubject(UUID subjectId, UUID requesterId) {
+        List<GradeDTO> grades = gradeViewCache.bySubject(subjectId, () -> gradeRepository.findBySubjectId(subjectId).stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        return visibleIn(subjectId, grades, requesterId);
     }
 
-    public List<GradeDTO> getGradesByTask(Long taskId) {
-        return gradeRepository.findByTaskId(taskId).stream()
+    public List<GradeDTO> getGradesByTask(UUID taskId, UUID requesterId) {
+        Optional<UUID> subjectId = subjectAccessIndex.subjectOfTask(taskId);
+        if (subjectId.isEmpty()) {
+            return List.of();
+        }
+        List<GradeDTO> grades = gradeViewCache.byTask(taskId, () -> gradeRepository.findByTaskId(taskId).stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        return visibleIn(subjectId.get(), grades, requesterId);
     }
 
-    public Optional<GradeDTO> getGradeById(Long id) {
-        return gradeRepository.findById(id)
+    public Optional<GradeDTO> getGradeById(UUID id, UUID requesterId) {
+        Optional<GradeDTO> grade = gradeRepository.findById(id)
                 .map(this::convertToDTO);
+        grade.ifPresent(found -> requireGradeAccess(found, requesterId));
+        return grade;
     }
 
-    @Transactional
-    public GradeDTO autoGradeSubmission(Long taskId, Long studentId) {
+    /**
+     * Auto-grade a submission on request of the faculty of the task's subject
+     */
+    public GradeDTO autoGradeSubmission(UUID taskId, UUID studentId, UUID facultyId) {
+        if (!teachesTask(taskId, facultyId)) {
+            throw new AccessDeniedException("Only the subject's faculty can auto-grade its submissions");
+        }
+        return autoGradeSubmission(taskId, studentId);
+    }
+
+    /**
+     * Grade a submission and store the result as a pending grade. No requester check: callers
+     * authorize first, and the grading queue worker grades jobs that were authorized when queued.
+     * Runs in three steps so no database connection is held while a grader (possibly a remote
+     * model) works: read the submission, grade it, then write the grade in a short transaction.
+     */
+    public GradeDTO autoGradeSubmission(UUID taskId, UUID studentId) {
+        GradingInput input = transactionTemplate.execute(status -> loadGradingInput(taskId, studentId));
+
+        // Never replace a score a faculty member has already reviewed (queued jobs may be retried)
+        if (input.gradedAlready() != null) {
+            return input.gradedAlready();
+        }
+
+        ScoredSubmission scored = score(input.task(), input.checklist(), input.strictness(), input.content());
+        GradeDTO saved = transactionTemplate.execute(status -> saveAutoGrade(taskId, studentId, scored.result()));
+        log.info("Auto-graded task: {} for student: {} with score: {}{}",
+                 taskId, studentId, scored.result().score(), scored.memoized() ? " (memoized)" : "");
+
+        logAiGrading(saved.getId(), scored);
+        return saved;
+    }
+
+    /**
+     * Score one submission with the grader its task is set up for: the AI model when enabled for the
+     * task (falling back to the rubric if allowed), the rubric otherwise, memoized by content.
+     * Single submissions and batch jobs both grade through here, so a task gets the same grader
+     * whichever way it is graded.
+     */
+    public ScoredSubmission score(Task task, List<String> checklist, String strictness, String content) {
+        boolean useAi = aiGradingService.isEnabledFor(task);
+        String memoKey = memoKey(task, strictness, useAi, content);
+        AutoGrader.Result cached = memoKey == null ? null : gradingResultCache.get(memoKey, task.getId());
+        if (cached != null) {
+            return new ScoredSubmission(cached, true, null, null);
+        }
+        if (!useAi) {
+            return new ScoredSubmission(remember(memoKey, task.getId(), autoGrader.grade(task, content)), false, null, null);
+        }
+        try {
+            AiGradingService.Outcome outcome = aiGradingService.grade(task, checklist, strictness, content).join();
+            return modelScored(memoKey, task, outcome);
+        } catch (CompletionException e) {
+            return rubricFallback(task, content, e.getCause());
+        }
+    }
+
+    /**
+     * {@link #score} without blocking a thread on the model. Rubric scoring, including the fallback
+     * after a failed model call, runs on the given executor; a model-graded submission completes
+     * when its model batch answers.
+     */
+    public CompletableFuture<ScoredSubmission> scoreAsync(Task task, List<String> checklist, String strictness,
+                                                          String content, Executor rubricExecutor) {
+        if (!aiGradingService.isEnabledFor(task)) {
+            return CompletableFuture.supplyAsync(() -> score(task, checklist, strictness, content), rubricExecutor);
+        }
+        String memoKey = memoKey(task, strictness, true, content);
+        AutoGrader.Result cached = memoKey == null ? null : gradingResultCache.get(memoKey, task.getId());
+        if (cached != null) {
+            return CompletableFuture.completedFuture(new ScoredSubmission(cached, true, null, null));
+        }
+        CompletableFuture<AiGradingService.Outcome> call;
+        try {
+            call = aiGradingService.grade(task, checklist, strictness, content);
+        } catch (RuntimeException e) {
+            // Queue full: fail this submission rather than grade it with a different grader
+            return CompletableFuture.failedFuture(e);
+        }
+        return call.handle((outcome, error) -> error == null
+                        ? CompletableFuture.completedFuture(modelScored(memoKey, task, outcome))
+                        : CompletableFuture.supplyAsync(() -> rubricFallback(task, content, unwrap(error)), rubricExecutor))
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Definition of Done items the grader needs for a task (only the AI model reads them)
+     */
+    public List<String> checklistFor(Task task) {
+        if (!aiGradingService.isEnabledFor(task)) {
+            return List.of();
+        }
+        return taskDefinitionRepository.findByTaskIdOrderByOrderIndexAsc(task.getId()).stream()
+                .map(TaskDefinition::getRequirement)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Record the model call behind a stored grade; a no-op when the model was not involved
+     */
+    public void logAiGrading(UUID gradeId, ScoredSubmission scored) {
+        if (scored.aiOutcome() != null || scored.aiError() != null) {
+            aiGradingLogWriter.enqueue(aiLogEntry(gradeId, scored.aiOutcome(), scored.aiError()));
+        }
+    }
+
+    private String memoKey(Task task, String strictness, boolean useAi, String content) {
+        return gradingResultCache.isEnabled()
+                ? gradingResultCache.keyFor(task, strictness,
+                        useAi ? "ai:" + aiGradingService.modelVersion() : "rubric", content)
+                : null;
+    }
+
+    private ScoredSubmission modelScored(String memoKey, Task task, AiGradingService.Outcome outcome) {
+        return new ScoredSubmission(remember(memoKey, task.getId(), outcome.result()), false, outcome, null);
+    }
+
+    private ScoredSubmission rubricFallback(Task task, String content, Throwable cause) {
+        if (!aiFallbackToRubric) {
+            throw new RuntimeException("AI grading failed: " + cause.getMessage(), cause);
+        }
+        // The rubric fallback is not memoized under the model's key
+        String aiError = String.valueOf(cause);
+        log.warn("AI grading failed for task: {}, falling back to rubric: {}", task.getId(), aiError);
+        return new ScoredSubmission(autoGrader.grade(task, content), false, null, aiError);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private AutoGrader.Result remember(String memoKey, UUID taskId, AutoGrader.Result result) {
+        if (memoKey != null) {
+            gradingResultCache.put(memoKey, taskId, result);
+        }
+        return result;
+    }
+
+    private GradingInput loadGradingInput(UUID taskId, UUID studentId) {
+        // Load the task itself first so the assignment doesn't leave only a lazy proxy behind
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
         TaskAssignment assignment = taskAssignmentRepository
                 .findByTaskIdAndStudentId(taskId, studentId)
                 .orElseThrow(() -> new RuntimeException("Task assignment not found"));
 
-        if (!"SUBMITTED".equals(assignment.getStatus())) {
+        if (assignment.getSubmittedAt() == null) {
             throw new RuntimeException("Task must be submitted before grading");
         }
 
-        // Simple auto-grading logic (can be enhanced)
-        Double autoScore = calculateAutoScore(assignment);
-        String autoFeedback = generateAutoFeedback(assignment, autoScore);
-
-        Grade grade = Grade.builder()
-                .taskId(taskId)
-                .studentId(studentId)
-                .subjectId(assignment.getTask().getSubjectId())
-                .autoScore(autoScore)
-                .autoFeedback(autoFeedback)
-                .status("AUTO_GRADED")
-                .gradedAt(LocalDateTime.now())
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
+        Optional<Grade> existing = gradeRepository.findByTaskIdAndStudentId(taskId, studentId);
+        if (existing.isPresent() && !"pending".equals(existing.get().getStatus())) {
+            return new GradingInput(task, null, List.of(), null, convertToDTO(existing.get()));
+        }
 
-        Grade savedGrade = gradeRepository.save(grade);
-        log.info("Auto-graded task: {} for student: {} with score: {}", 
-                 taskId, studentId, autoScore);
+        List<String> checklist = checklistFor(task);
+        String strictness = existing.map(Grade::getStrictness).orElse(null);
+        return new GradingInput(task, assignment.getSubmissionContent(), checklist, strictness, null);
+    }
 
-        return convertToDTO(savedGrade);
+    private GradeDTO saveAutoGrade(UUID taskId, UUID studentId, AutoGrader.Result result) {
+        Grade grade = gradeRepository.findByTaskIdAndStudentId(taskId, studentId)
+                .orElseGet(() -> Grade.builder()
+                        .task(taskRepository.getReferenceById(taskId))
+                        .student(userRepository.getReferenceById(studentId))
+                        .build());
+
+        // A faculty review may have landed while the grader was running
+        if (!"pending".equals(grade.getStatus())) {
+            return convertToDTO(grade);
+        }
+
+        grade.setAutoScore(result.score());
+        grade.setFinalScore(result.score());
+        grade.setFeedback(result.feedback());
+        grade.setStatus("pending");
+
+        Grade saved = gradeRepository.save(grade);
+        eventPublisher.publishEvent(GradesChangedEvent.of(taskId, studentId));
+        return convertToDTO(saved);
     }
 
+    private AiGradingLog aiLogEntry(UUID gradeId, AiGradingService.Outcome outcome, String error) {
+        AiGradingLog.AiGradingLogBuilder entry = AiGradingLog.builder()
+                .id(UUID.randomUUID())
+                .gradeId(gradeId)
+                .modelVersion(aiGradingService.modelVersion())
+                .errorMessage(error)
+                .createdAt(LocalDateTime.now());
+        if (outcome != null) {
+            entry.promptUsed(outcome.prompt())
+                    .rawResponse(outcome.rawResponse())
+                    .confidenceScore(BigDecimal.valueOf(outcome.confidence()).setScale(2, RoundingMode.HALF_UP))
+                    .processingTimeMs(outcome.processingTimeMs())
+                    .tokensUsed(outcome.tokensUsed());
+        }
+        return entry.build();
+    }
+
+    /**
+     * Queue a submission for auto-grading on whichever node's worker claims it first
+     *
+     * @return true if a job was queued, false if one was already waiting
+     */
+    @Transactional
+    public boolean enqueueAutoGrade(UUID taskId, UUID studentId) {
+        return gradingJobQueue.enqueue(taskId, studentId, maxAttempts);
+    }
+
+    /**
+     * Queue every submission of a task that has no reviewed grade; queue workers grade them in chunks
+     *
+     * @return number of jobs queued
+     */
     @Transactional
-    public GradeDTO facultyReviewGrade(Long gradeId, Double facultyScore, String facultyFeedback, Long facultyId) {
+    public int enqueueTaskGrading(UUID taskId, UUID facultyId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+
+        // Verify faculty permissions
+        if (!subjectAccessIndex.isFaculty(task.getSubject().getId(), facultyId)) {
+            throw new RuntimeException("Faculty can only grade tasks for their subjects");
+        }
+
+        int queued = gradingJobQueue.enqueueTask(taskId, maxAttempts);
+        log.info("Queued {} grading jobs for task: {}", queued, taskId);
+        return queued;
+    }
+
+    /**
+     * Grading queue counts by status for one task (its faculty), or for all tasks (admins only)
+     */
+    public Map<String, Long> getQueueStats(UUID taskId, UUID requesterId) {
+        if (taskId == null) {
+            boolean admin = userRepository.findById(requesterId)
+                    .map(user -> user.getRole() == User.UserRole.admin)
+                    .orElse(false);
+            if (!admin) {
+                throw new AccessDeniedException("Only admins can view queue counts across all tasks");
+            }
+        } else if (!teachesTask(taskId, requesterId)) {
+            throw new AccessDeniedException("Only the subject's faculty can view its grading queue");
+        }
+        return gradingJobQueue.countByStatus(taskId);
+    }
+
+    @Transactional
+    public GradeDTO facultyReviewGrade(UUID gradeId, BigDecimal facultyScore, String facultyFeedback, UUID facultyId) {
         Grade grade = gradeRepository.findById(gradeId)
                 .orElseThrow(() -> new RuntimeException("Grade not found"));
 
         // Verify faculty permissions
-        if (!subjectRepository.existsByIdAndFacultyId(grade.getSubjectId(), facultyId)) {
+        if (!subjectAccessIndex.isFaculty(grade.getTask().getSubject().getId(), facultyId)) {
             throw new RuntimeException("Faculty can only review grades for their subjects");
         }
 
-        grade.setFacultyScore(facultyScore);
-        grade.setFacultyFeedback(facultyFeedback);
-        grade.setStatus("FACULTY_REVIEWED");
-        grade.setUpdatedAt(LocalDateTime.now());
+        grade.setFinalScore(facultyScore);
+        grade.setFeedback(facultyFeedback);
+        grade.setStatus("reviewed");
+        grade.setGradedBy(userRepository.getReferenceById(facultyId));
 
         Grade updatedGrade = gradeRepository.save(grade);
-        log.info("Faculty: {} reviewed grade: {} with score: {}", 
+        eventPublisher.publishEvent(GradesChangedEvent.of(grade.getTask().getId(), grade.getStudent().getId()));
+        log.info("Faculty: {} reviewed grade: {} with score: {}",
                  facultyId, gradeId, facultyScore);
 
         return convertToDTO(updatedGrade);
     }
 
     @Transactional
-    public void overrideGrade(Long gradeId, GradeOverrideRequest request, Long facultyId) {
+    public void overrideGrade(UUID gradeId, GradeOverrideRequest request, UUID facultyId) {
         Grade grade = gradeRepository.findById(gradeId)
                 .orElseThrow(() -> new RuntimeException("Grade not found"));
 
         // Verify faculty permissions
-        if (!subjectRepository.existsByIdAndFacultyId(grade.getSubjectId(), facultyId)) {
+        if (!subjectAccessIndex.isFaculty(grade.getTask().getSubject().getId(), facultyId)) {
             throw new RuntimeException("Faculty can only override grades for their subjects");
         }
 
-        // Store original scores for audit
-        Double originalAutoScore = grade.getAutoScore();
-        Double originalFacultyScore = grade.getFacultyScore();
-
-        // Create override record
+        // Create override record with the original score for audit
         GradeOverride override = GradeOverride.builder()
-                .gradeId(gradeId)
-                .facultyId(facultyId)
-                .originalAutoScore(originalAutoScore)
-                .originalFacultyScore(originalFacultyScore)
-                .newScore(request.getNewScore())
+                .grade(grade)
+                .faculty(userRepository.getReferenceById(facultyId))
+                .originalScore(grade.getFinalScore())
+                .overrideScore(request.getFinalScore())
                 .reason(request.getReason())
-                .overriddenAt(LocalDateTime.now())
                 .build();
 
         gradeOverrideRepository.save(override);
 
         // Update the grade
-        grade.setFacultyScore(request.getNewScore());
-        grade.setFacultyFeedback(grade.getFacultyFeedback() + " [OVERRIDDEN: " + request.getReason() + "]");
-        grade.setStatus("OVERRIDDEN");
-        grade.setUpdatedAt(LocalDateTime.now());
+        grade.setFinalScore(request.getFinalScore());
+        grade.setStatus("approved");
+        grade.setGradedBy(override.getFaculty());
 
         gradeRepository.save(grade);
-        log.info("Faculty: {} overrode grade: {} to score: {} for reason: {}", 
-                 facultyId, gradeId, request.getNewScore(), request.getReason());
+        eventPublisher.publishEvent(GradesChangedEvent.of(grade.getTask().getId(), grade.getStudent().getId()));
+        log.info("Faculty: {} overrode grade: {} to score: {} for reason: {}",
+                 facultyId, gradeId, request.getFinalScore(), request.getReason());
     }
 
-    public List<GradeOverride> getGradeOverrides(Long gradeId) {
-        return gradeOverrideRepository.findByGradeIdOrderByOverriddenAtDesc(gradeId);
+    public List<GradeOverride> getGradeOverrides(UUID gradeId, UUID requesterId) {
+        gradeRepository.findById(gradeId)
+                .map(this::convertToDTO)
+                .ifPresent(grade -> requireGradeAccess(grade, requesterId));
+        return gradeOverrideRepository.findByGradeIdOrderByCreatedAtDesc(gradeId);
     }
 
-    private Double calculateAutoScore(TaskAssignment assignment) {
-        // Simple scoring based on submission completeness and timing
-        if (assignment.getSubmissionText() == null || assignment.getSubmissionText().trim().isEmpty()) {
-            return 0.0;
+    private List<GradeDTO> visibleIn(UUID subjectId, List<GradeDTO> grades, UUID requesterId) {
+        if (subjectAccessIndex.isFaculty(subjectId, requesterId)) {
+            return grades;
         }
-
-        double baseScore = 70.0; // Base score for submission
-        
-        // Add points for submission length (rough indicator of effort)
-        int textLength = assignment.getSubmissionText().length();
-        if (textLength > 100) baseScore += 10.0;
-        if (textLength > 500) baseScore += 10.0;
-        if (textLength > 1000) baseScore += 10.0;
-
-        // Deduct points for late submission (if we had due date logic)
-        // This would require more sophisticated date comparison
-
-        return Math.min(baseScore, 100.0);
+        if (!subjectAccessIndex.isEnrolled(subjectId, requesterId)) {
+            throw new AccessDeniedException("Only the subject's faculty and enrolled students can view its grades");
+        }
+        return grades.stream()
+                .filter(grade -> requesterId.equals(grade.getStudentId()))
+                .collect(Collectors.toList());
     }
 
-    private String generateAutoFeedback(TaskAssignment assignment, Double score) {
-        if (score >= 90.0) {
-            return "Excellent submission! Well detailed and comprehensive.";
-        } else if (score >= 80.0) {
-            return "Good submission! Consider adding more detail for better understanding.";
-        } else if (score >= 70.0) {
-            return "Adequate submission. Could benefit from more elaboration and examples.";
-        } else if (score >= 60.0) {
-            return "Basic submission. Please provide more comprehensive answers.";
-        } else {
-            return "Incomplete submission. Please review requirements and resubmit.";
+    private void requireGradeAccess(GradeDTO grade, UUID requesterId) {
+        if (!requesterId.equals(grade.getStudentId()) && !teachesTask(grade.getTaskId(), requesterId)) {
+            throw new AccessDeniedException("Only the student or the subject's faculty can view this grade");
         }
     }
 
+    private boolean teachesTask(UUID taskId, UUID userId) {
+        return subjectAccessIndex.subjectOfTask(taskId)
+                .map(subjectId -> subjectAccessIndex.isFaculty(subjectId, userId))
+                .orElse(false);
+    }
+
     private GradeDTO convertToDTO(Grade grade) {
         return GradeDTO.builder()
                 .id(grade.getId())
-                .taskId(grade.getTaskId())
-                .studentId(grade.getStudentId())
-                .subjectId(grade.getSubjectId())
+                .taskId(grade.getTask().getId())
+                .studentId(grade.getStudent().getId())
                 .autoScore(grade.getAutoScore())
-                .facultyScore(grade.getFacultyScore())
-                .autoFeedback(grade.getAutoFeedback())
-                .facultyFeedback(grade.getFacultyFeedback())
+                .finalScore(grade.getFinalScore())
+                .feedback(grade.getFeedback())
+                .strictness(grade.getStrictness())
                 .status(grade.getStatus())
-                .gradedAt(grade.getGradedAt())
                 .createdAt(grade.getCreatedAt())
-                .updatedAt(grade.getUpdatedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * A grader's result; aiOutcome or aiError is set when the AI model was called
+     */
+    public record ScoredSubmission(AutoGrader.Result result, boolean memoized,
+                                   AiGradingService.Outcome aiOutcome, String aiError) {
+    }
+
+    /**
+     * What grading needs, read in one short transaction; gradedAlready is set when there is nothing to do
+     */
+    private record GradingInput(Task task, String content, List<String> checklist,
+                                String strictness, GradeDTO gradedAlready) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.edusprint.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AiGradingClient over HTTP using the JDK's non-blocking HttpClient.
+ * Protocol: POST {base-url}/v1/grade with {"model", "items": [{"id", "prompt"}]}, answered with
+ * {"model", "items": [{"id", "score", "feedback", "confidence", "tokens", "error"}]}.
+ * When the stub model server is enabled its local address replaces base-url.
+ */
+@Component
+public class HttpAiGradingClient implements AiGradingClient {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String model;
+    private final String apiKey;
+    private final int maxBatchSize;
+    private final Duration requestTimeout;
+
+    public HttpAiGradingClient(
+            ObjectMapper objectMapper,
+            ObjectProvider<StubAiModelServer> stubServer,
+            @Value("${ai-grading.base-url:http://localhost:8090}") String baseUrl,
+            @Value("${ai-grading.model:stub-grader-1}") String model,
+            @Value("${ai-grading.api-key:}") String apiKey,
+            @Value("${ai-grading.max-batch-size:8}") int maxBatchSize,
+            @Value("${ai-grading.connect-timeout:2000}") long connectTimeoutMillis,
+            @Value("${ai-grading.request-timeout:30000}") long requestTimeoutMillis
+    ) {
+        StubAiModelServer stub = stubServer.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create((stub != null ? stub.baseUrl() : baseUrl) + "/v1/grade");
+        this.model = model;
+        this.apiKey = apiKey;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<List<Response>> gradeBatch(List<Request> requests) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encode(requests)));
+        if (!apiKey.isEmpty()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Grading model returned HTTP " + response.statusCode());
+                    }
+                    return decode(requests, response.body());
+                });
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public String modelVersion() {
+        return model;
+    }
+
+    private byte[] encode(List<Request> requests) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", model);
+        ArrayNode items = body.putArray("items");
+        for (Request request : requests) {
+            items.addObject()
+                    .put("id", request.id())
+                    .put("prompt", request.prompt());
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Response> decode(List<Request> requests, byte[] body) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable grading model response", e);
+        }
+        Map<String, JsonNode> byId = new HashMap<>();
+        for (JsonNode item : root.path("items")) {
+            byId.put(item.path("id").asText(), item);
+        }
+        List<Response> responses = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            JsonNode item = byId.get(request.id());
+            if (item == null) {
+                responses.add(new Response(request.id(), 0, null, 0, 0, null, "Missing from model response"));
+                continue;
+            }
+            String error = item.hasNonNull("error") ? item.get("error").asText() : null;
+            responses.add(new Response(request.id(),
+                    item.path("score").asDouble(),
+                    item.path("feedback").asText(null),
+                    item.path("confidence").asDouble(),
+                    item.path("tokens").asInt(),
+                    item.toString(),
+                    error));
+        }
+        return responses;
+    }
+}
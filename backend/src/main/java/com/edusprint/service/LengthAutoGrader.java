@@ -0,0 +1,56 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Task;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Baseline auto-grader: scores submission completeness by length
+ */
+@Component
+public class LengthAutoGrader implements AutoGrader {
+
+    @Override
+    public Result grade(Task task, String submissionContent) {
+        double percent = calculatePercent(submissionContent);
+        return new Result(toPoints(task, percent), generateFeedback(percent));
+    }
+
+    static BigDecimal toPoints(Task task, double percent) {
+        int maxScore = task.getMaxScore() == null ? 100 : task.getMaxScore();
+        return BigDecimal.valueOf(percent * maxScore / 100.0).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private double calculatePercent(String submissionContent) {
+        // Simple scoring based on submission completeness
+        if (submissionContent == null || submissionContent.trim().isEmpty()) {
+            return 0.0;
+        }
+
+        double baseScore = 70.0; // Base score for submission
+
+        // Add points for submission length (rough indicator of effort)
+        int textLength = submissionContent.length();
+        if (textLength > 100) baseScore += 10.0;
+        if (textLength > 500) baseScore += 10.0;
+        if (textLength > 1000) baseScore += 10.0;
+
+        return Math.min(baseScore, 100.0);
+    }
+
+    static String generateFeedback(double percent) {
+        if (percent >= 90.0) {
+            return "Excellent submission! Well detailed and comprehensive.";
+        } else if (percent >= 80.0) {
+            return "Good submission! Consider adding more detail for better understanding.";
+        } else if (percent >= 70.0) {
+            return "Adequate submission. Could benefit from more elaboration and examples.";
+        } else if (percent >= 60.0) {
+            return "Basic submission. Please provide more comprehensive answers.";
+        } else {
+            return "Incomplete submission. Please review requirements and resubmit.";
+        }
+    }
+}
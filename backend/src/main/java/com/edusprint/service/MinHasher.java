@@ -0,0 +1,168 @@
+package com.edusprint.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over word shingles, and LSH band hashes for candidate lookup.
+ * Text is case-folded and split on non-alphanumerics, so formatting and punctuation edits
+ * do not change the signature. Seeds are fixed, so signatures are comparable across nodes
+ * and restarts as long as hashes, bands and shingle size stay the same.
+ */
+@Component
+public class MinHasher {
+
+    private static final long SEED_BASE = 0x5DEECE66DL;
+
+    private final int shingleSize;
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    public MinHasher(
+            @Value("${similarity.shingle-size:3}") int shingleSize,
+            @Value("${similarity.hashes:128}") int hashes,
+            @Value("${similarity.bands:32}") int bands
+    ) {
+        if (hashes % bands != 0) {
+            throw new IllegalArgumentException("similarity.hashes must be a multiple of similarity.bands");
+        }
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = hashes / bands;
+        this.seeds = new long[hashes];
+        long state = SEED_BASE;
+        for (int i = 0; i < hashes; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    /**
+     * Signature of a text, or null if it has no words
+     */
+    public Signature sign(String text) {
+        long[] shingles = shingles(text == null ? "" : text);
+        if (shingles.length == 0) {
+            return null;
+        }
+        int[] minima = new int[seeds.length];
+        Arrays.fill(minima, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int value = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (value < minima[i]) {
+                    minima[i] = value;
+                }
+            }
+        }
+        return new Signature(minima, shingles.length);
+    }
+
+    /**
+     * One bucket hash per band of rows consecutive signature values
+     */
+    public long[] bandHashes(int[] signature) {
+        long[] buckets = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long hash = band;
+            for (int row = 0; row < rows; row++) {
+                hash = mix(hash * 31 + signature[band * rows + row]);
+            }
+            buckets[band] = hash;
+        }
+        return buckets;
+    }
+
+    /**
+     * Estimated Jaccard similarity: the fraction of positions where two signatures agree
+     */
+    public static double estimate(int[] a, int[] b) {
+        int length = Math.min(a.length, b.length);
+        if (length == 0) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / length;
+    }
+
+    public static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] decode(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    /**
+     * Distinct hashes of every run of shingleSize consecutive words (the whole text if shorter)
+     */
+    private long[] shingles(String text) {
+        long[] words = new long[16];
+        int count = 0;
+        long hash = 0xcbf29ce484222325L;
+        boolean inWord = false;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ c) * 0x100000001b3L;
+                inWord = true;
+            } else if (inWord) {
+                if (count == words.length) {
+                    words = Arrays.copyOf(words, count * 2);
+                }
+                words[count++] = hash;
+                hash = 0xcbf29ce484222325L;
+                inWord = false;
+            }
+        }
+        if (count == 0) {
+            return new long[0];
+        }
+
+        int width = Math.min(shingleSize, count);
+        long[] shingles = new long[count - width + 1];
+        for (int start = 0; start < shingles.length; start++) {
+            long shingle = 0;
+            for (int j = 0; j < width; j++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + words[start + j];
+            }
+            shingles[start] = mix(shingle);
+        }
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < shingles.length; i++) {
+            if (i == 0 || shingles[i] != shingles[i - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return Arrays.copyOf(shingles, distinct);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * MinHash values and the number of distinct shingles they summarize
+     */
+    public record Signature(int[] values, int shingleCount) {
+    }
+}
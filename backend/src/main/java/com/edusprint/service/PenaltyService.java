@@ -1,60 +1,104 @@
 package com.edusprint.service;
 
+import com.edusprint.dto.PenaltyDTO;
+import com.edusprint.dto.PenaltyRequest;
 import com.edusprint.entity.Penalty;
+import com.edusprint.entity.Task;
+import com.edusprint.event.GradesChangedEvent;
 import com.edusprint.repository.PenaltyRepository;
+import com.edusprint.repository.TaskRepository;
+import com.edusprint.repository.UserRepository;
+import com.edusprint.security.SubjectAccessIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PenaltyService {
     private final PenaltyRepository penaltyRepository;
+    private final TaskRepository taskRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<Penalty> getAllPenalties() {
-        return penaltyRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<PenaltyDTO> getAllPenalties() {
+        return penaltyRepository.findAllByOrderByAppliedAtDesc().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
-    public Optional<Penalty> getPenaltyById(Long id) {
-        return penaltyRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<PenaltyDTO> getPenaltyById(UUID id) {
+        return penaltyRepository.findById(id)
+                .map(this::convertToDTO);
     }
 
     @Transactional
-    public Penalty createPenalty(Penalty penalty) {
-        penalty.setCreatedAt(LocalDateTime.now());
-        penalty.setUpdatedAt(LocalDateTime.now());
-        // Example: log user info (placeholder, replace with actual user context if available)
-        log.info("User [system] is creating a penalty");
+    public PenaltyDTO createPenalty(PenaltyRequest request, UUID facultyId) {
+        Task task = requireOwnedTask(request.getTaskId(), facultyId);
+        Penalty penalty = Penalty.builder()
+                .task(task)
+                .student(userRepository.getReferenceById(request.getStudentId()))
+                .penaltyPercent(request.getPenaltyPercent())
+                .reason(request.getReason())
+                .build();
         Penalty saved = penaltyRepository.save(penalty);
-        log.info("Created penalty: {}", saved.getId());
-        return saved;
+        eventPublisher.publishEvent(GradesChangedEvent.of(task.getId(), request.getStudentId()));
+        log.info("Faculty: {} created penalty: {}", facultyId, saved.getId());
+        return convertToDTO(saved);
     }
 
     @Transactional
-    public Penalty updatePenalty(Long id, Penalty penaltyDetails) {
+    public PenaltyDTO updatePenalty(UUID id, PenaltyRequest request, UUID facultyId) {
         Penalty penalty = penaltyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Penalty not found"));
-        penalty.setReason(penaltyDetails.getReason());
-        penalty.setAmount(penaltyDetails.getAmount());
-        penalty.setUpdatedAt(LocalDateTime.now());
-        // Example: log user info (placeholder, replace with actual user context if available)
-        log.info("User [system] is updating a penalty");
+        Task task = requireOwnedTask(penalty.getTask().getId(), facultyId);
+        penalty.setPenaltyPercent(request.getPenaltyPercent());
+        penalty.setReason(request.getReason());
         Penalty updated = penaltyRepository.save(penalty);
-        log.info("Updated penalty: {}", updated.getId());
-        return updated;
+        eventPublisher.publishEvent(GradesChangedEvent.of(task.getId(), penalty.getStudent().getId()));
+        log.info("Faculty: {} updated penalty: {}", facultyId, updated.getId());
+        return convertToDTO(updated);
     }
 
     @Transactional
-    public void deletePenalty(Long id) {
+    public void deletePenalty(UUID id, UUID facultyId) {
         Penalty penalty = penaltyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Penalty not found"));
+        Task task = requireOwnedTask(penalty.getTask().getId(), facultyId);
+        UUID studentId = penalty.getStudent().getId();
         penaltyRepository.delete(penalty);
-        log.info("Deleted penalty: {}", id);
+        eventPublisher.publishEvent(GradesChangedEvent.of(task.getId(), studentId));
+        log.info("Faculty: {} deleted penalty: {}", facultyId, id);
     }
-}
\ No newline at end of file
+
+    private Task requireOwnedTask(UUID taskId, UUID facultyId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!subjectAccessIndex.isFaculty(task.getSubject().getId(), facultyId)) {
+            throw new RuntimeException("Faculty can only manage penalties for their subjects");
+        }
+        return task;
+    }
+
+    private PenaltyDTO convertToDTO(Penalty penalty) {
+        return PenaltyDTO.builder()
+                .id(penalty.getId())
+                .taskId(penalty.getTask().getId())
+                .studentId(penalty.getStudent().getId())
+                .penaltyPercent(penalty.getPenaltyPercent())
+                .reason(penalty.getReason())
+                .appliedAt(penalty.getAppliedAt())
+                .build();
+    }
+}
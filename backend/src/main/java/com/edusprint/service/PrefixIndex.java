@@ -0,0 +1,436 @@
+package com.edusprint.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead index over short fields (names, codes, emails).
+ * Every word of every field, and every whole field, is a term. Terms are kept in sorted parallel
+ * arrays, so a prefix lookup is a binary search for the first term >= prefix and a scan while terms
+ * still start with it: no per-character nodes as in a trie, two references per posting.
+ * Updates go to a small delta segment that is re-sorted on each write; once it outgrows
+ * max(min-delta, base / 8) it is merged into the base in one linear pass. Readers see an immutable
+ * state through a volatile field and never lock; writers are serialized.
+ * A replaced document is marked dead only after the state holding its successor is published, and
+ * readers skip dead postings and repeated ids, so an update never hides a document from a reader.
+ * Instances are safe to share between threads.
+ */
+final class PrefixIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final int minDelta;
+    private final Map<UUID, Doc> docs = new HashMap<>();
+    private volatile State state = new State(Segment.EMPTY, Segment.EMPTY, 0);
+
+    PrefixIndex(int minDelta) {
+        this.minDelta = minDelta;
+    }
+
+    /**
+     * Replace the whole index with these documents
+     */
+    synchronized void load(Collection<Doc> all) {
+        List<Doc> previous = new ArrayList<>(docs.values());
+        docs.clear();
+        List<Posting> postings = new ArrayList<>();
+        for (Doc doc : all) {
+            docs.put(doc.id, doc);
+            addPostings(doc, postings);
+        }
+        state = new State(Segment.sorted(postings), Segment.EMPTY, docs.size());
+        markDead(previous);
+    }
+
+    /**
+     * Add or replace documents
+     */
+    synchronized void put(Collection<Doc> changed) {
+        List<Doc> replaced = new ArrayList<>();
+        for (Doc doc : changed) {
+            Doc old = docs.put(doc.id, doc);
+            if (old != null) {
+                replaced.add(old);
+            }
+        }
+        publish(changed, replaced);
+    }
+
+    synchronized void remove(Collection<UUID> ids) {
+        List<Doc> removed = new ArrayList<>();
+        for (UUID id : ids) {
+            Doc old = docs.remove(id);
+            if (old != null) {
+                removed.add(old);
+            }
+        }
+        if (!removed.isEmpty()) {
+            publish(List.of(), removed);
+        }
+    }
+
+    int size() {
+        return state.size;
+    }
+
+    /**
+     * Best matches for a query, ranked: whole field equal to the query, then whole field starting
+     * with it, then any word starting with it; shorter titles first within a tier.
+     * Every query word must prefix some word of the document. Only the first maxScan postings of
+     * the most selective word are considered, which bounds the cost of one- or two-letter queries.
+     */
+    List<Doc> search(String query, int limit, int maxScan, Predicate<Doc> filter) {
+        String normalized = normalize(query);
+        String[] tokens = words(normalized);
+        if (tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String scanToken = tokens[0];
+        for (String token : tokens) {
+            if (token.length() > scanToken.length()) {
+                scanToken = token;
+            }
+        }
+
+        State current = state;
+        Set<UUID> seen = new HashSet<>();
+        // The worst of the best limit hits so far sits at the head, so ranking costs O(log limit) per match
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        int[] budget = {maxScan};
+        collect(current.delta, scanToken, normalized, tokens, filter, limit, seen, best, budget);
+        collect(current.base, scanToken, normalized, tokens, filter, limit, seen, best, budget);
+
+        Hit[] ranked = best.toArray(new Hit[0]);
+        Arrays.sort(ranked);
+        List<Doc> results = new ArrayList<>(ranked.length);
+        for (Hit hit : ranked) {
+            results.add(hit.doc);
+        }
+        return results;
+    }
+
+    private static void collect(Segment segment, String prefix, String query, String[] tokens,
+                                Predicate<Doc> filter, int limit, Set<UUID> seen, PriorityQueue<Hit> best,
+                                int[] budget) {
+        // When the query starts with the scanned prefix, every whole field that could rank a document
+        // above tier 2 is itself a posting in the range, so the tier follows from the posting alone and
+        // most postings that cannot make the results are skipped without touching their document
+        boolean postingTier = query.startsWith(prefix);
+        boolean oneWord = tokens.length == 1 && postingTier;
+        long required = 0;
+        for (String token : tokens) {
+            required |= wordBits(token);
+        }
+        // Terms starting with the prefix sort below prefix + U+FFFF, so two binary searches bound the range
+        int from = segment.lowerBound(prefix);
+        int to = Math.min(segment.lowerBound(prefix + Character.MAX_VALUE), from + budget[0]);
+        budget[0] -= to - from;
+        for (int i = from; i < to; i++) {
+            int tier = !postingTier || !segment.whole[i] || !segment.terms[i].startsWith(query) ? 2
+                    : segment.terms[i].length() == query.length() ? 0 : 1;
+            if (best.size() == limit && !mayOutrank(postingTier ? tier : 0, segment.titleRank[i], best.peek())) {
+                continue;
+            }
+            if ((segment.wordMask[i] & required) != required) {
+                continue;
+            }
+            Doc doc = segment.docs[i];
+            if (!doc.live || (!oneWord && !doc.matchesAll(tokens)) || (filter != null && !filter.test(doc))) {
+                continue;
+            }
+            offer(best, new Hit(doc, postingTier ? tier : doc.tier(query)), limit, seen);
+        }
+    }
+
+    private static boolean mayOutrank(int tier, long titleRank, Hit worst) {
+        return tier != worst.tier ? tier < worst.tier : titleRank <= worst.doc.titleRank;
+    }
+
+    /**
+     * Keep the best limit hits, one per document id (the better hit when a document matches twice)
+     */
+    private static void offer(PriorityQueue<Hit> best, Hit hit, int limit, Set<UUID> seen) {
+        if (!seen.add(hit.doc.id)) {
+            for (Hit existing : best) {
+                if (existing.doc.id.equals(hit.doc.id)) {
+                    if (hit.compareTo(existing) < 0) {
+                        best.remove(existing);
+                        best.add(hit);
+                    }
+                    return;
+                }
+            }
+        }
+        if (best.size() < limit) {
+            best.add(hit);
+        } else if (hit.compareTo(best.peek()) < 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    private void publish(Collection<Doc> added, List<Doc> superseded) {
+        State current = state;
+        Set<Doc> stale = Set.copyOf(superseded);
+        List<Posting> delta = new ArrayList<>(current.delta.terms.length + added.size() * 4);
+        current.delta.forEachLive(stale, delta);
+        for (Doc doc : added) {
+            addPostings(doc, delta);
+        }
+
+        if (delta.size() > Math.max(minDelta, current.base.terms.length / 8)) {
+            List<Posting> base = new ArrayList<>(current.base.terms.length + delta.size());
+            current.base.forEachLive(stale, base);
+            state = new State(Segment.merge(base, Segment.sorted(delta)), Segment.EMPTY, docs.size());
+        } else {
+            state = new State(current.base, Segment.sorted(delta), docs.size());
+        }
+        markDead(superseded);
+    }
+
+    private static void markDead(Collection<Doc> superseded) {
+        for (Doc doc : superseded) {
+            doc.live = false;
+        }
+    }
+
+    private static void addPostings(Doc doc, List<Posting> postings) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String field : doc.fields) {
+            terms.add(field);
+            terms.addAll(Arrays.asList(words(field)));
+        }
+        for (String term : terms) {
+            postings.add(new Posting(term, doc));
+        }
+    }
+
+    /**
+     * Lower case, accents stripped, whitespace collapsed
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Signature bits of a word or query token: one for its first character and one for its first two,
+     * so a document whose word mask lacks a token's bits cannot have a word starting with it
+     */
+    private static long wordBits(String word) {
+        long bits = 1L << (word.charAt(0) & 31);
+        if (word.length() > 1) {
+            bits |= 1L << (32 + ((word.charAt(0) * 31 + word.charAt(1)) & 31));
+        }
+        return bits;
+    }
+
+    /**
+     * Title length, then its first two characters folded as compareToIgnoreCase does: ordering by
+     * this never contradicts the title order of search results, so it can reject hits unseen
+     */
+    private static long titleRank(String title) {
+        if (title == null) {
+            return 0;
+        }
+        long rank = (long) title.length() << 32;
+        for (int i = 0; i < 2 && i < title.length(); i++) {
+            rank |= (long) Character.toLowerCase(Character.toUpperCase(title.charAt(i))) << (16 - 16 * i);
+        }
+        return rank;
+    }
+
+    private static String[] words(String normalized) {
+        return Arrays.stream(NON_WORD.split(normalized)).filter(word -> !word.isEmpty()).toArray(String[]::new);
+    }
+
+    /**
+     * One searchable entry. title is shown and ranked on; fields are every searchable value
+     * (title included), tag is free for callers to filter on.
+     */
+    static final class Doc {
+        final UUID id;
+        final String title;
+        final String subtitle;
+        final String tag;
+        final String[] fields;
+        final String[] words;
+        final long wordMask;
+        final long titleRank;
+        volatile boolean live = true;
+
+        Doc(UUID id, String title, String subtitle, String tag, String... fields) {
+            this.id = id;
+            this.title = title;
+            this.subtitle = subtitle;
+            this.tag = tag;
+            this.fields = Arrays.stream(fields).map(PrefixIndex::normalize).filter(f -> !f.isEmpty())
+                    .distinct().toArray(String[]::new);
+            this.words = Arrays.stream(this.fields).flatMap(f -> Arrays.stream(PrefixIndex.words(f)))
+                    .distinct().toArray(String[]::new);
+            long mask = 0;
+            for (String word : words) {
+                mask |= wordBits(word);
+            }
+            this.wordMask = mask;
+            this.titleRank = titleRank(title);
+        }
+
+        boolean matchesAll(String[] tokens) {
+            for (String token : tokens) {
+                boolean found = false;
+                for (String word : words) {
+                    if (word.startsWith(token)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int tier(String query) {
+            int tier = 2;
+            for (String field : fields) {
+                if (field.equals(query)) {
+                    return 0;
+                }
+                if (field.startsWith(query)) {
+                    tier = 1;
+                }
+            }
+            return tier;
+        }
+    }
+
+    private record Posting(String term, Doc doc) {
+    }
+
+    private record Hit(Doc doc, int tier) implements Comparable<Hit> {
+
+        @Override
+        public int compareTo(Hit other) {
+            if (tier != other.tier) {
+                return Integer.compare(tier, other.tier);
+            }
+            if (doc.titleRank != other.doc.titleRank) {
+                return Long.compare(doc.titleRank, other.doc.titleRank);
+            }
+            String a = doc.title == null ? "" : doc.title;
+            String b = other.doc.title == null ? "" : other.doc.title;
+            int byTitle = a.compareToIgnoreCase(b);
+            return byTitle != 0 ? byTitle : doc.id.compareTo(other.doc.id);
+        }
+    }
+
+    private record State(Segment base, Segment delta, int size) {
+    }
+
+    /**
+     * Sorted terms with the document of each posting at the same position
+     */
+    private static final class Segment {
+        static final Segment EMPTY = new Segment(new String[0], new Doc[0]);
+
+        final String[] terms;
+        final Doc[] docs;
+        // Per posting: whether the term is a whole field, the document's title rank and word mask
+        final boolean[] whole;
+        final long[] titleRank;
+        final long[] wordMask;
+
+        Segment(String[] terms, Doc[] docs) {
+            this.terms = terms;
+            this.docs = docs;
+            this.whole = new boolean[terms.length];
+            this.titleRank = new long[terms.length];
+            this.wordMask = new long[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                wordMask[i] = docs[i].wordMask;
+                whole[i] = Arrays.asList(docs[i].fields).contains(terms[i]);
+                titleRank[i] = docs[i].titleRank;
+            }
+        }
+
+        static Segment sorted(List<Posting> postings) {
+            postings.sort((a, b) -> a.term.compareTo(b.term));
+            String[] terms = new String[postings.size()];
+            Doc[] docs = new Doc[postings.size()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = postings.get(i).term;
+                docs[i] = postings.get(i).doc;
+            }
+            return new Segment(terms, docs);
+        }
+
+        /**
+         * Linear merge of sorted live base postings with a sorted delta
+         */
+        static Segment merge(List<Posting> base, Segment delta) {
+            int size = base.size() + delta.terms.length;
+            String[] terms = new String[size];
+            Doc[] docs = new Doc[size];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                if (j >= delta.terms.length || (i < base.size() && base.get(i).term.compareTo(delta.terms[j]) <= 0)) {
+                    terms[k] = base.get(i).term;
+                    docs[k] = base.get(i).doc;
+                    i++;
+                } else {
+                    terms[k] = delta.terms[j];
+                    docs[k] = delta.docs[j];
+                    j++;
+                }
+            }
+            return new Segment(terms, docs);
+        }
+
+        /**
+         * Append, in order, the postings of documents that are live and not about to be superseded
+         */
+        void forEachLive(Set<Doc> stale, List<Posting> out) {
+            for (int i = 0; i < terms.length; i++) {
+                if (docs[i].live && !stale.contains(docs[i])) {
+                    out.add(new Posting(terms[i], docs[i]));
+                }
+            }
+        }
+
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = terms.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
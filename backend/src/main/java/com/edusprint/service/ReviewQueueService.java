@@ -0,0 +1,311 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.ReviewQueueCountsDTO;
+import com.edusprint.dto.ReviewQueueItemDTO;
+import com.edusprint.dto.ReviewQueuePage;
+import com.edusprint.event.GradesChangedEvent;
+import com.edusprint.repository.ReviewQueueRepository;
+import com.edusprint.repository.ReviewQueueRepository.Entry;
+import com.edusprint.repository.ReviewQueueRepository.Source;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Per-faculty queue of grades awaiting review, kept in review_queue as grades change.
+ * Urgency at time now is ageWeight x (now - submitted) + dueWeight x (now - due) plus a boost per
+ * open dispute. now is the same for every row, so ordering by urgency equals ordering by the
+ * time-invariant key ageWeight x submitted + dueWeight x due - boost x disputes (in epoch minutes,
+ * lowest first). The key is stored and indexed with the faculty id, so a page is an index range
+ * scan from the keyset cursor, and it never needs rewriting as time passes.
+ * Badge counts come from review_queue_counts, adjusted in the same transaction as the queue rows.
+ * A periodic reconciliation rebuilds each subject's rows and counters from source, which also picks
+ * up disputes filed outside this service, weight changes and subject reassignment.
+ */
+@Slf4j
+@Service
+public class ReviewQueueService {
+
+    /**
+     * Grade statuses that still need a faculty decision
+     */
+    static final List<String> OPEN_STATUSES = List.of("pending", "reviewed");
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Databases order UUIDs as unsigned bytes, so the all-zero UUID sorts first
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final ReviewQueueRepository queueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double ageWeight;
+    private final double dueWeight;
+    private final long disputeBoostMinutes;
+    private final long noDueDateMinutes;
+    private final boolean reconcileEnabled;
+    private final int reconcileBatchSize;
+    private final Counter driftRepaired;
+
+    public ReviewQueueService(
+            ReviewQueueRepository queueRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${review-queue.priority.age-weight:1.0}") double ageWeight,
+            @Value("${review-queue.priority.due-weight:1.0}") double dueWeight,
+            @Value("${review-queue.priority.dispute-boost-hours:72}") long disputeBoostHours,
+            @Value("${review-queue.priority.no-due-date-hours:168}") long noDueDateHours,
+            @Value("${review-queue.reconcile.enabled:true}") boolean reconcileEnabled,
+            @Value("${review-queue.reconcile.batch-size:200}") int reconcileBatchSize
+    ) {
+        this.queueRepository = queueRepository;
+        // Listeners run after the publisher's commit, so every write needs its own transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ageWeight = ageWeight;
+        this.dueWeight = dueWeight;
+        this.disputeBoostMinutes = disputeBoostHours * 60;
+        this.noDueDateMinutes = noDueDateHours * 60;
+        this.reconcileEnabled = reconcileEnabled;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.driftRepaired = Counter.builder("review.queue.drift")
+                .description("review_queue subjects corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        for (UUID studentId : event.studentIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refresh(event.taskId(), studentId));
+            } catch (RuntimeException e) {
+                // Reconciliation will pick this grade up
+                log.warn("Failed to update review queue for task: {} student: {}", event.taskId(), studentId, e);
+            }
+        }
+    }
+
+    /**
+     * Keyset-paginated review queue of a faculty member, optionally limited to one subject
+     */
+    public ReviewQueuePage getQueue(UUID facultyId, UUID subjectId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long afterKey = null;
+        UUID afterGradeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                afterKey = Long.parseLong(parts[0]);
+                afterGradeId = UUID.fromString(parts[1]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<ReviewQueueItemDTO> items = queueRepository.findPage(facultyId, subjectId, afterKey, afterGradeId, pageSize + 1);
+        String next = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            ReviewQueueItemDTO last = items.get(pageSize - 1);
+            next = encodeCursor(last.getPriorityKey(), last.getGradeId());
+        }
+
+        return ReviewQueuePage.builder()
+                .items(items)
+                .next(next)
+                .build();
+    }
+
+    public ReviewQueueCountsDTO getCounts(UUID facultyId) {
+        int open = 0;
+        int disputed = 0;
+        List<ReviewQueueCountsDTO.SubjectCount> subjects = new ArrayList<>();
+        for (ReviewQueueRepository.Counts counts : queueRepository.findCounts(facultyId)) {
+            open += counts.open();
+            disputed += counts.disputed();
+            subjects.add(new ReviewQueueCountsDTO.SubjectCount(counts.subjectId(), counts.open(), counts.disputed()));
+        }
+        return ReviewQueueCountsDTO.builder()
+                .open(open)
+                .disputed(disputed)
+                .subjects(subjects)
+                .build();
+    }
+
+    private void refresh(UUID taskId, UUID studentId) {
+        Source source = queueRepository.findSource(taskId, studentId);
+        if (source == null) {
+            // The grade is gone; its queue row went with it (ON DELETE CASCADE) and reconciliation fixes the counter
+            return;
+        }
+        queueRepository.lockCounts(source.facultyId(), source.subjectId());
+        Entry entry = queueRepository.lockEntry(source.gradeId());
+        boolean open = OPEN_STATUSES.contains(source.status());
+
+        if (entry == null) {
+            if (open && queueRepository.insert(source, priorityKey(source))) {
+                queueRepository.adjustCounts(source.facultyId(), source.subjectId(), 1, source.openDisputes() > 0 ? 1 : 0);
+                return;
+            }
+            if (!open) {
+                return;
+            }
+            // Queued concurrently by another writer: wait for it and treat this as an update
+            entry = queueRepository.lockEntry(source.gradeId());
+            if (entry == null) {
+                return;
+            }
+        }
+
+        int disputedBefore = entry.openDisputes() > 0 ? 1 : 0;
+        if (!open) {
+            if (queueRepository.delete(entry.gradeId())) {
+                queueRepository.adjustCounts(entry.facultyId(), entry.subjectId(), -1, -disputedBefore);
+            }
+            return;
+        }
+
+        long key = priorityKey(source);
+        if (sameEntry(entry, source, key)) {
+            return;
+        }
+        queueRepository.update(source, key);
+        int disputedAfter = source.openDisputes() > 0 ? 1 : 0;
+        if (entry.facultyId().equals(source.facultyId()) && entry.subjectId().equals(source.subjectId())) {
+            if (disputedAfter != disputedBefore) {
+                queueRepository.adjustCounts(source.facultyId(), source.subjectId(), 0, disputedAfter - disputedBefore);
+            }
+        } else {
+            queueRepository.adjustCounts(entry.facultyId(), entry.subjectId(), -1, -disputedBefore);
+            queueRepository.adjustCounts(source.facultyId(), source.subjectId(), 1, disputedAfter);
+        }
+    }
+
+    /**
+     * Rebuild every subject's queue rows and counters from grades, one subject per transaction
+     */
+    @Scheduled(fixedDelayString = "${review-queue.reconcile.interval:3600000}",
+               initialDelayString = "${review-queue.reconcile.initial-delay:120000}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int checked = 0;
+        int repaired = 0;
+        UUID after = MIN_UUID;
+        while (true) {
+            List<UUID> page = queueRepository.findSubjectIdsAfter(after, reconcileBatchSize);
+            for (UUID subjectId : page) {
+                try {
+                    Boolean drifted = transactionTemplate.execute(status -> reconcileSubject(subjectId));
+                    if (Boolean.TRUE.equals(drifted)) {
+                        repaired++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to reconcile review queue for subject: {}", subjectId, e);
+                }
+                checked++;
+            }
+            if (page.size() < reconcileBatchSize) {
+                break;
+            }
+            after = page.get(page.size() - 1);
+        }
+        driftRepaired.increment(repaired);
+        log.info("Reconciled review queue of {} subjects in {} ms ({} drifted)",
+                 checked, System.currentTimeMillis() - started, repaired);
+    }
+
+    private boolean reconcileSubject(UUID subjectId) {
+        queueRepository.lockSubjectCounts(subjectId);
+        Map<UUID, Entry> existing = new HashMap<>();
+        for (Entry entry : queueRepository.findSubjectEntries(subjectId)) {
+            existing.put(entry.gradeId(), entry);
+        }
+
+        boolean drifted = false;
+        Map<UUID, int[]> counts = new HashMap<>();
+        for (Source source : queueRepository.findSubjectSources(subjectId, OPEN_STATUSES)) {
+            long key = priorityKey(source);
+            Entry entry = existing.remove(source.gradeId());
+            if (entry == null) {
+                queueRepository.insert(source, key);
+                drifted = true;
+            } else if (!sameEntry(entry, source, key)) {
+                queueRepository.update(source, key);
+                drifted = true;
+            }
+            int[] facultyCounts = counts.computeIfAbsent(source.facultyId(), id -> new int[2]);
+            facultyCounts[0]++;
+            if (source.openDisputes() > 0) {
+                facultyCounts[1]++;
+            }
+        }
+        for (Entry stale : existing.values()) {
+            queueRepository.delete(stale.gradeId());
+            drifted = true;
+        }
+
+        for (Map.Entry<UUID, int[]> facultyCounts : counts.entrySet()) {
+            queueRepository.setCounts(facultyCounts.getKey(), subjectId, facultyCounts.getValue()[0], facultyCounts.getValue()[1]);
+        }
+        queueRepository.clearCountsExcept(subjectId, new ArrayList<>(counts.keySet()));
+        return drifted;
+    }
+
+    private long priorityKey(Source source) {
+        long submitted = epochMinutes(source.submittedAt() != null ? source.submittedAt() : LocalDateTime.now());
+        long due = source.dueDate() != null ? epochMinutes(source.dueDate()) : submitted + noDueDateMinutes;
+        return Math.round(ageWeight * submitted + dueWeight * due) - disputeBoostMinutes * source.openDisputes();
+    }
+
+    private static boolean sameEntry(Entry entry, Source source, long key) {
+        return entry.priorityKey() == key
+                && entry.openDisputes() == source.openDisputes()
+                && entry.status().equals(source.status())
+                && entry.facultyId().equals(source.facultyId())
+                && entry.subjectId().equals(source.subjectId())
+                && Objects.equals(entry.dueDate(), source.dueDate());
+    }
+
+    private static long epochMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static String encodeCursor(long priorityKey, UUID gradeId) {
+        String raw = priorityKey + "|" + gradeId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.RosterImportResult;
+import com.edusprint.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk student roster import.
+ * Streams a CSV or NDJSON roster in chunks: one set-based query per chunk finds existing
+ * emails, passwords are hashed in parallel on a dedicated pool (separate from the login
+ * pool so an import never starves sign-ins), and users rows are inserted with JDBC batching.
+ */
+@Slf4j
+@Service
+public class RosterImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, name, email, password_hash, role, institution, is_active, token_epoch, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'student', ?, true, 0, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BCryptPasswordEncoder encoder;
+    private final ExecutorService hashPool;
+    private final int chunkSize;
+
+    public RosterImportService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${roster-import.threads:0}") int threads,
+            @Value("${roster-import.chunk-size:1000}") int chunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "roster-hash");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import a roster. Format is "csv" (header: name,email,password[,institution]) or "ndjson".
+     */
+    public RosterImportResult importRoster(InputStream input, String format, String defaultInstitution) throws IOException {
+        long started = System.currentTimeMillis();
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        List<RosterImportResult.RowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<RosterRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = ndjson ? null : readHeader(reader.readLine());
+            int line = ndjson ? 0 : 1;
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                line++;
+                if (raw.isBlank()) {
+                    continue;
+                }
+                RosterRow row;
+                try {
+                    row = ndjson ? parseJson(raw, line) : parseCsv(raw, line, columns);
+                } catch (IllegalArgumentException | IOException e) {
+                    results.add(rowResult(line, null, "invalid", e.getMessage(), null));
+                    continue;
+                }
+                if (row.institution == null) {
+                    row.institution = defaultInstitution;
+                }
+                String invalid = validate(row);
+                if (invalid != null) {
+                    results.add(rowResult(line, row.email, "invalid", invalid, null));
+                    continue;
+                }
+                if (!seenEmails.add(row.email)) {
+                    results.add(rowResult(line, row.email, "duplicate", "Email repeated in roster", null));
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, results);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, results);
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+        int created = 0;
+        int skipped = 0;
+        for (RosterImportResult.RowResult result : results) {
+            if ("created".equals(result.getStatus())) {
+                created++;
+            } else if ("exists".equals(result.getStatus()) || "duplicate".equals(result.getStatus())) {
+                skipped++;
+            }
+        }
+        long duration = System.currentTimeMillis() - started;
+        log.info("Roster import: {} rows, {} created, {} skipped in {} ms", results.size(), created, skipped, duration);
+
+        return RosterImportResult.builder()
+                .total(results.size())
+                .created(created)
+                .skipped(skipped)
+                .failed(results.size() - created - skipped)
+                .durationMs(duration)
+                .rows(results)
+                .build();
+    }
+
+    private void processChunk(List<RosterRow> chunk, List<RosterImportResult.RowResult> results) {
+        // One set-based lookup for the whole chunk instead of existsByEmail per row
+        List<String> emails = new ArrayList<>(chunk.size());
+        for (RosterRow row : chunk) {
+            emails.add(row.email);
+        }
+        Set<String> existing = new HashSet<>();
+        namedJdbcTemplate.query("SELECT LOWER(email) FROM users WHERE LOWER(email) IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                (RowCallbackHandler) rs -> existing.add(rs.getString(1)));
+
+        List<RosterRow> toInsert = new ArrayList<>(chunk.size());
+        for (RosterRow row : chunk) {
+            if (existing.contains(row.email)) {
+                results.add(rowResult(row.line, row.email, "exists", "Email already registered", null));
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        // Hash in parallel across the import pool
+        List<CompletableFuture<Void>> hashes = new ArrayList<>(toInsert.size());
+        for (RosterRow row : toInsert) {
+            hashes.add(CompletableFuture.runAsync(() -> {
+                row.passwordHash = encoder.encode(row.password);
+                row.password = null;
+            }, hashPool));
+        }
+        CompletableFuture.allOf(hashes.toArray(new CompletableFuture[0])).join();
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (RosterRow row : toInsert) {
+            row.id = UUID.randomUUID();
+        }
+        try {
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_USER, toInsert, toInsert.size(), (ps, row) -> {
+                ps.setObject(1, row.id);
+                ps.setString(2, row.name);
+                ps.setString(3, row.email);
+                ps.setString(4, row.passwordHash);
+                ps.setString(5, row.institution);
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            int[] rowCounts = counts[0];
+            // A driver may report SUCCESS_NO_INFO (for example with rewritten batch inserts), which says
+            // nothing about whether ON CONFLICT skipped the row: read back which of our ids were written
+            Set<UUID> written = null;
+            for (int count : rowCounts) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    written = existingIds(toInsert);
+                    break;
+                }
+            }
+            for (int i = 0; i < toInsert.size(); i++) {
+                RosterRow row = toInsert.get(i);
+                boolean inserted = written == null ? rowCounts[i] > 0 : written.contains(row.id);
+                results.add(inserted
+                        ? rowResult(row.line, row.email, "created", null, row.id)
+                        : rowResult(row.line, row.email, "exists", "Email already registered", null));
+            }
+        } catch (RuntimeException e) {
+            log.error("Roster import batch of {} rows failed", toInsert.size(), e);
+            for (RosterRow row : toInsert) {
+                results.add(rowResult(row.line, row.email, "failed", e.getMessage(), null));
+            }
+        }
+    }
+
+    private Set<UUID> existingIds(List<RosterRow> rows) {
+        List<UUID> ids = new ArrayList<>(rows.size());
+        for (RosterRow row : rows) {
+            ids.add(row.id);
+        }
+        Set<UUID> existing = new HashSet<>();
+        namedJdbcTemplate.query("SELECT id FROM users WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                (RowCallbackHandler) rs -> existing.add(rs.getObject(1, UUID.class)));
+        return existing;
+    }
+
+    private Map<String, Integer> readHeader(String header) {
+        Map<String, Integer> columns = CsvLineParser.header(header, "Roster is empty");
+        if (!columns.containsKey("name") || !columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new IllegalArgumentException("CSV header must contain name, email and password");
+        }
+        return columns;
+    }
+
+    private RosterRow parseCsv(String raw, int line, Map<String, Integer> columns) {
+        List<String> fields = CsvLineParser.split(raw);
+        RosterRow row = new RosterRow(line);
+        row.name = CsvLineParser.field(fields, columns.get("name"));
+        row.email = User.normalizeEmail(CsvLineParser.field(fields, columns.get("email")));
+        row.password = CsvLineParser.field(fields, columns.get("password"));
+        row.institution = CsvLineParser.field(fields, columns.get("institution"));
+        return row;
+    }
+
+    private RosterRow parseJson(String raw, int line) throws IOException {
+        JsonNode node = objectMapper.readTree(line == 1 ? CsvLineParser.stripBom(raw) : raw);
+        RosterRow row = new RosterRow(line);
+        row.name = text(node, "name");
+        row.email = User.normalizeEmail(text(node, "email"));
+        row.password = text(node, "password");
+        row.institution = text(node, "institution");
+        return row;
+    }
+
+    private static String validate(RosterRow row) {
+        if (row.name == null || row.name.isBlank()) {
+            return "Name is required";
+        }
+        if (row.email == null || !EMAIL.matcher(row.email).matches()) {
+            return "Invalid email format";
+        }
+        if (row.password == null || row.password.isBlank()) {
+            return "Password is required";
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static RosterImportResult.RowResult rowResult(int line, String email, String status, String message, UUID userId) {
+        return RosterImportResult.RowResult.builder()
+                .line(line)
+                .email(email)
+                .status(status)
+                .message(message)
+                .userId(userId)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    private static final class RosterRow {
+        private final int line;
+        private UUID id;
+        private String name;
+        private String email;
+        private String password;
+        private String passwordHash;
+        private String institution;
+
+        private RosterRow(int line) {
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.edusprint.service;
+
+import com.edusprint.cache.BoundedLruCache;
+import com.edusprint.entity.Task;
+import com.edusprint.entity.TaskDefinition;
+import com.edusprint.event.TaskDefinitionsChangedEvent;
+import com.edusprint.repository.TaskDefinitionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Scores submissions against the task's TaskDefinition checklist.
+ * Each item's keyword rules (or keywords derived from its requirement text) are compiled,
+ * together with every other item of the task, into one RubricAutomaton, so a submission is
+ * scored in a single pass. Compiled rubrics are kept per task in a bounded LRU and dropped when a definition
+ * changes; the TTL bounds staleness for changes made on other nodes.
+ * Tasks without checklist items fall back to LengthAutoGrader.
+ */
+@Slf4j
+@Primary
+@Component
+public class RubricAutoGrader implements AutoGrader {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "about", "also", "and", "each", "explain", "describe", "from", "have", "include",
+            "includes", "including", "into", "least", "more", "must", "provide", "shall", "should",
+            "show", "than", "that", "their", "there", "this", "using", "what", "when", "where",
+            "which", "will", "with", "write", "your");
+
+    private static final int MAX_DERIVED_KEYWORDS = 6;
+
+    private final TaskDefinitionRepository taskDefinitionRepository;
+    private final LengthAutoGrader fallback;
+    private final long ttlMillis;
+    private final double mandatoryCap;
+    private final Timer scanTimer;
+    private final BoundedLruCache<UUID, CompiledRubric> cache;
+
+    public RubricAutoGrader(
+            TaskDefinitionRepository taskDefinitionRepository,
+            LengthAutoGrader fallback,
+            MeterRegistry meterRegistry,
+            @Value("${rubric.cache.max-entries:2000}") int maxEntries,
+            @Value("${rubric.cache.ttl:300000}") long ttlMillis,
+            @Value("${rubric.mandatory-miss-cap:0.5}") double mandatoryCap
+    ) {
+        this.taskDefinitionRepository = taskDefinitionRepository;
+        this.fallback = fallback;
+        this.cache = new BoundedLruCache<>(maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.mandatoryCap = mandatoryCap;
+        this.scanTimer = Timer.builder("grading.rubric.score")
+                .description("Time to score one submission against a compiled rubric")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Result grade(Task task, String submissionContent) {
+        CompiledRubric rubric = rubricFor(task.getId());
+        if (rubric.isEmpty()) {
+            return fallback.grade(task, submissionContent);
+        }
+        if (submissionContent == null || submissionContent.isBlank()) {
+            return new Result(LengthAutoGrader.toPoints(task, 0.0),
+                    "Incomplete submission. Please review requirements and resubmit.");
+        }
+        return scanTimer.record(() -> score(rubric, task, submissionContent));
+    }
+
+    /**
+     * Compiled rubric for a task, compiling and caching it on first use
+     */
+    public CompiledRubric rubricFor(UUID taskId) {
+        long now = System.currentTimeMillis();
+        CompiledRubric rubric = cache.get(taskId);
+        if (rubric != null && rubric.expiresAt > now) {
+            return rubric;
+        }
+        rubric = compile(taskDefinitionRepository.findByTaskIdOrderByOrderIndexAsc(taskId), now + ttlMillis);
+        cache.put(taskId, rubric);
+        return rubric;
+    }
+
+    public void invalidate(UUID taskId) {
+        cache.remove(taskId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDefinitionsChanged(TaskDefinitionsChangedEvent event) {
+        invalidate(event.taskId());
+    }
+
+    private Result score(CompiledRubric rubric, Task task, String submissionContent) {
+        boolean[] found = new boolean[rubric.automaton.patternCount()];
+        rubric.automaton.scan(submissionContent, found);
+
+        // Synonyms share a group slot, so a group counts once however many of them occur
+        boolean[] groupHit = new boolean[rubric.slotItem.length];
+        double[] matchedWeight = new double[rubric.items.size()];
+        for (int p = 0; p < found.length; p++) {
+            int slot = rubric.patternSlot[p];
+            if (found[p] && !groupHit[slot]) {
+                groupHit[slot] = true;
+                matchedWeight[rubric.slotItem[slot]] += rubric.slotWeight[slot];
+            }
+        }
+
+        int itemCount = rubric.items.size();
+        double earned = 0;
+        int met = 0;
+        boolean mandatoryMissed = false;
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < itemCount; i++) {
+            RubricItem item = rubric.items.get(i);
+            double fraction = item.totalWeight > 0 ? Math.min(1.0, matchedWeight[i] / item.totalWeight) : 0;
+            earned += fraction * item.points;
+            if (fraction >= 1.0) {
+                met++;
+                items.append("\n[met] ");
+            } else if (fraction > 0) {
+                items.append("\n[partial] ");
+            } else {
+                items.append(item.mandatory ? "\n[missing, required] " : "\n[missing] ");
+                mandatoryMissed |= item.mandatory;
+            }
+            items.append(item.requirement);
+        }
+
+        double percent = rubric.totalPoints > 0 ? earned / rubric.totalPoints * 100.0 : 0;
+        if (mandatoryMissed) {
+            percent = Math.min(percent, mandatoryCap * 100.0);
+        }
+        String summary = String.format(Locale.ROOT, "Met %d of %d checklist items (%.1f%%).", met, itemCount, percent);
+        if (mandatoryMissed) {
+            summary += " A required item is missing.";
+        }
+        return new Result(LengthAutoGrader.toPoints(task, percent), summary + items);
+    }
+
+    private CompiledRubric compile(List<TaskDefinition> definitions, long expiresAt) {
+        List<RubricItem> items = new ArrayList<>(definitions.size());
+        List<String> keywords = new ArrayList<>();
+        List<Integer> patternSlot = new ArrayList<>();
+        List<Integer> slotItem = new ArrayList<>();
+        List<Double> slotWeight = new ArrayList<>();
+        boolean anyPoints = definitions.stream()
+                .anyMatch(d -> d.getPoints() != null && d.getPoints().signum() > 0);
+
+        StringBuilder version = new StringBuilder();
+        for (TaskDefinition definition : definitions) {
+            version.append(definition.getId()).append('|')
+                    .append(definition.getRequirement()).append('|')
+                    .append(definition.getKeywords()).append('|')
+                    .append(definition.getPoints()).append('|')
+                    .append(definition.getMandatory()).append('\n');
+
+            List<List<String>> groups = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            parseKeywords(definition, groups, weights);
+            if (groups.isEmpty()) {
+                continue;
+            }
+
+            int itemIndex = items.size();
+            double totalWeight = 0;
+            for (int g = 0; g < groups.size(); g++) {
+                int slot = slotItem.size();
+                slotItem.add(itemIndex);
+                slotWeight.add(weights.get(g));
+                totalWeight += weights.get(g);
+                for (String synonym : groups.get(g)) {
+                    keywords.add(synonym);
+                    patternSlot.add(slot);
+                }
+            }
+            double points = anyPoints
+                    ? (definition.getPoints() == null ? 0 : definition.getPoints().doubleValue())
+                    : 1.0;
+            items.add(new RubricItem(definition.getRequirement(), points,
+                    !Boolean.FALSE.equals(definition.getMandatory()), totalWeight));
+        }
+
+        String rubricVersion = UUID.nameUUIDFromBytes(version.toString().getBytes(StandardCharsets.UTF_8)).toString();
+        return new CompiledRubric(rubricVersion, items, new RubricAutomaton(keywords),
+                patternSlot.stream().mapToInt(Integer::intValue).toArray(),
+                slotItem.stream().mapToInt(Integer::intValue).toArray(),
+                slotWeight.stream().mapToDouble(Double::doubleValue).toArray(),
+                expiresAt);
+    }
+
+    /**
+     * Parse "a|b^2, c, d*" into synonym groups with weights, or derive groups from the requirement text
+     */
+    private static void parseKeywords(TaskDefinition definition, List<List<String>> groups, List<Double> weights) {
+        String rules = definition.getKeywords();
+        if (rules != null && !rules.isBlank()) {
+            for (String rawGroup : rules.split(",")) {
+                String group = rawGroup.trim();
+                double weight = 1.0;
+                int caret = group.lastIndexOf('^');
+                if (caret >= 0) {
+                    try {
+                        weight = Double.parseDouble(group.substring(caret + 1).trim());
+                    } catch (NumberFormatException e) {
+                        log.warn("Ignoring invalid keyword weight in checklist item: {}", definition.getId());
+                    }
+                    group = group.substring(0, caret);
+                }
+                List<String> synonyms = new ArrayList<>();
+                for (String synonym : group.split("\\|")) {
+                    if (RubricAutomaton.normalizePattern(synonym) != null) {
+                        synonyms.add(synonym.trim());
+                    }
+                }
+                if (!synonyms.isEmpty() && weight > 0) {
+                    groups.add(synonyms);
+                    weights.add(weight);
+                }
+            }
+            return;
+        }
+
+        // No explicit rules: significant words of the requirement, long words matched by prefix
+        Set<String> derived = new LinkedHashSet<>();
+        String requirement = definition.getRequirement() == null ? "" : definition.getRequirement();
+        for (String word : requirement.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() < 4 || STOPWORDS.contains(word)) {
+                continue;
+            }
+            derived.add(word.length() >= 7 ? word.substring(0, word.length() - 2) + "*" : word);
+            if (derived.size() == MAX_DERIVED_KEYWORDS) {
+                break;
+            }
+        }
+        for (String keyword : derived) {
+            groups.add(List.of(keyword));
+            weights.add(1.0);
+        }
+    }
+
+    private record RubricItem(String requirement, double points, boolean mandatory, double totalWeight) {
+    }
+
+    /**
+     * Immutable compiled rubric for one task. The version changes whenever any checklist item does.
+     */
+    public static final class CompiledRubric {
+        private final String version;
+        private final List<RubricItem> items;
+        private final RubricAutomaton automaton;
+        private final int[] patternSlot;
+        private final int[] slotItem;
+        private final double[] slotWeight;
+        private final double totalPoints;
+        private final long expiresAt;
+
+        private CompiledRubric(String version, List<RubricItem> items, RubricAutomaton automaton,
+                               int[] patternSlot, int[] slotItem, double[] slotWeight, long expiresAt) {
+            this.version = version;
+            this.items = List.copyOf(items);
+            this.automaton = automaton;
+            this.patternSlot = patternSlot;
+            this.slotItem = slotItem;
+            this.slotWeight = slotWeight;
+            this.totalPoints = items.stream().mapToDouble(RubricItem::points).sum();
+            this.expiresAt = expiresAt;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public boolean isEmpty() {
+            return items.isEmpty();
+        }
+    }
+}
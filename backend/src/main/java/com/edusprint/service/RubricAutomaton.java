@@ -0,0 +1,239 @@
+package com.edusprint.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Aho-Corasick automaton for rubric keywords.
+ * Text is scanned case-folded with every run of non-alphanumeric characters collapsed to one
+ * separator; patterns are wrapped in separators so they match whole words only (a trailing '*'
+ * drops the closing separator for a prefix match). The automaton is a dense DFA over the
+ * patterns' own alphabet, so a scan costs one table lookup per character regardless of how
+ * many patterns were compiled. Instances are immutable and safe to share between threads.
+ */
+final class RubricAutomaton {
+
+    private static final int OTHER = 0;
+    private static final int SEP = 1;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final int[] asciiSymbols = new int[128];
+    private final char[] extraChars;
+    private final int[] extraSymbols;
+    private final int symbolCount;
+    private final int[] delta;
+    private final int[][] outputs;
+    private final int patternCount;
+
+    /**
+     * @param keywords raw keywords; pattern i of the automaton is keywords.get(i).
+     *                 Keywords that normalize to nothing never match.
+     */
+    RubricAutomaton(List<String> keywords) {
+        this.patternCount = keywords.size();
+        List<int[]> patterns = new ArrayList<>(keywords.size());
+        List<String> normalized = new ArrayList<>(keywords.size());
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String keyword : keywords) {
+            String pattern = normalizePattern(keyword);
+            normalized.add(pattern);
+            if (pattern != null) {
+                for (int i = 0; i < pattern.length(); i++) {
+                    if (pattern.charAt(i) != ' ') {
+                        alphabet.add(pattern.charAt(i));
+                    }
+                }
+            }
+        }
+
+        // Symbol table: 0 = alphanumeric not in any pattern, 1 = separator, 2.. = pattern characters
+        for (int c = 0; c < 128; c++) {
+            asciiSymbols[c] = Character.isLetterOrDigit(c) ? OTHER : SEP;
+        }
+        List<Character> extra = new ArrayList<>();
+        int next = 2;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiSymbols[c] = next++;
+            } else {
+                extra.add(c);
+            }
+        }
+        this.extraChars = new char[extra.size()];
+        this.extraSymbols = new int[extra.size()];
+        for (int i = 0; i < extra.size(); i++) {
+            extraChars[i] = extra.get(i);
+            extraSymbols[i] = next++;
+        }
+        this.symbolCount = next;
+
+        for (String pattern : normalized) {
+            if (pattern == null) {
+                patterns.add(null);
+                continue;
+            }
+            int[] symbols = new int[pattern.length()];
+            for (int i = 0; i < pattern.length(); i++) {
+                symbols[i] = symbolOf(pattern.charAt(i));
+            }
+            patterns.add(symbols);
+        }
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ownOutputs = new ArrayList<>();
+        trie.add(newNode());
+        ownOutputs.add(new ArrayList<>());
+        for (int p = 0; p < patterns.size(); p++) {
+            int[] symbols = patterns.get(p);
+            if (symbols == null) {
+                continue;
+            }
+            int state = 0;
+            for (int symbol : symbols) {
+                int child = trie.get(state)[symbol];
+                if (child < 0) {
+                    child = trie.size();
+                    trie.get(state)[symbol] = child;
+                    trie.add(newNode());
+                    ownOutputs.add(new ArrayList<>());
+                }
+                state = child;
+            }
+            ownOutputs.get(state).add(p);
+        }
+
+        // Failure links, folded into a complete transition table breadth-first
+        int states = trie.size();
+        this.delta = new int[states * symbolCount];
+        this.outputs = new int[states][];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = NO_OUTPUT;
+        for (int s = 0; s < symbolCount; s++) {
+            int child = trie.get(0)[s];
+            if (child < 0) {
+                delta[s] = 0;
+            } else {
+                delta[s] = child;
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = merge(ownOutputs.get(state), outputs[fail[state]]);
+            for (int s = 0; s < symbolCount; s++) {
+                int child = trie.get(state)[s];
+                if (child < 0) {
+                    delta[state * symbolCount + s] = delta[fail[state] * symbolCount + s];
+                } else {
+                    delta[state * symbolCount + s] = child;
+                    fail[child] = delta[fail[state] * symbolCount + s];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    int patternCount() {
+        return patternCount;
+    }
+
+    /**
+     * Scan text once, setting found[i] for every pattern i that occurs in it
+     */
+    void scan(CharSequence text, boolean[] found) {
+        int state = delta[SEP];
+        boolean separated = true;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int symbol = symbolOf(Character.toLowerCase(text.charAt(i)));
+            if (symbol == SEP) {
+                if (separated) {
+                    continue;
+                }
+                separated = true;
+            } else {
+                separated = false;
+            }
+            state = delta[state * symbolCount + symbol];
+            for (int pattern : outputs[state]) {
+                found[pattern] = true;
+            }
+        }
+        if (!separated) {
+            state = delta[state * symbolCount + SEP];
+            for (int pattern : outputs[state]) {
+                found[pattern] = true;
+            }
+        }
+    }
+
+    /**
+     * Lower-case, collapse non-alphanumerics to single spaces and add word boundaries
+     *
+     * @return the pattern, or null if the keyword has no alphanumeric content
+     */
+    static String normalizePattern(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String trimmed = keyword.trim().toLowerCase(Locale.ROOT);
+        boolean prefix = trimmed.endsWith("*");
+        StringBuilder core = new StringBuilder();
+        boolean separated = true;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                core.append(c);
+                separated = false;
+            } else if (!separated) {
+                core.append(' ');
+                separated = true;
+            }
+        }
+        int end = core.length();
+        while (end > 0 && core.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return " " + core.substring(0, end) + (prefix ? "" : " ");
+    }
+
+    private int symbolOf(char c) {
+        if (c == ' ') {
+            return SEP;
+        }
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return SEP;
+        }
+        int index = Arrays.binarySearch(extraChars, c);
+        return index >= 0 ? extraSymbols[index] : OTHER;
+    }
+
+    private int[] newNode() {
+        int[] node = new int[symbolCount];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            merged[inherited.length + i] = own.get(i);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,188 @@
+package com.edusprint.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Distribution of percentage scores (0-100, two decimals) as counts per 0.01 step.
+ * Scores are bounded and stored at that precision, so the counts are an exact quantile sketch:
+ * values can be added, removed (a regrade replaces a score) and merged by adding counts, and
+ * every statistic is read off the 10,001 counters in constant time.
+ * Persisted sparsely as varint (gap, count) pairs over the non-empty counters.
+ */
+public final class ScoreDistribution {
+
+    static final int BUCKETS = 10_001;
+
+    private final int[] counts = new int[BUCKETS];
+    private long total;
+
+    public void add(BigDecimal percent) {
+        int bucket = bucketOf(percent);
+        counts[bucket]++;
+        total++;
+    }
+
+    /**
+     * Remove one occurrence of a score previously added; unknown scores are ignored
+     */
+    public void remove(BigDecimal percent) {
+        int bucket = bucketOf(percent);
+        if (counts[bucket] > 0) {
+            counts[bucket]--;
+            total--;
+        }
+    }
+
+    public void merge(ScoreDistribution other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public BigDecimal mean() {
+        if (total == 0) {
+            return null;
+        }
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            sum += (long) counts[i] * i;
+        }
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(total * 100), 2, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal standardDeviation() {
+        if (total == 0) {
+            return null;
+        }
+        double mean = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            mean += (double) counts[i] * i;
+        }
+        mean /= total;
+        double squares = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                double diff = i - mean;
+                squares += counts[i] * diff * diff;
+            }
+        }
+        return BigDecimal.valueOf(Math.sqrt(squares / total) / 100.0).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal min() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                return valueOf(i);
+            }
+        }
+        return null;
+    }
+
+    public BigDecimal max() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return valueOf(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nearest-rank quantile, q in [0, 1]
+     */
+    public BigDecimal quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Counts in equal-width bins over 0-100; 100 itself falls in the last bin
+     */
+    public long[] histogram(int bins) {
+        long[] histogram = new long[bins];
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                int bin = Math.min(bins - 1, (int) ((long) i * bins / (BUCKETS - 1)));
+                histogram[bin] += counts[i];
+            }
+        }
+        return histogram;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int previous = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                writeVarint(out, i - previous);
+                writeVarint(out, counts[i]);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static ScoreDistribution decode(byte[] data) {
+        ScoreDistribution distribution = new ScoreDistribution();
+        if (data == null) {
+            return distribution;
+        }
+        int[] position = {0};
+        int bucket = -1;
+        while (position[0] < data.length) {
+            bucket += readVarint(data, position);
+            int count = readVarint(data, position);
+            if (bucket >= 0 && bucket < BUCKETS) {
+                distribution.counts[bucket] += count;
+                distribution.total += count;
+            }
+        }
+        return distribution;
+    }
+
+    private static int bucketOf(BigDecimal percent) {
+        int bucket = percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue();
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    private static BigDecimal valueOf(int bucket) {
+        return BigDecimal.valueOf(bucket, 2);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && position[0] < data.length);
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package com.edusprint.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Forward-only tabular output: rows are written once, in order, and never held in memory.
+ * Cells are Strings, Numbers or null (empty).
+ */
+interface SheetWriter extends Closeable {
+
+    void row(Object... cells) throws IOException;
+
+    /**
+     * Finish the document and flush; the underlying stream is left open
+     */
+    @Override
+    void close() throws IOException;
+}
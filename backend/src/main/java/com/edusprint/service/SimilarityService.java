@@ -0,0 +1,167 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.SimilarityPairDTO;
+import com.edusprint.entity.Task;
+import com.edusprint.event.SubmissionReceivedEvent;
+import com.edusprint.repository.SimilarityRepository;
+import com.edusprint.repository.SimilarityRepository.Candidate;
+import com.edusprint.repository.SimilarityRepository.Pair;
+import com.edusprint.repository.SimilarityRepository.Submission;
+import com.edusprint.repository.TaskRepository;
+import com.edusprint.security.SubjectAccessIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Near-duplicate submission detection.
+ * Each submission gets a MinHash signature whose LSH band buckets are stored per subject, so a new
+ * submission only compares against assignments that share a bucket with it (same subject, any task
+ * or term) instead of against every other submission. Pairs above the threshold are flagged as the
+ * submission arrives, which keeps the report a plain indexed read.
+ */
+@Slf4j
+@Service
+public class SimilarityService {
+
+    private static final int MAX_REPORT_SIZE = 1000;
+
+    private final SimilarityRepository similarityRepository;
+    private final TaskRepository taskRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final MinHasher minHasher;
+    private final int minShingles;
+    private final double threshold;
+    private final int maxCandidates;
+
+    public SimilarityService(
+            SimilarityRepository similarityRepository,
+            TaskRepository taskRepository,
+            SubjectAccessIndex subjectAccessIndex,
+            MinHasher minHasher,
+            @Value("${similarity.min-shingles:10}") int minShingles,
+            @Value("${similarity.threshold:0.5}") double threshold,
+            @Value("${similarity.max-candidates:200}") int maxCandidates
+    ) {
+        this.similarityRepository = similarityRepository;
+        this.taskRepository = taskRepository;
+        this.subjectAccessIndex = subjectAccessIndex;
+        this.minHasher = minHasher;
+        this.minShingles = minShingles;
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Index a submission once it is committed; failures never affect the submission itself
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSubmission(SubmissionReceivedEvent event) {
+        try {
+            index(event.assignmentId());
+        } catch (RuntimeException e) {
+            log.error("Failed to index submission: {} for similarity", event.assignmentId(), e);
+        }
+    }
+
+    /**
+     * Re-index every submission of a task (e.g. after changing similarity settings)
+     *
+     * @return number of submissions indexed
+     */
+    @Transactional
+    public int reindexTask(UUID taskId, UUID facultyId) {
+        verifyTaskOwner(taskId, facultyId);
+        List<UUID> assignmentIds = similarityRepository.findSubmittedAssignmentIds(taskId);
+        for (UUID assignmentId : assignmentIds) {
+            index(assignmentId);
+        }
+        log.info("Re-indexed {} submissions of task: {} for similarity", assignmentIds.size(), taskId);
+        return assignmentIds.size();
+    }
+
+    public List<SimilarityPairDTO> getTaskReport(UUID taskId, UUID facultyId, Double minSimilarity, Integer limit) {
+        verifyTaskOwner(taskId, facultyId);
+        return similarityRepository.findPairsByTask(taskId, minScore(minSimilarity), reportLimit(limit));
+    }
+
+    public List<SimilarityPairDTO> getSubjectReport(UUID subjectId, UUID facultyId, Double minSimilarity, Integer limit) {
+        if (!subjectAccessIndex.isFaculty(subjectId, facultyId)) {
+            throw new AccessDeniedException("Faculty can only view similarity reports for their subjects");
+        }
+        return similarityRepository.findPairsBySubject(subjectId, minScore(minSimilarity), reportLimit(limit));
+    }
+
+    private void index(UUID assignmentId) {
+        similarityRepository.delete(assignmentId);
+        Submission submission = similarityRepository.findSubmission(assignmentId);
+        if (submission == null) {
+            return;
+        }
+        MinHasher.Signature signature = minHasher.sign(submission.content());
+        // Very short answers are trivially similar to each other; don't flag them
+        if (signature == null || signature.shingleCount() < minShingles) {
+            return;
+        }
+
+        long[] buckets = minHasher.bandHashes(signature.values());
+        List<Candidate> candidates = similarityRepository.findCandidates(
+                submission.subjectId(), assignmentId, buckets, maxCandidates);
+        similarityRepository.save(submission, MinHasher.encode(signature.values()), signature.shingleCount(), buckets);
+
+        List<Pair> pairs = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.studentId().equals(submission.studentId())) {
+                continue;
+            }
+            double estimate = MinHasher.estimate(signature.values(), MinHasher.decode(candidate.signature()));
+            if (estimate >= threshold) {
+                pairs.add(pair(submission, candidate, estimate));
+            }
+        }
+        similarityRepository.savePairs(pairs);
+        if (!pairs.isEmpty()) {
+            log.info("Submission: {} flagged as similar to {} other submissions", assignmentId, pairs.size());
+        }
+    }
+
+    /**
+     * Pairs are stored once, with the lower UUID (in database order) as assignment A
+     */
+    private static Pair pair(Submission submission, Candidate candidate, double estimate) {
+        BigDecimal similarity = BigDecimal.valueOf(estimate).setScale(4, RoundingMode.HALF_UP);
+        if (submission.assignmentId().toString().compareTo(candidate.assignmentId().toString()) < 0) {
+            return new Pair(submission.assignmentId(), candidate.assignmentId(), submission.subjectId(),
+                    submission.taskId(), candidate.taskId(), submission.studentId(), candidate.studentId(), similarity);
+        }
+        return new Pair(candidate.assignmentId(), submission.assignmentId(), submission.subjectId(),
+                candidate.taskId(), submission.taskId(), candidate.studentId(), submission.studentId(), similarity);
+    }
+
+    private void verifyTaskOwner(UUID taskId, UUID facultyId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!subjectAccessIndex.isFaculty(task.getSubject().getId(), facultyId)) {
+            throw new AccessDeniedException("Faculty can only view similarity reports for their subjects");
+        }
+    }
+
+    private BigDecimal minScore(Double minSimilarity) {
+        return BigDecimal.valueOf(minSimilarity == null ? threshold : minSimilarity);
+    }
+
+    private static int reportLimit(Integer limit) {
+        return limit == null || limit <= 0 ? 100 : Math.min(limit, MAX_REPORT_SIZE);
+    }
+}
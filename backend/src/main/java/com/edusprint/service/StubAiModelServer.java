@@ -0,0 +1,121 @@
+package com.edusprint.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for a grading model, speaking the HttpAiGradingClient protocol on a local port.
+ * Scores by submission length and sleeps a configurable base + per-item latency with jitter,
+ * so throughput, batching and bulkhead behaviour can be exercised offline.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ai-grading.stub.enabled", havingValue = "true")
+public class StubAiModelServer {
+
+    private final ObjectMapper objectMapper;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long baseLatencyMillis;
+    private final long perItemLatencyMillis;
+    private final double failureRate;
+
+    public StubAiModelServer(
+            ObjectMapper objectMapper,
+            @Value("${ai-grading.stub.port:0}") int port,
+            @Value("${ai-grading.stub.threads:8}") int threads,
+            @Value("${ai-grading.stub.base-latency:400}") long baseLatencyMillis,
+            @Value("${ai-grading.stub.per-item-latency:50}") long perItemLatencyMillis,
+            @Value("${ai-grading.stub.failure-rate:0.0}") double failureRate
+    ) throws IOException {
+        this.objectMapper = objectMapper;
+        this.baseLatencyMillis = baseLatencyMillis;
+        this.perItemLatencyMillis = perItemLatencyMillis;
+        this.failureRate = failureRate;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ai-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/v1/grade", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Stub grading model listening on {}", baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            JsonNode items = request.path("items");
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            simulateLatency(items.size());
+
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("model", request.path("model").asText("stub"));
+            ArrayNode results = response.putArray("items");
+            for (JsonNode item : items) {
+                String prompt = item.path("prompt").asText("");
+                double score = Math.min(100.0, 50.0 + prompt.length() / 100.0);
+                results.addObject()
+                        .put("id", item.path("id").asText())
+                        .put("score", Math.round(score * 100.0) / 100.0)
+                        .put("feedback", score >= 80 ? "Thorough answer covering the rubric." : "Answer misses parts of the rubric.")
+                        .put("confidence", 0.75)
+                        .put("tokens", prompt.length() / 4 + 60);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency(int items) {
+        long latency = baseLatencyMillis + perItemLatencyMillis * items;
+        latency = (long) (latency * (0.8 + ThreadLocalRandom.current().nextDouble() * 0.4));
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,170 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.SubjectDTO;
+import com.edusprint.event.EnrollmentChangedEvent;
+import com.edusprint.event.SubjectCatalogChangedEvent;
+import com.edusprint.repository.SubjectCatalogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable in-memory snapshot of the subject catalog, swapped atomically on every rebuild.
+ * A read is one volatile load: no lock, no query, and the JSON body and ETag of the list and of
+ * each subject are serialized once per rebuild rather than once per request.
+ * Every change bumps a change counter. Definition changes (create, update, capacity) rebuild right
+ * after their commit, so the writer reads its own write; enrollment count changes only mark the
+ * snapshot stale and are folded in by the refresher within refresh-interval, so a registration
+ * rush costs one rebuild per interval instead of one per enrollment. The refresher also rebuilds
+ * after max-age, which picks up writes made by other nodes or outside this service.
+ * The version only moves when the serialized catalog actually changes, and the ETag is a digest of
+ * the body, so every node hands out the same ETag for the same catalog.
+ */
+@Slf4j
+@Component
+public class SubjectCatalog {
+
+    private final SubjectCatalogRepository catalogRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeNanos;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong changes = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    private final Counter rebuilds;
+
+    public SubjectCatalog(
+            SubjectCatalogRepository catalogRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${subject-catalog.max-age:300000}") long maxAgeMillis
+    ) {
+        this.catalogRepository = catalogRepository;
+        this.objectMapper = objectMapper;
+        this.maxAgeNanos = maxAgeMillis * 1_000_000L;
+        this.rebuilds = Counter.builder("subject.catalog.rebuilds")
+                .description("Subject catalog snapshots rebuilt from the database")
+                .register(meterRegistry);
+        Gauge.builder("subject.catalog.version", current, ref -> ref.get() == null ? 0 : ref.get().version())
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current snapshot; only the very first call after startup loads synchronously
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (rebuildLock) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(SubjectCatalogChangedEvent event) {
+        changes.incrementAndGet();
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The refresher retries while the snapshot is stale
+            log.warn("Failed to rebuild subject catalog after change to subject: {}", event.subjectId(), e);
+        }
+    }
+
+    /**
+     * Fold in pending changes, or reload once the snapshot is older than max-age
+     */
+    @Scheduled(fixedDelayString = "${subject-catalog.refresh-interval:5000}",
+               initialDelayString = "${subject-catalog.refresh-interval:5000}")
+    public void refreshIfStale() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null || snapshot.generation() < changes.get()
+                || System.nanoTime() - snapshot.loadedAt() > maxAgeNanos) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rebuild from the database and swap the new snapshot in
+     */
+    public Snapshot refresh() {
+        synchronized (rebuildLock) {
+            // Read before loading: a change that lands during the load leaves the snapshot stale
+            long generation = changes.get();
+            List<SubjectDTO> subjects = List.copyOf(catalogRepository.findAll());
+
+            Map<UUID, Item> byId = new HashMap<>(subjects.size() * 2);
+            ByteArrayOutputStream list = new ByteArrayOutputStream();
+            list.write('[');
+            for (SubjectDTO subject : subjects) {
+                byte[] body = serialize(subject);
+                byId.put(subject.getId(), new Item(subject, body, DigestUtils.md5DigestAsHex(body)));
+                if (list.size() > 1) {
+                    list.write(',');
+                }
+                list.writeBytes(body);
+            }
+            list.write(']');
+            byte[] body = list.toByteArray();
+            String etag = DigestUtils.md5DigestAsHex(body);
+
+            Snapshot previous = current.get();
+            long version = previous == null ? 1
+                    : previous.etag().equals(etag) ? previous.version() : previous.version() + 1;
+            Snapshot next = new Snapshot(version, generation, System.nanoTime(), subjects, Map.copyOf(byId), body, etag);
+            current.set(next);
+            rebuilds.increment();
+            if (previous == null || version != previous.version()) {
+                log.info("Subject catalog rebuilt: version {} with {} subjects", version, subjects.size());
+            }
+            return next;
+        }
+    }
+
+    private byte[] serialize(SubjectDTO subject) {
+        try {
+            return objectMapper.writeValueAsBytes(subject);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize subject: " + subject.getId(), e);
+        }
+    }
+
+    /**
+     * One catalog version. Shared by every reader: the lists, DTOs and bodies must not be modified.
+     *
+     * @param generation change counter value the snapshot was built from
+     */
+    public record Snapshot(long version, long generation, long loadedAt, List<SubjectDTO> subjects,
+                           Map<UUID, Item> byId, byte[] body, String etag) {
+
+        public Item get(UUID subjectId) {
+            return byId.get(subjectId);
+        }
+    }
+
+    public record Item(SubjectDTO subject, byte[] body, String etag) {
+    }
+}
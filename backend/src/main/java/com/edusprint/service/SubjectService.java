@@ -1,21 +1,37 @@
 package com.edusprint.service;
 
+import com.edusprint.dto.BulkEnrollmentRequest;
+import com.edusprint.dto.BulkEnrollmentResult;
 import com.edusprint.dto.CreateSubjectRequest;
+import com.edusprint.dto.EnrollmentStatusDTO;
+import com.edusprint.dto.SubjectCapacityDTO;
 import com.edusprint.dto.SubjectDTO;
 import com.edusprint.entity.Subject;
-import com.edusprint.entity.SubjectEnrollment;
 import com.edusprint.entity.User;
+import com.edusprint.event.EnrollmentChangedEvent;
+import com.edusprint.event.SubjectCatalogChangedEvent;
+import com.edusprint.repository.EnrollmentBulkRepository;
 import com.edusprint.repository.SubjectRepository;
+import com.edusprint.repository.SubjectWaitlistRepository;
+import com.edusprint.repository.TaskAssignmentBulkRepository;
 import com.edusprint.repository.SubjectEnrollmentRepository;
 import com.edusprint.repository.UserRepository;
+import com.edusprint.security.SubjectAccessIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,132 +40,413 @@ import java.util.stream.Collectors;
 public class SubjectService {
 
     private final SubjectRepository subjectRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
     private final SubjectEnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
+    private final TaskAssignmentBulkRepository taskAssignmentBulkRepository;
+    private final EnrollmentBulkRepository enrollmentBulkRepository;
+    private final SubjectWaitlistRepository waitlistRepository;
+    private final SubjectWaitlistService subjectWaitlistService;
+    private final SubjectCatalog subjectCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Value("${assignment.auto-assign-on-enroll:false}")
+    private boolean autoAssignOnEnroll;
+
+    @Value("${enrollment.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    @Value("${enrollment.bulk.max-students:5000}")
+    private int bulkMaxStudents;
+
+    /**
+     * Served from the catalog snapshot; the list is shared and must not be modified
+     */
     public List<SubjectDTO> getAllSubjects() {
-        return subjectRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return subjectCatalog.snapshot().subjects();
     }
 
-    public List<SubjectDTO> getSubjectsByFaculty(Long facultyId) {
+    public List<SubjectDTO> getSubjectsByFaculty(UUID facultyId) {
         return subjectRepository.findByFacultyId(facultyId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    public List<SubjectDTO> getSubjectsByStudent(Long studentId) {
+    public List<SubjectDTO> getSubjectsByStudent(UUID studentId) {
         return enrollmentRepository.findByStudentId(studentId).stream()
                 .map(enrollment -> convertToDTO(enrollment.getSubject()))
                 .collect(Collectors.toList());
     }
 
-    public Optional<SubjectDTO> getSubjectById(Long id) {
-        return subjectRepository.findById(id)
-                .map(this::convertToDTO);
+    public Optional<SubjectDTO> getSubjectById(UUID id) {
+        return Optional.ofNullable(subjectCatalog.snapshot().get(id))
+                .map(SubjectCatalog.Item::subject);
     }
 
     @Transactional
-    public SubjectDTO createSubject(CreateSubjectRequest request, Long facultyId) {
+    public SubjectDTO createSubject(CreateSubjectRequest request, UUID facultyId) {
         User faculty = userRepository.findById(facultyId)
                 .orElseThrow(() -> new RuntimeException("Faculty not found"));
 
-        if (!"FACULTY".equals(faculty.getRole())) {
+        if (faculty.getRole() != User.UserRole.faculty) {
             throw new RuntimeException("Only faculty can create subjects");
         }
 
+        if (subjectRepository.existsByCode(request.getCode())) {
+            throw new RuntimeException("Subject code already exists");
+        }
+
         Subject subject = Subject.builder()
                 .name(request.getName())
+                .code(request.getCode())
                 .description(request.getDescription())
-                .facultyId(facultyId)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .faculty(faculty)
                 .build();
 
         Subject savedSubject = subjectRepository.save(subject);
         log.info("Created new subject: {} by faculty: {}", savedSubject.getName(), facultyId);
+        eventPublisher.publishEvent(new SubjectCatalogChangedEvent(savedSubject.getId()));
         
         return convertToDTO(savedSubject);
     }
 
     @Transactional
-    public SubjectDTO updateSubject(Long id, CreateSubjectRequest request, Long facultyId) {
+    public SubjectDTO updateSubject(UUID id, CreateSubjectRequest request, UUID facultyId) {
         Subject subject = subjectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subject not found"));
 
-        if (!subject.getFacultyId().equals(facultyId)) {
+        if (!subject.getFaculty().getId().equals(facultyId)) {
             throw new RuntimeException("Only the subject faculty can update this subject");
         }
 
         subject.setName(request.getName());
         subject.setDescription(request.getDescription());
-        subject.setUpdatedAt(LocalDateTime.now());
 
         Subject updatedSubject = subjectRepository.save(subject);
         log.info("Updated subject: {} by faculty: {}", updatedSubject.getName(), facultyId);
+        eventPublisher.publishEvent(new SubjectCatalogChangedEvent(updatedSubject.getId()));
         
         return convertToDTO(updatedSubject);
     }
 
     @Transactional
-    public void deleteSubject(Long id, Long facultyId) {
+    public void deleteSubject(UUID id, UUID facultyId) {
         Subject subject = subjectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subject not found"));
 
-        if (!subject.getFacultyId().equals(facultyId)) {
+        if (!subject.getFaculty().getId().equals(facultyId)) {
             throw new RuntimeException("Only the subject faculty can delete this subject");
         }
 
         subjectRepository.delete(subject);
         log.info("Deleted subject: {} by faculty: {}", subject.getName(), facultyId);
+        eventPublisher.publishEvent(new SubjectCatalogChangedEvent(subject.getId()));
     }
 
+    /**
+     * Take a seat if one is free, otherwise join the subject's waitlist.
+     * The enrollment row goes in first so duplicates fail without touching the subject; the
+     * conditional seat increment comes last to keep the subject row locked as briefly as possible.
+     * A seat left free behind a waitlist belongs to its head: the student joins the tail instead and
+     * seats are handed out in queue order, so nobody jumps the queue by enrolling directly.
+     */
     @Transactional
-    public void enrollStudent(Long subjectId, Long studentId) {
-        Subject subject = subjectRepository.findById(subjectId)
-                .orElseThrow(() -> new RuntimeException("Subject not found"));
+    public EnrollmentStatusDTO enrollStudent(UUID subjectId, UUID studentId) {
+        if (!subjectRepository.existsById(subjectId)) {
+            throw new RuntimeException("Subject not found");
+        }
 
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
 
-        if (!"STUDENT".equals(student.getRole())) {
+        if (student.getRole() != User.UserRole.student) {
             throw new RuntimeException("Only students can be enrolled in subjects");
         }
 
-        // Check if already enrolled
-        if (enrollmentRepository.findBySubjectIdAndStudentId(subjectId, studentId).isPresent()) {
+        if (!enrollmentBulkRepository.insertEnrollment(subjectId, studentId)) {
             throw new RuntimeException("Student already enrolled in this subject");
         }
 
-        SubjectEnrollment enrollment = SubjectEnrollment.builder()
+        boolean seated = enrollmentBulkRepository.reserveSeats(subjectId, 1);
+        // Read under the subject row lock taken by the reservation, as promotion does
+        if (seated && waitingAhead(subjectId, studentId)) {
+            enrollmentBulkRepository.adjustStudentCount(subjectId, -1);
+            seated = false;
+        }
+        if (!seated) {
+            enrollmentBulkRepository.deleteEnrollment(subjectId, studentId);
+            subjectWaitlistService.join(subjectId, studentId);
+            subjectWaitlistService.promote(subjectId);
+            Integer position = waitlistRepository.findPosition(subjectId, studentId);
+            if (position == null) {
+                log.info("Enrolled student: {} in subject: {} through its waitlist", studentId, subjectId);
+                return enrollmentStatus(subjectId, studentId, "enrolled", null);
+            }
+            log.info("Subject: {} has no seat free for student: {}, waitlisted at position {}", subjectId, studentId, position);
+            return enrollmentStatus(subjectId, studentId, "waitlisted", position);
+        }
+        // The student may have been waiting at the head
+        waitlistRepository.leave(subjectId, studentId);
+        log.info("Enrolled student: {} in subject: {}", studentId, subjectId);
+        eventPublisher.publishEvent(EnrollmentChangedEvent.enrolled(subjectId, studentId));
+
+        if (autoAssignOnEnroll) {
+            int assigned = taskAssignmentBulkRepository.assignSubjectTasksToStudent(subjectId, studentId);
+            log.debug("Auto-assigned {} tasks to student: {}", assigned, studentId);
+        }
+        return enrollmentStatus(subjectId, studentId, "enrolled", null);
+    }
+
+    /**
+     * Give up a seat (promoting the head of the waitlist into it) or a place on the waitlist
+     */
+    @Transactional
+    public void unenrollStudent(UUID subjectId, UUID studentId) {
+        if (enrollmentBulkRepository.deleteEnrollment(subjectId, studentId)) {
+            enrollmentBulkRepository.adjustStudentCount(subjectId, -1);
+            log.info("Unenrolled student: {} from subject: {}", studentId, subjectId);
+            eventPublisher.publishEvent(EnrollmentChangedEvent.unenrolled(subjectId, studentId));
+            subjectWaitlistService.promote(subjectId);
+        } else if (waitlistRepository.leave(subjectId, studentId)) {
+            log.info("Removed student: {} from the waitlist of subject: {}", studentId, subjectId);
+        } else {
+            throw new RuntimeException("Enrollment not found");
+        }
+    }
+
+    /**
+     * Set or clear (null) the seat limit; raising it promotes waitlisted students straight away.
+     * Lowering it below the current count removes no one, it only stops new enrollments.
+     */
+    @Transactional
+    public SubjectCapacityDTO updateCapacity(UUID subjectId, Integer maxStudents, UUID facultyId) {
+        requireOwnedSubject(subjectId, facultyId);
+        if (maxStudents != null && maxStudents < 0) {
+            throw new RuntimeException("Capacity cannot be negative");
+        }
+        enrollmentBulkRepository.setMaxStudents(subjectId, maxStudents);
+        int promoted = subjectWaitlistService.promote(subjectId);
+        eventPublisher.publishEvent(new SubjectCatalogChangedEvent(subjectId));
+        log.info("Set capacity of subject: {} to {} ({} promoted from waitlist)", subjectId, maxStudents, promoted);
+        return SubjectCapacityDTO.builder()
+                .subjectId(subjectId)
+                .maxStudents(maxStudents)
+                .studentCount(enrollmentBulkRepository.findStudentCount(subjectId))
+                .promoted(promoted)
+                .build();
+    }
+
+    private boolean waitingAhead(UUID subjectId, UUID studentId) {
+        return waitlistRepository.findHead(subjectId)
+                .filter(head -> !head.studentId().equals(studentId))
+                .isPresent();
+    }
+
+    private static EnrollmentStatusDTO enrollmentStatus(UUID subjectId, UUID studentId, String status, Integer position) {
+        return EnrollmentStatusDTO.builder()
                 .subjectId(subjectId)
                 .studentId(studentId)
-                .enrolledAt(LocalDateTime.now())
+                .status(status)
+                .waitlistPosition(position)
                 .build();
+    }
 
-        enrollmentRepository.save(enrollment);
-        log.info("Enrolled student: {} in subject: {}", studentId, subjectId);
+    /**
+     * Enroll many students at once: two lookups resolve the whole list, enrollments are inserted
+     * in JDBC batches (existing ones are skipped by the unique key) and student_count moves by
+     * the number of rows actually inserted, all in one transaction. The request fails as a whole
+     * if the subject does not have that many free seats.
+     */
+    @Transactional
+    public BulkEnrollmentResult bulkEnroll(UUID subjectId, BulkEnrollmentRequest request, UUID facultyId) {
+        requireOwnedSubject(subjectId, facultyId);
+        List<BulkEnrollmentResult.Outcome> outcomes = new ArrayList<>();
+        List<Target> targets = resolveTargets(request, outcomes);
+
+        List<UUID> studentIds = targets.stream().map(Target::studentId).collect(Collectors.toList());
+        Boolean[] inserted = studentIds.isEmpty()
+                ? new Boolean[0]
+                : enrollmentBulkRepository.insertEnrollments(subjectId, studentIds, bulkBatchSize);
+        List<UUID> enrolled = new ArrayList<>();
+        boolean exact = true;
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            if (inserted[i] == null) {
+                exact = false;
+            }
+            boolean added = !Boolean.FALSE.equals(inserted[i]);
+            if (added) {
+                enrolled.add(target.studentId());
+            }
+            outcomes.add(outcome(target.given(), target.studentId(), added ? "enrolled" : "already-enrolled", null));
+        }
+        reserveSeats(subjectId, enrolled.size(), exact);
+        waitlistRepository.leaveAll(subjectId, enrolled);
+
+        if (autoAssignOnEnroll && !enrolled.isEmpty()) {
+            int assigned = taskAssignmentBulkRepository.assignSubjectTasksToStudents(subjectId, enrolled);
+            log.debug("Auto-assigned {} tasks to {} students", assigned, enrolled.size());
+        }
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(subjectId, enrolled, List.of()));
+        log.info("Bulk enrolled {} of {} students in subject: {}", enrolled.size(), outcomes.size(), subjectId);
+        return result(subjectId, outcomes, enrolled.size(), targets.size() - enrolled.size());
     }
 
+    /**
+     * Unenroll many students at once, moving student_count by the number of rows actually deleted
+     */
     @Transactional
-    public void unenrollStudent(Long subjectId, Long studentId) {
-        SubjectEnrollment enrollment = enrollmentRepository
-                .findBySubjectIdAndStudentId(subjectId, studentId)
-                .orElseThrow(() -> new RuntimeException("Enrollment not found"));
+    public BulkEnrollmentResult bulkUnenroll(UUID subjectId, BulkEnrollmentRequest request, UUID facultyId) {
+        requireOwnedSubject(subjectId, facultyId);
+        List<BulkEnrollmentResult.Outcome> outcomes = new ArrayList<>();
+        List<Target> targets = resolveTargets(request, outcomes);
+
+        List<UUID> studentIds = targets.stream().map(Target::studentId).collect(Collectors.toList());
+        Boolean[] deleted = studentIds.isEmpty()
+                ? new Boolean[0]
+                : enrollmentBulkRepository.deleteEnrollments(subjectId, studentIds, bulkBatchSize);
+        List<UUID> unenrolled = new ArrayList<>();
+        boolean exact = true;
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            if (deleted[i] == null) {
+                exact = false;
+            }
+            boolean gone = !Boolean.FALSE.equals(deleted[i]);
+            if (gone) {
+                unenrolled.add(target.studentId());
+            }
+            outcomes.add(outcome(target.given(), target.studentId(), gone ? "unenrolled" : "not-enrolled", null));
+        }
+        int removed = unenrolled.size();
+        updateStudentCount(subjectId, -removed, exact);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(subjectId, List.of(), unenrolled));
+        int promoted = subjectWaitlistService.promote(subjectId);
+
+        log.info("Bulk unenrolled {} of {} students from subject: {} ({} promoted from waitlist)",
+                 removed, outcomes.size(), subjectId, promoted);
+        return result(subjectId, outcomes, removed, targets.size() - removed);
+    }
+
+    private void requireOwnedSubject(UUID subjectId, UUID facultyId) {
+        if (!subjectAccessIndex.isFaculty(subjectId, facultyId)) {
+            throw new RuntimeException("Faculty can only manage enrollment for their subjects");
+        }
+    }
+
+    /**
+     * Resolve requested IDs and emails to distinct students; unresolvable entries get their outcome here
+     */
+    private List<Target> resolveTargets(BulkEnrollmentRequest request, List<BulkEnrollmentResult.Outcome> outcomes) {
+        List<UUID> ids = request.getStudentIds() == null ? List.of() : request.getStudentIds();
+        List<String> emails = request.getEmails() == null ? List.of() : request.getEmails();
+        if (ids.size() + emails.size() > bulkMaxStudents) {
+            throw new RuntimeException("At most " + bulkMaxStudents + " students per request");
+        }
+
+        Set<String> normalizedEmails = new HashSet<>();
+        for (String email : emails) {
+            if (email != null) {
+                normalizedEmails.add(User.normalizeEmail(email));
+            }
+        }
+        Map<UUID, EnrollmentBulkRepository.StudentRef> byId = new HashMap<>();
+        Map<String, EnrollmentBulkRepository.StudentRef> byEmail = new HashMap<>();
+        for (EnrollmentBulkRepository.StudentRef user : enrollmentBulkRepository.findUsers(new HashSet<>(ids), normalizedEmails)) {
+            byId.put(user.id(), user);
+            byEmail.put(user.email(), user);
+        }
+
+        List<Target> targets = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (UUID id : ids) {
+            addTarget(id == null ? null : String.valueOf(id), id == null ? null : byId.get(id), seen, targets, outcomes);
+        }
+        for (String email : emails) {
+            String normalized = User.normalizeEmail(email);
+            addTarget(email, normalized == null ? null : byEmail.get(normalized), seen, targets, outcomes);
+        }
+        return targets;
+    }
+
+    private static void addTarget(String given, EnrollmentBulkRepository.StudentRef user, Set<UUID> seen,
+                                  List<Target> targets, List<BulkEnrollmentResult.Outcome> outcomes) {
+        if (user == null) {
+            outcomes.add(outcome(given, null, "not-found", "No user with this ID or email"));
+        } else if (!User.UserRole.student.name().equals(user.role())) {
+            outcomes.add(outcome(given, user.id(), "not-student", "Only students can be enrolled in subjects"));
+        } else if (!seen.add(user.id())) {
+            outcomes.add(outcome(given, user.id(), "duplicate", "Student listed more than once"));
+        } else {
+            targets.add(new Target(given, user.id()));
+        }
+    }
+
+    /**
+     * Seats for every newly inserted enrollment, or none: a shortfall rolls the whole request back
+     */
+    private void reserveSeats(UUID subjectId, int seats, boolean exact) {
+        if (exact) {
+            if (seats > 0 && !enrollmentBulkRepository.reserveSeats(subjectId, seats)) {
+                throw new RuntimeException("Not enough free seats: " + seats + " requested, "
+                        + enrollmentBulkRepository.findFreeSeats(subjectId) + " available");
+            }
+            return;
+        }
+        enrollmentBulkRepository.recountStudents(subjectId);
+        Integer free = enrollmentBulkRepository.findFreeSeats(subjectId);
+        if (free != null && free < 0) {
+            throw new RuntimeException("Not enough free seats: " + seats + " requested, " + (seats + free) + " available");
+        }
+    }
+
+    /**
+     * One atomic delta update; falls back to a recount when the driver did not report per-row results
+     */
+    private void updateStudentCount(UUID subjectId, int delta, boolean exact) {
+        if (exact) {
+            enrollmentBulkRepository.adjustStudentCount(subjectId, delta);
+        } else {
+            enrollmentBulkRepository.recountStudents(subjectId);
+        }
+    }
+
+    private BulkEnrollmentResult result(UUID subjectId, List<BulkEnrollmentResult.Outcome> outcomes, int changed, int unchanged) {
+        return BulkEnrollmentResult.builder()
+                .subjectId(subjectId)
+                .requested(outcomes.size())
+                .changed(changed)
+                .unchanged(unchanged)
+                .failed(outcomes.size() - changed - unchanged)
+                .studentCount(enrollmentBulkRepository.findStudentCount(subjectId))
+                .outcomes(outcomes)
+                .build();
+    }
+
+    private static BulkEnrollmentResult.Outcome outcome(String student, UUID studentId, String status, String message) {
+        return BulkEnrollmentResult.Outcome.builder()
+                .student(student)
+                .studentId(studentId)
+                .status(status)
+                .message(message)
+                .build();
+    }
 
-        enrollmentRepository.delete(enrollment);
-        log.info("Unenrolled student: {} from subject: {}", studentId, subjectId);
+    private record Target(String given, UUID studentId) {
     }
 
     private SubjectDTO convertToDTO(Subject subject) {
         return SubjectDTO.builder()
                 .id(subject.getId())
                 .name(subject.getName())
+                .code(subject.getCode())
                 .description(subject.getDescription())
-                .facultyId(subject.getFacultyId())
+                .faculty(subject.getFaculty().getId())
+                .facultyName(subject.getFaculty().getName())
+                .students(subject.getStudentCount())
+                .maxStudents(subject.getMaxStudents())
+                .active(subject.getActive())
                 .createdAt(subject.getCreatedAt())
-                .updatedAt(subject.getUpdatedAt())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.edusprint.service;
+
+import com.edusprint.event.EnrollmentChangedEvent;
+import com.edusprint.repository.EnrollmentBulkRepository;
+import com.edusprint.repository.SubjectWaitlistRepository;
+import com.edusprint.repository.TaskAssignmentBulkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Moves waitlisted students into subjects as seats free up, oldest request first.
+ * Promotion runs in the transaction that frees the seat (unenroll, capacity raised). It reserves
+ * the seat before reading the head, and the reservation locks the subject row, so promoters of one
+ * subject are serialized and each waitlist entry is handed exactly one seat.
+ * A student who joins the waitlist while a seat is being freed can miss that promotion; the
+ * periodic sweep promotes into any seat left free behind a non-empty waitlist.
+ */
+@Slf4j
+@Service
+public class SubjectWaitlistService {
+
+    private final EnrollmentBulkRepository enrollmentBulkRepository;
+    private final SubjectWaitlistRepository waitlistRepository;
+    private final TaskAssignmentBulkRepository taskAssignmentBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean autoAssignOnEnroll;
+    private final boolean sweepEnabled;
+    private final Counter promotions;
+
+    public SubjectWaitlistService(
+            EnrollmentBulkRepository enrollmentBulkRepository,
+            SubjectWaitlistRepository waitlistRepository,
+            TaskAssignmentBulkRepository taskAssignmentBulkRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.auto-assign-on-enroll:false}") boolean autoAssignOnEnroll,
+            @Value("${enrollment.waitlist.sweep.enabled:true}") boolean sweepEnabled
+    ) {
+        this.enrollmentBulkRepository = enrollmentBulkRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.taskAssignmentBulkRepository = taskAssignmentBulkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.autoAssignOnEnroll = autoAssignOnEnroll;
+        this.sweepEnabled = sweepEnabled;
+        this.promotions = Counter.builder("enrollment.waitlist.promotions")
+                .description("Waitlisted students enrolled into a freed seat")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a student for a full subject
+     *
+     * @return the student's 1-based place in the queue
+     */
+    @Transactional
+    public Integer join(UUID subjectId, UUID studentId) {
+        waitlistRepository.join(subjectId, studentId);
+        return waitlistRepository.findPosition(subjectId, studentId);
+    }
+
+    /**
+     * Enroll waitlisted students while the subject has free seats
+     *
+     * @return number of students promoted
+     */
+    @Transactional
+    public int promote(UUID subjectId) {
+        if (waitlistRepository.findHead(subjectId).isEmpty()) {
+            return 0;
+        }
+        List<UUID> promoted = new ArrayList<>();
+        while (enrollmentBulkRepository.reserveSeats(subjectId, 1)) {
+            // Re-read under the subject row lock taken by the reservation
+            Optional<SubjectWaitlistRepository.Entry> head = waitlistRepository.findHead(subjectId);
+            if (head.isEmpty()) {
+                enrollmentBulkRepository.adjustStudentCount(subjectId, -1);
+                break;
+            }
+            UUID studentId = head.get().studentId();
+            waitlistRepository.remove(head.get().id());
+            if (!enrollmentBulkRepository.insertEnrollment(subjectId, studentId)) {
+                // Enrolled some other way meanwhile; the seat goes to the next in line
+                enrollmentBulkRepository.adjustStudentCount(subjectId, -1);
+                continue;
+            }
+            if (autoAssignOnEnroll) {
+                taskAssignmentBulkRepository.assignSubjectTasksToStudent(subjectId, studentId);
+            }
+            promoted.add(studentId);
+            log.info("Promoted student: {} from the waitlist of subject: {}", studentId, subjectId);
+        }
+        if (!promoted.isEmpty()) {
+            promotions.increment(promoted.size());
+            eventPublisher.publishEvent(new EnrollmentChangedEvent(subjectId, promoted, List.of()));
+        }
+        return promoted.size();
+    }
+
+    /**
+     * Promote into seats left free behind a non-empty waitlist, one subject per transaction
+     */
+    @Scheduled(fixedDelayString = "${enrollment.waitlist.sweep.interval:60000}",
+               initialDelayString = "${enrollment.waitlist.sweep.initial-delay:60000}")
+    public void sweep() {
+        if (!sweepEnabled) {
+            return;
+        }
+        for (UUID subjectId : waitlistRepository.findPromotableSubjects()) {
+            try {
+                transactionTemplate.execute(status -> promote(subjectId));
+            } catch (RuntimeException e) {
+                log.warn("Failed to promote waitlist of subject: {}", subjectId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.TaskScoreStatsDTO;
+import com.edusprint.entity.Task;
+import com.edusprint.repository.TaskRepository;
+import com.edusprint.repository.TaskScoreStatsRepository;
+import com.edusprint.security.SubjectAccessIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-task score statistics kept as a persisted ScoreDistribution.
+ * GradeAnalyticsService calls apply() in the same transaction that moves a grade's recorded
+ * percentage, so the distribution always holds exactly the percentages in grades.percentage and
+ * reads never touch the grades table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskScoreStatsService {
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.75, 0.90};
+
+    private final TaskScoreStatsRepository statsRepository;
+    private final TaskRepository taskRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+
+    /**
+     * Replace one task score: removed and/or added may be null
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(UUID taskId, BigDecimal removed, BigDecimal added) {
+        ScoreDistribution distribution = ScoreDistribution.decode(statsRepository.lock(taskId));
+        if (removed != null) {
+            distribution.remove(removed);
+        }
+        if (added != null) {
+            distribution.add(added);
+        }
+        statsRepository.save(taskId, distribution.count(), distribution.encode());
+    }
+
+    @Transactional(readOnly = true)
+    public TaskScoreStatsDTO getStats(UUID taskId, UUID facultyId, int bins) {
+        Task task = requireOwnedTask(taskId, facultyId);
+        TaskScoreStatsRepository.Stored stored = statsRepository.find(taskId);
+        ScoreDistribution distribution = ScoreDistribution.decode(stored == null ? null : stored.distribution());
+        return toDTO(task, distribution, bins, stored == null ? null : stored.updatedAt());
+    }
+
+    /**
+     * Rebuild a task's distribution from the recorded grade percentages
+     */
+    @Transactional
+    public TaskScoreStatsDTO rebuild(UUID taskId, UUID facultyId, int bins) {
+        Task task = requireOwnedTask(taskId, facultyId);
+        statsRepository.lock(taskId);
+        ScoreDistribution distribution = new ScoreDistribution();
+        statsRepository.findAppliedPercentages(taskId).forEach(distribution::add);
+        statsRepository.save(taskId, distribution.count(), distribution.encode());
+        log.info("Rebuilt score statistics for task: {} from {} grades", taskId, distribution.count());
+        return toDTO(task, distribution, bins, null);
+    }
+
+    private Task requireOwnedTask(UUID taskId, UUID facultyId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!subjectAccessIndex.isFaculty(task.getSubject().getId(), facultyId)) {
+            throw new AccessDeniedException("Faculty can only view statistics for their subjects");
+        }
+        return task;
+    }
+
+    private static TaskScoreStatsDTO toDTO(Task task, ScoreDistribution distribution, int bins,
+                                           LocalDateTime updatedAt) {
+        int binCount = Math.max(1, Math.min(100, bins));
+        long[] counts = distribution.histogram(binCount);
+        List<TaskScoreStatsDTO.Bin> histogram = new ArrayList<>(binCount);
+        for (int i = 0; i < binCount; i++) {
+            histogram.add(new TaskScoreStatsDTO.Bin(
+                    BigDecimal.valueOf(100L * i).divide(BigDecimal.valueOf(binCount), 2, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(100L * (i + 1)).divide(BigDecimal.valueOf(binCount), 2, RoundingMode.HALF_UP),
+                    counts[i]));
+        }
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            percentiles.put("p" + Math.round(p * 100), distribution.quantile(p));
+        }
+        return TaskScoreStatsDTO.builder()
+                .taskId(task.getId())
+                .maxScore(task.getMaxScore())
+                .count(distribution.count())
+                .mean(distribution.mean())
+                .standardDeviation(distribution.standardDeviation())
+                .min(distribution.min())
+                .max(distribution.max())
+                .median(distribution.quantile(0.5))
+                .percentiles(percentiles)
+                .histogram(histogram)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -1,23 +1,37 @@
 package com.edusprint.service;
 
 import com.edusprint.dto.TaskDTO;
+import com.edusprint.dto.TaskFilter;
+import com.edusprint.dto.TaskPage;
 import com.edusprint.entity.Task;
 import com.edusprint.entity.TaskAssignment;
 import com.edusprint.entity.TaskDefinition;
 import com.edusprint.entity.User;
+import com.edusprint.event.SubmissionReceivedEvent;
+import com.edusprint.repository.SubjectRepository;
 import com.edusprint.repository.TaskRepository;
+import com.edusprint.repository.TaskAssignmentBulkRepository;
 import com.edusprint.repository.TaskAssignmentRepository;
 import com.edusprint.repository.TaskDefinitionRepository;
 import com.edusprint.repository.UserRepository;
-import com.edusprint.repository.SubjectRepository;
+import com.edusprint.security.SubjectAccessIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,111 +40,124 @@ import java.util.stream.Collectors;
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final SubjectRepository subjectRepository;
     private final TaskDefinitionRepository taskDefinitionRepository;
     private final TaskAssignmentRepository taskAssignmentRepository;
     private final UserRepository userRepository;
-    private final SubjectRepository subjectRepository;
+    private final SubjectAccessIndex subjectAccessIndex;
+    private final TaskAssignmentBulkRepository taskAssignmentBulkRepository;
+    private final GradingService gradingService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${grading-queue.grade-on-submit:true}")
+    private boolean gradeOnSubmit;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Keyset-paginated, filtered task listing ordered by (dueDate, id)
+     */
+    public TaskPage getTaskPage(TaskFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterDueDate = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                afterDueDate = LocalDateTime.parse(parts[0]);
+                afterId = UUID.fromString(parts[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
 
-    public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Fetch one extra row to learn whether another page exists
+        List<Task> tasks = taskRepository.findPage(filter, afterDueDate, afterId, pageSize + 1);
+        String next = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            Task last = tasks.get(pageSize - 1);
+            next = encodeCursor(last.getDueDate(), last.getId());
+        }
+
+        return TaskPage.builder()
+                .items(convertToDTOs(tasks, filter.getStudentId()))
+                .next(next)
+                .build();
     }
 
-    public List<TaskDTO> getTasksBySubject(Long subjectId) {
-        return taskRepository.findBySubjectId(subjectId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * One keyset page of a subject's tasks
+     */
+    public TaskPage getTasksBySubject(UUID subjectId, String cursor, Integer limit) {
+        return getTaskPage(TaskFilter.builder().subjectId(subjectId).build(), cursor, limit);
     }
 
-    public List<TaskDTO> getTasksByStudent(Long studentId) {
-        return taskAssignmentRepository.findByStudentId(studentId).stream()
-                .map(assignment -> convertToDTO(assignment.getTask()))
+    public List<TaskDTO> getTasksByStudent(UUID studentId) {
+        List<Task> tasks = taskAssignmentRepository.findWithTaskByStudentId(studentId).stream()
+                .map(TaskAssignment::getTask)
                 .collect(Collectors.toList());
+        return convertToDTOs(tasks, studentId);
     }
 
-    public Optional<TaskDTO> getTaskById(Long id) {
+    public Optional<TaskDTO> getTaskById(UUID id) {
         return taskRepository.findById(id)
                 .map(this::convertToDTO);
     }
 
     @Transactional
-    public TaskDTO createTask(TaskDTO taskDTO, Long facultyId) {
+    public TaskDTO createTask(TaskDTO taskDTO, UUID facultyId) {
         // Verify faculty permissions
-        if (!subjectRepository.existsByIdAndFacultyId(taskDTO.getSubjectId(), facultyId)) {
+        if (!subjectAccessIndex.isFaculty(taskDTO.getSubjectId(), facultyId)) {
             throw new RuntimeException("Faculty can only create tasks for their subjects");
         }
 
         Task task = Task.builder()
-                .subjectId(taskDTO.getSubjectId())
+                .subject(subjectRepository.getReferenceById(taskDTO.getSubjectId()))
                 .title(taskDTO.getTitle())
                 .description(taskDTO.getDescription())
-                .type(taskDTO.getType())
-                .priority(taskDTO.getPriority())
-                .status("CREATED")
                 .dueDate(taskDTO.getDueDate())
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .maxScore(taskDTO.getMaxScore())
                 .build();
+        applyOptionalFields(task, taskDTO);
 
         Task savedTask = taskRepository.save(task);
-
-        // Create task definition if provided
-        if (taskDTO.getDefinitionOfDone() != null) {
-            TaskDefinition definition = TaskDefinition.builder()
-                    .taskId(savedTask.getId())
-                    .definitionOfDone(taskDTO.getDefinitionOfDone())
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            taskDefinitionRepository.save(definition);
-        }
+        saveDefinition(savedTask, taskDTO.getDefinition());
 
         log.info("Created new task: {} for subject: {} by faculty: {}", 
-                 savedTask.getTitle(), savedTask.getSubjectId(), facultyId);
+                 savedTask.getTitle(), taskDTO.getSubjectId(), facultyId);
         
         return convertToDTO(savedTask);
     }
 
     @Transactional
-    public TaskDTO updateTask(Long id, TaskDTO taskDTO, Long facultyId) {
+    public TaskDTO updateTask(UUID id, TaskDTO taskDTO, UUID facultyId) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
         // Verify faculty permissions
-        if (!subjectRepository.existsByIdAndFacultyId(task.getSubjectId(), facultyId)) {
+        if (!subjectAccessIndex.isFaculty(task.getSubject().getId(), facultyId)) {
             throw new RuntimeException("Faculty can only update tasks for their subjects");
         }
 
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
-        task.setType(taskDTO.getType());
-        task.setPriority(taskDTO.getPriority());
-        task.setStatus(taskDTO.getStatus());
         task.setDueDate(taskDTO.getDueDate());
-        task.setUpdatedAt(LocalDateTime.now());
+        if (taskDTO.getMaxScore() != null) {
+            task.setMaxScore(taskDTO.getMaxScore());
+        }
+        if (taskDTO.getStatus() != null) {
+            task.setStatus(taskDTO.getStatus());
+        }
+        applyOptionalFields(task, taskDTO);
 
         Task updatedTask = taskRepository.save(task);
 
-        // Update task definition
-        Optional<TaskDefinition> existingDefinition = taskDefinitionRepository.findByTaskId(id);
-        if (taskDTO.getDefinitionOfDone() != null) {
-            TaskDefinition definition;
-            if (existingDefinition.isPresent()) {
-                definition = existingDefinition.get();
-                definition.setDefinitionOfDone(taskDTO.getDefinitionOfDone());
-                definition.setUpdatedAt(LocalDateTime.now());
-            } else {
-                definition = TaskDefinition.builder()
-                        .taskId(id)
-                        .definitionOfDone(taskDTO.getDefinitionOfDone())
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-            }
-            taskDefinitionRepository.save(definition);
-        } else if (existingDefinition.isPresent()) {
-            taskDefinitionRepository.delete(existingDefinition.get());
+        // Replace the Definition of Done checklist
+        if (taskDTO.getDefinition() != null) {
+            taskDefinitionRepository.deleteByTaskId(id);
+            saveDefinition(updatedTask, taskDTO.getDefinition());
         }
 
         log.info("Updated task: {} by faculty: {}", updatedTask.getTitle(), facultyId);
@@ -139,12 +166,12 @@ public class TaskService {
     }
 
     @Transactional
-    public void deleteTask(Long id, Long facultyId) {
+    public void deleteTask(UUID id, UUID facultyId) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
         // Verify faculty permissions
-        if (!subjectRepository.existsByIdAndFacultyId(task.getSubjectId(), facultyId)) {
+        if (!subjectAccessIndex.isFaculty(task.getSubject().getId(), facultyId)) {
             throw new RuntimeException("Faculty can only delete tasks for their subjects");
         }
 
@@ -153,14 +180,14 @@ public class TaskService {
     }
 
     @Transactional
-    public void assignTaskToStudent(Long taskId, Long studentId) {
+    public void assignTaskToStudent(UUID taskId, UUID studentId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
 
-        if (!"STUDENT".equals(student.getRole())) {
+        if (student.getRole() != User.UserRole.student) {
             throw new RuntimeException("Only students can be assigned tasks");
         }
 
@@ -170,47 +197,140 @@ public class TaskService {
         }
 
         TaskAssignment assignment = TaskAssignment.builder()
-                .taskId(taskId)
-                .studentId(studentId)
-                .status("ASSIGNED")
-                .assignedAt(LocalDateTime.now())
+                .task(task)
+                .student(student)
                 .build();
 
         taskAssignmentRepository.save(assignment);
         log.info("Assigned task: {} to student: {}", taskId, studentId);
     }
 
+    /**
+     * Assign a task to every enrolled student of its subject (or the enrolled subset of studentIds;
+     * an empty list assigns nobody) in a single INSERT ... SELECT. Students already assigned are skipped.
+     *
+     * @return number of assignments created
+     */
     @Transactional
-    public void submitTask(Long taskId, Long studentId, String submissionText) {
+    public int assignTaskToSubject(UUID taskId, List<UUID> studentIds, UUID facultyId) {
+        UUID subjectId = subjectAccessIndex.subjectOfTask(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+
+        // Verify faculty permissions
+        if (!subjectAccessIndex.isFaculty(subjectId, facultyId)) {
+            throw new RuntimeException("Faculty can only assign tasks for their subjects");
+        }
+
+        int created = taskAssignmentBulkRepository.assignToEnrolledStudents(taskId, studentIds);
+        log.info("Assigned task: {} to {} students", taskId, created);
+        return created;
+    }
+
+    @Transactional
+    public void submitTask(UUID taskId, UUID studentId, String submissionText) {
         TaskAssignment assignment = taskAssignmentRepository
                 .findByTaskIdAndStudentId(taskId, studentId)
                 .orElseThrow(() -> new RuntimeException("Task assignment not found"));
 
-        assignment.setStatus("SUBMITTED");
-        assignment.setSubmissionText(submissionText);
+        assignment.setSubmissionContent(submissionText);
         assignment.setSubmittedAt(LocalDateTime.now());
 
         taskAssignmentRepository.save(assignment);
         log.info("Student: {} submitted task: {}", studentId, taskId);
+        eventPublisher.publishEvent(new SubmissionReceivedEvent(assignment.getId(), taskId, studentId));
+
+        // Queued in the same transaction, so the job exists exactly when the submission does
+        if (gradeOnSubmit) {
+            gradingService.enqueueAutoGrade(taskId, studentId);
+        }
+    }
+
+    private static void applyOptionalFields(Task task, TaskDTO taskDTO) {
+        if (taskDTO.getTaskType() != null) {
+            task.setTaskType(taskDTO.getTaskType());
+        }
+        if (taskDTO.getWeight() != null) {
+            task.setWeight(taskDTO.getWeight());
+        }
+        if (taskDTO.getPenalty() != null) {
+            task.setPenaltyPercent(taskDTO.getPenalty());
+        }
+    }
+
+    private void saveDefinition(Task task, List<String> requirements) {
+        if (requirements == null) {
+            return;
+        }
+        List<TaskDefinition> items = new ArrayList<>(requirements.size());
+        for (int i = 0; i < requirements.size(); i++) {
+            items.add(TaskDefinition.builder()
+                    .task(task)
+                    .requirement(requirements.get(i))
+                    .orderIndex(i)
+                    .build());
+        }
+        taskDefinitionRepository.saveAll(items);
+    }
+
+    private static String encodeCursor(LocalDateTime dueDate, UUID id) {
+        String raw = dueDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Convert tasks to DTOs with a fixed number of queries:
+     * all checklist items for the page are loaded with one IN query.
+     */
+    private List<TaskDTO> convertToDTOs(List<Task> tasks, UUID studentId) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> taskIds = tasks.stream()
+                .map(Task::getId)
+                .collect(Collectors.toList());
+        Map<UUID, List<String>> definitionsByTask = new HashMap<>();
+        for (TaskDefinition definition : taskDefinitionRepository.findByTaskIdIn(taskIds)) {
+            definitionsByTask
+                    .computeIfAbsent(definition.getTask().getId(), id -> new ArrayList<>())
+                    .add(definition.getRequirement());
+        }
+        return tasks.stream()
+                .map(task -> convertToDTO(task, definitionsByTask.getOrDefault(task.getId(), List.of()), studentId))
+                .collect(Collectors.toList());
     }
 
     private TaskDTO convertToDTO(Task task) {
-        TaskDTO.TaskDTOBuilder builder = TaskDTO.builder()
+        return convertToDTOs(List.of(task), null).get(0);
+    }
+
+    private TaskDTO convertToDTO(Task task, List<String> definition, UUID studentId) {
+        return TaskDTO.builder()
                 .id(task.getId())
-                .subjectId(task.getSubjectId())
+                .subjectId(task.getSubject().getId())
+                .studentId(studentId)
                 .title(task.getTitle())
                 .description(task.getDescription())
-                .type(task.getType())
-                .priority(task.getPriority())
                 .status(task.getStatus())
+                .taskType(task.getTaskType())
                 .dueDate(task.getDueDate())
+                .weight(task.getWeight())
+                .maxScore(task.getMaxScore())
+                .penalty(task.getPenaltyPercent())
+                .definition(definition)
                 .createdAt(task.getCreatedAt())
-                .updatedAt(task.getUpdatedAt());
-
-        // Add definition of done if exists
-        taskDefinitionRepository.findByTaskId(task.getId())
-                .ifPresent(definition -> builder.definitionOfDone(definition.getDefinitionOfDone()));
-
-        return builder.build();
+                .build();
     }
-}
\ No newline at end of file
+}
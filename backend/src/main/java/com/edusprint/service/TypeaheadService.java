@@ -0,0 +1,207 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.TypeaheadResultDTO;
+import com.edusprint.event.SubjectCatalogChangedEvent;
+import com.edusprint.repository.TypeaheadRepository;
+import com.edusprint.repository.TypeaheadRepository.SubjectRow;
+import com.edusprint.repository.TypeaheadRepository.UserRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead over subject names/codes and user names/emails, served from in-memory PrefixIndexes
+ * instead of LIKE '%x%' scans. Both indexes are loaded on startup and then kept current from
+ * updated_at (re-reading a small overlap, as TokenEpochRegistry does), which also picks up writes
+ * from other nodes and roster imports. Local subject changes, including deletes, which leave no
+ * row behind for the watermark, are applied as soon as they commit; an hourly reload drops subjects
+ * deleted elsewhere.
+ * Inactive users are left out of the index; inactive subjects are indexed but only returned on request.
+ */
+@Slf4j
+@Service
+public class TypeaheadService {
+
+    private static final String ACTIVE = "active";
+    private static final String INACTIVE = "inactive";
+
+    private final TypeaheadRepository typeaheadRepository;
+    private final PrefixIndex subjects;
+    private final PrefixIndex users;
+    private final boolean enabled;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxScan;
+    private final long overlapSeconds;
+    private final Timer subjectSearches;
+    private final Timer userSearches;
+
+    private volatile LocalDateTime watermark;
+
+    public TypeaheadService(
+            TypeaheadRepository typeaheadRepository,
+            MeterRegistry meterRegistry,
+            @Value("${typeahead.enabled:true}") boolean enabled,
+            @Value("${typeahead.default-limit:10}") int defaultLimit,
+            @Value("${typeahead.max-limit:50}") int maxLimit,
+            @Value("${typeahead.max-scan:4096}") int maxScan,
+            @Value("${typeahead.min-delta:4096}") int minDelta,
+            @Value("${typeahead.refresh-overlap:5}") long overlapSeconds
+    ) {
+        this.typeaheadRepository = typeaheadRepository;
+        this.subjects = new PrefixIndex(minDelta);
+        this.users = new PrefixIndex(minDelta);
+        this.enabled = enabled;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxScan = maxScan;
+        this.overlapSeconds = overlapSeconds;
+        this.subjectSearches = searchTimer("subjects", meterRegistry);
+        this.userSearches = searchTimer("users", meterRegistry);
+        Gauge.builder("typeahead.index.size", subjects, PrefixIndex::size).tag("index", "subjects")
+                .register(meterRegistry);
+        Gauge.builder("typeahead.index.size", users, PrefixIndex::size).tag("index", "users")
+                .register(meterRegistry);
+    }
+
+    public List<TypeaheadResultDTO> searchSubjects(String query, Integer limit, boolean includeInactive) {
+        return subjectSearches.record(() -> toResults(
+                subjects.search(query, clamp(limit), maxScan, includeInactive ? null : doc -> ACTIVE.equals(doc.tag)),
+                doc -> "subject"));
+    }
+
+    /**
+     * @param role only users with this role (student, faculty, admin), or any role when null
+     */
+    public List<TypeaheadResultDTO> searchUsers(String query, String role, Integer limit) {
+        String wanted = role == null || role.isBlank() ? null : role.trim().toLowerCase(Locale.ROOT);
+        return userSearches.record(() -> toResults(
+                users.search(query, clamp(limit), maxScan, wanted == null ? null : doc -> wanted.equals(doc.tag)),
+                doc -> doc.tag));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        subjects.load(typeaheadRepository.findAllSubjects().stream().map(TypeaheadService::subjectDoc).toList());
+        users.load(typeaheadRepository.findAllUsers().stream().filter(UserRow::active)
+                .map(TypeaheadService::userDoc).toList());
+        watermark = startedAt;
+        log.info("Loaded typeahead index: {} subjects, {} users", subjects.size(), users.size());
+    }
+
+    /**
+     * Full reload, dropping subjects deleted on other nodes
+     */
+    @Scheduled(fixedDelayString = "${typeahead.reload-interval:3600000}",
+               initialDelayString = "${typeahead.reload-interval:3600000}")
+    public void reload() {
+        load();
+    }
+
+    @Scheduled(fixedDelayString = "${typeahead.refresh-interval:5000}")
+    public void refresh() {
+        LocalDateTime since = watermark;
+        if (!enabled || since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Re-read a small overlap so rows committed just before the last refresh are not missed
+        LocalDateTime from = since.minusSeconds(overlapSeconds);
+        applySubjects(typeaheadRepository.findSubjectsChangedSince(from), Set.of());
+        applyUsers(typeaheadRepository.findUsersChangedSince(from));
+        watermark = startedAt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubjectChanged(SubjectCatalogChangedEvent event) {
+        if (!enabled || watermark == null) {
+            return;
+        }
+        applySubjects(typeaheadRepository.findSubjects(List.of(event.subjectId())), Set.of(event.subjectId()));
+    }
+
+    /**
+     * @param expected ids that were asked for; any not among rows no longer exist
+     */
+    private void applySubjects(List<SubjectRow> rows, Set<UUID> expected) {
+        if (!rows.isEmpty()) {
+            subjects.put(rows.stream().map(TypeaheadService::subjectDoc).toList());
+        }
+        Set<UUID> found = rows.stream().map(SubjectRow::id).collect(Collectors.toSet());
+        List<UUID> deleted = expected.stream().filter(id -> !found.contains(id)).toList();
+        if (!deleted.isEmpty()) {
+            subjects.remove(deleted);
+        }
+    }
+
+    private void applyUsers(List<UserRow> rows) {
+        List<PrefixIndex.Doc> active = new ArrayList<>();
+        List<UUID> inactive = new ArrayList<>();
+        for (UserRow row : rows) {
+            if (row.active()) {
+                active.add(userDoc(row));
+            } else {
+                inactive.add(row.id());
+            }
+        }
+        if (!active.isEmpty()) {
+            users.put(active);
+        }
+        if (!inactive.isEmpty()) {
+            users.remove(inactive);
+        }
+    }
+
+    private int clamp(Integer limit) {
+        return limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+    }
+
+    private static List<TypeaheadResultDTO> toResults(List<PrefixIndex.Doc> docs,
+                                                      Function<PrefixIndex.Doc, String> kind) {
+        return docs.stream()
+                .map(doc -> TypeaheadResultDTO.builder()
+                        .id(doc.id)
+                        .title(doc.title)
+                        .subtitle(doc.subtitle)
+                        .kind(kind.apply(doc))
+                        .build())
+                .toList();
+    }
+
+    private static PrefixIndex.Doc subjectDoc(SubjectRow row) {
+        return new PrefixIndex.Doc(row.id(), row.name(), row.code(), row.active() ? ACTIVE : INACTIVE,
+                row.name(), row.code());
+    }
+
+    private static PrefixIndex.Doc userDoc(UserRow row) {
+        return new PrefixIndex.Doc(row.id(), row.name(), row.email(),
+                row.role() == null ? null : row.role().toLowerCase(Locale.ROOT), row.name(), row.email());
+    }
+
+    private static Timer searchTimer(String index, MeterRegistry meterRegistry) {
+        return Timer.builder("typeahead.search")
+                .tag("index", index)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
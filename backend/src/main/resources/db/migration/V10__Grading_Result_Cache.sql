@@ -0,0 +1,13 @@
+-- EduSprint Grading Memoization - Flyway Migration V10
+-- Description: Optional persistent tier of the auto-grading result cache, keyed by rubric version + submission hash
+
+CREATE TABLE IF NOT EXISTS grading_result_cache (
+    cache_key CHAR(64) PRIMARY KEY,
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    score DECIMAL(5,2) NOT NULL,
+    feedback TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_grading_result_cache_task ON grading_result_cache(task_id);
+CREATE INDEX IF NOT EXISTS idx_grading_result_cache_created ON grading_result_cache(created_at);
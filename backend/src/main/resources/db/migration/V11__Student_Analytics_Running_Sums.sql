@@ -0,0 +1,9 @@
+-- EduSprint Grade Aggregation - Flyway Migration V11
+-- Description: Running sums on student_analytics, maintained incrementally as grades and penalties change.
+-- grades.percentage holds the penalty-adjusted percentage last folded into these sums.
+
+ALTER TABLE student_analytics
+ADD COLUMN IF NOT EXISTS graded_tasks INTEGER DEFAULT 0,
+ADD COLUMN IF NOT EXISTS graded_weight INTEGER DEFAULT 0,
+ADD COLUMN IF NOT EXISTS weighted_percent_sum DECIMAL(14,4) DEFAULT 0,
+ADD COLUMN IF NOT EXISTS percent_sum DECIMAL(12,2) DEFAULT 0;
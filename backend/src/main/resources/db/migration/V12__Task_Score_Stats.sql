@@ -0,0 +1,9 @@
+-- EduSprint Task Score Statistics - Flyway Migration V12
+-- Description: Per-task score distribution (sparse counts per 0.01%), updated with each grade change
+
+CREATE TABLE IF NOT EXISTS task_score_stats (
+    task_id UUID PRIMARY KEY REFERENCES tasks(id) ON DELETE CASCADE,
+    sample_count INTEGER NOT NULL DEFAULT 0,
+    distribution BYTEA,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,32 @@
+-- EduSprint Faculty Review Queue - Flyway Migration V13
+-- Description: Grades awaiting faculty review with a stored priority key, plus per-subject badge counters
+
+CREATE TABLE IF NOT EXISTS review_queue (
+    grade_id UUID PRIMARY KEY REFERENCES grades(id) ON DELETE CASCADE,
+    faculty_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    student_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    submitted_at TIMESTAMP NOT NULL,
+    due_date TIMESTAMP,
+    open_disputes INTEGER NOT NULL DEFAULT 0,
+    priority_key BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Keyset paging: WHERE faculty_id = ? AND (priority_key, grade_id) > (?, ?) ORDER BY priority_key, grade_id
+CREATE INDEX IF NOT EXISTS idx_review_queue_faculty_priority ON review_queue(faculty_id, priority_key, grade_id);
+CREATE INDEX IF NOT EXISTS idx_review_queue_subject_priority ON review_queue(subject_id, priority_key, grade_id);
+
+CREATE TABLE IF NOT EXISTS review_queue_counts (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    faculty_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    open_count INTEGER NOT NULL DEFAULT 0,
+    disputed_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(faculty_id, subject_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_grade_disputes_grade ON grade_disputes(grade_id);
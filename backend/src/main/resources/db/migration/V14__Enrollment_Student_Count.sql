@@ -0,0 +1,5 @@
+-- EduSprint Enrollment Student Count - Flyway Migration V14
+-- Description: Resync subjects.student_count, which is now maintained by atomic deltas on every enrollment write
+
+UPDATE subjects
+SET student_count = (SELECT COUNT(*) FROM subject_enrollments e WHERE e.subject_id = subjects.id);
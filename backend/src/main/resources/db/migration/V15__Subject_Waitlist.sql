@@ -0,0 +1,13 @@
+-- EduSprint Subject Waitlist - Flyway Migration V15
+-- Description: FIFO waitlist for full subjects; the head is promoted whenever a seat frees up
+
+CREATE TABLE IF NOT EXISTS subject_waitlist (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    student_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(subject_id, student_id)
+);
+
+-- Queue order: (requested_at, id) within a subject
+CREATE INDEX IF NOT EXISTS idx_subject_waitlist_order ON subject_waitlist(subject_id, requested_at, id);
@@ -0,0 +1,4 @@
+-- EduSprint Grade View Refresh - Flyway Migration V16
+-- Description: Index for the incremental grade view refresh, which reads grades written since its last run
+
+CREATE INDEX IF NOT EXISTS idx_grades_updated_at ON grades(updated_at);
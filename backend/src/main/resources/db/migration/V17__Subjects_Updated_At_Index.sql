@@ -0,0 +1,4 @@
+-- EduSprint Access Index Refresh - Flyway Migration V17
+-- Description: Index for the incremental access index refresh, which reads subjects updated since its last run
+
+CREATE INDEX IF NOT EXISTS idx_subjects_updated_at ON subjects(updated_at);
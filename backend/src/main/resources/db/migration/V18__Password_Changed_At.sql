@@ -0,0 +1,18 @@
+-- EduSprint Password Rehash - Flyway Migration V18
+-- Description: Bump the token epoch on a real password change only, not when login rehashes
+-- the same password with new encoder settings
+
+ALTER TABLE users
+ADD COLUMN IF NOT EXISTS password_changed_at TIMESTAMP;
+
+CREATE OR REPLACE FUNCTION bump_user_token_epoch()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.password_changed_at IS DISTINCT FROM OLD.password_changed_at
+       OR NEW.role IS DISTINCT FROM OLD.role
+       OR NEW.is_active IS DISTINCT FROM OLD.is_active THEN
+        NEW.token_epoch = OLD.token_epoch + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
@@ -0,0 +1,4 @@
+-- EduSprint Case-Insensitive Email Lookup - Flyway Migration V19
+-- Description: Login, signup and the bulk imports match emails on LOWER(email)
+
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users(LOWER(email));
@@ -0,0 +1,25 @@
+-- EduSprint Token Revocation - Flyway Migration V4
+-- Description: Per-user token epoch used to revoke issued JWTs without a session store
+
+ALTER TABLE users
+ADD COLUMN IF NOT EXISTS token_epoch INTEGER NOT NULL DEFAULT 0;
+
+-- Bump the epoch whenever credentials, role or active flag change,
+-- so tokens issued before the change stop being accepted
+CREATE OR REPLACE FUNCTION bump_user_token_epoch()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.password_hash IS DISTINCT FROM OLD.password_hash
+       OR NEW.role IS DISTINCT FROM OLD.role
+       OR NEW.is_active IS DISTINCT FROM OLD.is_active THEN
+        NEW.token_epoch = OLD.token_epoch + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS bump_users_token_epoch ON users;
+CREATE TRIGGER bump_users_token_epoch BEFORE UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION bump_user_token_epoch();
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
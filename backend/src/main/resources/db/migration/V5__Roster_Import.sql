@@ -0,0 +1,4 @@
+-- EduSprint Roster Import - Flyway Migration V5
+-- Description: Case-insensitive email lookup used by bulk roster import
+
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (LOWER(email));
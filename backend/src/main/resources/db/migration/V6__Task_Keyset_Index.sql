@@ -0,0 +1,5 @@
+-- EduSprint Task Listing - Flyway Migration V6
+-- Description: Composite indexes backing keyset pagination on (due_date, id)
+
+CREATE INDEX IF NOT EXISTS idx_tasks_due_date_id ON tasks(due_date, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_subject_due_date_id ON tasks(subject_id, due_date, id);
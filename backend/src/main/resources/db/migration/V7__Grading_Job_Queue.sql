@@ -0,0 +1,28 @@
+-- EduSprint Grading Queue - Flyway Migration V7
+-- Description: Durable auto-grading job queue claimed by workers on every node with SKIP LOCKED
+
+CREATE TABLE IF NOT EXISTS grading_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    student_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL DEFAULT 'queued'
+        CHECK (status IN ('queued', 'running', 'completed', 'dead')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    max_attempts INTEGER NOT NULL DEFAULT 5,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+-- Claim order: oldest due job first
+CREATE INDEX IF NOT EXISTS idx_grading_jobs_claim ON grading_jobs(available_at) WHERE status = 'queued';
+-- Lease reaper
+CREATE INDEX IF NOT EXISTS idx_grading_jobs_lease ON grading_jobs(lease_expires_at) WHERE status = 'running';
+CREATE INDEX IF NOT EXISTS idx_grading_jobs_task ON grading_jobs(task_id, status);
+
+-- At most one waiting job per submission; a resubmission while a job runs queues a fresh one
+CREATE UNIQUE INDEX IF NOT EXISTS uq_grading_jobs_queued ON grading_jobs(task_id, student_id) WHERE status = 'queued';
@@ -0,0 +1,8 @@
+-- EduSprint Rubric Grading - Flyway Migration V8
+-- Description: Optional keyword rules per checklist item for the rubric auto-grader
+-- Format: comma-separated keyword groups, '|' between synonyms, trailing '*' for prefix match,
+-- optional '^weight' per group, e.g. 'recursion|recursive^2, base case, memoi*'
+-- When NULL the grader derives keywords from the requirement text.
+
+ALTER TABLE task_definitions
+ADD COLUMN IF NOT EXISTS keywords TEXT;
@@ -0,0 +1,42 @@
+-- EduSprint Similarity Detection - Flyway Migration V9
+-- Description: MinHash signatures, LSH band buckets and flagged near-duplicate pairs per submission
+
+CREATE TABLE IF NOT EXISTS submission_signatures (
+    assignment_id UUID PRIMARY KEY REFERENCES task_assignments(id) ON DELETE CASCADE,
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    student_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    signature BYTEA NOT NULL,
+    shingle_count INTEGER NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS submission_lsh_buckets (
+    assignment_id UUID NOT NULL REFERENCES submission_signatures(assignment_id) ON DELETE CASCADE,
+    band SMALLINT NOT NULL,
+    bucket BIGINT NOT NULL,
+    subject_id UUID NOT NULL,
+    PRIMARY KEY (assignment_id, band)
+);
+
+-- Candidate lookup: same subject (any term), same band, same bucket
+CREATE INDEX IF NOT EXISTS idx_lsh_buckets_lookup ON submission_lsh_buckets(subject_id, band, bucket);
+
+CREATE TABLE IF NOT EXISTS submission_similarity (
+    assignment_a UUID NOT NULL REFERENCES task_assignments(id) ON DELETE CASCADE,
+    assignment_b UUID NOT NULL REFERENCES task_assignments(id) ON DELETE CASCADE,
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    task_a UUID NOT NULL,
+    task_b UUID NOT NULL,
+    student_a UUID NOT NULL,
+    student_b UUID NOT NULL,
+    similarity DECIMAL(5,4) NOT NULL,
+    detected_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Pairs are stored once, assignment_a being the lower UUID
+    PRIMARY KEY (assignment_a, assignment_b)
+);
+
+CREATE INDEX IF NOT EXISTS idx_similarity_task_a ON submission_similarity(task_a, similarity DESC);
+CREATE INDEX IF NOT EXISTS idx_similarity_task_b ON submission_similarity(task_b, similarity DESC);
+CREATE INDEX IF NOT EXISTS idx_similarity_subject ON submission_similarity(subject_id, similarity DESC);
+CREATE INDEX IF NOT EXISTS idx_similarity_assignment_b ON submission_similarity(assignment_b);
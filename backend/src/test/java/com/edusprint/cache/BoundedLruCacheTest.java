@@ -0,0 +1,49 @@
+package com.edusprint.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyReadEntryFirst() {
+        BoundedLruCache<Integer, String> cache = new BoundedLruCache<>(3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        cache.get(1);
+
+        cache.put(4, "d");
+
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(1)).isEqualTo("a");
+        assertThat(cache.get(3)).isEqualTo("c");
+        assertThat(cache.get(4)).isEqualTo("d");
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void staysUnderWeightBoundAndSkipsOversizedValues() {
+        BoundedLruCache<Integer, String> cache = new BoundedLruCache<>(1_000, 100, String::length);
+        for (int i = 0; i < 500; i++) {
+            cache.put(i, "x".repeat(10));
+        }
+        cache.put(-1, "x".repeat(5_000));
+
+        assertThat(cache.weight()).isLessThanOrEqualTo(1_000);
+        assertThat(cache.get(-1)).isNull();
+    }
+
+    @Test
+    void removeIfKeepsWeightInStep() {
+        BoundedLruCache<Integer, String> cache = new BoundedLruCache<>(1_000, 1, String::length);
+        cache.put(1, "aa");
+        cache.put(2, "bbb");
+
+        cache.removeIf((key, value) -> key == 1);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,62 @@
+package com.edusprint.repository;
+
+import com.edusprint.entity.Grade;
+import com.edusprint.entity.Subject;
+import com.edusprint.entity.Task;
+import com.edusprint.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class GradeRepositoryTest {
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findChangesSinceReturnsOnlyNewerGradesWithTheirSubject() {
+        User faculty = user("faculty@example.com", User.UserRole.faculty);
+        Subject subject = entityManager.persist(Subject.builder()
+                .name("Algorithms").code("CS201").faculty(faculty).build());
+        Task task = entityManager.persist(Task.builder()
+                .title("Sorting").subject(subject).dueDate(LocalDateTime.now().plusDays(7)).maxScore(100).build());
+        Grade old = entityManager.persist(Grade.builder()
+                .task(task).student(user("old@example.com", User.UserRole.student)).build());
+        Grade recent = entityManager.persist(Grade.builder()
+                .task(task).student(user("recent@example.com", User.UserRole.student)).build());
+        entityManager.flush();
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(1);
+        jdbcTemplate.update("UPDATE grades SET updated_at = ? WHERE id = ?", Timestamp.valueOf(since.minusMinutes(5)), old.getId());
+        jdbcTemplate.update("UPDATE grades SET updated_at = ? WHERE id = ?", Timestamp.valueOf(since.plusSeconds(30)), recent.getId());
+
+        List<GradeRepository.GradeChangeView> changes = gradeRepository.findChangesSince(since);
+
+        assertThat(changes).singleElement().satisfies(change -> {
+            assertThat(change.getTaskId()).isEqualTo(task.getId());
+            assertThat(change.getStudentId()).isEqualTo(recent.getStudent().getId());
+            assertThat(change.getSubjectId()).isEqualTo(subject.getId());
+        });
+    }
+
+    private User user(String email, User.UserRole role) {
+        return entityManager.persist(User.builder().name(email).email(email).passwordHash("x").role(role).build());
+    }
+}
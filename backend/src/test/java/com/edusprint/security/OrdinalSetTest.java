@@ -0,0 +1,94 @@
+package com.edusprint.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrdinalSetTest {
+
+    private static final int CHUNK = 1 << 16;
+
+    @Test
+    void promotesAFullArrayChunkToABitmapAndDemotesItBack() {
+        OrdinalSet set = OrdinalSet.EMPTY;
+        for (int i = 0; i < 4096; i++) {
+            set = set.with(i * 2);
+        }
+        OrdinalSet promoted = set.with(1);
+
+        assertThat(promoted.size()).isEqualTo(4097);
+        assertThat(promoted.contains(1)).isTrue();
+        assertThat(promoted.contains(3)).isFalse();
+        assertThat(IntStream.range(0, 4096).allMatch(i -> promoted.contains(i * 2))).isTrue();
+        assertThat(promoted.with(8190)).isSameAs(promoted);
+        assertThat(set.contains(1)).isFalse();
+
+        OrdinalSet demoted = promoted.without(1);
+        assertThat(demoted.size()).isEqualTo(4096);
+        assertThat(demoted.contains(1)).isFalse();
+        assertThat(IntStream.range(0, 4096).allMatch(i -> demoted.contains(i * 2))).isTrue();
+        assertThat(demoted.without(1)).isSameAs(demoted);
+    }
+
+    @Test
+    void bulkBuildMatchesIncrementalBuildAroundTheThreshold() {
+        int[] values = IntStream.range(0, 5_000).map(i -> i * 3).toArray();
+        OrdinalSet bulk = OrdinalSet.of(values);
+        OrdinalSet incremental = OrdinalSet.EMPTY;
+        for (int value : values) {
+            incremental = incremental.with(value);
+        }
+
+        assertThat(bulk.size()).isEqualTo(incremental.size()).isEqualTo(5_000);
+        for (int i = 0; i < 15_000; i++) {
+            assertThat(bulk.contains(i)).isEqualTo(incremental.contains(i)).isEqualTo(i % 3 == 0);
+        }
+    }
+
+    @Test
+    void withAndWithoutAcrossChunkBoundaries() {
+        OrdinalSet set = OrdinalSet.of(new int[] {0, CHUNK - 1, CHUNK, 2 * CHUNK - 1, 2 * CHUNK, Integer.MAX_VALUE});
+
+        assertThat(set.size()).isEqualTo(6);
+        assertThat(set.contains(CHUNK - 1)).isTrue();
+        assertThat(set.contains(CHUNK)).isTrue();
+        assertThat(set.contains(CHUNK + 1)).isFalse();
+        assertThat(set.contains(Integer.MAX_VALUE)).isTrue();
+
+        // Dropping the only value of a chunk removes the chunk, leaving its neighbours intact
+        OrdinalSet withoutMiddle = set.without(CHUNK).without(2 * CHUNK - 1);
+        assertThat(withoutMiddle.size()).isEqualTo(4);
+        assertThat(withoutMiddle.contains(CHUNK)).isFalse();
+        assertThat(withoutMiddle.contains(CHUNK - 1)).isTrue();
+        assertThat(withoutMiddle.contains(2 * CHUNK)).isTrue();
+
+        OrdinalSet readded = withoutMiddle.with(CHUNK + 5);
+        assertThat(readded.contains(CHUNK + 5)).isTrue();
+        assertThat(readded.contains(CHUNK)).isFalse();
+        assertThat(readded.size()).isEqualTo(5);
+    }
+
+    @Test
+    void containsOnEmptySetAndMissingChunks() {
+        assertThat(OrdinalSet.EMPTY.contains(0)).isFalse();
+        assertThat(OrdinalSet.EMPTY.size()).isZero();
+        assertThat(OrdinalSet.EMPTY.without(7)).isSameAs(OrdinalSet.EMPTY);
+
+        OrdinalSet set = OrdinalSet.of(new int[] {7, 7, 2 * CHUNK + 7});
+        assertThat(set.size()).isEqualTo(2);
+        // Same low 16 bits, but no chunk for the high bits
+        assertThat(set.contains(CHUNK + 7)).isFalse();
+        assertThat(set.without(CHUNK + 7)).isSameAs(set);
+    }
+
+    @Test
+    void rejectsNegativeOrdinals() {
+        assertThatThrownBy(() -> OrdinalSet.of(new int[] {3, -1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrdinalSet.EMPTY.with(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.edusprint.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void throttlesAKeyOnceItsBurstIsSpent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 16);
+
+        assertThat(limiter.tryAcquire("Ada@Example.edu", 0)).isZero();
+        assertThat(limiter.tryAcquire("ada@example.edu", 0)).isZero();
+        assertThat(limiter.tryAcquire("ada@example.edu", 0)).isEqualTo(MINUTE);
+        assertThat(limiter.tryAcquire("ada@example.edu", MINUTE)).isZero();
+    }
+
+    @Test
+    void floodOfNewKeysCannotResetAThrottledKey() {
+        // 2 sets of 4 ways: the flood fills both sets many times over
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 1);
+        limiter.tryAcquire("victim", 0);
+        limiter.tryAcquire("victim", 0);
+
+        int refused = 0;
+        for (int i = 0; i < 100; i++) {
+            refused += limiter.tryAcquire("attacker" + i, 1) > 0 ? 1 : 0;
+        }
+
+        assertThat(refused).isGreaterThanOrEqualTo(100 - 7);
+        assertThat(limiter.tryAcquire("victim", 2)).isPositive();
+    }
+
+    @Test
+    void recyclesABucketOnceItHasRefilled() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 1);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("key" + i, 0);
+        }
+        long idle = 2 * MINUTE;
+
+        assertThat(limiter.tryAcquire("late", idle - 1)).isEqualTo(1);
+        assertThat(limiter.tryAcquire("later", idle)).isZero();
+        assertThat(limiter.evictIdle(idle)).isEqualTo(7);
+    }
+}
@@ -0,0 +1,38 @@
+package com.edusprint.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvLineParserTest {
+
+    @Test
+    void headerIgnoresALeadingByteOrderMark() {
+        Map<String, Integer> columns = CsvLineParser.header("\uFEFFEmail, Task_ID ,score", "empty");
+
+        assertThat(columns).containsEntry("email", 0).containsEntry("task_id", 1).containsEntry("score", 2);
+    }
+
+    @Test
+    void missingHeaderIsRejectedWithTheCallersMessage() {
+        assertThatThrownBy(() -> CsvLineParser.header(null, "Roster is empty"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Roster is empty");
+    }
+
+    @Test
+    void splitsQuotedFieldsAndTrimsValues() {
+        List<String> fields = CsvLineParser.split("\"Lovelace, Ada\", ada@example.edu ,\"says \"\"hi\"\"\",");
+
+        assertThat(CsvLineParser.field(fields, 0)).isEqualTo("Lovelace, Ada");
+        assertThat(CsvLineParser.field(fields, 1)).isEqualTo("ada@example.edu");
+        assertThat(CsvLineParser.field(fields, 2)).isEqualTo("says \"hi\"");
+        assertThat(CsvLineParser.field(fields, 3)).isNull();
+        assertThat(CsvLineParser.field(fields, 4)).isNull();
+        assertThat(CsvLineParser.field(fields, null)).isNull();
+    }
+}
@@ -0,0 +1,32 @@
+package com.edusprint.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FinalGradeTest {
+
+    @Test
+    void ungradedTasksDoNotCount() {
+        // 80% on a weight-10 task, 50% on a weight-30 task, a third task not graded yet
+        BigDecimal weighted = BigDecimal.valueOf(10).multiply(FinalGrade.percentage(new BigDecimal("8"), 10, 0))
+                .add(BigDecimal.valueOf(30).multiply(FinalGrade.percentage(new BigDecimal("50"), 100, 0)));
+
+        assertThat(FinalGrade.of(weighted, 40)).isEqualByComparingTo("57.50");
+    }
+
+    @Test
+    void percentageAppliesPenaltyAndClamps() {
+        assertThat(FinalGrade.percentage(new BigDecimal("90"), 100, 10)).isEqualByComparingTo("81.00");
+        assertThat(FinalGrade.percentage(new BigDecimal("120"), 100, 0)).isEqualByComparingTo("100.00");
+        assertThat(FinalGrade.percentage(new BigDecimal("5"), null, 0)).isEqualByComparingTo("5.00");
+        assertThat(FinalGrade.percentage(null, 100, 0)).isNull();
+    }
+
+    @Test
+    void nothingGradedHasNoGrade() {
+        assertThat(FinalGrade.of(BigDecimal.ZERO, 0)).isNull();
+    }
+}
@@ -0,0 +1,84 @@
+package com.edusprint.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MinHasherTest {
+
+    private static final String ESSAY =
+            "Binary search halves the remaining range on every comparison, so a sorted array of a million "
+            + "entries needs at most twenty probes. The invariant is that the target, if present, always lies "
+            + "between the low and high bounds, and the loop ends once the bounds cross without a match.";
+
+    private final MinHasher hasher = new MinHasher(3, 128, 32);
+
+    @Test
+    void formattingEditsKeepTheSignature() {
+        MinHasher.Signature original = hasher.sign(ESSAY);
+        MinHasher.Signature reformatted = hasher.sign(ESSAY.toUpperCase().replace(",", " ;").replace(" ", "\n  "));
+
+        assertThat(reformatted.values()).isEqualTo(original.values());
+        assertThat(hasher.bandHashes(reformatted.values())).isEqualTo(hasher.bandHashes(original.values()));
+        assertThat(hasher.sign(" .,; ")).isNull();
+    }
+
+    @Test
+    void aBandHashDependsOnlyOnItsOwnRows() {
+        int[] signature = hasher.sign(ESSAY).values();
+        long[] bands = hasher.bandHashes(signature);
+        int[] changed = signature.clone();
+        // 128 hashes in 32 bands: value 9 is the second row of band 2
+        changed[9]++;
+
+        long[] changedBands = hasher.bandHashes(changed);
+
+        assertThat(bands).hasSize(32);
+        for (int band = 0; band < 32; band++) {
+            if (band == 2) {
+                assertThat(changedBands[band]).isNotEqualTo(bands[band]);
+            } else {
+                assertThat(changedBands[band]).isEqualTo(bands[band]);
+            }
+        }
+    }
+
+    @Test
+    void nearDuplicatesShareABandAndUnrelatedTextsDoNot() {
+        int[] original = hasher.sign(ESSAY).values();
+        int[] edited = hasher.sign(ESSAY.replace("twenty probes", "about twenty probes")).values();
+        int[] unrelated = hasher.sign("Photosynthesis turns light, water and carbon dioxide into glucose "
+                + "and oxygen inside the chloroplasts of green plants and algae.").values();
+
+        assertThat(MinHasher.estimate(original, edited)).isGreaterThan(0.7);
+        assertThat(sharedBands(original, edited)).isPositive();
+        assertThat(MinHasher.estimate(original, unrelated)).isLessThan(0.1);
+        assertThat(sharedBands(original, unrelated)).isZero();
+    }
+
+    @Test
+    void signaturesRoundTripThroughBytes() {
+        int[] signature = hasher.sign(ESSAY).values();
+
+        assertThat(MinHasher.decode(MinHasher.encode(signature))).isEqualTo(signature);
+    }
+
+    @Test
+    void rejectsHashesThatDoNotSplitIntoBands() {
+        assertThatThrownBy(() -> new MinHasher(3, 100, 32))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int sharedBands(int[] a, int[] b) {
+        long[] bandsA = hasher.bandHashes(a);
+        long[] bandsB = hasher.bandHashes(b);
+        int shared = 0;
+        for (int i = 0; i < bandsA.length; i++) {
+            if (bandsA[i] == bandsB[i]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+}
@@ -0,0 +1,115 @@
+package com.edusprint.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix search latency at 100k users with recent edits still in the delta segment; the target is
+ * a p0.99 below 1 ms. SampleTime mode reports the percentiles.
+ * Not part of the test run; start it with main() from the IDE, or:
+ * mvn test-compile exec:java -Dexec.mainClass=com.edusprint.service.PrefixIndexBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrefixIndexBenchmark {
+
+    static final int ENTRIES = 100_000;
+    static final int EDITS = 2_000;
+    static final int LIMIT = 10;
+    static final int MAX_SCAN = 4096;
+
+    private static final int QUERIES = 20_000;
+    private static final String[] SYLLABLES = {
+            "an", "ar", "be", "ca", "da", "el", "fa", "ha", "ja", "ka", "la", "ma", "na", "ni", "ol",
+            "pa", "ra", "ri", "sa", "sh", "ta", "th", "va", "ya", "za"};
+
+    private PrefixIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        index = index(random);
+        queries = queries(random, QUERIES);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Doc> search() {
+        String query = queries[next];
+        next = next + 1 == queries.length ? 0 : next + 1;
+        return index.search(query, LIMIT, MAX_SCAN, doc -> true);
+    }
+
+    /**
+     * ENTRIES users in the base segment and EDITS more in the delta, as between merges in production
+     */
+    static PrefixIndex index(Random random) {
+        PrefixIndex index = new PrefixIndex(4096);
+        List<PrefixIndex.Doc> docs = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            docs.add(userDoc(random, i));
+        }
+        index.load(docs);
+        List<PrefixIndex.Doc> edits = new ArrayList<>(EDITS);
+        for (int i = 0; i < EDITS; i++) {
+            edits.add(userDoc(random, ENTRIES + i));
+        }
+        index.put(edits);
+        return index;
+    }
+
+    /**
+     * One- to five-letter name prefixes; a quarter carry a second two-letter word
+     */
+    static String[] queries(Random random, int count) {
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String name = name(random).toLowerCase();
+            String prefix = name.substring(0, 1 + random.nextInt(Math.min(5, name.length())));
+            queries[i] = random.nextInt(4) == 0 ? prefix + " " + name(random).toLowerCase().substring(0, 2) : prefix;
+        }
+        return queries;
+    }
+
+    private static PrefixIndex.Doc userDoc(Random random, int i) {
+        String first = name(random);
+        String last = name(random);
+        String email = first.toLowerCase() + "." + last.toLowerCase() + i + "@example.edu";
+        return new PrefixIndex.Doc(UUID.randomUUID(), first + " " + last, email, "student", first + " " + last, email);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int s = 0; s < syllables; s++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PrefixIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.edusprint.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    /**
+     * Latency at this size is measured by PrefixIndexBenchmark; here only what is returned is checked
+     */
+    @Test
+    void everyResultMatchesEveryQueryWordAt100kEntries() {
+        Random random = new Random(7);
+        PrefixIndex index = PrefixIndexBenchmark.index(random);
+        assertThat(index.size()).isEqualTo(PrefixIndexBenchmark.ENTRIES + PrefixIndexBenchmark.EDITS);
+
+        int nonEmpty = 0;
+        for (String query : PrefixIndexBenchmark.queries(random, 2_000)) {
+            List<PrefixIndex.Doc> results = index.search(query, PrefixIndexBenchmark.LIMIT,
+                    PrefixIndexBenchmark.MAX_SCAN, doc -> true);
+            assertThat(results).hasSizeLessThanOrEqualTo(PrefixIndexBenchmark.LIMIT)
+                    .doesNotHaveDuplicates()
+                    .allSatisfy(doc -> {
+                        for (String token : query.split(" ")) {
+                            assertThat(doc.words).as("words of %s for %s", doc.title, query)
+                                    .anySatisfy(word -> assertThat(word).startsWith(token));
+                        }
+                    });
+            nonEmpty += results.isEmpty() ? 0 : 1;
+        }
+        assertThat(nonEmpty).isGreaterThan(1_000);
+    }
+
+    @Test
+    void ranksWholeFieldMatchesFirst() {
+        PrefixIndex index = new PrefixIndex(16);
+        PrefixIndex.Doc word = new PrefixIndex.Doc(UUID.randomUUID(), "Intro to Data", "CS101", null, "Intro to Data", "CS101");
+        PrefixIndex.Doc whole = new PrefixIndex.Doc(UUID.randomUUID(), "Data Structures", "CS201", null, "Data Structures", "CS201");
+        index.load(List.of(word, whole));
+
+        assertThat(index.search("data", 10, 100, doc -> true)).containsExactly(whole, word);
+    }
+
+    @Test
+    void ranksMultiWordQueriesByWholeFieldPrefix() {
+        PrefixIndex index = new PrefixIndex(16);
+        PrefixIndex.Doc words = new PrefixIndex.Doc(UUID.randomUUID(), "Structured Data", "CS102", null, "Structured Data", "CS102");
+        PrefixIndex.Doc prefix = new PrefixIndex.Doc(UUID.randomUUID(), "Data Structures II", "CS202", null, "Data Structures II", "CS202");
+        PrefixIndex.Doc other = new PrefixIndex.Doc(UUID.randomUUID(), "Data Ethics", "CS301", null, "Data Ethics", "CS301");
+        index.load(List.of(words, prefix, other));
+
+        assertThat(index.search("data str", 1, 100, doc -> true)).containsExactly(prefix);
+        assertThat(index.search("data str", 10, 100, doc -> true)).containsExactly(prefix, words);
+    }
+}
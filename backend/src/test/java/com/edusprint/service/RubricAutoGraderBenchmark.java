@@ -0,0 +1,108 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Task;
+import com.edusprint.entity.TaskDefinition;
+import com.edusprint.repository.TaskDefinitionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-submission cost of rubric scoring on 50 KB submissions, with the rubric already compiled.
+ * Not part of the test run; start it with main() from the IDE, or:
+ * mvn test-compile exec:java -Dexec.mainClass=com.edusprint.service.RubricAutoGraderBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RubricAutoGraderBenchmark {
+
+    private static final int SUBMISSION_CHARS = 50 * 1024;
+    private static final int KEYWORDS_PER_ITEM = 10;
+
+    @Param({"50", "500"})
+    private int keywords;
+
+    private RubricAutoGrader grader;
+    private Task task;
+    private String submission;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        task = Task.builder().id(UUID.randomUUID()).maxScore(100).build();
+
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < keywords * 4; i++) {
+            vocabulary.add(word(random));
+        }
+        List<TaskDefinition> definitions = new ArrayList<>();
+        for (int item = 0; item < keywords / KEYWORDS_PER_ITEM; item++) {
+            StringBuilder rules = new StringBuilder();
+            for (int k = 0; k < KEYWORDS_PER_ITEM; k++) {
+                String keyword = vocabulary.get(item * KEYWORDS_PER_ITEM + k);
+                rules.append(rules.length() == 0 ? "" : ", ").append(k % 3 == 0 ? keyword + "|" + keyword + "s" : keyword);
+            }
+            definitions.add(TaskDefinition.builder()
+                    .id(UUID.randomUUID()).task(task).orderIndex(item)
+                    .requirement("Requirement " + item).keywords(rules.toString()).build());
+        }
+
+        StringBuilder text = new StringBuilder(SUBMISSION_CHARS + 16);
+        while (text.length() < SUBMISSION_CHARS) {
+            // Roughly half the words come from the rubric's vocabulary
+            text.append(random.nextBoolean() ? vocabulary.get(random.nextInt(vocabulary.size())) : word(random));
+            text.append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        submission = text.substring(0, SUBMISSION_CHARS);
+
+        TaskDefinitionRepository repository = mock(TaskDefinitionRepository.class);
+        when(repository.findByTaskIdOrderByOrderIndexAsc(any())).thenReturn(definitions);
+        grader = new RubricAutoGrader(repository, new LengthAutoGrader(), new SimpleMeterRegistry(),
+                16, Long.MAX_VALUE / 2, 0.5);
+        grader.rubricFor(task.getId());
+    }
+
+    @Benchmark
+    public AutoGrader.Result grade() {
+        return grader.grade(task, submission);
+    }
+
+    private static String word(Random random) {
+        int length = 4 + random.nextInt(7);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RubricAutoGraderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.edusprint.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreDistributionTest {
+
+    @Test
+    void encodesGapsAndCountsAsVarints() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        for (int i = 0; i < 200; i++) {
+            distribution.add(new BigDecimal("100"));
+        }
+
+        // gap 10001 = 0x2711 and count 200 = 0xC8, low 7 bits first
+        assertThat(distribution.encode()).containsExactly(0x91, 0x4E, 0xC8, 0x01);
+    }
+
+    @Test
+    void decodeRestoresEveryStatistic() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(new BigDecimal("0"));
+        distribution.add(new BigDecimal("0.01"));
+        for (int i = 0; i < 300; i++) {
+            distribution.add(new BigDecimal("55.55"));
+        }
+        distribution.add(new BigDecimal("99.994"));
+        distribution.add(new BigDecimal("100"));
+
+        byte[] encoded = distribution.encode();
+        ScoreDistribution decoded = ScoreDistribution.decode(encoded);
+
+        assertThat(decoded.count()).isEqualTo(304);
+        assertThat(decoded.min()).isEqualByComparingTo("0");
+        assertThat(decoded.max()).isEqualByComparingTo("100");
+        assertThat(decoded.quantile(0.5)).isEqualByComparingTo("55.55");
+        assertThat(decoded.quantile(1.0)).isEqualByComparingTo("100");
+        assertThat(decoded.mean()).isEqualTo(distribution.mean());
+        assertThat(decoded.standardDeviation()).isEqualTo(distribution.standardDeviation());
+        assertThat(decoded.histogram(10)).containsExactly(distribution.histogram(10));
+        assertThat(decoded.encode()).isEqualTo(encoded);
+    }
+
+    @Test
+    void emptyDistributionEncodesToNothing() {
+        assertThat(new ScoreDistribution().encode()).isEmpty();
+        assertThat(ScoreDistribution.decode(new byte[0]).count()).isZero();
+        assertThat(ScoreDistribution.decode(null).mean()).isNull();
+    }
+
+    @Test
+    void removingAScoreAfterARoundTripUndoesTheAdd() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(new BigDecimal("70"));
+        distribution.add(new BigDecimal("80"));
+
+        ScoreDistribution decoded = ScoreDistribution.decode(distribution.encode());
+        decoded.remove(new BigDecimal("80"));
+        decoded.remove(new BigDecimal("12.5"));
+
+        assertThat(decoded.count()).isEqualTo(1);
+        assertThat(decoded.max()).isEqualByComparingTo("70");
+    }
+}
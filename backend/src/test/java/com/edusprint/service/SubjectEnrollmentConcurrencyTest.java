@@ -0,0 +1,154 @@
+package com.edusprint.service;
+
+import com.edusprint.dto.EnrollmentStatusDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seat reservation under contention, against PostgreSQL with the Flyway schema.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class SubjectEnrollmentConcurrencyTest {
+
+    private static final int ENROLLERS = 1_000;
+    private static final int SEATS = 50;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("enrollment.waitlist.sweep.enabled", () -> "false");
+    }
+
+    @Autowired
+    private SubjectService subjectService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentEnrollersNeverOversubscribeASubject() throws Exception {
+        UUID subjectId = subject(SEATS);
+        List<UUID> students = students(ENROLLERS);
+
+        // One thread per enroller, all released together; they then queue for the 20 pooled connections
+        ExecutorService pool = Executors.newFixedThreadPool(ENROLLERS);
+        CountDownLatch ready = new CountDownLatch(ENROLLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<EnrollmentStatusDTO>> results = new ArrayList<>(ENROLLERS);
+        for (UUID studentId : students) {
+            results.add(pool.submit(() -> {
+                ready.countDown();
+                start.await();
+                return subjectService.enrollStudent(subjectId, studentId);
+            }));
+        }
+        assertThat(ready.await(1, TimeUnit.MINUTES)).isTrue();
+        long started = System.nanoTime();
+        start.countDown();
+        int enrolled = 0;
+        int waitlisted = 0;
+        for (Future<EnrollmentStatusDTO> result : results) {
+            String status = result.get(2, TimeUnit.MINUTES).getStatus();
+            if ("enrolled".equals(status)) {
+                enrolled++;
+            } else if ("waitlisted".equals(status)) {
+                waitlisted++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        pool.shutdown();
+        log.info("{} concurrent enrollers for {} seats finished in {} ms ({} enrollments/s)",
+                 ENROLLERS, SEATS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                 Math.round(ENROLLERS * 1e9 / elapsedNanos));
+
+        assertThat(enrolled).isEqualTo(SEATS);
+        assertThat(waitlisted).isEqualTo(ENROLLERS - SEATS);
+        assertThat(count("SELECT COUNT(*) FROM subject_enrollments WHERE subject_id = ?", subjectId)).isEqualTo(SEATS);
+        assertThat(count("SELECT student_count FROM subjects WHERE id = ?", subjectId)).isEqualTo(SEATS);
+        assertThat(count("SELECT COUNT(*) FROM subject_waitlist WHERE subject_id = ?", subjectId))
+                .isEqualTo(ENROLLERS - SEATS);
+    }
+
+    @Test
+    void aFreeSeatBehindTheWaitlistGoesToItsHead() {
+        UUID subjectId = subject(1);
+        List<UUID> students = students(3);
+        assertThat(subjectService.enrollStudent(subjectId, students.get(0)).getStatus()).isEqualTo("enrolled");
+        assertThat(subjectService.enrollStudent(subjectId, students.get(1)).getStatus()).isEqualTo("waitlisted");
+
+        // A seat freed without promotion, as when a join races an unenroll
+        jdbcTemplate.update("DELETE FROM subject_enrollments WHERE subject_id = ? AND student_id = ?",
+                subjectId, students.get(0));
+        jdbcTemplate.update("UPDATE subjects SET student_count = 0 WHERE id = ?", subjectId);
+
+        EnrollmentStatusDTO latecomer = subjectService.enrollStudent(subjectId, students.get(2));
+
+        assertThat(latecomer.getStatus()).isEqualTo("waitlisted");
+        assertThat(latecomer.getWaitlistPosition()).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM subject_enrollments WHERE subject_id = ? AND student_id = ?",
+                subjectId, students.get(1))).isEqualTo(1);
+        assertThat(count("SELECT student_count FROM subjects WHERE id = ?", subjectId)).isEqualTo(1);
+    }
+
+    private UUID subject(int seats) {
+        UUID facultyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, role) VALUES (?, 'Faculty', ?, 'x', 'faculty')",
+                facultyId, facultyId + "@example.com");
+        UUID subjectId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code, faculty_id, max_students, student_count) " +
+                        "VALUES (?, 'Stress', ?, ?, ?, 0)",
+                subjectId, subjectId.toString().substring(0, 8), facultyId, seats);
+        return subjectId;
+    }
+
+    private List<UUID> students(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, password_hash, role) VALUES (?, 'Student', ?, 'x', 'student')",
+                ids, 500, (ps, id) -> {
+                    ps.setObject(1, id);
+                    ps.setString(2, id + "@example.com");
+                });
+        return ids;
+    }
+
+    private int count(String sql, Object... args) {
+        Integer value = jdbcTemplate.queryForObject(sql, Integer.class, args);
+        return value == null ? 0 : value;
+    }
+}
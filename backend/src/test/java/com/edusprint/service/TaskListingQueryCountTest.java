@@ -0,0 +1,99 @@
+package com.edusprint.service;
+
+import com.edusprint.entity.Subject;
+import com.edusprint.entity.Task;
+import com.edusprint.entity.TaskAssignment;
+import com.edusprint.entity.TaskDefinition;
+import com.edusprint.entity.User;
+import com.edusprint.repository.TaskAssignmentBulkRepository;
+import com.edusprint.security.SubjectAccessIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Task listings must issue a fixed number of statements however many tasks they return:
+ * one for the tasks (assignments with their task fetch-joined) and one IN query for the checklists.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(TaskService.class)
+class TaskListingQueryCountTest {
+
+    private static final int CHECKLIST_ITEMS = 3;
+
+    @MockBean
+    private SubjectAccessIndex subjectAccessIndex;
+
+    @MockBean
+    private TaskAssignmentBulkRepository taskAssignmentBulkRepository;
+
+    @MockBean
+    private GradingService gradingService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void listingsUseTwoStatementsRegardlessOfSize(int taskCount) {
+        User faculty = user("faculty-" + taskCount + "@example.com", User.UserRole.faculty);
+        User student = user("student-" + taskCount + "@example.com", User.UserRole.student);
+        Subject subject = entityManager.persist(Subject.builder()
+                .name("Subject " + taskCount).code("S" + taskCount).faculty(faculty).build());
+        for (int i = 0; i < taskCount; i++) {
+            Task task = entityManager.persist(Task.builder()
+                    .title("Task " + i).subject(subject).dueDate(LocalDateTime.now().plusDays(i + 1)).maxScore(100).build());
+            for (int j = 0; j < CHECKLIST_ITEMS; j++) {
+                entityManager.persist(TaskDefinition.builder()
+                        .task(task).requirement("Requirement " + j).orderIndex(j).build());
+            }
+            entityManager.persist(TaskAssignment.builder().task(task).student(student).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        assertThat(taskService.getTasksBySubject(subject.getId(), null, null).getItems())
+                .hasSize(taskCount)
+                .allSatisfy(task -> assertThat(task.getDefinition()).hasSize(CHECKLIST_ITEMS));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        entityManager.clear();
+        statistics.clear();
+        assertThat(taskService.getTasksByStudent(student.getId()))
+                .hasSize(taskCount)
+                .allSatisfy(task -> assertThat(task.getDefinition()).hasSize(CHECKLIST_ITEMS));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private User user(String email, User.UserRole role) {
+        return entityManager.persist(User.builder().name(email).email(email).passwordHash("x").role(role).build());
+    }
+}
@@ -226,12 +226,19 @@ export interface CreateTaskRequest {
   penaltyPercent?: number;
 }
 
+export interface TaskPage {
+  items: Task[];
+  next?: string | null; // cursor for the following page; null on the last page
+}
+
 export const tasksAPI = {
   /**
-   * Get all tasks
+   * Get one page of tasks (pass the previous page's `next` as cursor)
    */
-  getAll: async (): Promise<Task[]> => {
-    const response = await api.get<Task[]>('/tasks');
+  getAll: async (cursor?: string): Promise<TaskPage> => {
+    const response = await api.get<TaskPage>('/tasks', {
+      params: cursor ? { cursor } : undefined,
+    });
     return response.data;
   },
 